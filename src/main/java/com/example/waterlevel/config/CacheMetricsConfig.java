@@ -0,0 +1,59 @@
+package com.example.waterlevel.config;
+
+import com.example.waterlevel.constants.CacheRegions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hit-ratio gauges for the Hibernate second-level cache.
+ *
+ * <p>Raw hit/miss counters are published by Spring Boot's Hibernate metrics binding ({@code
+ * hibernate.second.level.cache.requests}, {@code hibernate.cache.natural.id.requests}, {@code
+ * hibernate.cache.query.requests}). This adds a ready-made ratio per region so dashboards do not
+ * need to derive it.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+  private static final String HIT_RATIO_METRIC = "hibernate.cache.hit.ratio";
+
+  @Bean
+  public MeterBinder hibernateCacheHitRatioMetrics(
+      final EntityManagerFactory entityManagerFactory) {
+    final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    return registry -> {
+      for (String region : CacheRegions.DOMAIN_REGIONS) {
+        Gauge.builder(HIT_RATIO_METRIC, statistics, stats -> regionHitRatio(stats, region))
+            .tag("region", region)
+            .description("Second-level cache hit ratio for the region")
+            .register(registry);
+      }
+      Gauge.builder(
+              HIT_RATIO_METRIC,
+              statistics,
+              stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+          .tag("region", CacheRegions.QUERY_RESULTS)
+          .description("Query cache hit ratio")
+          .register(registry);
+    };
+  }
+
+  private static double regionHitRatio(final Statistics statistics, final String region) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    if (regionStatistics == null) {
+      return 0.0;
+    }
+    return ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+  }
+
+  private static double ratio(final long hits, final long misses) {
+    long total = hits + misses;
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.waterlevel.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as rollup sealing.
+ *
+ * <p>Disabled with {@code scheduling.enabled=false} (as in tests), in which case jobs only run when
+ * invoked directly.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {}
@@ -50,4 +50,7 @@ public final class ApplicationConstants {
 
   /** Error message for device not found. */
   public static final String DEVICE_NOT_FOUND_MESSAGE = "Device not found";
+
+  /** Error message for device group not found. */
+  public static final String GROUP_NOT_FOUND_MESSAGE = "Device group not found";
 }
@@ -0,0 +1,35 @@
+package com.example.waterlevel.constants;
+
+/**
+ * Constants for Hibernate second-level cache region names.
+ *
+ * <p>Region names must match the cache definitions in {@code application.conf}, which configures
+ * the Caffeine JCache provider backing the second-level cache.
+ */
+public final class CacheRegions {
+
+  private CacheRegions() {
+    // Utility class - prevent instantiation
+  }
+
+  /** Entity region for {@code Device}. */
+  public static final String DEVICES = "devices";
+
+  /** Natural-id region mapping device keys to device IDs. */
+  public static final String DEVICES_BY_KEY = "devices-by-key";
+
+  /** Entity region for {@code User}. */
+  public static final String USERS = "users";
+
+  /** Natural-id region mapping usernames to user IDs. */
+  public static final String USERS_BY_USERNAME = "users-by-username";
+
+  /** Hibernate's default region for cached query results. */
+  public static final String QUERY_RESULTS = "default-query-results-region";
+
+  /** Hibernate's default region for table update timestamps (query cache invalidation). */
+  public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+  /** Entity and natural-id regions reported by the cache hit-ratio metrics. */
+  public static final String[] DOMAIN_REGIONS = {DEVICES, DEVICES_BY_KEY, USERS, USERS_BY_USERNAME};
+}
@@ -0,0 +1,75 @@
+package com.example.waterlevel.constants;
+
+import java.time.LocalDateTime;
+
+/**
+ * Constants for historical water level data queries.
+ *
+ * <p>Centralizes row caps and JDBC tuning for range scans to avoid magic numbers.
+ */
+public final class HistoryQueryConstants {
+
+  private HistoryQueryConstants() {
+    // Utility class - prevent instantiation
+  }
+
+  /** JDBC fetch size for streamed range scans (string form for query hints). */
+  public static final String STREAM_FETCH_SIZE = "500";
+
+  /** Default maximum number of rows returned by a single range query. */
+  public static final int DEFAULT_RANGE_MAX_ROWS = 100000;
+
+  /** Response header carrying the row cap applied to a range query. */
+  public static final String ROW_LIMIT_HEADER = "X-Row-Limit";
+
+  /** Response header describing the storage tiers an aggregated query was answered from. */
+  public static final String QUERY_PLAN_HEADER = "X-Query-Plan";
+
+  /** Maximum number of points the chart endpoint may return. */
+  public static final int MAX_CHART_POINTS = 5000;
+
+  /** JDBC fetch size for the forward-only cursor used by exports. */
+  public static final int EXPORT_FETCH_SIZE = 1000;
+
+  /** Buffer size in characters for export writers. */
+  public static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+  /** Start of the export range when no {@code from} is given. */
+  public static final LocalDateTime EXPORT_DEFAULT_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  /** Maximum number of days a pump runtime query may cover. */
+  public static final int MAX_RUNTIME_DAYS = 366;
+
+  /** Number of days covered by a pump runtime query when no {@code from} is given. */
+  public static final int DEFAULT_RUNTIME_DAYS = 7;
+
+  /** Maximum number of devices in one multi-device series query. */
+  public static final int MAX_SERIES_DEVICES = 50;
+
+  /** Maximum number of days a daily summary query may cover. */
+  public static final int MAX_SUMMARY_DAYS = 366;
+
+  /** Maximum number of buckets an aggregated query may return. */
+  public static final int MAX_AGGREGATE_BUCKETS = 5000;
+
+  /** Maximum number of days a heatmap query may cover. */
+  public static final int MAX_HEATMAP_DAYS = 3 * 366;
+
+  /** Number of days covered by a heatmap query when no {@code from} is given (52 whole weeks). */
+  public static final int DEFAULT_HEATMAP_DAYS = 52 * 7;
+
+  /** Maximum playback speed, as a multiple of real time. */
+  public static final int MAX_PLAYBACK_SPEED = 1000;
+
+  /** Number of readings a playback session reads per short read-only transaction. */
+  public static final int PLAYBACK_BATCH_SIZE = 500;
+
+  /** Minutes a finished playback session stays available for status queries. */
+  public static final int PLAYBACK_RETENTION_MINUTES = 60;
+
+  /** Seconds shutdown waits for stopped playback sessions before interrupting them. */
+  public static final int PLAYBACK_SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+  /** Default maximum number of closed buckets kept by the aggregated query result cache. */
+  public static final int DEFAULT_BUCKET_CACHE_MAX_ENTRIES = 100000;
+}
@@ -19,4 +19,10 @@ public final class MessageTypes {
 
   /** Message type for threshold update confirmations. */
   public static final String THRESHOLD_UPDATED = "threshold_updated";
+
+  /** Message type for readings replayed by a playback session. */
+  public static final String PLAYBACK_UPDATE = "playback_update";
+
+  /** Message type sent once a playback session has ended. */
+  public static final String PLAYBACK_END = "playback_end";
 }
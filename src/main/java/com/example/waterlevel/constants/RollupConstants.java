@@ -0,0 +1,21 @@
+package com.example.waterlevel.constants;
+
+/** Constants for precomputed rollups of closed time buckets. */
+public final class RollupConstants {
+
+  private RollupConstants() {
+    // Utility class - prevent instantiation
+  }
+
+  /** Watermark name of the hourly rollup job. */
+  public static final String HOURLY_ROLLUP_JOB = "hourly-rollup";
+
+  /** Maximum number of hours sealed in one transaction, bounding memory while catching up. */
+  public static final int MAX_HOURS_PER_SEAL = 24;
+
+  /** Watermark name of the daily summary job. */
+  public static final String DAILY_SUMMARY_JOB = "daily-summary";
+
+  /** Number of devices summarized per chunk (one transaction and one aggregate query each). */
+  public static final int DAILY_SUMMARY_CHUNK_SIZE = 200;
+}
@@ -0,0 +1,58 @@
+package com.example.waterlevel.constants;
+
+/**
+ * Constants for the raw reading store.
+ *
+ * <p>Centralizes engine selection and batch sizing for {@code TimeSeriesStore} implementations.
+ */
+public final class StoreConstants {
+
+  private StoreConstants() {
+    // Utility class - prevent instantiation
+  }
+
+  /** Property selecting the {@code TimeSeriesStore} implementation. */
+  public static final String STORE_TYPE_PROPERTY = "water-level-data.store.type";
+
+  /** Store type backed by the JPA repository (default). */
+  public static final String STORE_TYPE_JPA = "jpa";
+
+  /** Store type backed by plain JDBC batch statements. */
+  public static final String STORE_TYPE_JDBC = "jdbc";
+
+  /** Store type backed by embedded per-device log files. */
+  public static final String STORE_TYPE_FILE = "file";
+
+  /** Store type backed by embedded memory-mapped per-device column files. */
+  public static final String STORE_TYPE_COLUMNAR = "columnar";
+
+  /** Directory of the embedded stores when none is configured. */
+  public static final String DEFAULT_STORE_DIRECTORY = "data/timeseries";
+
+  /** Maximum number of rows sent to the database in one JDBC batch. */
+  public static final int JDBC_BATCH_SIZE = 500;
+
+  /** Bytes of CSV collected before they are written to a PostgreSQL {@code COPY}. */
+  public static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+  /** Scale at which water levels are stored (matches the {@code water_level} column). */
+  public static final int LEVEL_SCALE = 2;
+
+  /** Sorted rows between two entries of the columnar sparse time index. */
+  public static final int COLUMNAR_INDEX_STRIDE = 256;
+
+  /** Rows by which columnar files grow, and to which compacted files are rounded up. */
+  public static final int COLUMNAR_GROWTH_ROWS = 4096;
+
+  /** Out-of-order rows a device accumulates before the compaction job rewrites it. */
+  public static final int COLUMNAR_COMPACTION_MIN_TAIL_ROWS = 1024;
+
+  /** Readings deleted per transaction when the history of a deleted device is purged. */
+  public static final int DEFAULT_PURGE_BATCH_SIZE = 5000;
+
+  /** Bytes of a CSV import read and parsed as one chunk; lines may not be longer. */
+  public static final int DEFAULT_IMPORT_CHUNK_BYTES = 4 * 1024 * 1024;
+
+  /** Rejected lines listed in an import report; further rejections are only counted. */
+  public static final int IMPORT_MAX_REPORTED_REJECTIONS = 100;
+}
@@ -13,4 +13,16 @@ public final class ThreadPoolConstants {
 
   /** Default MQTT retry scheduler thread pool size. */
   public static final int DEFAULT_MQTT_SCHEDULER_POOL_SIZE = 2;
+
+  /** Default number of concurrent per-device scans for multi-device series queries. */
+  public static final int DEFAULT_SERIES_QUERY_POOL_SIZE = 4;
+
+  /** Default number of device chunks summarized concurrently by the daily summary job. */
+  public static final int DEFAULT_DAILY_SUMMARY_POOL_SIZE = 4;
+
+  /** Default number of CSV import chunks parsed concurrently. */
+  public static final int DEFAULT_IMPORT_POOL_SIZE = 4;
+
+  /** Default number of historical playback sessions that may run at the same time. */
+  public static final int DEFAULT_PLAYBACK_MAX_SESSIONS = 4;
 }
@@ -15,6 +15,9 @@ public final class WebSocketDestinations {
   /** Base path for device-specific WebSocket topics. */
   public static final String DEVICE_TOPIC_PREFIX = "/topic/device/";
 
+  /** Path segment between the device topic and the ID of a playback session. */
+  public static final String PLAYBACK_TOPIC_SEGMENT = "/playback/";
+
   /**
    * Builds a WebSocket destination for a specific device.
    *
@@ -24,4 +27,15 @@ public final class WebSocketDestinations {
   public static String deviceTopic(final Long deviceId) {
     return DEVICE_TOPIC_PREFIX + deviceId;
   }
+
+  /**
+   * Builds the WebSocket destination of a playback session, kept apart from the live device topic.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @return the WebSocket destination path
+   */
+  public static String devicePlaybackTopic(final Long deviceId, final String sessionId) {
+    return deviceTopic(deviceId) + PLAYBACK_TOPIC_SEGMENT + sessionId;
+  }
 }
@@ -1,11 +1,17 @@
 package com.example.waterlevel.controller;
 
+import com.example.waterlevel.dto.DevicePurgeResponse;
 import com.example.waterlevel.dto.DeviceRegisterRequest;
 import com.example.waterlevel.dto.DeviceResponse;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.ResourceVersion;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.User;
 import com.example.waterlevel.service.AuditService;
+import com.example.waterlevel.service.DevicePurgeService;
 import com.example.waterlevel.service.DeviceService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.service.ResourceVersionService;
 import com.example.waterlevel.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +21,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -31,6 +40,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /** Controller for device management endpoints. */
 @RestController
@@ -43,14 +53,23 @@ public class DeviceController {
   private final DeviceService deviceService;
   private final UserService userService;
   private final AuditService auditService;
+  private final ResourceVersionService resourceVersionService;
+  private final LatestReadingService latestReadingService;
+  private final DevicePurgeService devicePurgeService;
 
   public DeviceController(
       final DeviceService deviceService,
       final UserService userService,
-      final AuditService auditService) {
+      final AuditService auditService,
+      final ResourceVersionService resourceVersionService,
+      final LatestReadingService latestReadingService,
+      final DevicePurgeService devicePurgeService) {
     this.deviceService = deviceService;
     this.userService = userService;
     this.auditService = auditService;
+    this.resourceVersionService = resourceVersionService;
+    this.latestReadingService = latestReadingService;
+    this.devicePurgeService = devicePurgeService;
   }
 
   /**
@@ -119,10 +138,43 @@ public class DeviceController {
     return ResponseEntity.ok(responses);
   }
 
+  /**
+   * Gets the latest reading of each device owned by the current admin.
+   *
+   * <p>Served entirely from the in-memory latest-state table; no device or reading queries are
+   * run. Devices that have not reported any readings yet are omitted.
+   *
+   * @param deviceIds optional device IDs to restrict the result to
+   * @return the latest readings ordered by device ID
+   */
+  @Operation(
+      summary = "Get latest state of all devices",
+      description =
+          "Returns the latest water level, pump status and timestamp for every device owned by the"
+              + " current admin, optionally restricted to the given device IDs")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Latest states retrieved successfully"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/latest-state")
+  public ResponseEntity<List<LatestReadingResponse>> getLatestState(
+      @Parameter(description = "Device IDs to include (comma-separated); omit for all devices")
+          @RequestParam(required = false)
+          final List<Long> deviceIds) {
+    User admin = userService.getCurrentUser();
+    LOGGER.debug("Get latest state request: adminId={}, deviceIds={}", admin.getId(), deviceIds);
+    return ResponseEntity.ok(latestReadingService.findByAdminId(admin.getId(), deviceIds));
+  }
+
   /**
    * Gets a device by ID.
    *
+   * <p>Supports conditional requests: if the client's ETag or Last-Modified still matches the
+   * in-memory version of the device, 304 is returned without loading the device.
+   *
    * @param id the device ID
+   * @param webRequest the current request, used to evaluate conditional headers
    * @return the device details
    */
   @Operation(
@@ -130,43 +182,83 @@ public class DeviceController {
       description = "Retrieves details for a specific device (available to authenticated users)")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Device details retrieved successfully"),
+    @ApiResponse(responseCode = "304", description = "Device not modified"),
     @ApiResponse(responseCode = "400", description = "Device not found"),
     @ApiResponse(responseCode = "401", description = "Authentication required")
   })
   @GetMapping("/{id}")
   public ResponseEntity<DeviceResponse> getDeviceById(
-      @Parameter(description = "Device ID", example = "1") @PathVariable final Long id) {
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long id,
+      final WebRequest webRequest) {
     LOGGER.debug("Get device requested: deviceId={}", id);
+    Optional<ResourceVersion> known = resourceVersionService.findDeviceVersion(id);
+    if (known.isPresent()
+        && webRequest.checkNotModified(known.get().getEtag(), known.get().getLastModified())) {
+      return null;
+    }
     Device device = deviceService.getDeviceById(id);
-    return ResponseEntity.ok(mapToResponse(device));
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    resourceVersionService
+        .recordDevice(device)
+        .ifPresent(
+            version -> response.eTag(version.getEtag()).lastModified(version.getLastModified()));
+    return response.body(mapToResponse(device));
   }
 
   /**
    * Deletes a device.
    *
+   * <p>The device disappears and its sensor messages are rejected immediately; its history is
+   * purged in the background. Progress is available at the returned Location.
+   *
    * @param id the device ID
-   * @return no content
+   * @return the pending purge
    */
   @Operation(
       summary = "Delete a device",
-      description = "Deletes a device by ID (admin must own the device)")
+      description =
+          "Marks a device as deleted and purges its history in the background (admin must own the"
+              + " device)")
   @ApiResponses({
-    @ApiResponse(responseCode = "204", description = "Device deleted successfully"),
+    @ApiResponse(responseCode = "202", description = "Device deleted, history purge scheduled"),
     @ApiResponse(responseCode = "400", description = "Device not found or access denied")
   })
   @PreAuthorize("hasRole('ADMIN')")
   @DeleteMapping("/{id}")
-  public ResponseEntity<Void> deleteDevice(
+  public ResponseEntity<DevicePurgeResponse> deleteDevice(
       @Parameter(description = "Device ID", example = "1") @PathVariable final Long id) {
     LOGGER.info("Device deletion request: deviceId={}", id);
     User admin = userService.getCurrentUser();
 
     deviceService.validateDeviceOwnership(id, admin.getId());
 
-    deviceService.deleteDevice(id);
+    DevicePurgeResponse purge = deviceService.deleteDevice(id);
     LOGGER.info("Device deleted successfully by admin {}: deviceId={}", admin.getUsername(), id);
     auditService.logDeviceDeletion(admin.getId(), id);
-    return ResponseEntity.noContent().build();
+    return ResponseEntity.accepted().location(URI.create("/devices/" + id + "/purge")).body(purge);
+  }
+
+  /**
+   * Gets the progress of the background purge of a deleted device.
+   *
+   * @param id the device ID
+   * @return the latest purge snapshot
+   */
+  @Operation(
+      summary = "Get device purge progress",
+      description = "Reports how far the background purge of a deleted device has progressed")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Purge progress retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "No purge known for the device")
+  })
+  @PreAuthorize("hasRole('ADMIN')")
+  @GetMapping("/{id}/purge")
+  public ResponseEntity<DevicePurgeResponse> getPurgeProgress(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long id) {
+    return ResponseEntity.ok(
+        devicePurgeService
+            .getProgress(id)
+            .orElseThrow(() -> new IllegalArgumentException("No purge found for device " + id)));
   }
 
   private DeviceResponse mapToResponse(final Device device) {
@@ -176,7 +268,7 @@ public class DeviceController {
     return new DeviceResponse(
         device.getId(),
         device.getName(),
-        device.getDeviceKey(),
+        device.getDeviceKey().toString(),
         device.getMinThreshold(),
         device.getMaxThreshold(),
         device.getAdmin().getId(),
@@ -0,0 +1,165 @@
+package com.example.waterlevel.controller;
+
+import com.example.waterlevel.dto.DeviceGroupRequest;
+import com.example.waterlevel.dto.DeviceGroupResponse;
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.service.DeviceGroupService;
+import com.example.waterlevel.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Controller for sites, regions and their aggregated metrics. */
+@RestController
+@RequestMapping("/device-groups")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Device Groups", description = "Sites, regions and group dashboards")
+public class DeviceGroupController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceGroupController.class);
+
+  private final DeviceGroupService deviceGroupService;
+  private final UserService userService;
+
+  public DeviceGroupController(
+      final DeviceGroupService deviceGroupService, final UserService userService) {
+    this.deviceGroupService = deviceGroupService;
+    this.userService = userService;
+  }
+
+  /**
+   * Creates a site or region.
+   *
+   * @param request the group name, type and optional parent region
+   * @return the created group
+   */
+  @Operation(
+      summary = "Create a device group",
+      description = "Creates a site or region, optionally inside a region owned by the admin")
+  @ApiResponses({
+    @ApiResponse(responseCode = "201", description = "Group created successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid request data or parent group")
+  })
+  @PostMapping
+  public ResponseEntity<DeviceGroupResponse> createGroup(
+      @Valid @RequestBody final DeviceGroupRequest request) {
+    User admin = userService.getCurrentUser();
+    DeviceGroup group = deviceGroupService.createGroup(request, admin.getId());
+    LOGGER.info("Device group created by admin {}: groupId={}", admin.getUsername(), group.getId());
+    return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponse(group));
+  }
+
+  /**
+   * Gets the groups of the current admin.
+   *
+   * @return the groups ordered by name
+   */
+  @Operation(
+      summary = "Get device groups",
+      description = "Lists the sites and regions of the admin")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Groups retrieved successfully"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping
+  public ResponseEntity<List<DeviceGroupResponse>> getGroups() {
+    User admin = userService.getCurrentUser();
+    List<DeviceGroupResponse> groups =
+        deviceGroupService.getGroups(admin.getId()).stream().map(this::mapToResponse).toList();
+    return ResponseEntity.ok(groups);
+  }
+
+  /**
+   * Gets the dashboard metrics of a group.
+   *
+   * @param id the group ID
+   * @return the metrics over the group and all groups below it
+   */
+  @Operation(
+      summary = "Get group metrics",
+      description =
+          "Returns the average level, running pumps and devices in alarm over the latest readings"
+              + " of all devices in the group and its sub-groups, from pre-aggregated totals")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Group not found or access denied")
+  })
+  @GetMapping("/{id}/metrics")
+  public ResponseEntity<GroupMetricsResponse> getMetrics(
+      @Parameter(description = "Group ID", example = "1") @PathVariable final Long id) {
+    User admin = userService.getCurrentUser();
+    return ResponseEntity.ok(deviceGroupService.getMetrics(id, admin.getId()));
+  }
+
+  /**
+   * Moves a device into a group.
+   *
+   * @param id the group ID
+   * @param deviceId the device ID
+   * @return no content
+   */
+  @Operation(
+      summary = "Assign a device to a group",
+      description = "Moves a device into the group, out of any group it was in before")
+  @ApiResponses({
+    @ApiResponse(responseCode = "204", description = "Device assigned"),
+    @ApiResponse(responseCode = "400", description = "Group or device not found or access denied")
+  })
+  @PutMapping("/{id}/devices/{deviceId}")
+  public ResponseEntity<Void> assignDevice(
+      @Parameter(description = "Group ID", example = "1") @PathVariable final Long id,
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId) {
+    User admin = userService.getCurrentUser();
+    deviceGroupService.assignDevice(id, deviceId, admin.getId());
+    return ResponseEntity.noContent().build();
+  }
+
+  /**
+   * Removes a device from a group.
+   *
+   * @param id the group ID
+   * @param deviceId the device ID
+   * @return no content
+   */
+  @Operation(summary = "Remove a device from a group")
+  @ApiResponses({
+    @ApiResponse(responseCode = "204", description = "Device removed from the group"),
+    @ApiResponse(responseCode = "400", description = "Device not in the group or access denied")
+  })
+  @DeleteMapping("/{id}/devices/{deviceId}")
+  public ResponseEntity<Void> unassignDevice(
+      @Parameter(description = "Group ID", example = "1") @PathVariable final Long id,
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId) {
+    User admin = userService.getCurrentUser();
+    deviceGroupService.unassignDevice(id, deviceId, admin.getId());
+    return ResponseEntity.noContent().build();
+  }
+
+  private DeviceGroupResponse mapToResponse(final DeviceGroup group) {
+    return new DeviceGroupResponse(
+        group.getId(),
+        group.getName(),
+        group.getType(),
+        group.getParent() == null ? null : group.getParent().getId(),
+        group.getCreatedAt());
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.waterlevel.controller;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.DeviceSeriesResponse;
+import com.example.waterlevel.service.DeviceSeriesService;
+import com.example.waterlevel.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/** Controller for water level queries spanning several devices. */
+@RestController
+@RequestMapping("/water-level-data")
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Water Level Data", description = "Read-only endpoints for water level data")
+public class DeviceSeriesController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSeriesController.class);
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  private final DeviceSeriesService deviceSeriesService;
+  private final UserService userService;
+  private final ObjectMapper objectMapper;
+
+  @Value(
+      "${water-level-data.range.max-rows:"
+          + HistoryQueryConstants.DEFAULT_RANGE_MAX_ROWS
+          + "}")
+  private int maxRangeRows;
+
+  public DeviceSeriesController(
+      final DeviceSeriesService deviceSeriesService,
+      final UserService userService,
+      final ObjectMapper objectMapper) {
+    this.deviceSeriesService = deviceSeriesService;
+    this.userService = userService;
+    this.objectMapper = objectMapper;
+  }
+
+  @Operation(
+      summary = "Get aligned series for several devices",
+      description =
+          "Streams one NDJSON line per device, in completion order, with bucket-average water"
+              + " levels in [from, to). Bucket start times are shared by all devices, so series"
+              + " can be compared point by point. Device ranges are scanned concurrently; the total"
+              + " number of points is capped by the caller's result limit, or the server row limit"
+              + " if the caller has none.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Series streamed successfully"),
+    @ApiResponse(
+        responseCode = "400",
+        description = "Unknown device, invalid range or interval, or too many points"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/series")
+  public ResponseEntity<StreamingResponseBody> getSeries(
+      @Parameter(description = "Device IDs", example = "1,2,3") @RequestParam
+          final List<Long> deviceIds,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-01T00:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(description = "Bucket width (ISO-8601 duration)", example = "PT5M")
+          @RequestParam(defaultValue = "PT5M")
+          final Duration interval) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LOGGER.debug(
+        "Get device series request: deviceIds={}, from={}, to={}, interval={}",
+        deviceIds,
+        from,
+        end,
+        interval);
+
+    int maxPoints = userService.capResultRows(maxRangeRows);
+    deviceSeriesService.checkSeriesQuery(deviceIds, from, end, interval, maxPoints);
+
+    StreamingResponseBody body =
+        outputStream ->
+            deviceSeriesService.streamAlignedSeries(
+                deviceIds, from, end, interval, series -> writeLine(outputStream, series));
+
+    return ResponseEntity.ok().contentType(NDJSON).body(body);
+  }
+
+  private void writeLine(final OutputStream outputStream, final DeviceSeriesResponse series) {
+    try {
+      outputStream.write(objectMapper.writeValueAsBytes(series));
+      outputStream.write('\n');
+      outputStream.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
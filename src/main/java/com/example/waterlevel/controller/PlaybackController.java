@@ -0,0 +1,153 @@
+package com.example.waterlevel.controller;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.PlaybackSessionResponse;
+import com.example.waterlevel.service.PlaybackService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.net.URI;
+import java.time.LocalDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Controller for replaying past water level data over WebSocket. */
+@RestController
+@RequestMapping("/devices/{deviceId}/water-level-data/playback")
+@PreAuthorize("isAuthenticated()")
+@Tag(name = "Water Level Playback", description = "Replay of past readings over WebSocket")
+public class PlaybackController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PlaybackController.class);
+
+  private final PlaybackService playbackService;
+
+  public PlaybackController(final PlaybackService playbackService) {
+    this.playbackService = playbackService;
+  }
+
+  /**
+   * Starts replaying the readings of a device in a time range.
+   *
+   * <p>Readings are sent to the returned destination as they fall due; progress is available at
+   * the returned Location.
+   *
+   * @param deviceId the device ID
+   * @param from range start, inclusive
+   * @param to range end, exclusive
+   * @param speed playback speed as a multiple of real time
+   * @return the running session
+   */
+  @Operation(
+      summary = "Start a playback session",
+      description =
+          "Replays the readings of a device in [from, to) to"
+              + " /topic/device/{deviceId}/playback/{sessionId}, spaced like the original readings"
+              + " divided by `speed`, followed by a playback_end message. Readings are streamed"
+              + " from the store as they fall due, so the range is not loaded into memory, except"
+              + " on the file engine for a device that received out-of-order readings.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "202", description = "Playback started"),
+    @ApiResponse(
+        responseCode = "400",
+        description =
+            "Invalid device ID, time range or speed, playback too long or too many sessions"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @PostMapping
+  public ResponseEntity<PlaybackSessionResponse> startPlayback(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-01T00:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601)", example = "2025-12-01T06:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(description = "Multiple of real time", example = "10")
+          @RequestParam(defaultValue = "10")
+          @Min(value = 1, message = "Speed must be >= 1")
+          @Max(value = HistoryQueryConstants.MAX_PLAYBACK_SPEED, message = "Speed must be <= 1000")
+          final int speed) {
+    LOGGER.info(
+        "Start playback request: deviceId={}, from={}, to={}, speed={}",
+        deviceId,
+        from,
+        to,
+        speed);
+
+    PlaybackSessionResponse session = playbackService.startPlayback(deviceId, from, to, speed);
+    return ResponseEntity.accepted()
+        .location(
+            URI.create(
+                "/devices/" + deviceId + "/water-level-data/playback/" + session.getSessionId()))
+        .body(session);
+  }
+
+  /**
+   * Gets the progress of a playback session.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @return the latest session snapshot
+   */
+  @Operation(
+      summary = "Get playback progress",
+      description = "Reports the state and number of replayed readings of a playback session")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Playback progress retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Unknown or expired playback session"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/{sessionId}")
+  public ResponseEntity<PlaybackSessionResponse> getPlayback(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Playback session ID") @PathVariable final String sessionId) {
+    return ResponseEntity.ok(
+        playbackService
+            .getSession(deviceId, sessionId)
+            .orElseThrow(() -> new IllegalArgumentException("Playback session not found")));
+  }
+
+  /**
+   * Stops a playback session.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @return the session snapshot at the time of the request
+   */
+  @Operation(
+      summary = "Stop a playback session",
+      description = "Stops a playback session before its next reading; a playback_end follows")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Playback stop requested"),
+    @ApiResponse(responseCode = "400", description = "Unknown or expired playback session"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @DeleteMapping("/{sessionId}")
+  public ResponseEntity<PlaybackSessionResponse> stopPlayback(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Playback session ID") @PathVariable final String sessionId) {
+    LOGGER.info("Stop playback request: deviceId={}, sessionId={}", deviceId, sessionId);
+
+    return ResponseEntity.ok(
+        playbackService
+            .stopPlayback(deviceId, sessionId)
+            .orElseThrow(() -> new IllegalArgumentException("Playback session not found")));
+  }
+}
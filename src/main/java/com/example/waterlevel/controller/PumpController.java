@@ -1,5 +1,6 @@
 package com.example.waterlevel.controller;
 
+import com.example.waterlevel.dto.PumpRuntimeResponse;
 import com.example.waterlevel.dto.PumpStatusResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
@@ -8,6 +9,7 @@ import com.example.waterlevel.entity.WaterLevelData;
 import com.example.waterlevel.service.AuditService;
 import com.example.waterlevel.service.DeviceService;
 import com.example.waterlevel.service.MqttService;
+import com.example.waterlevel.service.PumpRunService;
 import com.example.waterlevel.service.PumpService;
 import com.example.waterlevel.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,15 +17,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /** Controller for pump control endpoints (admin only). */
@@ -38,6 +45,7 @@ public class PumpController {
   private final DeviceService deviceService;
   private final MqttService mqttService;
   private final PumpService pumpService;
+  private final PumpRunService pumpRunService;
   private final UserService userService;
   private final AuditService auditService;
 
@@ -45,11 +53,13 @@ public class PumpController {
       final DeviceService deviceService,
       final MqttService mqttService,
       final PumpService pumpService,
+      final PumpRunService pumpRunService,
       final UserService userService,
       final AuditService auditService) {
     this.deviceService = deviceService;
     this.mqttService = mqttService;
     this.pumpService = pumpService;
+    this.pumpRunService = pumpRunService;
     this.userService = userService;
     this.auditService = auditService;
   }
@@ -75,7 +85,8 @@ public class PumpController {
     User admin = userService.getCurrentUser();
 
     Device device = deviceService.validateDeviceOwnership(deviceId, admin.getId());
-    boolean mqttSuccess = mqttService.publishPumpStartCommand(device.getDeviceKey(), admin.getId());
+    boolean mqttSuccess =
+        mqttService.publishPumpStartCommand(device.getDeviceKey().toString(), admin.getId());
 
     if (!mqttSuccess) {
       LOGGER.error("Failed to publish MQTT pump start command for deviceId: {}", deviceId);
@@ -110,11 +121,49 @@ public class PumpController {
     User admin = userService.getCurrentUser();
 
     Device device = deviceService.validateDeviceOwnership(deviceId, admin.getId());
-    PumpStatus pumpStatus = pumpService.getCurrentPumpStatus(device);
-    LocalDateTime lastUpdate =
-        pumpService.getLatestData(device).map(WaterLevelData::getTimestamp).orElse(null);
+    Optional<WaterLevelData> latestData = pumpService.getLatestData(device);
+    PumpStatus pumpStatus =
+        latestData.map(WaterLevelData::getPumpStatus).orElse(PumpStatus.UNKNOWN);
+    LocalDateTime lastUpdate = latestData.map(WaterLevelData::getTimestamp).orElse(null);
 
     PumpStatusResponse response = new PumpStatusResponse(pumpStatus, lastUpdate);
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Gets daily pump runtime statistics for a device.
+   *
+   * @param deviceId the device ID
+   * @param from first day (inclusive)
+   * @param to last day (inclusive)
+   * @return runtime, cycle count and duty cycle per day
+   */
+  @Operation(
+      summary = "Get pump runtime",
+      description =
+          "Retrieves pump runtime, ON cycle count and duty cycle per day, computed from the pump"
+              + " transition log")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Pump runtime retrieved successfully"),
+    @ApiResponse(
+        responseCode = "400",
+        description = "Invalid date range, device not found or access denied")
+  })
+  @GetMapping("/runtime")
+  public ResponseEntity<List<PumpRuntimeResponse>> getPumpRuntime(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "First day (inclusive, ISO-8601); defaults to six days before 'to'")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate from,
+      @Parameter(description = "Last day (inclusive, ISO-8601); defaults to today")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate to) {
+    LOGGER.debug("Get pump runtime request for deviceId: {} ({} to {})", deviceId, from, to);
+    User admin = userService.getCurrentUser();
+
+    deviceService.validateDeviceOwnership(deviceId, admin.getId());
+    return ResponseEntity.ok(pumpRunService.getDailyRuntime(deviceId, from, to));
+  }
 }
@@ -0,0 +1,77 @@
+package com.example.waterlevel.controller;
+
+import com.example.waterlevel.dto.ReadingImportResponse;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.service.ReadingImportService;
+import com.example.waterlevel.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Controller for importing historical water level data. */
+@RestController
+@RequestMapping("/water-level-data")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Water Level Import", description = "Bulk import of historical water level data")
+public class ReadingImportController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReadingImportController.class);
+
+  private final ReadingImportService readingImportService;
+  private final UserService userService;
+
+  public ReadingImportController(
+      final ReadingImportService readingImportService, final UserService userService) {
+    this.readingImportService = readingImportService;
+    this.userService = userService;
+  }
+
+  /**
+   * Imports a CSV file of historical readings sent as the request body.
+   *
+   * <p>The body is spooled to a temporary file first, so the file can be read in large chunks
+   * however slowly it is uploaded; the file is deleted once the import has finished.
+   *
+   * @param body the CSV request body
+   * @return the import report
+   * @throws IOException if the body cannot be spooled
+   */
+  @Operation(
+      summary = "Import historical readings",
+      description =
+          "Imports a CSV body with one device_key,timestamp,water_level,pump_status reading per"
+              + " line (ISO-8601 timestamps, optional header). Readings of devices owned by the"
+              + " current admin are stored in file order; other lines are rejected and reported.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Import finished; see rejected lines"),
+    @ApiResponse(responseCode = "400", description = "A line exceeds the import chunk size"),
+    @ApiResponse(responseCode = "401", description = "Authentication required"),
+    @ApiResponse(responseCode = "403", description = "Admin role required")
+  })
+  @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+  public ResponseEntity<ReadingImportResponse> importCsv(final InputStream body)
+      throws IOException {
+    User admin = userService.getCurrentUser();
+    Path file = Files.createTempFile("reading-import-", ".csv");
+    try {
+      long bytes = Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+      LOGGER.info("Reading import request by admin {}: {} bytes", admin.getUsername(), bytes);
+      return ResponseEntity.ok(readingImportService.importCsv(file, admin.getId()));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.waterlevel.controller;
 
+import com.example.waterlevel.dto.ResourceVersion;
 import com.example.waterlevel.dto.ThresholdResponse;
 import com.example.waterlevel.dto.ThresholdUpdateRequest;
 import com.example.waterlevel.entity.Device;
@@ -7,6 +8,7 @@ import com.example.waterlevel.entity.User;
 import com.example.waterlevel.service.AuditService;
 import com.example.waterlevel.service.DeviceService;
 import com.example.waterlevel.service.MqttService;
+import com.example.waterlevel.service.ResourceVersionService;
 import com.example.waterlevel.service.UserService;
 import com.example.waterlevel.service.WebSocketService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /** Controller for threshold management endpoints. */
 @RestController
@@ -40,24 +44,31 @@ public class ThresholdController {
   private final UserService userService;
   private final WebSocketService webSocketService;
   private final AuditService auditService;
+  private final ResourceVersionService resourceVersionService;
 
   public ThresholdController(
       final DeviceService deviceService,
       final MqttService mqttService,
       final UserService userService,
       final WebSocketService webSocketService,
-      final AuditService auditService) {
+      final AuditService auditService,
+      final ResourceVersionService resourceVersionService) {
     this.deviceService = deviceService;
     this.mqttService = mqttService;
     this.userService = userService;
     this.webSocketService = webSocketService;
     this.auditService = auditService;
+    this.resourceVersionService = resourceVersionService;
   }
 
   /**
    * Gets current thresholds for a device.
    *
+   * <p>Thresholds share the version of their device; unchanged thresholds are answered with 304
+   * without loading the device.
+   *
    * @param deviceId the device ID
+   * @param webRequest the current request, used to evaluate conditional headers
    * @return the current thresholds
    */
   @Operation(
@@ -66,19 +77,32 @@ public class ThresholdController {
           "Retrieves the current min and max thresholds for a device (available to authenticated users)")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Thresholds retrieved successfully"),
+    @ApiResponse(responseCode = "304", description = "Thresholds not modified"),
     @ApiResponse(responseCode = "400", description = "Device not found"),
     @ApiResponse(responseCode = "401", description = "Authentication required")
   })
   @GetMapping
   public ResponseEntity<ThresholdResponse> getThresholds(
-      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId) {
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      final WebRequest webRequest) {
     LOGGER.debug("Get thresholds request for deviceId: {}", deviceId);
 
+    Optional<ResourceVersion> known = resourceVersionService.findDeviceVersion(deviceId);
+    if (known.isPresent()
+        && webRequest.checkNotModified(known.get().getEtag(), known.get().getLastModified())) {
+      return null;
+    }
+
     Device device = deviceService.getDeviceById(deviceId);
 
     ThresholdResponse response =
         new ThresholdResponse(device.getMinThreshold(), device.getMaxThreshold());
-    return ResponseEntity.ok(response);
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    resourceVersionService
+        .recordDevice(device)
+        .ifPresent(
+            version -> builder.eTag(version.getEtag()).lastModified(version.getLastModified()));
+    return builder.body(response);
   }
 
   /**
@@ -117,7 +141,7 @@ public class ThresholdController {
 
     boolean mqttSuccess =
         mqttService.publishThresholdUpdate(
-            updatedDevice.getDeviceKey(),
+            updatedDevice.getDeviceKey().toString(),
             request.getMinThreshold(),
             request.getMaxThreshold(),
             admin.getId());
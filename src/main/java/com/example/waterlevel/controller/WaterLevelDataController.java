@@ -1,8 +1,23 @@
 package com.example.waterlevel.controller;
 
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.AggregatedSeriesResponse;
+import com.example.waterlevel.dto.ChartResponse;
+import com.example.waterlevel.dto.CursorPageResponse;
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import com.example.waterlevel.dto.ExportFormat;
+import com.example.waterlevel.dto.HeatmapResponse;
+import com.example.waterlevel.dto.HistoryCursor;
+import com.example.waterlevel.dto.ResourceVersion;
 import com.example.waterlevel.dto.WaterLevelDataResponse;
-import com.example.waterlevel.entity.WaterLevelData;
+import com.example.waterlevel.dto.WaterLevelStatisticsResponse;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.UserService;
 import com.example.waterlevel.service.WaterLevelDataService;
+import com.example.waterlevel.service.WaterLevelStatisticsService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,12 +25,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,6 +56,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/devices/{deviceId}/water-level-data")
@@ -33,16 +68,38 @@ public class WaterLevelDataController {
   private static final Logger LOGGER = LoggerFactory.getLogger(WaterLevelDataController.class);
 
   private final WaterLevelDataService waterLevelDataService;
+  private final WaterLevelStatisticsService waterLevelStatisticsService;
+  private final DailySummaryService dailySummaryService;
+  private final UserService userService;
+  private final ObjectMapper objectMapper;
 
-  public WaterLevelDataController(final WaterLevelDataService waterLevelDataService) {
+  @Value(
+      "${water-level-data.range.max-rows:"
+          + HistoryQueryConstants.DEFAULT_RANGE_MAX_ROWS
+          + "}")
+  private int maxRangeRows;
+
+  public WaterLevelDataController(
+      final WaterLevelDataService waterLevelDataService,
+      final WaterLevelStatisticsService waterLevelStatisticsService,
+      final DailySummaryService dailySummaryService,
+      final UserService userService,
+      final ObjectMapper objectMapper) {
     this.waterLevelDataService = waterLevelDataService;
+    this.waterLevelStatisticsService = waterLevelStatisticsService;
+    this.dailySummaryService = dailySummaryService;
+    this.userService = userService;
+    this.objectMapper = objectMapper;
   }
 
   @Operation(
       summary = "Get water level data (paginated)",
-      description = "Retrieves paginated historical water level data for a device (latest first)")
+      description =
+          "Retrieves paginated historical water level data for a device (latest first). Supports"
+              + " If-None-Match; the ETag changes whenever a new reading is stored.")
   @ApiResponses({
     @ApiResponse(responseCode = "200", description = "Water level data retrieved successfully"),
+    @ApiResponse(responseCode = "304", description = "No new readings since the given ETag"),
     @ApiResponse(responseCode = "400", description = "Invalid device ID or pagination parameters"),
     @ApiResponse(responseCode = "401", description = "Authentication required")
   })
@@ -57,24 +114,398 @@ public class WaterLevelDataController {
           @RequestParam(defaultValue = "20")
           @Min(value = 1, message = "Page size must be >= 1")
           @Max(value = 200, message = "Page size must be <= 200")
-          final int size) {
+          final int size,
+      final WebRequest webRequest) {
     LOGGER.debug(
         "Get water level data request: deviceId={}, page={}, size={}", deviceId, page, size);
 
-    Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "timestamp"));
-    Page<WaterLevelData> data =
-        waterLevelDataService.getWaterLevelDataForDevice(deviceId, pageable);
+    ResourceVersion version = waterLevelDataService.getHistoryVersion(deviceId);
+    if (webRequest.checkNotModified(version.getEtag())) {
+      return null;
+    }
 
+    Pageable pageable =
+        PageRequest.of(
+            page, userService.capResultRows(size), Sort.by(Sort.Direction.DESC, "timestamp"));
     Page<WaterLevelDataResponse> response =
-        data.map(
-            row ->
-                new WaterLevelDataResponse(
-                    row.getId(),
-                    row.getDevice() != null ? row.getDevice().getId() : deviceId,
-                    row.getWaterLevel(),
-                    row.getPumpStatus(),
-                    row.getTimestamp()));
-
-    return ResponseEntity.ok(response);
+        waterLevelDataService.getWaterLevelDataForDevice(deviceId, pageable);
+
+    return ResponseEntity.ok().eTag(version.getEtag()).body(response);
+  }
+
+  @Operation(
+      summary = "Get water level data (cursor-based)",
+      description =
+          "Retrieves historical water level data for a device (latest first) using keyset"
+              + " pagination. Pass the returned nextCursor to fetch the following page. Supports"
+              + " If-None-Match; the ETag changes whenever a new reading is stored.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Water level data retrieved successfully"),
+    @ApiResponse(responseCode = "304", description = "No new readings since the given ETag"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID, cursor or page size"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/cursor")
+  public ResponseEntity<CursorPageResponse<WaterLevelDataResponse>> getWaterLevelDataByCursor(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Opaque cursor from a previous response; omit for the first page")
+          @RequestParam(required = false)
+          final String cursor,
+      @Parameter(description = "Page size", example = "20")
+          @RequestParam(defaultValue = "20")
+          @Min(value = 1, message = "Page size must be >= 1")
+          @Max(value = 200, message = "Page size must be <= 200")
+          final int size,
+      final WebRequest webRequest) {
+    LOGGER.debug(
+        "Get water level data by cursor request: deviceId={}, cursor={}, size={}",
+        deviceId,
+        cursor,
+        size);
+
+    HistoryCursor position =
+        cursor == null || cursor.isBlank() ? null : HistoryCursor.decode(cursor);
+
+    ResourceVersion version = waterLevelDataService.getHistoryVersion(deviceId);
+    if (webRequest.checkNotModified(version.getEtag())) {
+      return null;
+    }
+
+    Slice<WaterLevelDataResponse> slice =
+        waterLevelDataService.getWaterLevelDataSlice(
+            deviceId, position, userService.capResultRows(size));
+
+    List<WaterLevelDataResponse> content = slice.getContent();
+    String nextCursor =
+        slice.hasNext() && !content.isEmpty()
+            ? HistoryCursor.after(content.get(content.size() - 1)).encode()
+            : null;
+
+    return ResponseEntity.ok()
+        .eTag(version.getEtag())
+        .body(new CursorPageResponse<>(content, content.size(), nextCursor != null, nextCursor));
+  }
+
+  @Operation(
+      summary = "Get downsampled water level data for charts",
+      description =
+          "Returns at most `points` visually representative readings in [from, to) for a device,"
+              + " computed in a single pass over the range. LTTB keeps one significant point per"
+              + " time bucket; MIN_MAX keeps the lowest and highest reading per bucket.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Chart data retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID, time range or mode"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/chart")
+  public ResponseEntity<ChartResponse> getChartData(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-01T00:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(description = "Maximum number of points", example = "1000")
+          @RequestParam(defaultValue = "1000")
+          @Min(value = 3, message = "Points must be >= 3")
+          @Max(value = HistoryQueryConstants.MAX_CHART_POINTS, message = "Points must be <= 5000")
+          final int points,
+      @Parameter(description = "Downsampling mode", example = "LTTB")
+          @RequestParam(defaultValue = "LTTB")
+          final DownsamplingMode mode) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LOGGER.debug(
+        "Get chart data request: deviceId={}, from={}, to={}, points={}, mode={}",
+        deviceId,
+        from,
+        end,
+        points,
+        mode);
+
+    return ResponseEntity.ok(waterLevelDataService.getChartData(deviceId, from, end, points, mode));
+  }
+
+  @Operation(
+      summary = "Get water level statistics",
+      description =
+          "Returns count, min, max, mean, standard deviation and p5/p50/p95 for readings in [from,"
+              + " to) without returning the readings. Closed hours are answered from precomputed"
+              + " hourly sketches; only the remaining edges are scanned.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Statistics computed successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID or time range"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/statistics")
+  public ResponseEntity<WaterLevelStatisticsResponse> getStatistics(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-01T00:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LOGGER.debug("Get statistics request: deviceId={}, from={}, to={}", deviceId, from, end);
+
+    return ResponseEntity.ok(waterLevelStatisticsService.getStatistics(deviceId, from, end));
+  }
+
+  @Operation(
+      summary = "Get aggregated water level data",
+      description =
+          "Returns count, min, max and average per bucket of the given resolution in [from, to)."
+              + " Each part of the range is read from the coarsest complete storage tier (daily"
+              + " summaries, hourly rollups or raw readings); the plan is returned in the body and"
+              + " in the X-Query-Plan header.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Aggregates computed successfully"),
+    @ApiResponse(
+        responseCode = "400",
+        description =
+            "Invalid device ID, time range or resolution, or too many buckets or raw readings"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/aggregate")
+  public ResponseEntity<AggregatedSeriesResponse> getAggregatedData(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-01T00:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(description = "Bucket width (ISO-8601 duration)", example = "PT1H")
+          @RequestParam(defaultValue = "PT1H")
+          final Duration resolution) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LOGGER.debug(
+        "Get aggregated data request: deviceId={}, from={}, to={}, resolution={}",
+        deviceId,
+        from,
+        end,
+        resolution);
+
+    AggregatedSeriesResponse response =
+        waterLevelDataService.getAggregatedData(
+            deviceId, from, end, resolution, userService.capResultRows(maxRangeRows));
+    return ResponseEntity.ok()
+        .header(HistoryQueryConstants.QUERY_PLAN_HEADER, response.getPlan().toHeaderValue())
+        .body(response);
+  }
+
+  @Operation(
+      summary = "Get daily summaries",
+      description =
+          "Returns the precomputed min, max and average level and pump runtime of each closed day"
+              + " in [from, to]. Served from the nightly summaries only; days not yet summarized"
+              + " are absent.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Summaries retrieved successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID or date range"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/daily")
+  public ResponseEntity<List<DailySummaryResponse>> getDailySummaries(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "First day (inclusive); defaults to a week before 'to'")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate from,
+      @Parameter(description = "Last day (inclusive); defaults to yesterday")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate to) {
+    LOGGER.debug("Get daily summaries request: deviceId={}, from={}, to={}", deviceId, from, to);
+
+    return ResponseEntity.ok(dailySummaryService.getDailySummaries(deviceId, from, to));
+  }
+
+  @Operation(
+      summary = "Get hour-of-week heatmap",
+      description =
+          "Returns reading counts, average level and the share of readings with the pump ON for"
+              + " each hour of the day and day of the week (Monday first) over the days [from, to]"
+              + " of the given zone. Computed from sealed hourly rollups in one streaming pass.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Heatmap computed successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID, date range or zone"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/heatmap")
+  public ResponseEntity<HeatmapResponse> getHeatmap(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "First day (inclusive); defaults to 52 weeks before 'to'")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate from,
+      @Parameter(description = "Last day (inclusive); defaults to today")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          final LocalDate to,
+      @Parameter(description = "Time zone of days and hours; defaults to the server zone")
+          @RequestParam(required = false)
+          final ZoneId zone) {
+    LOGGER.debug(
+        "Get heatmap request: deviceId={}, from={}, to={}, zone={}", deviceId, from, to, zone);
+
+    return ResponseEntity.ok(waterLevelStatisticsService.getHeatmap(deviceId, from, to, zone));
+  }
+
+  @Operation(
+      summary = "Get water level data for a time range",
+      description =
+          "Streams readings in [from, to) for a device (oldest first) as a JSON array. The number"
+              + " of rows is capped by the server row limit and the caller's result limit, reported"
+              + " in the X-Row-Limit header.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Water level data streamed successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID or time range"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping(params = "from")
+  public ResponseEntity<StreamingResponseBody> getWaterLevelDataRange(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601)", example = "2025-12-24T08:00:00")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(
+              description =
+                  "Maximum number of rows; capped by the server row limit and the caller's result"
+                      + " limit")
+          @RequestParam(required = false)
+          @Min(value = 1, message = "Limit must be >= 1")
+          final Integer limit) {
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    int rowLimit =
+        userService.capResultRows(limit == null ? maxRangeRows : Math.min(limit, maxRangeRows));
+    LOGGER.debug(
+        "Get water level data range request: deviceId={}, from={}, to={}, limit={}",
+        deviceId,
+        from,
+        end,
+        rowLimit);
+
+    waterLevelDataService.checkRangeQuery(deviceId, from, end);
+
+    StreamingResponseBody body =
+        outputStream -> {
+          JsonGenerator generator = objectMapper.createGenerator(outputStream);
+          generator.writeStartArray();
+          waterLevelDataService.streamWaterLevelDataRange(
+              deviceId, from, end, rowLimit, row -> writeRow(generator, row));
+          generator.writeEndArray();
+          generator.flush();
+        };
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HistoryQueryConstants.ROW_LIMIT_HEADER, String.valueOf(rowLimit))
+        .body(body);
+  }
+
+  @Operation(
+      summary = "Export water level data",
+      description =
+          "Streams all readings in [from, to) for a device (oldest first) as CSV or NDJSON,"
+              + " optionally gzip-compressed. Rows are read from a database cursor and written as"
+              + " they arrive; disconnecting stops the query. If the caller has a result limit,"
+              + " at most that many rows are written and the limit is reported in the X-Row-Limit"
+              + " header.")
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+    @ApiResponse(responseCode = "400", description = "Invalid device ID, time range or format"),
+    @ApiResponse(responseCode = "401", description = "Authentication required")
+  })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportWaterLevelData(
+      @Parameter(description = "Device ID", example = "1") @PathVariable final Long deviceId,
+      @Parameter(description = "Range start (inclusive, ISO-8601); defaults to the full history")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime from,
+      @Parameter(description = "Range end (exclusive, ISO-8601); defaults to now")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          final LocalDateTime to,
+      @Parameter(description = "Export format: csv or ndjson", example = "csv")
+          @RequestParam(defaultValue = "csv")
+          final String format,
+      @Parameter(description = "Compress the response with gzip", example = "false")
+          @RequestParam(defaultValue = "false")
+          final boolean gzip) {
+    ExportFormat exportFormat = ExportFormat.fromString(format);
+    LocalDateTime start = from != null ? from : HistoryQueryConstants.EXPORT_DEFAULT_FROM;
+    LocalDateTime end = to != null ? to : LocalDateTime.now();
+    LOGGER.debug(
+        "Export water level data request: deviceId={}, from={}, to={}, format={}, gzip={}",
+        deviceId,
+        start,
+        end,
+        exportFormat,
+        gzip);
+
+    waterLevelDataService.checkRangeQuery(deviceId, start, end);
+    int maxRows = userService.capResultRows(Integer.MAX_VALUE);
+
+    StreamingResponseBody body =
+        outputStream -> {
+          GZIPOutputStream compressed =
+              gzip
+                  ? new GZIPOutputStream(outputStream, HistoryQueryConstants.EXPORT_BUFFER_SIZE)
+                  : null;
+          Writer writer =
+              new BufferedWriter(
+                  new OutputStreamWriter(
+                      compressed != null ? compressed : outputStream, StandardCharsets.UTF_8),
+                  HistoryQueryConstants.EXPORT_BUFFER_SIZE);
+          try {
+            long rows =
+                waterLevelDataService.exportWaterLevelData(
+                    deviceId, start, end, exportFormat, maxRows, writer);
+            LOGGER.info("Exported {} water level rows for device {}", rows, deviceId);
+          } catch (UncheckedIOException e) {
+            LOGGER.info("Export for device {} aborted: {}", deviceId, e.getCause().getMessage());
+            throw e.getCause();
+          }
+          if (compressed != null) {
+            compressed.finish();
+          }
+        };
+
+    String fileName = "device-" + deviceId + "-water-level-data." + exportFormat.getFileExtension();
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    if (maxRows < Integer.MAX_VALUE) {
+      response.header(HistoryQueryConstants.ROW_LIMIT_HEADER, String.valueOf(maxRows));
+    }
+    return response.body(body);
+  }
+
+  private static void writeRow(final JsonGenerator generator, final Object row) {
+    try {
+      generator.writeObject(row);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
@@ -0,0 +1,20 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fixed-width bucket aggregates of a device's readings, with the storage plan used to compute them.
+ * Empty buckets are omitted.
+ */
+@Getter
+@AllArgsConstructor
+public class AggregatedSeriesResponse {
+  private final Long deviceId;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+  private final QueryPlan plan;
+  private final List<LevelBucketResponse> buckets;
+}
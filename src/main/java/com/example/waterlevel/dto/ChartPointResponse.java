@@ -0,0 +1,12 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ChartPointResponse {
+  private final LocalDateTime timestamp;
+  private final double waterLevel;
+}
@@ -0,0 +1,18 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Downsampled water level series for a device and time range. */
+@Getter
+@AllArgsConstructor
+public class ChartResponse {
+  private final Long deviceId;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+  private final DownsamplingMode mode;
+  private final long sourceRows;
+  private final List<ChartPointResponse> points;
+}
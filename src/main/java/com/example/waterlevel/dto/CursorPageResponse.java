@@ -0,0 +1,19 @@
+package com.example.waterlevel.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Page of results for cursor-based (keyset) pagination.
+ *
+ * @param <T> the element type
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+  private final List<T> content;
+  private final int size;
+  private final boolean hasNext;
+  private final String nextCursor;
+}
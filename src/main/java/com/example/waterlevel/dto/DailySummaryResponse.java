@@ -0,0 +1,22 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Precomputed water level and pump statistics of one device for one calendar day. Level fields
+ * are null when the device sent no readings that day.
+ */
+@Getter
+@AllArgsConstructor
+public class DailySummaryResponse {
+  private final LocalDate date;
+  private final long readingCount;
+  private final Double minLevel;
+  private final Double maxLevel;
+  private final Double avgLevel;
+  private final long pumpRuntimeSeconds;
+  private final int pumpCycles;
+  private final double pumpDutyCycle;
+}
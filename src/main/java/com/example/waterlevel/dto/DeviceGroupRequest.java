@@ -0,0 +1,27 @@
+package com.example.waterlevel.dto;
+
+import com.example.waterlevel.entity.GroupType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceGroupRequest {
+
+  @NotBlank(message = "Group name is required")
+  @Size(min = 1, max = 100, message = "Group name must be between 1 and 100 characters")
+  private String name;
+
+  @NotNull(message = "Group type is required")
+  private GroupType type;
+
+  /** Region containing the new group; null for a top-level group. */
+  private Long parentId;
+}
@@ -0,0 +1,17 @@
+package com.example.waterlevel.dto;
+
+import com.example.waterlevel.entity.GroupType;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A site or region of devices. */
+@Getter
+@AllArgsConstructor
+public class DeviceGroupResponse {
+  private final Long id;
+  private final String name;
+  private final GroupType type;
+  private final Long parentId;
+  private final LocalDateTime createdAt;
+}
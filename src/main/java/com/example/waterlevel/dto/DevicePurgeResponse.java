@@ -0,0 +1,16 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Snapshot of the background purge of a deleted device. */
+@Getter
+@AllArgsConstructor
+public class DevicePurgeResponse {
+  private final Long deviceId;
+  private final PurgeState state;
+  private final long deletedReadings;
+  private final LocalDateTime startedAt;
+  private final LocalDateTime finishedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.waterlevel.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Water level series of one device in a multi-device query. Points are bucket averages at bucket
+ * start times shared by all devices of the query; empty buckets are omitted.
+ */
+@Getter
+@AllArgsConstructor
+public class DeviceSeriesResponse {
+  private final Long deviceId;
+  private final long sourceRows;
+  private final List<ChartPointResponse> points;
+}
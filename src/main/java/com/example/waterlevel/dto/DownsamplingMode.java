@@ -0,0 +1,9 @@
+package com.example.waterlevel.dto;
+
+/** Strategy used to reduce a range of readings to a bounded number of chart points. */
+public enum DownsamplingMode {
+  /** Largest-Triangle-Three-Buckets: one visually significant point per time bucket. */
+  LTTB,
+  /** Minimum and maximum reading per time bucket; preserves peaks and troughs. */
+  MIN_MAX
+}
@@ -0,0 +1,41 @@
+package com.example.waterlevel.dto;
+
+/** File format for water level history exports. */
+public enum ExportFormat {
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson");
+
+  private final String contentType;
+  private final String fileExtension;
+
+  ExportFormat(final String contentType, final String fileExtension) {
+    this.contentType = contentType;
+    this.fileExtension = fileExtension;
+  }
+
+  /**
+   * Parses a format name case-insensitively.
+   *
+   * @param format the format name, e.g. {@code csv}
+   * @return the export format
+   * @throws IllegalArgumentException if the format is not supported
+   */
+  public static ExportFormat fromString(final String format) {
+    if (format != null) {
+      for (ExportFormat value : values()) {
+        if (value.name().equalsIgnoreCase(format.trim())) {
+          return value;
+        }
+      }
+    }
+    throw new IllegalArgumentException("Unsupported export format: " + format);
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public String getFileExtension() {
+    return fileExtension;
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.waterlevel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Current state of a group, over the devices in it and in all groups below it.
+ *
+ * <p>Based on the latest reading of each device. The average level is null while no member device
+ * has reported; a device is in alarm when its latest level lies outside its thresholds.
+ */
+@Getter
+@AllArgsConstructor
+public class GroupMetricsResponse {
+  private final Long groupId;
+  private final long devices;
+  private final long reportingDevices;
+  private final BigDecimal averageLevel;
+  private final long pumpsRunning;
+  private final long devicesInAlarm;
+  private final LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Hour-of-day by day-of-week heatmap of a device over a date range.
+ *
+ * <p>Matrices have one row per day of the week, Monday first, and one column per hour of the day,
+ * both in the requested zone. Cells without readings hold null averages and shares. The pump ON
+ * share is the fraction of readings in the cell that reported the pump running.
+ */
+@Getter
+@AllArgsConstructor
+public class HeatmapResponse {
+  private final Long deviceId;
+  private final LocalDate from;
+  private final LocalDate to;
+  private final String zone;
+  private final long[][] readingCounts;
+  private final Double[][] averageLevel;
+  private final Double[][] pumpOnShare;
+  private final int rollupHours;
+}
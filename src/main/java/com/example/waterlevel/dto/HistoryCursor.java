@@ -0,0 +1,69 @@
+package com.example.waterlevel.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position in a device's reading history for keyset (seek) pagination.
+ *
+ * <p>A cursor identifies the last row of a page by its {@code (timestamp, id)} pair; the next page
+ * starts strictly after it. Clients only see the opaque URL-safe token produced by {@link
+ * #encode()}.
+ */
+@Getter
+@AllArgsConstructor
+public class HistoryCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final LocalDateTime timestamp;
+  private final Long id;
+
+  /**
+   * Creates the cursor pointing at the given row.
+   *
+   * @param row the last row returned to the client
+   * @return the cursor for the following page
+   */
+  public static HistoryCursor after(final WaterLevelDataResponse row) {
+    return new HistoryCursor(row.getTimestamp(), row.getId());
+  }
+
+  /**
+   * Encodes this cursor as an opaque token.
+   *
+   * @return the URL-safe token
+   */
+  public String encode() {
+    String raw = timestamp + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token the opaque cursor token
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static HistoryCursor decode(final String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.lastIndexOf(SEPARATOR);
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return new HistoryCursor(
+          LocalDateTime.parse(raw.substring(0, separator)),
+          Long.parseLong(raw.substring(separator + 1)));
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Reading count, level sum and pump ON count of one hourly rollup, without its sketch. */
+@Getter
+@AllArgsConstructor
+public class HourlyRollupSample {
+  private final LocalDateTime bucketStart;
+  private final long readingCount;
+  private final double sumLevel;
+  private final long pumpOnCount;
+}
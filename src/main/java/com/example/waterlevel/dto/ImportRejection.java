@@ -0,0 +1,12 @@
+package com.example.waterlevel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A line of an import file that was not loaded, and why. */
+@Getter
+@AllArgsConstructor
+public class ImportRejection {
+  private final long line;
+  private final String reason;
+}
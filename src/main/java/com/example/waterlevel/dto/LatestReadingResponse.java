@@ -0,0 +1,40 @@
+package com.example.waterlevel.dto;
+
+import com.example.waterlevel.entity.PumpStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Latest known reading of a device, as held in the in-memory latest-state table. */
+@Getter
+@AllArgsConstructor
+public class LatestReadingResponse {
+  private final Long deviceId;
+  private final Long adminId;
+  private final Long readingId;
+  private final BigDecimal waterLevel;
+  private final PumpStatus pumpStatus;
+  private final LocalDateTime timestamp;
+
+  /**
+   * Checks whether this reading supersedes another reading of the same device.
+   *
+   * <p>Readings are ordered by timestamp, then by ID, so late or replayed messages never replace a
+   * newer state. Readings without an ID, such as imported ones, lose ties against readings with
+   * one.
+   *
+   * @param other the reading currently known, may be null
+   * @return true if this reading is newer
+   */
+  public boolean isNewerThan(final LatestReadingResponse other) {
+    if (other == null) {
+      return true;
+    }
+    int byTimestamp = timestamp.compareTo(other.timestamp);
+    return byTimestamp > 0
+        || (byTimestamp == 0
+            && readingId != null
+            && (other.readingId == null || readingId > other.readingId));
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.waterlevel.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Count, min, max and mean of one device's readings over a range. */
+@Getter
+@AllArgsConstructor
+public class LevelAggregate {
+  private final Long deviceId;
+  private final Long count;
+  private final BigDecimal min;
+  private final BigDecimal max;
+  private final Double average;
+}
@@ -0,0 +1,16 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Count, min, max and average of the readings in one time bucket. */
+@Getter
+@AllArgsConstructor
+public class LevelBucketResponse {
+  private final LocalDateTime bucketStart;
+  private final long count;
+  private final double min;
+  private final double max;
+  private final double avg;
+}
@@ -0,0 +1,21 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Snapshot of a session replaying a device's past readings over WebSocket. */
+@Getter
+@AllArgsConstructor
+public class PlaybackSessionResponse {
+  private final String sessionId;
+  private final Long deviceId;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+  private final int speed;
+  private final String destination;
+  private final PlaybackState state;
+  private final long sentReadings;
+  private final LocalDateTime startedAt;
+  private final LocalDateTime finishedAt;
+}
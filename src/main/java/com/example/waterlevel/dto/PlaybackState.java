@@ -0,0 +1,13 @@
+package com.example.waterlevel.dto;
+
+/** Progress of a historical playback session. */
+public enum PlaybackState {
+  /** Readings are being replayed. */
+  RUNNING,
+  /** Every reading in the range was replayed. */
+  COMPLETED,
+  /** The session was stopped before the end of the range. */
+  CANCELLED,
+  /** The session stopped on an error. */
+  FAILED
+}
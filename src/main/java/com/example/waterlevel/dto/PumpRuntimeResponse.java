@@ -0,0 +1,15 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Pump runtime statistics for one calendar day. */
+@Getter
+@AllArgsConstructor
+public class PumpRuntimeResponse {
+  private final LocalDate date;
+  private final long runtimeSeconds;
+  private final int cycles;
+  private final double dutyCycle;
+}
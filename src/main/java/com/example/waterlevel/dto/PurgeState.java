@@ -0,0 +1,13 @@
+package com.example.waterlevel.dto;
+
+/** Progress of the background purge of a deleted device. */
+public enum PurgeState {
+  /** Deletion accepted; the purge has not started yet. */
+  PENDING,
+  /** Readings are being deleted in batches. */
+  RUNNING,
+  /** History and device row are gone. */
+  COMPLETED,
+  /** The purge stopped on an error; it is retried on the next start. */
+  FAILED
+}
@@ -0,0 +1,24 @@
+package com.example.waterlevel.dto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Storage tiers chosen for a history query, as ordered, non-overlapping segments. */
+@Getter
+@AllArgsConstructor
+public class QueryPlan {
+  private final List<QueryPlanSegment> segments;
+
+  /**
+   * Formats the plan for the {@code X-Query-Plan} response header.
+   *
+   * @return segments as {@code TIER from/to}, comma-separated
+   */
+  public String toHeaderValue() {
+    return segments.stream()
+        .map(segment -> segment.getTier() + " " + segment.getFrom() + "/" + segment.getTo())
+        .collect(Collectors.joining(", "));
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A contiguous part {@code [from, to)} of a query range read from a single storage tier. */
+@Getter
+@AllArgsConstructor
+public class QueryPlanSegment {
+  private final StorageTier tier;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+}
@@ -0,0 +1,19 @@
+package com.example.waterlevel.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a reading import: rows loaded and rejected, throughput and the first rejected lines.
+ */
+@Getter
+@AllArgsConstructor
+public class ReadingImportResponse {
+  private final long importedReadings;
+  private final long rejectedLines;
+  private final long bytes;
+  private final long elapsedMillis;
+  private final long readingsPerSecond;
+  private final List<ImportRejection> rejections;
+}
@@ -0,0 +1,14 @@
+package com.example.waterlevel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Validators describing the current state of a resource for conditional GET requests. */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+  private final String etag;
+
+  /** Last modification time in epoch milliseconds, or -1 if not tracked. */
+  private final long lastModified;
+}
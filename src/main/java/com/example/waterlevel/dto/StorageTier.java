@@ -0,0 +1,13 @@
+package com.example.waterlevel.dto;
+
+/** Storage a part of a history query is answered from, finest first, then the result cache. */
+public enum StorageTier {
+  /** Individual readings. */
+  RAW,
+  /** Sealed hourly rollups. */
+  HOUR,
+  /** Nightly daily summaries. */
+  DAY,
+  /** Aggregated buckets of sealed hours kept in memory from earlier queries. */
+  CACHE
+}
@@ -0,0 +1,27 @@
+package com.example.waterlevel.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Water level statistics for a device and time range. Value fields are null when the range holds no
+ * readings; percentiles are t-digest estimates.
+ */
+@Getter
+@AllArgsConstructor
+public class WaterLevelStatisticsResponse {
+  private final Long deviceId;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+  private final long count;
+  private final Double min;
+  private final Double max;
+  private final Double mean;
+  private final Double stddev;
+  private final Double p5;
+  private final Double p50;
+  private final Double p95;
+  private final int rollupHours;
+  private final long scannedRows;
+}
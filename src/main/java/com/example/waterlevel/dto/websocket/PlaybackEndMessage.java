@@ -0,0 +1,38 @@
+package com.example.waterlevel.dto.websocket;
+
+import com.example.waterlevel.dto.PlaybackState;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlaybackEndMessage extends BaseMessage {
+  private String sessionId;
+  private PlaybackState state;
+  private long sentReadings;
+
+  /**
+   * Creates a playback end message.
+   *
+   * @param type the message type
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param state how the session ended
+   * @param sentReadings the number of readings replayed
+   * @param timestamp the time the session ended
+   */
+  public PlaybackEndMessage(
+      final String type,
+      final Long deviceId,
+      final String sessionId,
+      final PlaybackState state,
+      final long sentReadings,
+      final String timestamp) {
+    super(type, deviceId, timestamp);
+    this.sessionId = sessionId;
+    this.state = state;
+    this.sentReadings = sentReadings;
+  }
+}
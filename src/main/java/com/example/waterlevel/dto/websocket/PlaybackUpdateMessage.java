@@ -0,0 +1,38 @@
+package com.example.waterlevel.dto.websocket;
+
+import com.example.waterlevel.entity.PumpStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlaybackUpdateMessage extends BaseMessage {
+  private String sessionId;
+  private Double waterLevel;
+  private PumpStatus pumpStatus;
+
+  /**
+   * Creates a playback update message.
+   *
+   * @param type the message type
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param waterLevel the replayed water level
+   * @param pumpStatus the replayed pump status
+   * @param timestamp the original timestamp of the reading
+   */
+  public PlaybackUpdateMessage(
+      final String type,
+      final Long deviceId,
+      final String sessionId,
+      final Double waterLevel,
+      final PumpStatus pumpStatus,
+      final String timestamp) {
+    super(type, deviceId, timestamp);
+    this.sessionId = sessionId;
+    this.waterLevel = waterLevel;
+    this.pumpStatus = pumpStatus;
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Water level and pump statistics of one device for one closed calendar day.
+ *
+ * <p>Written by the nightly summary job so daily reports never scan raw readings. Level columns
+ * are null when the device sent no readings that day.
+ */
+@Entity
+@Table(
+    name = "water_level_daily",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_water_level_daily_device_date",
+          columnNames = {"device_id", "summary_date"})
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySummary {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "device_id", nullable = false)
+  private Device device;
+
+  @Column(name = "summary_date", nullable = false)
+  private LocalDate summaryDate;
+
+  @Column(name = "reading_count", nullable = false)
+  private long readingCount;
+
+  @Column(name = "min_level")
+  private Double minLevel;
+
+  @Column(name = "max_level")
+  private Double maxLevel;
+
+  @Column(name = "avg_level")
+  private Double avgLevel;
+
+  @Column(name = "pump_runtime_seconds", nullable = false)
+  private long pumpRuntimeSeconds;
+
+  @Column(name = "pump_cycles", nullable = false)
+  private int pumpCycles;
+
+  @Column(name = "pump_duty_cycle", nullable = false)
+  private double pumpDutyCycle;
+}
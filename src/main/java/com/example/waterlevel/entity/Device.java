@@ -1,7 +1,10 @@
 package com.example.waterlevel.entity;
 
+import com.example.waterlevel.constants.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -13,18 +16,26 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(
     name = "devices",
     indexes = {
       @Index(name = "idx_devices_admin_id", columnList = "admin_id"),
-      @Index(name = "idx_devices_device_key", columnList = "device_key")
+      @Index(name = "idx_devices_group_id", columnList = "group_id")
     })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DEVICES)
+@NaturalIdCache(region = CacheRegions.DEVICES_BY_KEY)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,8 +49,13 @@ public class Device {
   @Column(nullable = false, length = 100)
   private String name;
 
-  @Column(name = "device_key", nullable = false, unique = true, length = 36)
-  private String deviceKey;
+  /**
+   * Device key, stored as a native 16-byte UUID (the unique constraint is its only index). The API
+   * and MQTT topics use the canonical string form.
+   */
+  @NaturalId
+  @Column(name = "device_key", nullable = false, unique = true)
+  private UUID deviceKey;
 
   @Column(name = "min_threshold", nullable = false, precision = 5, scale = 2)
   private BigDecimal minThreshold;
@@ -47,10 +63,22 @@ public class Device {
   @Column(name = "max_threshold", nullable = false, precision = 5, scale = 2)
   private BigDecimal maxThreshold;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "admin_id", nullable = false)
   private User admin;
 
+  /** Site or region the device belongs to, if any. */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "group_id")
+  private DeviceGroup group;
+
+  /**
+   * Set as soon as deletion is requested. The row itself is removed by the background purge once
+   * the device's history is gone.
+   */
+  @Column(nullable = false)
+  private boolean deleted;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
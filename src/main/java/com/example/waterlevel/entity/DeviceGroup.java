@@ -0,0 +1,69 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A site or region grouping devices of one admin.
+ *
+ * <p>Groups form a tree through their parent region; a device belongs to at most one group and
+ * counts towards that group and all of its ancestors.
+ */
+@Entity
+@Table(
+    name = "device_groups",
+    indexes = {
+      @Index(name = "idx_device_groups_parent_id", columnList = "parent_id"),
+      @Index(name = "idx_device_groups_admin_id", columnList = "admin_id")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceGroup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String name;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private GroupType type;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "parent_id")
+  private DeviceGroup parent;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "admin_id", nullable = false)
+  private User admin;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
+}
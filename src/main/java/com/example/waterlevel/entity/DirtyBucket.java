@@ -0,0 +1,55 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A bucket of a rollup job that has to be recomputed because readings for it arrived after it was
+ * computed.
+ *
+ * <p>Marks are kept next to the rollups so they survive a restart; the job deletes a mark in the
+ * transaction that rebuilds its bucket. A bucket is marked at most once; marks are stored through
+ * {@link com.example.waterlevel.repository.DirtyBucketRepository#insertMark}, which skips buckets
+ * that are already marked.
+ */
+@Entity
+@Table(
+    name = "rollup_dirty_bucket",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_rollup_dirty_bucket_job_device_bucket",
+          columnNames = {"job_name", "device_id", "bucket_start"})
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirtyBucket {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "job_name", nullable = false, length = 50)
+  private String jobName;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "device_id", nullable = false)
+  private Device device;
+
+  @Column(name = "bucket_start", nullable = false)
+  private LocalDateTime bucketStart;
+}
@@ -0,0 +1,9 @@
+package com.example.waterlevel.entity;
+
+/** Level of a device group in the site/region hierarchy. */
+public enum GroupType {
+  /** A region; may contain sites, other regions and devices. */
+  REGION,
+  /** A site, such as one pumping station; may belong to a region. */
+  SITE
+}
@@ -0,0 +1,72 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Summary of one device's readings within one closed hour.
+ *
+ * <p>Holds the moments needed for min, max, mean and standard deviation, plus a serialized {@link
+ * com.example.waterlevel.util.TDigest} so quantiles over long ranges can be answered by merging
+ * hours instead of rescanning readings. The number of readings reporting the pump ON gives the
+ * pump activity of the hour.
+ */
+@Entity
+@Table(
+    name = "water_level_hourly",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_water_level_hourly_device_bucket",
+          columnNames = {"device_id", "bucket_start"})
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "device_id", nullable = false)
+  private Device device;
+
+  @Column(name = "bucket_start", nullable = false)
+  private LocalDateTime bucketStart;
+
+  @Column(name = "reading_count", nullable = false)
+  private long readingCount;
+
+  @Column(name = "min_level", nullable = false)
+  private double minLevel;
+
+  @Column(name = "max_level", nullable = false)
+  private double maxLevel;
+
+  @Column(name = "sum_level", nullable = false)
+  private double sumLevel;
+
+  @Column(name = "sum_squares", nullable = false)
+  private double sumSquares;
+
+  @Column(name = "pump_on_count", nullable = false)
+  private long pumpOnCount;
+
+  @Column(nullable = false, length = 32768)
+  private byte[] sketch;
+}
@@ -0,0 +1,28 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Progress marker of a background job: everything before the watermark has been processed. */
+@Entity
+@Table(name = "job_watermark")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+  @Id
+  @Column(name = "job_name", length = 50)
+  private String jobName;
+
+  @Column(nullable = false)
+  private LocalDateTime watermark;
+}
@@ -0,0 +1,57 @@
+package com.example.waterlevel.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A run of identical pump status readings for one device.
+ *
+ * <p>A new row is written only when the reported status changes, so the table holds one row per
+ * ON/OFF transition instead of one per reading. The run that is still in progress has no end
+ * time.
+ */
+@Entity
+@Table(
+    name = "pump_run",
+    indexes = {
+      @Index(name = "idx_pump_run_device_started_at", columnList = "device_id,started_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PumpRun {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "device_id", nullable = false)
+  private Device device;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private PumpStatus status;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "ended_at")
+  private LocalDateTime endedAt;
+}
@@ -1,5 +1,7 @@
 package com.example.waterlevel.entity;
 
+import com.example.waterlevel.constants.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -14,9 +16,16 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.USERS)
+@NaturalIdCache(region = CacheRegions.USERS_BY_USERNAME)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +36,7 @@ public class User {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  @NaturalId
   @Column(nullable = false, unique = true, length = 50)
   private String username;
 
@@ -40,6 +50,13 @@ public class User {
   @Column(nullable = false, length = 10)
   private Role role = Role.USER;
 
+  /**
+   * Cap on the rows returned or raw readings read by one history query (pages, cursors, ranges,
+   * exports, aggregates and multi-device series), below the server limit; null for none.
+   */
+  @Column(name = "max_result_rows")
+  private Integer maxResultRows;
+
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -19,13 +20,20 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A raw sensor reading.
+ *
+ * <p>The index below only shapes schemas generated by {@code ddl-auto} (dev and tests). Production
+ * indexes, including the BRIN and {@code INCLUDE} forms JPA cannot express, come from the Flyway
+ * migrations in {@code db/migration/postgresql}.
+ */
 @Entity
 @Table(
     name = "water_level_data",
     indexes = {
-      @Index(name = "idx_water_level_data_device_id", columnList = "device_id"),
-      @Index(name = "idx_water_level_data_timestamp", columnList = "timestamp"),
-      @Index(name = "idx_water_level_data_device_timestamp", columnList = "device_id,timestamp")
+      @Index(
+          name = "idx_water_level_data_device_time_covering",
+          columnList = "device_id,timestamp DESC")
     })
 @Getter
 @Setter
@@ -37,7 +45,7 @@ public class WaterLevelData {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "device_id", nullable = false)
   private Device device;
 
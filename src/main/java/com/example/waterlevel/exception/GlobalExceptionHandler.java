@@ -15,6 +15,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 /** Global exception handler for REST controllers. */
 @RestControllerAdvice
@@ -120,6 +121,21 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorResponse(errorMessage));
   }
 
+  /**
+   * Handles request parameters that cannot be converted to the expected type (e.g., malformed
+   * dates).
+   *
+   * @param ex the exception
+   * @return error response
+   */
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(
+      final MethodArgumentTypeMismatchException ex) {
+    LOGGER.warn("Request parameter type mismatch: {}", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(new ErrorResponse("Invalid value for parameter '" + ex.getName() + "'"));
+  }
+
   /**
    * Handles illegal state exceptions.
    *
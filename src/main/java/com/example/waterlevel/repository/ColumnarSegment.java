@@ -0,0 +1,387 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.StoreConstants;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * One generation of a device's readings in the {@link ColumnarTimeSeriesStore}.
+ *
+ * <p>Four column files hold the ID, timestamp (epoch nanos, UTC), unscaled level and pump status
+ * ordinal of each row at fixed widths. They are preallocated in steps of {@link
+ * StoreConstants#COLUMNAR_GROWTH_ROWS} and memory-mapped read-write; only the first {@code rows}
+ * entries are valid. Row counts live in a header of two slots written alternately, each carrying a
+ * sequence number and a CRC, so a torn header write leaves the previous slot readable. Rows written
+ * after the last committed header are ignored on reopen and overwritten by the next append. A
+ * segment without any committed header does not open at all.
+ *
+ * <p>Rows {@code [0, sortedRows)} are ordered by {@code (timestamp, id)} and indexed by the
+ * timestamp of every {@link StoreConstants#COLUMNAR_INDEX_STRIDE}-th row; later rows are an
+ * unordered tail left by out-of-order appends until the segment is compacted.
+ *
+ * <p>Not thread-safe: the store serializes writers against readers. A {@link View} taken under
+ * the store's lock can be read without it, since rows are never rewritten in place.
+ */
+final class ColumnarSegment implements Closeable {
+
+  /** Largest row count whose widest column still fits in one mapped buffer. */
+  static final int MAX_ROWS = Integer.MAX_VALUE / Long.BYTES;
+
+  private static final int ID = 0;
+  private static final int TIMESTAMP = 1;
+  private static final int LEVEL = 2;
+  private static final int STATUS = 3;
+  private static final String[] COLUMN_FILES = {
+    "id.col", "timestamp.col", "level.col", "status.col"
+  };
+  private static final int[] WIDTHS = {Long.BYTES, Long.BYTES, Integer.BYTES, 1};
+  private static final String HEADER_FILE = "header";
+  private static final int HEADER_SLOT_SIZE = 64;
+  private static final int HEADER_FIELDS_SIZE = Long.BYTES * 4;
+
+  private final Path directory;
+  private final FileChannel headerChannel;
+  private final FileChannel[] channels = new FileChannel[COLUMN_FILES.length];
+  private final MappedByteBuffer[] columns = new MappedByteBuffer[COLUMN_FILES.length];
+  private int capacity;
+  private int rows;
+  private int sortedRows;
+  private int committedRows;
+  private long maxId;
+  private long sequence;
+  private long[] index = new long[16];
+  private int indexSize;
+
+  private ColumnarSegment(final Path directory) throws IOException {
+    this.directory = directory;
+    this.headerChannel = openChannel(directory.resolve(HEADER_FILE));
+  }
+
+  /**
+   * Creates an empty segment. It has no committed header until the first {@link #commit()}.
+   *
+   * @param directory the directory of the segment, created if missing
+   * @param capacity the number of rows to preallocate
+   * @return the segment
+   * @throws IOException if the files cannot be created or mapped
+   */
+  static ColumnarSegment create(final Path directory, final int capacity) throws IOException {
+    Files.createDirectories(directory);
+    ColumnarSegment segment = new ColumnarSegment(directory);
+    try {
+      segment.openColumns();
+      segment.map(Math.max(capacity, StoreConstants.COLUMNAR_GROWTH_ROWS));
+      return segment;
+    } catch (IOException e) {
+      segment.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a segment at its last committed header.
+   *
+   * @param directory the directory of the segment
+   * @return the segment
+   * @throws IOException if no valid header exists or the columns are shorter than it claims
+   */
+  static ColumnarSegment open(final Path directory) throws IOException {
+    ColumnarSegment segment = new ColumnarSegment(directory);
+    try {
+      segment.readHeader();
+      segment.openColumns();
+      long available = MAX_ROWS;
+      for (int c = 0; c < COLUMN_FILES.length; c++) {
+        available = Math.min(available, segment.channels[c].size() / WIDTHS[c]);
+      }
+      if (available < segment.rows) {
+        throw new IOException("Columns in " + directory + " are shorter than the header");
+      }
+      segment.map((int) Math.max(available, StoreConstants.COLUMNAR_GROWTH_ROWS));
+      segment.rebuildIndex();
+      return segment;
+    } catch (IOException e) {
+      segment.close();
+      throw e;
+    }
+  }
+
+  /** Appends a row. It becomes durable with the next {@link #commit()}. */
+  void put(final long id, final long timestamp, final int level, final byte status)
+      throws IOException {
+    if (rows == capacity) {
+      grow();
+    }
+    int row = rows;
+    columns[ID].putLong(row * WIDTHS[ID], id);
+    columns[TIMESTAMP].putLong(row * WIDTHS[TIMESTAMP], timestamp);
+    columns[LEVEL].putInt(row * WIDTHS[LEVEL], level);
+    columns[STATUS].put(row * WIDTHS[STATUS], status);
+    if (sortedRows == row && (row == 0 || compareRows(row, row - 1) >= 0)) {
+      if (row % StoreConstants.COLUMNAR_INDEX_STRIDE == 0) {
+        addIndexEntry(timestamp);
+      }
+      sortedRows++;
+    }
+    rows++;
+    maxId = Math.max(maxId, id);
+  }
+
+  /** Forces the rows put since the last commit to disk, then publishes them in the header. */
+  void commit() throws IOException {
+    for (int c = 0; c < COLUMN_FILES.length; c++) {
+      columns[c].force(committedRows * WIDTHS[c], (rows - committedRows) * WIDTHS[c]);
+    }
+    writeHeader();
+    committedRows = rows;
+  }
+
+  /**
+   * Returns the first sorted row whose timestamp is at or after the given one, or {@link
+   * #sortedRows()} if there is none. Binary search over the sparse index, then within one stride
+   * of the mapped timestamp column.
+   */
+  int lowerBound(final long timestamp) {
+    int entry = 0;
+    int entryEnd = indexSize;
+    while (entry < entryEnd) {
+      int mid = (entry + entryEnd) >>> 1;
+      if (index[mid] < timestamp) {
+        entry = mid + 1;
+      } else {
+        entryEnd = mid;
+      }
+    }
+    int low = entry == 0 ? 0 : (entry - 1) * StoreConstants.COLUMNAR_INDEX_STRIDE;
+    int high = entry < indexSize ? entry * StoreConstants.COLUMNAR_INDEX_STRIDE : sortedRows;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestamp(mid) < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Appends every row to the target ordered by {@code (timestamp, id)}, merging in the tail. */
+  void copySortedTo(final ColumnarSegment target) throws IOException {
+    Integer[] tail = new Integer[rows - sortedRows];
+    for (int i = 0; i < tail.length; i++) {
+      tail[i] = sortedRows + i;
+    }
+    Arrays.sort(tail, this::compareRows);
+    int next = 0;
+    int nextTail = 0;
+    while (next < sortedRows || nextTail < tail.length) {
+      int row;
+      if (nextTail == tail.length
+          || (next < sortedRows && compareRows(next, tail[nextTail]) <= 0)) {
+        row = next++;
+      } else {
+        row = tail[nextTail++];
+      }
+      target.put(id(row), timestamp(row), level(row), status(row));
+    }
+  }
+
+  /**
+   * Returns a read-only view of the rows present now. It keeps its own handles on the mappings, so
+   * it stays readable after the segment grows, is compacted away or is closed.
+   */
+  View view() {
+    ByteBuffer[] copies = new ByteBuffer[columns.length];
+    for (int c = 0; c < columns.length; c++) {
+      copies[c] = columns[c].duplicate();
+    }
+    return new View(copies);
+  }
+
+  /** Orders two rows by {@code (timestamp, id)}. */
+  int compareRows(final int left, final int right) {
+    int byTimestamp = Long.compare(timestamp(left), timestamp(right));
+    return byTimestamp != 0 ? byTimestamp : Long.compare(id(left), id(right));
+  }
+
+  long id(final int row) {
+    return columns[ID].getLong(row * WIDTHS[ID]);
+  }
+
+  long timestamp(final int row) {
+    return columns[TIMESTAMP].getLong(row * WIDTHS[TIMESTAMP]);
+  }
+
+  int level(final int row) {
+    return columns[LEVEL].getInt(row * WIDTHS[LEVEL]);
+  }
+
+  byte status(final int row) {
+    return columns[STATUS].get(row * WIDTHS[STATUS]);
+  }
+
+  int rows() {
+    return rows;
+  }
+
+  int sortedRows() {
+    return sortedRows;
+  }
+
+  long maxId() {
+    return maxId;
+  }
+
+  Path directory() {
+    return directory;
+  }
+
+  /** Closes the files. Mapped columns are released by the garbage collector. */
+  @Override
+  public void close() {
+    closeQuietly(headerChannel);
+    for (FileChannel channel : channels) {
+      if (channel != null) {
+        closeQuietly(channel);
+      }
+    }
+  }
+
+  private void openColumns() throws IOException {
+    for (int c = 0; c < COLUMN_FILES.length; c++) {
+      channels[c] = openChannel(directory.resolve(COLUMN_FILES[c]));
+    }
+  }
+
+  private void map(final int newCapacity) throws IOException {
+    for (int c = 0; c < COLUMN_FILES.length; c++) {
+      long size = (long) newCapacity * WIDTHS[c];
+      columns[c] = channels[c].map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+    capacity = newCapacity;
+  }
+
+  private void grow() throws IOException {
+    if (capacity == MAX_ROWS) {
+      throw new IllegalStateException("Segment " + directory + " is full");
+    }
+    long grown = (long) capacity + Math.max(StoreConstants.COLUMNAR_GROWTH_ROWS, capacity / 2);
+    map((int) Math.min(MAX_ROWS, grown));
+  }
+
+  private void addIndexEntry(final long timestamp) {
+    if (indexSize == index.length) {
+      index = Arrays.copyOf(index, indexSize * 2);
+    }
+    index[indexSize++] = timestamp;
+  }
+
+  private void rebuildIndex() {
+    indexSize = 0;
+    for (int row = 0; row < sortedRows; row += StoreConstants.COLUMNAR_INDEX_STRIDE) {
+      addIndexEntry(timestamp(row));
+    }
+  }
+
+  private void writeHeader() throws IOException {
+    sequence++;
+    ByteBuffer slot = ByteBuffer.allocate(HEADER_SLOT_SIZE);
+    slot.putLong(sequence).putLong(rows).putLong(sortedRows).putLong(maxId);
+    CRC32 crc = new CRC32();
+    crc.update(slot.array(), 0, HEADER_FIELDS_SIZE);
+    slot.putLong(crc.getValue());
+    slot.clear();
+    long offset = (sequence % 2) * HEADER_SLOT_SIZE;
+    while (slot.hasRemaining()) {
+      offset += headerChannel.write(slot, offset);
+    }
+    headerChannel.force(false);
+  }
+
+  private void readHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SLOT_SIZE * 2);
+    int read;
+    do {
+      read = headerChannel.read(header, header.position());
+    } while (read > 0 && header.hasRemaining());
+    boolean found = false;
+    for (int slot = 0; slot * HEADER_SLOT_SIZE + HEADER_SLOT_SIZE <= header.position(); slot++) {
+      int start = slot * HEADER_SLOT_SIZE;
+      CRC32 crc = new CRC32();
+      crc.update(header.array(), start, HEADER_FIELDS_SIZE);
+      long slotSequence = header.getLong(start);
+      long slotRows = header.getLong(start + Long.BYTES);
+      long slotSorted = header.getLong(start + Long.BYTES * 2);
+      boolean valid =
+          header.getLong(start + HEADER_FIELDS_SIZE) == crc.getValue()
+              && slotSequence > sequence
+              && slotRows <= MAX_ROWS
+              && slotSorted >= 0
+              && slotSorted <= slotRows;
+      if (valid) {
+        sequence = slotSequence;
+        rows = (int) slotRows;
+        sortedRows = (int) slotSorted;
+        maxId = header.getLong(start + Long.BYTES * 3);
+        found = true;
+      }
+    }
+    if (!found) {
+      throw new IOException("No committed header in " + directory);
+    }
+    committedRows = rows;
+  }
+
+  /** The columns of a segment as mapped when the view was taken. */
+  static final class View {
+
+    private final ByteBuffer[] columns;
+
+    private View(final ByteBuffer[] columns) {
+      this.columns = columns;
+    }
+
+    /** Orders two rows by {@code (timestamp, id)}. */
+    int compareRows(final int left, final int right) {
+      int byTimestamp = Long.compare(timestamp(left), timestamp(right));
+      return byTimestamp != 0 ? byTimestamp : Long.compare(id(left), id(right));
+    }
+
+    long id(final int row) {
+      return columns[ID].getLong(row * WIDTHS[ID]);
+    }
+
+    long timestamp(final int row) {
+      return columns[TIMESTAMP].getLong(row * WIDTHS[TIMESTAMP]);
+    }
+
+    int level(final int row) {
+      return columns[LEVEL].getInt(row * WIDTHS[LEVEL]);
+    }
+
+    byte status(final int row) {
+      return columns[STATUS].get(row * WIDTHS[STATUS]);
+    }
+  }
+
+  private static void closeQuietly(final FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Nothing was written through the channel since the last commit
+    }
+  }
+
+  private static FileChannel openChannel(final Path file) throws IOException {
+    return FileChannel.open(
+        file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+}
@@ -0,0 +1,699 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Embedded columnar {@link TimeSeriesStore} for edge installations on small hardware.
+ *
+ * <p>Like {@link FileTimeSeriesStore}, the column files are the system of record and serve every
+ * read, from scans to pages, cursors and aggregates; no {@code water_level_data} row is written.
+ *
+ * <p>Each device has a directory {@code device-<id>/gen-<n>/} holding one {@link ColumnarSegment}:
+ * memory-mapped column files for IDs, timestamps, levels and pump status, 21 bytes per reading.
+ * Appends are plain memory writes followed by one forced commit per call; readings that arrive in
+ * time order extend the sorted prefix, so range scans binary-search a sparse time index and read
+ * only the matching rows. Out-of-order readings go to an unsorted tail that the scheduled
+ * compaction merges back by writing generation {@code n + 1} and deleting {@code n}. A generation
+ * is only used once its header is committed, so a crash mid-compaction falls back to the previous
+ * one, and rows after the last committed header are dropped on reopen.
+ *
+ * <p>Appends and compaction lock one device exclusively. Reads share the lock only while they
+ * bound their range and sort the matching tail rows, then read the rows lazily from a {@link
+ * ColumnarSegment.View}, which stays valid while appends continue or compaction replaces the
+ * generation. IDs come from one counter for all devices, assigned under the device lock and
+ * recovered from the committed segment headers on startup.
+ */
+@Repository
+@ConditionalOnProperty(
+    name = StoreConstants.STORE_TYPE_PROPERTY,
+    havingValue = StoreConstants.STORE_TYPE_COLUMNAR)
+public class ColumnarTimeSeriesStore implements TimeSeriesStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarTimeSeriesStore.class);
+
+  private static final String DEVICE_PREFIX = "device-";
+  private static final String GENERATION_PREFIX = "gen-";
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final PumpStatus[] STATUSES = PumpStatus.values();
+
+  private final Path directory;
+  private final Map<Long, DeviceColumns> devices = new ConcurrentHashMap<>();
+  private final AtomicLong lastId = new AtomicLong();
+
+  public ColumnarTimeSeriesStore(
+      @Value(
+              "${water-level-data.store.directory:"
+                  + StoreConstants.DEFAULT_STORE_DIRECTORY
+                  + "}")
+          final String directory) {
+    this.directory = Path.of(directory);
+  }
+
+  /**
+   * Opens the newest committed generation of every device, discarding uncommitted or superseded
+   * generations, and recovers the ID counter.
+   */
+  @PostConstruct
+  public void init() {
+    try {
+      Files.createDirectories(directory);
+      try (DirectoryStream<Path> deviceDirectories =
+          Files.newDirectoryStream(directory, DEVICE_PREFIX + "*")) {
+        for (Path deviceDirectory : deviceDirectories) {
+          Long deviceId = parseSuffix(deviceDirectory, DEVICE_PREFIX);
+          if (deviceId != null) {
+            openDevice(deviceId, deviceDirectory);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open columnar store in " + directory, e);
+    }
+    LOGGER.info(
+        "Opened columnar time series store in {}: {} devices, last id {}",
+        directory,
+        devices.size(),
+        lastId.get());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (DeviceColumns columns : devices.values()) {
+      columns.lock.writeLock().lock();
+      try {
+        columns.close();
+      } finally {
+        columns.lock.writeLock().unlock();
+      }
+    }
+    devices.clear();
+  }
+
+  @Override
+  public WaterLevelDataResponse append(final WaterLevelDataResponse reading) {
+    return appendAll(List.of(reading)).get(0);
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> appendAll(final List<WaterLevelDataResponse> readings) {
+    // Reject timestamps the columns cannot hold before any row is put
+    for (WaterLevelDataResponse reading : readings) {
+      if (reading.getTimestamp() != null) {
+        toEpochNanos(reading.getTimestamp());
+      }
+    }
+    Map<Long, List<Integer>> positionsByDevice = new LinkedHashMap<>();
+    for (int i = 0; i < readings.size(); i++) {
+      positionsByDevice
+          .computeIfAbsent(readings.get(i).getDeviceId(), key -> new ArrayList<>())
+          .add(i);
+    }
+    WaterLevelDataResponse[] stored = new WaterLevelDataResponse[readings.size()];
+    LocalDateTime now = LocalDateTime.now();
+    for (Map.Entry<Long, List<Integer>> entry : positionsByDevice.entrySet()) {
+      Long deviceId = entry.getKey();
+      DeviceColumns columns = devices.computeIfAbsent(deviceId, this::createDevice);
+      columns.lock.writeLock().lock();
+      try {
+        ColumnarSegment segment = columns.segment(deviceId);
+        for (int position : entry.getValue()) {
+          WaterLevelDataResponse reading = readings.get(position);
+          BigDecimal level =
+              reading.getWaterLevel().setScale(StoreConstants.LEVEL_SCALE, RoundingMode.HALF_UP);
+          LocalDateTime timestamp = reading.getTimestamp() != null ? reading.getTimestamp() : now;
+          long id = lastId.incrementAndGet();
+          segment.put(
+              id,
+              toEpochNanos(timestamp),
+              level.unscaledValue().intValueExact(),
+              (byte) reading.getPumpStatus().ordinal());
+          stored[position] =
+              new WaterLevelDataResponse(id, deviceId, level, reading.getPumpStatus(), timestamp);
+        }
+        segment.commit();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to append to device " + deviceId, e);
+      } finally {
+        columns.lock.writeLock().unlock();
+      }
+    }
+    return Arrays.asList(stored);
+  }
+
+  /** Same as {@link #appendAll}: the embedded engines have no cheaper path without IDs. */
+  @Override
+  public long bulkLoad(final List<WaterLevelDataResponse> readings) {
+    return appendAll(readings).size();
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scan(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return Stream.empty();
+    }
+    long fromNanos = toEpochNanosClamped(from);
+    long toNanos = toEpochNanosClamped(to);
+    ColumnarSegment.View view;
+    int first;
+    int end;
+    int[] tail;
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      if (segment == null) {
+        return Stream.empty();
+      }
+      view = segment.view();
+      first = segment.lowerBound(fromNanos);
+      end = Math.max(first, segment.lowerBound(toNanos));
+      tail =
+          sortedTail(
+              segment,
+              row -> segment.timestamp(row) >= fromNanos && segment.timestamp(row) < toNanos);
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+    return merge(deviceId, view, first, end, tail);
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scanAll(final LocalDateTime from, final LocalDateTime to) {
+    return List.copyOf(devices.keySet()).stream().flatMap(deviceId -> scan(deviceId, from, to));
+  }
+
+  @Override
+  public Optional<WaterLevelDataResponse> findLatest(final Long deviceId) {
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return Optional.empty();
+    }
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      if (segment == null || segment.rows() == 0) {
+        return Optional.empty();
+      }
+      int latest = segment.sortedRows() - 1;
+      for (int row = segment.sortedRows(); row < segment.rows(); row++) {
+        if (latest < 0 || segment.compareRows(row, latest) > 0) {
+          latest = row;
+        }
+      }
+      return Optional.of(toResponse(deviceId, segment.view(), latest));
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> findLatestPerDevice() {
+    List<WaterLevelDataResponse> latest = new ArrayList<>();
+    for (Long deviceId : List.copyOf(devices.keySet())) {
+      findLatest(deviceId).ifPresent(latest::add);
+    }
+    return latest;
+  }
+
+  @Override
+  public Optional<Long> findLatestId(final Long deviceId) {
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return Optional.empty();
+    }
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      if (segment == null || segment.rows() == 0) {
+        return Optional.empty();
+      }
+      return Optional.of(segment.maxId());
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Optional<LocalDateTime> findMinTimestamp() {
+    long min = Long.MAX_VALUE;
+    boolean found = false;
+    for (DeviceColumns columns : List.copyOf(devices.values())) {
+      columns.lock.readLock().lock();
+      try {
+        ColumnarSegment segment = columns.segment;
+        if (segment == null || segment.rows() == 0) {
+          continue;
+        }
+        // The first sorted row is the oldest of the prefix; the tail is unordered
+        int row = 0;
+        for (int tail = segment.sortedRows(); tail < segment.rows(); tail++) {
+          if (segment.timestamp(tail) < segment.timestamp(row)) {
+            row = tail;
+          }
+        }
+        min = Math.min(min, segment.timestamp(row));
+        found = true;
+      } finally {
+        columns.lock.readLock().unlock();
+      }
+    }
+    return found ? Optional.of(toLocalDateTime(min)) : Optional.empty();
+  }
+
+  @Override
+  public Page<WaterLevelDataResponse> findPage(final Long deviceId, final Pageable pageable) {
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return Page.empty(pageable);
+    }
+    ColumnarSegment.View view;
+    int rows;
+    int end;
+    int[] tail;
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      if (segment == null) {
+        return Page.empty(pageable);
+      }
+      view = segment.view();
+      rows = segment.rows();
+      end = segment.sortedRows();
+      tail = sortedTail(segment, row -> true);
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+    long skip = pageable.getOffset();
+    if (tail.length == 0) {
+      // Without a tail the page starts at a known sorted row
+      end = (int) Math.max(0, end - skip);
+      skip = 0;
+    }
+    List<WaterLevelDataResponse> content;
+    try (Stream<WaterLevelDataResponse> newest = mergeNewestFirst(deviceId, view, end, tail)) {
+      content = newest.skip(skip).limit(pageable.getPageSize()).toList();
+    }
+    return new PageImpl<>(content, pageable, rows);
+  }
+
+  @Override
+  public Slice<WaterLevelDataResponse> findSlice(
+      final Long deviceId, final LocalDateTime timestamp, final Long id, final int size) {
+    Pageable limit = PageRequest.of(0, size);
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return new SliceImpl<>(List.of(), limit, false);
+    }
+    long nanos = timestamp == null ? Long.MAX_VALUE : toEpochNanosClamped(timestamp);
+    long position = timestamp == null ? Long.MAX_VALUE : id;
+    ColumnarSegment.View view;
+    int end;
+    int[] tail;
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      if (segment == null) {
+        return new SliceImpl<>(List.of(), limit, false);
+      }
+      view = segment.view();
+      end = segment.lowerBound(nanos);
+      while (end < segment.sortedRows()
+          && segment.timestamp(end) == nanos
+          && segment.id(end) < position) {
+        end++;
+      }
+      tail =
+          sortedTail(
+              segment,
+              row ->
+                  segment.timestamp(row) < nanos
+                      || segment.timestamp(row) == nanos && segment.id(row) < position);
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+    List<WaterLevelDataResponse> content;
+    try (Stream<WaterLevelDataResponse> newest = mergeNewestFirst(deviceId, view, end, tail)) {
+      content = newest.limit(size + 1L).toList();
+    }
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(hasNext ? content.subList(0, size) : content, limit, hasNext);
+  }
+
+  /**
+   * Deletes all files of a device once the surrounding transaction commits, or immediately without
+   * one. The limit is ignored: dropping the generation costs the same at any size.
+   */
+  @Override
+  public int deleteBatchByDeviceId(final Long deviceId, final int limit) {
+    int rows = 0;
+    DeviceColumns existing = devices.get(deviceId);
+    if (existing != null) {
+      existing.lock.readLock().lock();
+      try {
+        rows = existing.segment != null ? existing.segment.rows() : 0;
+      } finally {
+        existing.lock.readLock().unlock();
+      }
+    }
+    TransactionUtil.runAfterCommit(
+        () -> {
+          DeviceColumns columns = devices.remove(deviceId);
+          if (columns != null) {
+            columns.lock.writeLock().lock();
+            try {
+              columns.close();
+            } finally {
+              columns.lock.writeLock().unlock();
+            }
+          }
+          deleteRecursively(deviceDirectory(deviceId));
+        });
+    return rows;
+  }
+
+  /** Compacts every device whose unsorted tail has reached the compaction threshold. */
+  @Scheduled(
+      fixedDelayString = "${water-level-data.store.compaction-interval:PT10M}",
+      initialDelayString = "${water-level-data.store.compaction-interval:PT10M}")
+  public void compactAll() {
+    for (Long deviceId : List.copyOf(devices.keySet())) {
+      DeviceColumns columns = devices.get(deviceId);
+      if (columns != null && needsCompaction(columns)) {
+        compact(deviceId);
+      }
+    }
+  }
+
+  /**
+   * Rewrites a device as a new generation with every row in time order and files trimmed to the
+   * row count. Appends and scans of the device wait until it finishes.
+   *
+   * @param deviceId the device ID
+   */
+  public void compact(final Long deviceId) {
+    DeviceColumns columns = devices.get(deviceId);
+    if (columns == null) {
+      return;
+    }
+    columns.lock.writeLock().lock();
+    try {
+      ColumnarSegment current = columns.segment;
+      if (current == null) {
+        return;
+      }
+      long generation = columns.generation + 1;
+      Path next = deviceDirectory(deviceId).resolve(GENERATION_PREFIX + generation);
+      int capacity = roundUp(current.rows(), StoreConstants.COLUMNAR_GROWTH_ROWS);
+      ColumnarSegment compacted = ColumnarSegment.create(next, capacity);
+      try {
+        current.copySortedTo(compacted);
+        compacted.commit();
+      } catch (IOException | RuntimeException e) {
+        compacted.close();
+        deleteRecursively(next);
+        throw e;
+      }
+      columns.segment = compacted;
+      columns.generation = generation;
+      current.close();
+      deleteRecursively(current.directory());
+      LOGGER.info(
+          "Compacted device {} into generation {}: {} rows", deviceId, generation, current.rows());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to compact device " + deviceId, e);
+    } finally {
+      columns.lock.writeLock().unlock();
+    }
+  }
+
+  /** Returns the matching tail rows in {@code (timestamp, id)} order. Must hold the lock. */
+  private static int[] sortedTail(final ColumnarSegment segment, final IntPredicate filter) {
+    return IntStream.range(segment.sortedRows(), segment.rows())
+        .filter(filter)
+        .boxed()
+        .sorted(segment::compareRows)
+        .mapToInt(Integer::intValue)
+        .toArray();
+  }
+
+  private static boolean needsCompaction(final DeviceColumns columns) {
+    columns.lock.readLock().lock();
+    try {
+      ColumnarSegment segment = columns.segment;
+      return segment != null
+          && segment.rows() - segment.sortedRows()
+              >= StoreConstants.COLUMNAR_COMPACTION_MIN_TAIL_ROWS;
+    } finally {
+      columns.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Streams sorted rows {@code [first, end)} merged with the given tail rows, which must already
+   * be in {@code (timestamp, id)} order.
+   */
+  private static Stream<WaterLevelDataResponse> merge(
+      final Long deviceId,
+      final ColumnarSegment.View view,
+      final int first,
+      final int end,
+      final int[] tail) {
+    Spliterator<WaterLevelDataResponse> rows =
+        new Spliterators.AbstractSpliterator<WaterLevelDataResponse>(
+            end - first + tail.length, Spliterator.ORDERED | Spliterator.NONNULL) {
+          private int next = first;
+          private int nextTail;
+
+          @Override
+          public boolean tryAdvance(final Consumer<? super WaterLevelDataResponse> action) {
+            int row;
+            if (next < end
+                && (nextTail == tail.length || view.compareRows(next, tail[nextTail]) <= 0)) {
+              row = next++;
+            } else if (nextTail < tail.length) {
+              row = tail[nextTail++];
+            } else {
+              return false;
+            }
+            action.accept(toResponse(deviceId, view, row));
+            return true;
+          }
+        };
+    return StreamSupport.stream(rows, false);
+  }
+
+  /**
+   * Streams sorted rows {@code [0, end)} merged with the given tail rows, newest first. The tail
+   * rows must be in {@code (timestamp, id)} order and are read from the last.
+   */
+  private static Stream<WaterLevelDataResponse> mergeNewestFirst(
+      final Long deviceId, final ColumnarSegment.View view, final int end, final int[] tail) {
+    Spliterator<WaterLevelDataResponse> rows =
+        new Spliterators.AbstractSpliterator<WaterLevelDataResponse>(
+            end + tail.length, Spliterator.ORDERED | Spliterator.NONNULL) {
+          private int next = end - 1;
+          private int nextTail = tail.length - 1;
+
+          @Override
+          public boolean tryAdvance(final Consumer<? super WaterLevelDataResponse> action) {
+            int row;
+            if (next >= 0 && (nextTail < 0 || view.compareRows(next, tail[nextTail]) >= 0)) {
+              row = next--;
+            } else if (nextTail >= 0) {
+              row = tail[nextTail--];
+            } else {
+              return false;
+            }
+            action.accept(toResponse(deviceId, view, row));
+            return true;
+          }
+        };
+    return StreamSupport.stream(rows, false);
+  }
+
+  private void openDevice(final Long deviceId, final Path deviceDirectory) throws IOException {
+    TreeMap<Long, Path> generations = new TreeMap<>();
+    try (DirectoryStream<Path> entries =
+        Files.newDirectoryStream(deviceDirectory, GENERATION_PREFIX + "*")) {
+      for (Path entry : entries) {
+        Long generation = parseSuffix(entry, GENERATION_PREFIX);
+        if (generation != null) {
+          generations.put(generation, entry);
+        }
+      }
+    }
+    DeviceColumns opened = null;
+    for (Map.Entry<Long, Path> generation : generations.descendingMap().entrySet()) {
+      Path generationDirectory = generation.getValue();
+      if (opened == null) {
+        try {
+          opened =
+              new DeviceColumns(generation.getKey(), ColumnarSegment.open(generationDirectory));
+          continue;
+        } catch (IOException e) {
+          LOGGER.warn(
+              "Discarding uncommitted generation {}: {}", generationDirectory, e.getMessage());
+        }
+      }
+      deleteRecursively(generationDirectory);
+    }
+    if (opened == null) {
+      deleteRecursively(deviceDirectory);
+      return;
+    }
+    devices.put(deviceId, opened);
+    lastId.accumulateAndGet(opened.segment.maxId(), Math::max);
+  }
+
+  private DeviceColumns createDevice(final Long deviceId) {
+    try {
+      Path first = deviceDirectory(deviceId).resolve(GENERATION_PREFIX + 0);
+      return new DeviceColumns(0, ColumnarSegment.create(first, 0));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create columns of device " + deviceId, e);
+    }
+  }
+
+  private Path deviceDirectory(final Long deviceId) {
+    return directory.resolve(DEVICE_PREFIX + deviceId);
+  }
+
+  private static WaterLevelDataResponse toResponse(
+      final Long deviceId, final ColumnarSegment.View view, final int row) {
+    return new WaterLevelDataResponse(
+        view.id(row),
+        deviceId,
+        BigDecimal.valueOf(view.level(row), StoreConstants.LEVEL_SCALE),
+        STATUSES[view.status(row)],
+        toLocalDateTime(view.timestamp(row)));
+  }
+
+  private static LocalDateTime toLocalDateTime(final long nanos) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(nanos, NANOS_PER_SECOND),
+        (int) Math.floorMod(nanos, NANOS_PER_SECOND),
+        ZoneOffset.UTC);
+  }
+
+  private static long toEpochNanos(final LocalDateTime timestamp) {
+    try {
+      return Math.addExact(
+          Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND),
+          timestamp.getNano());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("Timestamp out of range: " + timestamp, e);
+    }
+  }
+
+  /** Converts a range bound, saturating bounds beyond the representable years. */
+  private static long toEpochNanosClamped(final LocalDateTime timestamp) {
+    long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+    if (seconds >= Long.MAX_VALUE / NANOS_PER_SECOND) {
+      return Long.MAX_VALUE;
+    }
+    if (seconds <= Long.MIN_VALUE / NANOS_PER_SECOND) {
+      return Long.MIN_VALUE;
+    }
+    return seconds * NANOS_PER_SECOND + timestamp.getNano();
+  }
+
+  private static int roundUp(final int rows, final int step) {
+    return (int) Math.min(ColumnarSegment.MAX_ROWS, ((long) rows + step - 1) / step * step);
+  }
+
+  private static Long parseSuffix(final Path path, final String prefix) {
+    try {
+      return Long.valueOf(path.getFileName().toString().substring(prefix.length()));
+    } catch (NumberFormatException e) {
+      LOGGER.warn("Ignoring unexpected entry in columnar store: {}", path);
+      return null;
+    }
+  }
+
+  private static void deleteRecursively(final Path path) {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (Stream<Path> entries = Files.walk(path)) {
+      for (Path entry : entries.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(entry);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete " + path, e);
+    }
+  }
+
+  /** The current generation of one device and the lock guarding it. */
+  private static final class DeviceColumns {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long generation;
+    private volatile ColumnarSegment segment;
+
+    private DeviceColumns(final long generation, final ColumnarSegment segment) {
+      this.generation = generation;
+      this.segment = segment;
+    }
+
+    /** Returns the open segment, failing if the device was deleted meanwhile. */
+    private ColumnarSegment segment(final Long deviceId) {
+      if (segment == null) {
+        throw new IllegalStateException("Device " + deviceId + " was deleted");
+      }
+      return segment;
+    }
+
+    private void close() {
+      if (segment != null) {
+        segment.close();
+        segment = null;
+      }
+    }
+  }
+}
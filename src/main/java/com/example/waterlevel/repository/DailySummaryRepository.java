@@ -0,0 +1,39 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.entity.DailySummary;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DailySummaryRepository extends JpaRepository<DailySummary, Long> {
+
+  /** Finds a device's summaries for the days within {@code [from, to]}, oldest first. */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.DailySummaryResponse("
+          + "s.summaryDate, s.readingCount, s.minLevel, s.maxLevel, s.avgLevel, "
+          + "s.pumpRuntimeSeconds, s.pumpCycles, s.pumpDutyCycle) "
+          + "FROM DailySummary s WHERE s.device.id = :deviceId "
+          + "AND s.summaryDate >= :from AND s.summaryDate <= :to ORDER BY s.summaryDate")
+  List<DailySummaryResponse> findByDeviceIdAndDateRange(
+      @Param("deviceId") Long deviceId,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  @Modifying
+  @Query("DELETE FROM DailySummary s WHERE s.summaryDate = :date AND s.device.id IN :deviceIds")
+  void deleteByDateAndDeviceIds(
+      @Param("date") LocalDate date, @Param("deviceIds") Collection<Long> deviceIds);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM DailySummary s WHERE s.device.id = :deviceId")
+  void deleteByDeviceId(@Param("deviceId") Long deviceId);
+}
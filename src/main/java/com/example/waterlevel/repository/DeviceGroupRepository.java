@@ -0,0 +1,12 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.DeviceGroup;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeviceGroupRepository extends JpaRepository<DeviceGroup, Long> {
+
+  List<DeviceGroup> findByAdminIdOrderByNameAsc(Long adminId);
+}
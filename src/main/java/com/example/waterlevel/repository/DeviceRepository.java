@@ -1,31 +1,39 @@
 package com.example.waterlevel.repository;
 
 import com.example.waterlevel.entity.Device;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, DeviceRepositoryCustom {
 
   /**
-   * Finds device by key with admin eagerly loaded to prevent N+1 queries. EntityGraph ensures admin
-   * is fetched in the same query using JOIN.
+   * Finds a device by ID with admin fetched in the same query. Admin is lazy, and callers use this
+   * lookup for ownership checks and for mapping devices to responses.
    */
   @EntityGraph(attributePaths = {"admin"})
-  Optional<Device> findByDeviceKey(String deviceKey);
+  @Override
+  Optional<Device> findById(Long id);
 
   /**
-   * Finds all devices with admin eagerly loaded to prevent N+1 queries. EntityGraph ensures admin
-   * is fetched in the same query using JOIN.
+   * Finds all devices not marked as deleted, with admin eagerly loaded to prevent N+1 queries.
+   * EntityGraph ensures admin is fetched in the same query using JOIN.
+   *
+   * <p>The result is query-cached; Hibernate invalidates it whenever the devices table changes.
    */
   @EntityGraph(attributePaths = {"admin"})
-  @Override
-  Page<Device> findAll(Pageable pageable);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  Page<Device> findByDeletedFalse(Pageable pageable);
 
   /**
    * Finds all devices with admin eagerly loaded to prevent N+1 queries. EntityGraph ensures admin
@@ -35,5 +43,20 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
   @Override
   List<Device> findAll();
 
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   boolean existsByAdminId(Long adminId);
+
+  boolean existsByIdAndDeletedFalse(Long id);
+
+  long countByIdInAndDeletedFalse(Collection<Long> ids);
+
+  @Query("SELECT d.id FROM Device d WHERE d.deleted = false ORDER BY d.id")
+  List<Long> findAllIds();
+
+  /** Finds the live devices that belong to a site or region, for rebuilding group metrics. */
+  List<Device> findByGroupIsNotNullAndDeletedFalse();
+
+  /** Returns devices whose deletion was requested but whose purge has not finished yet. */
+  @Query("SELECT d.id FROM Device d WHERE d.deleted = true ORDER BY d.id")
+  List<Long> findDeletedIds();
 }
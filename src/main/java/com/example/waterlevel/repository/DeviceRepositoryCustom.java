@@ -0,0 +1,20 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.Device;
+import java.util.Optional;
+import java.util.UUID;
+
+/** Custom device lookups that cannot be expressed as derived Spring Data queries. */
+public interface DeviceRepositoryCustom {
+
+  /**
+   * Finds a device by its natural key.
+   *
+   * <p>Resolved through Hibernate's natural-id API so that repeated lookups (one per MQTT message)
+   * are served from the second-level cache instead of the database.
+   *
+   * @param deviceKey the device key
+   * @return the device, or empty if no device has this key
+   */
+  Optional<Device> findByDeviceKey(UUID deviceKey);
+}
@@ -0,0 +1,27 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.Device;
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Natural-id backed implementation of {@link DeviceRepositoryCustom}. */
+public class DeviceRepositoryCustomImpl implements DeviceRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  public DeviceRepositoryCustomImpl(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Device> findByDeviceKey(final UUID deviceKey) {
+    return entityManager
+        .unwrap(Session.class)
+        .bySimpleNaturalId(Device.class)
+        .loadOptional(deviceKey);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.DirtyBucket;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DirtyBucketRepository extends JpaRepository<DirtyBucket, Long> {
+
+  /** Finds the marks of a job, loaded at startup. */
+  List<DirtyBucket> findByJobName(String jobName);
+
+  /**
+   * Stores a mark unless the bucket is already marked, so marking a bucket twice never violates
+   * the unique key on {@code (job_name, device_id, bucket_start)}.
+   *
+   * @return 1 if the mark was stored, 0 if it already existed
+   */
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO rollup_dirty_bucket (job_name, device_id, bucket_start) "
+              + "SELECT :jobName, :deviceId, :bucketStart WHERE NOT EXISTS ("
+              + "SELECT 1 FROM rollup_dirty_bucket WHERE job_name = :jobName "
+              + "AND device_id = :deviceId AND bucket_start = :bucketStart)",
+      nativeQuery = true)
+  int insertMark(
+      @Param("jobName") String jobName,
+      @Param("deviceId") Long deviceId,
+      @Param("bucketStart") LocalDateTime bucketStart);
+
+  @Modifying
+  @Query(
+      "DELETE FROM DirtyBucket d WHERE d.jobName = :jobName AND d.device.id = :deviceId "
+          + "AND d.bucketStart = :bucketStart")
+  void deleteMark(
+      @Param("jobName") String jobName,
+      @Param("deviceId") Long deviceId,
+      @Param("bucketStart") LocalDateTime bucketStart);
+
+  @Modifying
+  @Query(
+      "DELETE FROM DirtyBucket d WHERE d.jobName = :jobName AND d.device.id IN :deviceIds "
+          + "AND d.bucketStart = :bucketStart")
+  void deleteMarks(
+      @Param("jobName") String jobName,
+      @Param("deviceIds") List<Long> deviceIds,
+      @Param("bucketStart") LocalDateTime bucketStart);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM DirtyBucket d WHERE d.jobName = :jobName AND d.device.id = :deviceId")
+  void deleteByJobNameAndDeviceId(
+      @Param("jobName") String jobName, @Param("deviceId") Long deviceId);
+}
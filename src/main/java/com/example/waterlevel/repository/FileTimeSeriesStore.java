@@ -0,0 +1,611 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Embedded {@link TimeSeriesStore} for single-node edge deployments.
+ *
+ * <p>The logs are the system of record: no {@code water_level_data} table is written or read.
+ * Each device has an append-only log {@code device-<id>.log} of fixed-size records: ID, epoch
+ * second and nanos of the timestamp, water level unscaled at {@link StoreConstants#LEVEL_SCALE},
+ * and pump status ordinal. Every append call is forced to disk before it returns, and is not
+ * undone if the surrounding transaction rolls back. IDs come from one counter shared by all
+ * devices and are assigned under the device lock, so each log is in ID order and the counter is
+ * recovered from the last record of every log on startup. A torn record left by a crash mid-write
+ * is truncated at the same time.
+ *
+ * <p>Reads stream the log in batches without loading it. While a log is in {@code (timestamp, id)}
+ * order, which holds as long as readings arrive in order, range scans, pages and cursors
+ * binary-search their first record and the latest reading is the last record. Once an
+ * out-of-order reading has been appended, reads of that device take a pass over its whole log and
+ * sort what they return.
+ */
+@Repository
+@ConditionalOnProperty(
+    name = StoreConstants.STORE_TYPE_PROPERTY,
+    havingValue = StoreConstants.STORE_TYPE_FILE)
+public class FileTimeSeriesStore implements TimeSeriesStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileTimeSeriesStore.class);
+
+  /** Bytes per record: id, epoch second, nanos, unscaled level, status. */
+  static final int RECORD_SIZE = Long.BYTES * 3 + Integer.BYTES + 1;
+
+  private static final int READ_BATCH_RECORDS = 4096;
+  private static final String FILE_PREFIX = "device-";
+  private static final String FILE_SUFFIX = ".log";
+  private static final PumpStatus[] STATUSES = PumpStatus.values();
+  private static final Comparator<WaterLevelDataResponse> TIME_ORDER =
+      Comparator.comparing(WaterLevelDataResponse::getTimestamp)
+          .thenComparing(WaterLevelDataResponse::getId);
+
+  private final Path directory;
+  private final Map<Long, DeviceLog> logs = new ConcurrentHashMap<>();
+  private final AtomicLong lastId = new AtomicLong();
+
+  public FileTimeSeriesStore(
+      @Value(
+              "${water-level-data.store.directory:"
+                  + StoreConstants.DEFAULT_STORE_DIRECTORY
+                  + "}")
+          final String directory) {
+    this.directory = Path.of(directory);
+  }
+
+  /** Opens the existing device logs, repairing torn tails and recovering the ID counter. */
+  @PostConstruct
+  public void init() {
+    try {
+      Files.createDirectories(directory);
+      try (DirectoryStream<Path> files =
+          Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+        for (Path file : files) {
+          Long deviceId = parseDeviceId(file);
+          if (deviceId != null) {
+            logs.put(deviceId, openLog(deviceId));
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open time series store in " + directory, e);
+    }
+    LOGGER.info(
+        "Opened file time series store in {}: {} devices, last id {}",
+        directory,
+        logs.size(),
+        lastId.get());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (DeviceLog log : logs.values()) {
+      synchronized (log) {
+        closeQuietly(log.channel);
+      }
+    }
+    logs.clear();
+  }
+
+  @Override
+  public WaterLevelDataResponse append(final WaterLevelDataResponse reading) {
+    return appendAll(List.of(reading)).get(0);
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> appendAll(final List<WaterLevelDataResponse> readings) {
+    Map<Long, List<Integer>> positionsByDevice = new LinkedHashMap<>();
+    for (int i = 0; i < readings.size(); i++) {
+      positionsByDevice
+          .computeIfAbsent(readings.get(i).getDeviceId(), key -> new ArrayList<>())
+          .add(i);
+    }
+    WaterLevelDataResponse[] stored = new WaterLevelDataResponse[readings.size()];
+    LocalDateTime now = LocalDateTime.now();
+    for (Map.Entry<Long, List<Integer>> entry : positionsByDevice.entrySet()) {
+      Long deviceId = entry.getKey();
+      List<Integer> positions = entry.getValue();
+      DeviceLog log = logs.computeIfAbsent(deviceId, this::openLogUnchecked);
+      ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * positions.size());
+      synchronized (log) {
+        for (int position : positions) {
+          WaterLevelDataResponse reading = readings.get(position);
+          BigDecimal level =
+              reading.getWaterLevel().setScale(StoreConstants.LEVEL_SCALE, RoundingMode.HALF_UP);
+          WaterLevelDataResponse row =
+              new WaterLevelDataResponse(
+                  lastId.incrementAndGet(),
+                  deviceId,
+                  level,
+                  reading.getPumpStatus(),
+                  reading.getTimestamp() != null ? reading.getTimestamp() : now);
+          encode(row, buffer);
+          stored[position] = row;
+        }
+        buffer.flip();
+        try {
+          long offset = log.channel.size();
+          while (buffer.hasRemaining()) {
+            offset += log.channel.write(buffer, offset);
+          }
+          log.channel.force(false);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to append to device " + deviceId, e);
+        }
+        for (int position : positions) {
+          WaterLevelDataResponse row = stored[position];
+          if (log.last != null && TIME_ORDER.compare(row, log.last) < 0) {
+            log.timeOrdered = false;
+          } else {
+            log.last = row;
+          }
+        }
+      }
+    }
+    return Arrays.asList(stored);
+  }
+
+  /** Same as {@link #appendAll}: the embedded engines have no cheaper path without IDs. */
+  @Override
+  public long bulkLoad(final List<WaterLevelDataResponse> readings) {
+    return appendAll(readings).size();
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scan(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null) {
+      return Stream.empty();
+    }
+    if (!log.timeOrdered) {
+      return range(log, from, to).sorted(TIME_ORDER);
+    }
+    return range(log, from, to);
+  }
+
+  /** Streams device by device; within a device, same order as {@link #scan} but never sorted. */
+  @Override
+  public Stream<WaterLevelDataResponse> scanAll(final LocalDateTime from, final LocalDateTime to) {
+    return List.copyOf(logs.keySet()).stream()
+        .map(this::snapshot)
+        .filter(Objects::nonNull)
+        .flatMap(log -> range(log, from, to));
+  }
+
+  @Override
+  public Optional<WaterLevelDataResponse> findLatest(final Long deviceId) {
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null || log.records == 0) {
+      return Optional.empty();
+    }
+    if (log.timeOrdered) {
+      return Optional.of(readRecord(log, log.records - 1));
+    }
+    try (Stream<WaterLevelDataResponse> rows = read(log, 0, log.records)) {
+      return rows.max(TIME_ORDER);
+    }
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> findLatestPerDevice() {
+    List<WaterLevelDataResponse> latest = new ArrayList<>();
+    for (Long deviceId : List.copyOf(logs.keySet())) {
+      findLatest(deviceId).ifPresent(latest::add);
+    }
+    return latest;
+  }
+
+  /** Reads the last record: IDs grow in log order. */
+  @Override
+  public Optional<Long> findLatestId(final Long deviceId) {
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null || log.records == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(readRecord(log, log.records - 1).getId());
+  }
+
+  @Override
+  public Optional<LocalDateTime> findMinTimestamp() {
+    LocalDateTime min = null;
+    for (Long deviceId : List.copyOf(logs.keySet())) {
+      LogSnapshot log = snapshot(deviceId);
+      if (log == null || log.records == 0) {
+        continue;
+      }
+      LocalDateTime oldest;
+      if (log.timeOrdered) {
+        oldest = readRecord(log, 0).getTimestamp();
+      } else {
+        try (Stream<WaterLevelDataResponse> rows = read(log, 0, log.records)) {
+          oldest =
+              rows.map(WaterLevelDataResponse::getTimestamp)
+                  .min(Comparator.naturalOrder())
+                  .orElseThrow();
+        }
+      }
+      if (min == null || oldest.isBefore(min)) {
+        min = oldest;
+      }
+    }
+    return Optional.ofNullable(min);
+  }
+
+  @Override
+  public Page<WaterLevelDataResponse> findPage(final Long deviceId, final Pageable pageable) {
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null) {
+      return Page.empty(pageable);
+    }
+    List<WaterLevelDataResponse> content;
+    if (log.timeOrdered) {
+      long end = Math.max(0, log.records - pageable.getOffset());
+      long first = Math.max(0, end - pageable.getPageSize());
+      content = newestFirst(log, first, end);
+    } else {
+      try (Stream<WaterLevelDataResponse> rows = read(log, 0, log.records)) {
+        content =
+            rows.sorted(TIME_ORDER.reversed())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+      }
+    }
+    return new PageImpl<>(content, pageable, log.records);
+  }
+
+  @Override
+  public Slice<WaterLevelDataResponse> findSlice(
+      final Long deviceId, final LocalDateTime timestamp, final Long id, final int size) {
+    Pageable limit = PageRequest.of(0, size);
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null) {
+      return new SliceImpl<>(List.of(), limit, false);
+    }
+    Predicate<WaterLevelDataResponse> before =
+        row ->
+            timestamp == null
+                || row.getTimestamp().isBefore(timestamp)
+                || row.getTimestamp().equals(timestamp) && row.getId() < id;
+    List<WaterLevelDataResponse> content;
+    if (log.timeOrdered) {
+      long end = firstNotMatching(log, before);
+      content = newestFirst(log, Math.max(0, end - size - 1), end);
+    } else {
+      try (Stream<WaterLevelDataResponse> rows = read(log, 0, log.records)) {
+        content = rows.filter(before).sorted(TIME_ORDER.reversed()).limit(size + 1L).toList();
+      }
+    }
+    boolean hasNext = content.size() > size;
+    return new SliceImpl<>(hasNext ? content.subList(0, size) : content, limit, hasNext);
+  }
+
+  /**
+   * Deletes the whole log of a device once the surrounding transaction commits, or immediately
+   * without one. The limit is ignored: dropping the file costs the same at any size.
+   */
+  @Override
+  public int deleteBatchByDeviceId(final Long deviceId, final int limit) {
+    LogSnapshot log = snapshot(deviceId);
+    if (log == null) {
+      return 0;
+    }
+    TransactionUtil.runAfterCommit(
+        () -> {
+          DeviceLog removed = logs.remove(deviceId);
+          if (removed != null) {
+            synchronized (removed) {
+              closeQuietly(removed.channel);
+            }
+          }
+          try {
+            Files.deleteIfExists(logFile(deviceId));
+          } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete log of device " + deviceId, e);
+          }
+        });
+    return (int) Math.min(Integer.MAX_VALUE, log.records);
+  }
+
+  /** Takes the record count and order of a device's log, or null if it has none. */
+  private LogSnapshot snapshot(final Long deviceId) {
+    DeviceLog log = logs.get(deviceId);
+    if (log == null) {
+      return null;
+    }
+    synchronized (log) {
+      return new LogSnapshot(
+          deviceId, log.channel, records(deviceId, log), isTimeOrdered(deviceId, log));
+    }
+  }
+
+  /** Streams the records within {@code [from, to)} in log order. */
+  private static Stream<WaterLevelDataResponse> range(
+      final LogSnapshot log, final LocalDateTime from, final LocalDateTime to) {
+    if (!log.timeOrdered) {
+      return read(log, 0, log.records)
+          .filter(row -> !row.getTimestamp().isBefore(from) && row.getTimestamp().isBefore(to));
+    }
+    long first = firstNotMatching(log, row -> row.getTimestamp().isBefore(from));
+    return read(log, first, log.records).takeWhile(row -> row.getTimestamp().isBefore(to));
+  }
+
+  /** Reads records {@code [first, end)} of a time-ordered log, newest first. */
+  private static List<WaterLevelDataResponse> newestFirst(
+      final LogSnapshot log, final long first, final long end) {
+    List<WaterLevelDataResponse> rows;
+    try (Stream<WaterLevelDataResponse> records = read(log, first, end)) {
+      rows = new ArrayList<>(records.toList());
+    }
+    Collections.reverse(rows);
+    return rows;
+  }
+
+  /** Checks the order of a log, reading it once on first use. Must hold the log's monitor. */
+  private boolean isTimeOrdered(final Long deviceId, final DeviceLog log) {
+    if (log.timeOrdered == null) {
+      WaterLevelDataResponse[] previous = new WaterLevelDataResponse[1];
+      try (Stream<WaterLevelDataResponse> rows =
+          read(deviceId, log.channel, 0, records(deviceId, log))) {
+        log.timeOrdered =
+            rows.allMatch(
+                row -> {
+                  boolean ordered =
+                      previous[0] == null || TIME_ORDER.compare(row, previous[0]) >= 0;
+                  previous[0] = row;
+                  return ordered;
+                });
+      }
+    }
+    return log.timeOrdered;
+  }
+
+  /** Returns the number of complete records in a log. Must hold the log's monitor. */
+  private static long records(final Long deviceId, final DeviceLog log) {
+    try {
+      return log.channel.size() / RECORD_SIZE;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read log of device " + deviceId, e);
+    }
+  }
+
+  /**
+   * Finds the first record of a time-ordered log that does not match a predicate which holds for
+   * a prefix of the log in {@code (timestamp, id)} order.
+   */
+  private static long firstNotMatching(
+      final LogSnapshot log, final Predicate<WaterLevelDataResponse> before) {
+    long low = 0;
+    long high = log.records;
+    while (low < high) {
+      long mid = (low + high) >>> 1;
+      if (before.test(readRecord(log, mid))) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static WaterLevelDataResponse readRecord(final LogSnapshot log, final long record) {
+    return readRecord(log.deviceId, log.channel, record);
+  }
+
+  private static WaterLevelDataResponse readRecord(
+      final Long deviceId, final FileChannel channel, final long record) {
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+    fill(deviceId, channel, buffer, record * RECORD_SIZE);
+    buffer.flip();
+    return decode(deviceId, buffer);
+  }
+
+  private static Stream<WaterLevelDataResponse> read(
+      final LogSnapshot log, final long first, final long end) {
+    return read(log.deviceId, log.channel, first, end);
+  }
+
+  /** Streams records {@code [first, end)} of a log in log order, reading one batch at a time. */
+  private static Stream<WaterLevelDataResponse> read(
+      final Long deviceId, final FileChannel channel, final long first, final long end) {
+    Spliterator<WaterLevelDataResponse> records =
+        new Spliterators.AbstractSpliterator<WaterLevelDataResponse>(
+            end - first, Spliterator.ORDERED | Spliterator.NONNULL) {
+          private final ByteBuffer buffer =
+              ByteBuffer.allocate(RECORD_SIZE * READ_BATCH_RECORDS).flip();
+          private long next = first;
+
+          @Override
+          public boolean tryAdvance(final Consumer<? super WaterLevelDataResponse> action) {
+            if (!buffer.hasRemaining()) {
+              if (next >= end) {
+                return false;
+              }
+              long batch = Math.min(READ_BATCH_RECORDS, end - next);
+              buffer.clear().limit((int) batch * RECORD_SIZE);
+              fill(deviceId, channel, buffer, next * RECORD_SIZE);
+              buffer.flip();
+              next += batch;
+            }
+            action.accept(decode(deviceId, buffer));
+            return true;
+          }
+        };
+    return StreamSupport.stream(records, false);
+  }
+
+  private static void fill(
+      final Long deviceId, final FileChannel channel, final ByteBuffer buffer, final long offset) {
+    try {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, offset + buffer.position()) < 0) {
+          throw new EOFException("Log of device " + deviceId + " ended unexpectedly");
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read log of device " + deviceId, e);
+    }
+  }
+
+  private DeviceLog openLogUnchecked(final Long deviceId) {
+    try {
+      return openLog(deviceId);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open log of device " + deviceId, e);
+    }
+  }
+
+  private DeviceLog openLog(final Long deviceId) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            logFile(deviceId),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    long size = channel.size();
+    long complete = size - size % RECORD_SIZE;
+    if (complete != size) {
+      LOGGER.warn(
+          "Truncating torn record at end of log of device {} ({} of {} bytes kept)",
+          deviceId,
+          complete,
+          size);
+      channel.truncate(complete);
+    }
+    DeviceLog log = new DeviceLog(channel);
+    if (complete > 0) {
+      log.last = readRecord(deviceId, channel, complete / RECORD_SIZE - 1);
+      lastId.accumulateAndGet(log.last.getId(), Math::max);
+    } else {
+      log.timeOrdered = true;
+    }
+    return log;
+  }
+
+  private Path logFile(final Long deviceId) {
+    return directory.resolve(FILE_PREFIX + deviceId + FILE_SUFFIX);
+  }
+
+  private static Long parseDeviceId(final Path file) {
+    String name = file.getFileName().toString();
+    try {
+      return Long.valueOf(
+          name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      LOGGER.warn("Ignoring unexpected file in time series store: {}", file);
+      return null;
+    }
+  }
+
+  private static void encode(final WaterLevelDataResponse row, final ByteBuffer buffer) {
+    buffer.putLong(row.getId());
+    buffer.putLong(row.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+    buffer.putInt(row.getTimestamp().getNano());
+    buffer.putLong(row.getWaterLevel().unscaledValue().longValueExact());
+    buffer.put((byte) row.getPumpStatus().ordinal());
+  }
+
+  private static WaterLevelDataResponse decode(final Long deviceId, final ByteBuffer buffer) {
+    long id = buffer.getLong();
+    long epochSecond = buffer.getLong();
+    int nanos = buffer.getInt();
+    long unscaledLevel = buffer.getLong();
+    PumpStatus status = STATUSES[buffer.get()];
+    return new WaterLevelDataResponse(
+        id,
+        deviceId,
+        BigDecimal.valueOf(unscaledLevel, StoreConstants.LEVEL_SCALE),
+        status,
+        LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC));
+  }
+
+  private static void closeQuietly(final FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to close time series log: {}", e.getMessage());
+    }
+  }
+
+  /** The open log of one device and what is known about its order. Guarded by its monitor. */
+  private static final class DeviceLog {
+
+    private final FileChannel channel;
+
+    /** Whether the records are in {@code (timestamp, id)} order; null until checked. */
+    private Boolean timeOrdered;
+
+    /** The newest record of a time-ordered log, or the last record when the order is unknown. */
+    private WaterLevelDataResponse last;
+
+    private DeviceLog(final FileChannel channel) {
+      this.channel = channel;
+    }
+  }
+
+  /** A consistent view of a log for one read: later appends fall outside its record count. */
+  private static final class LogSnapshot {
+
+    private final Long deviceId;
+    private final FileChannel channel;
+    private final long records;
+    private final boolean timeOrdered;
+
+    private LogSnapshot(
+        final Long deviceId,
+        final FileChannel channel,
+        final long records,
+        final boolean timeOrdered) {
+      this.deviceId = deviceId;
+      this.channel = channel;
+      this.records = records;
+      this.timeOrdered = timeOrdered;
+    }
+  }
+}
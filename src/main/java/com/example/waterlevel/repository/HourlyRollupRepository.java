@@ -0,0 +1,66 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.HourlyRollupSample;
+import com.example.waterlevel.entity.HourlyRollup;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface HourlyRollupRepository extends JpaRepository<HourlyRollup, Long> {
+
+  /** Finds a device's rollups for the hours starting within {@code [from, to)}, oldest first. */
+  @Query(
+      "SELECT r FROM HourlyRollup r WHERE r.device.id = :deviceId "
+          + "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+  List<HourlyRollup> findByDeviceIdAndBucketRange(
+      @Param("deviceId") Long deviceId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Streams the count, level sum and pump ON count of a device's rollups for the hours starting
+   * within {@code [from, to)}, oldest first.
+   *
+   * <p>Range scan on {@code uk_water_level_hourly_device_bucket} that leaves the serialized
+   * sketches unread. Must be consumed inside a transaction and closed after use.
+   */
+  @QueryHints(
+      @QueryHint(
+          name = HibernateHints.HINT_FETCH_SIZE,
+          value = HistoryQueryConstants.STREAM_FETCH_SIZE))
+  @Query(
+      "SELECT new com.example.waterlevel.dto.HourlyRollupSample("
+          + "r.bucketStart, r.readingCount, r.sumLevel, r.pumpOnCount) "
+          + "FROM HourlyRollup r WHERE r.device.id = :deviceId "
+          + "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+  Stream<HourlyRollupSample> streamSamplesByDeviceIdAndBucketRange(
+      @Param("deviceId") Long deviceId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Modifying
+  @Query("DELETE FROM HourlyRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+  void deleteByBucketRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Modifying
+  @Query(
+      "DELETE FROM HourlyRollup r WHERE r.device.id = :deviceId AND r.bucketStart = :bucketStart")
+  void deleteByDeviceIdAndBucketStart(
+      @Param("deviceId") Long deviceId, @Param("bucketStart") LocalDateTime bucketStart);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM HourlyRollup r WHERE r.device.id = :deviceId")
+  void deleteByDeviceId(@Param("deviceId") Long deviceId);
+}
@@ -0,0 +1,189 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link TimeSeriesStore} on plain JDBC.
+ *
+ * <p>Appends are sent as JDBC batches of up to {@link StoreConstants#JDBC_BATCH_SIZE} rows with
+ * generated keys returned in the same round trip, bypassing the persistence context and its
+ * per-entity bookkeeping. Scans read from a forward-only cursor like {@link
+ * WaterLevelDataExportRepository}; paging and aggregates are shared with the JPA engine.
+ */
+@Repository
+@ConditionalOnProperty(
+    name = StoreConstants.STORE_TYPE_PROPERTY,
+    havingValue = StoreConstants.STORE_TYPE_JDBC)
+public class JdbcTimeSeriesStore extends SqlTimeSeriesStore {
+
+  private static final String INSERT =
+      "INSERT INTO water_level_data (device_id, water_level, pump_status, timestamp)"
+          + " VALUES (?, ?, ?, ?)";
+  private static final String DEVICE_RANGE_QUERY =
+      "SELECT id, device_id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE device_id = ? AND timestamp >= ? AND timestamp < ?"
+          + " ORDER BY timestamp, id";
+  private static final String RANGE_QUERY =
+      "SELECT id, device_id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE timestamp >= ? AND timestamp < ?";
+  private static final String LATEST_QUERY =
+      "SELECT id, device_id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE device_id = ? ORDER BY timestamp DESC, id DESC LIMIT 1";
+  private static final String DELETE_BATCH =
+      "DELETE FROM water_level_data WHERE id IN"
+          + " (SELECT id FROM water_level_data WHERE device_id = ? LIMIT ?)";
+
+  private static final RowMapper<WaterLevelDataResponse> ROW_MAPPER =
+      (rs, rowNum) ->
+          new WaterLevelDataResponse(
+              rs.getLong("id"),
+              rs.getLong("device_id"),
+              rs.getBigDecimal("water_level"),
+              PumpStatus.fromString(rs.getString("pump_status")),
+              rs.getTimestamp("timestamp").toLocalDateTime());
+
+  private final JdbcTemplate jdbcTemplate;
+  private final WaterLevelDataBulkLoader bulkLoader;
+
+  public JdbcTimeSeriesStore(
+      final WaterLevelDataRepository waterLevelDataRepository,
+      final WaterLevelDataExportRepository waterLevelDataExportRepository,
+      final JdbcTemplate jdbcTemplate,
+      final WaterLevelDataBulkLoader bulkLoader) {
+    super(waterLevelDataRepository, waterLevelDataExportRepository);
+    this.jdbcTemplate = jdbcTemplate;
+    this.bulkLoader = bulkLoader;
+  }
+
+  @Override
+  public WaterLevelDataResponse append(final WaterLevelDataResponse reading) {
+    return insertBatch(List.of(reading)).get(0);
+  }
+
+  @Override
+  @Transactional
+  public List<WaterLevelDataResponse> appendAll(final List<WaterLevelDataResponse> readings) {
+    List<WaterLevelDataResponse> stored = new ArrayList<>(readings.size());
+    for (int start = 0; start < readings.size(); start += StoreConstants.JDBC_BATCH_SIZE) {
+      int end = Math.min(readings.size(), start + StoreConstants.JDBC_BATCH_SIZE);
+      stored.addAll(insertBatch(readings.subList(start, end)));
+    }
+    return stored;
+  }
+
+  @Override
+  @Transactional
+  public long bulkLoad(final List<WaterLevelDataResponse> readings) {
+    return bulkLoader.load(readings);
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scan(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    return jdbcTemplate.queryForStream(
+        connection -> {
+          PreparedStatement statement = cursorStatement(connection, DEVICE_RANGE_QUERY);
+          statement.setLong(1, deviceId);
+          statement.setTimestamp(2, Timestamp.valueOf(from));
+          statement.setTimestamp(3, Timestamp.valueOf(to));
+          return statement;
+        },
+        ROW_MAPPER);
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scanAll(final LocalDateTime from, final LocalDateTime to) {
+    return jdbcTemplate.queryForStream(
+        connection -> {
+          PreparedStatement statement = cursorStatement(connection, RANGE_QUERY);
+          statement.setTimestamp(1, Timestamp.valueOf(from));
+          statement.setTimestamp(2, Timestamp.valueOf(to));
+          return statement;
+        },
+        ROW_MAPPER);
+  }
+
+  @Override
+  public Optional<WaterLevelDataResponse> findLatest(final Long deviceId) {
+    return jdbcTemplate.query(LATEST_QUERY, ROW_MAPPER, deviceId).stream().findFirst();
+  }
+
+  @Override
+  @Transactional
+  public int deleteBatchByDeviceId(final Long deviceId, final int limit) {
+    return jdbcTemplate.update(DELETE_BATCH, deviceId, limit);
+  }
+
+  private List<WaterLevelDataResponse> insertBatch(final List<WaterLevelDataResponse> batch) {
+    List<LocalDateTime> timestamps = new ArrayList<>(batch.size());
+    LocalDateTime now = LocalDateTime.now();
+    for (WaterLevelDataResponse reading : batch) {
+      timestamps.add(reading.getTimestamp() != null ? reading.getTimestamp() : now);
+    }
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.batchUpdate(
+        connection -> connection.prepareStatement(INSERT, new String[] {"id"}),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(final PreparedStatement statement, final int i)
+              throws SQLException {
+            WaterLevelDataResponse reading = batch.get(i);
+            statement.setLong(1, reading.getDeviceId());
+            statement.setBigDecimal(2, reading.getWaterLevel());
+            statement.setString(3, reading.getPumpStatus().name());
+            statement.setTimestamp(4, Timestamp.valueOf(timestamps.get(i)));
+          }
+
+          @Override
+          public int getBatchSize() {
+            return batch.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> keys = keyHolder.getKeyList();
+    List<WaterLevelDataResponse> stored = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      WaterLevelDataResponse reading = batch.get(i);
+      Number id = (Number) keys.get(i).values().iterator().next();
+      stored.add(
+          new WaterLevelDataResponse(
+              id.longValue(),
+              reading.getDeviceId(),
+              reading.getWaterLevel(),
+              reading.getPumpStatus(),
+              timestamps.get(i)));
+    }
+    return stored;
+  }
+
+  private static PreparedStatement cursorStatement(final Connection connection, final String sql)
+      throws SQLException {
+    PreparedStatement statement =
+        connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    statement.setFetchSize(Integer.parseInt(HistoryQueryConstants.STREAM_FETCH_SIZE));
+    return statement;
+  }
+}
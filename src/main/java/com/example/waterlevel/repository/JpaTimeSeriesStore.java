@@ -0,0 +1,110 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.WaterLevelData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link TimeSeriesStore} backed by {@link WaterLevelDataRepository}.
+ *
+ * <p>The default engine. Appends go through the persistence context (Hibernate batches them per
+ * {@code hibernate.jdbc.batch_size}); devices are attached as references, so appending never loads
+ * a Device row. Bulk loads bypass it through {@link WaterLevelDataBulkLoader}.
+ */
+@Repository
+@ConditionalOnProperty(
+    name = StoreConstants.STORE_TYPE_PROPERTY,
+    havingValue = StoreConstants.STORE_TYPE_JPA,
+    matchIfMissing = true)
+public class JpaTimeSeriesStore extends SqlTimeSeriesStore {
+
+  private final DeviceRepository deviceRepository;
+  private final WaterLevelDataBulkLoader bulkLoader;
+
+  public JpaTimeSeriesStore(
+      final WaterLevelDataRepository waterLevelDataRepository,
+      final WaterLevelDataExportRepository waterLevelDataExportRepository,
+      final DeviceRepository deviceRepository,
+      final WaterLevelDataBulkLoader bulkLoader) {
+    super(waterLevelDataRepository, waterLevelDataExportRepository);
+    this.deviceRepository = deviceRepository;
+    this.bulkLoader = bulkLoader;
+  }
+
+  @Override
+  public WaterLevelDataResponse append(final WaterLevelDataResponse reading) {
+    WaterLevelData saved = waterLevelDataRepository.save(toEntity(reading));
+    return toResponse(reading.getDeviceId(), saved);
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> appendAll(final List<WaterLevelDataResponse> readings) {
+    List<WaterLevelData> entities = new ArrayList<>(readings.size());
+    for (WaterLevelDataResponse reading : readings) {
+      entities.add(toEntity(reading));
+    }
+    List<WaterLevelData> saved = waterLevelDataRepository.saveAll(entities);
+    List<WaterLevelDataResponse> stored = new ArrayList<>(saved.size());
+    for (int i = 0; i < saved.size(); i++) {
+      stored.add(toResponse(readings.get(i).getDeviceId(), saved.get(i)));
+    }
+    return stored;
+  }
+
+  @Override
+  @Transactional
+  public long bulkLoad(final List<WaterLevelDataResponse> readings) {
+    return bulkLoader.load(readings);
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scan(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    return waterLevelDataRepository.streamByDeviceIdAndTimestampRange(deviceId, from, to);
+  }
+
+  @Override
+  public Stream<WaterLevelDataResponse> scanAll(final LocalDateTime from, final LocalDateTime to) {
+    return waterLevelDataRepository.streamByTimestampRange(from, to);
+  }
+
+  @Override
+  public Optional<WaterLevelDataResponse> findLatest(final Long deviceId) {
+    return waterLevelDataRepository
+        .findLatestSliceByDeviceId(deviceId, PageRequest.of(0, 1))
+        .stream()
+        .findFirst();
+  }
+
+  @Override
+  public int deleteBatchByDeviceId(final Long deviceId, final int limit) {
+    List<Long> ids = waterLevelDataRepository.findIdsByDeviceId(deviceId, PageRequest.of(0, limit));
+    if (!ids.isEmpty()) {
+      waterLevelDataRepository.deleteAllByIdInBatch(ids);
+    }
+    return ids.size();
+  }
+
+  private WaterLevelData toEntity(final WaterLevelDataResponse reading) {
+    WaterLevelData data = new WaterLevelData();
+    data.setDevice(deviceRepository.getReferenceById(reading.getDeviceId()));
+    data.setWaterLevel(reading.getWaterLevel());
+    data.setPumpStatus(reading.getPumpStatus());
+    data.setTimestamp(reading.getTimestamp());
+    return data;
+  }
+
+  private static WaterLevelDataResponse toResponse(final Long deviceId, final WaterLevelData data) {
+    return new WaterLevelDataResponse(
+        data.getId(), deviceId, data.getWaterLevel(), data.getPumpStatus(), data.getTimestamp());
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.PumpRun;
+import com.example.waterlevel.entity.PumpStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PumpRunRepository extends JpaRepository<PumpRun, Long> {
+
+  /** Finds the run that is still in progress for a device, if any. */
+  Optional<PumpRun> findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(Long deviceId);
+
+  @Modifying
+  @Query("UPDATE PumpRun r SET r.endedAt = :endedAt WHERE r.id = :id")
+  void closeRun(@Param("id") Long id, @Param("endedAt") LocalDateTime endedAt);
+
+  /**
+   * Finds the runs with the given status that overlap {@code [from, to)}, oldest first.
+   *
+   * <p>Runs still in progress are included when they started before {@code to}.
+   */
+  @Query(
+      "SELECT r FROM PumpRun r WHERE r.device.id = :deviceId AND r.status = :status "
+          + "AND r.startedAt < :to AND (r.endedAt IS NULL OR r.endedAt > :from) "
+          + "ORDER BY r.startedAt")
+  List<PumpRun> findOverlapping(
+      @Param("deviceId") Long deviceId,
+      @Param("status") PumpStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /** Like {@link #findOverlapping}, for several devices at once. */
+  @Query(
+      "SELECT r FROM PumpRun r WHERE r.device.id IN :deviceIds AND r.status = :status "
+          + "AND r.startedAt < :to AND (r.endedAt IS NULL OR r.endedAt > :from) "
+          + "ORDER BY r.startedAt")
+  List<PumpRun> findOverlappingByDeviceIds(
+      @Param("deviceIds") List<Long> deviceIds,
+      @Param("status") PumpStatus status,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM PumpRun r WHERE r.device.id = :deviceId")
+  void deleteByDeviceId(@Param("deviceId") Long deviceId);
+}
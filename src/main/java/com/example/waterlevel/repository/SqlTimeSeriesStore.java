@@ -0,0 +1,94 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Queries shared by the engines that keep readings in the {@code water_level_data} table: paging,
+ * cursors, exports and aggregates run in the database through {@link WaterLevelDataRepository}
+ * and {@link WaterLevelDataExportRepository}.
+ */
+abstract class SqlTimeSeriesStore implements TimeSeriesStore {
+
+  private static final Sort NEWEST_FIRST =
+      Sort.by(Sort.Direction.DESC, "timestamp").and(Sort.by(Sort.Direction.DESC, "id"));
+
+  protected final WaterLevelDataRepository waterLevelDataRepository;
+  private final WaterLevelDataExportRepository waterLevelDataExportRepository;
+
+  SqlTimeSeriesStore(
+      final WaterLevelDataRepository waterLevelDataRepository,
+      final WaterLevelDataExportRepository waterLevelDataExportRepository) {
+    this.waterLevelDataRepository = waterLevelDataRepository;
+    this.waterLevelDataExportRepository = waterLevelDataExportRepository;
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> findLatestPerDevice() {
+    return waterLevelDataRepository.findLatestPerDevice();
+  }
+
+  @Override
+  public Optional<Long> findLatestId(final Long deviceId) {
+    return waterLevelDataRepository.findLatestIdByDeviceId(deviceId);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findMinTimestamp() {
+    return waterLevelDataRepository.findMinTimestamp();
+  }
+
+  @Override
+  public Page<WaterLevelDataResponse> findPage(final Long deviceId, final Pageable pageable) {
+    return waterLevelDataRepository.findProjectedByDeviceId(
+        deviceId, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST));
+  }
+
+  @Override
+  public Slice<WaterLevelDataResponse> findSlice(
+      final Long deviceId, final LocalDateTime timestamp, final Long id, final int size) {
+    Pageable limit = PageRequest.of(0, size);
+    if (timestamp == null) {
+      return waterLevelDataRepository.findLatestSliceByDeviceId(deviceId, limit);
+    }
+    return waterLevelDataRepository.findSliceByDeviceIdBefore(deviceId, timestamp, id, limit);
+  }
+
+  @Override
+  public List<WaterLevelDataResponse> findBatchAfter(
+      final Long deviceId,
+      final LocalDateTime timestamp,
+      final Long id,
+      final LocalDateTime to,
+      final int size) {
+    // A position before every ID keeps the readings at the timestamp itself
+    return waterLevelDataRepository.findByDeviceIdAfter(
+        deviceId, timestamp, id == null ? Long.MIN_VALUE : id, to, PageRequest.of(0, size));
+  }
+
+  @Override
+  public long forEachInRange(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int maxRows,
+      final Consumer<WaterLevelDataResponse> consumer) {
+    return waterLevelDataExportRepository.forEachInRange(deviceId, from, to, maxRows, consumer);
+  }
+
+  @Override
+  public List<LevelAggregate> aggregate(
+      final Collection<Long> deviceIds, final LocalDateTime from, final LocalDateTime to) {
+    return waterLevelDataRepository.aggregateByDeviceIdsAndTimestampRange(deviceIds, from, to);
+  }
+}
@@ -0,0 +1,235 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Storage engine for raw water level readings.
+ *
+ * <p>Readings are exchanged as {@link WaterLevelDataResponse} rows so no engine has to load
+ * entities. The implementation is selected with {@code water-level-data.store.type}: {@code jpa}
+ * (default), {@code jdbc}, {@code file} or {@code columnar}. It is the only source of readings:
+ * paging, cursors, exports, ETags, rollups and summaries all read through it, so the embedded
+ * engines need no {@code water_level_data} table. Switching engines does not migrate existing
+ * readings; export them first and import them into the new engine.
+ */
+public interface TimeSeriesStore {
+
+  /**
+   * Appends a reading. The ID of the given reading is ignored.
+   *
+   * @param reading the reading to store
+   * @return the stored reading with its assigned ID
+   */
+  WaterLevelDataResponse append(WaterLevelDataResponse reading);
+
+  /**
+   * Appends several readings in as few round trips as the engine allows. IDs of the given readings
+   * are ignored.
+   *
+   * @param readings the readings to store
+   * @return the stored readings with their assigned IDs, in input order
+   */
+  List<WaterLevelDataResponse> appendAll(List<WaterLevelDataResponse> readings);
+
+  /**
+   * Stores readings whose IDs the caller does not need, such as imports and backfills. The SQL
+   * engines skip generated keys and load through {@link WaterLevelDataBulkLoader}, which uses
+   * {@code COPY} on PostgreSQL. IDs of the given readings are ignored.
+   *
+   * @param readings the readings to store
+   * @return the number of readings stored
+   */
+  long bulkLoad(List<WaterLevelDataResponse> readings);
+
+  /**
+   * Streams the readings of a device within {@code [from, to)}, ordered by {@code (timestamp, id)}.
+   *
+   * <p>The stream must be closed after use. Database-backed engines read from an open cursor and
+   * must be consumed inside a transaction.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @return the readings, oldest first
+   */
+  Stream<WaterLevelDataResponse> scan(Long deviceId, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Streams the readings of all devices within {@code [from, to)}, in no particular order. Same
+   * closing and transaction rules as {@link #scan}.
+   *
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @return the readings
+   */
+  Stream<WaterLevelDataResponse> scanAll(LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Finds the newest reading of a device by {@code (timestamp, id)}.
+   *
+   * @param deviceId the device ID
+   * @return the latest reading, or empty if the device has none
+   */
+  Optional<WaterLevelDataResponse> findLatest(Long deviceId);
+
+  /**
+   * Finds the newest reading of every device that has readings. Exact timestamp ties may yield
+   * more than one reading per device.
+   *
+   * @return the latest readings, in no particular order
+   */
+  List<WaterLevelDataResponse> findLatestPerDevice();
+
+  /**
+   * Finds the highest reading ID of a device, which changes whenever a reading is appended.
+   *
+   * @param deviceId the device ID
+   * @return the highest ID, or empty if the device has no readings
+   */
+  Optional<Long> findLatestId(Long deviceId);
+
+  /**
+   * Finds the timestamp of the oldest reading of any device.
+   *
+   * @return the oldest timestamp, or empty if there are no readings
+   */
+  Optional<LocalDateTime> findMinTimestamp();
+
+  /**
+   * Gets one page of a device's readings, newest first by {@code (timestamp, id)}. The sort of the
+   * pageable is ignored.
+   *
+   * @param deviceId the device ID
+   * @param pageable the page number and size
+   * @return the page, with the total number of readings of the device
+   */
+  Page<WaterLevelDataResponse> findPage(Long deviceId, Pageable pageable);
+
+  /**
+   * Gets the readings of a device that come strictly after a {@code (timestamp, id)} position in
+   * newest-first order, without counting the rest.
+   *
+   * @param deviceId the device ID
+   * @param timestamp the timestamp of the position, or null to start at the newest reading
+   * @param id the ID of the position; ignored if {@code timestamp} is null
+   * @param size the maximum number of readings
+   * @return the slice, whose {@code hasNext} tells whether older readings remain
+   */
+  Slice<WaterLevelDataResponse> findSlice(
+      Long deviceId, LocalDateTime timestamp, Long id, int size);
+
+  /**
+   * Gets the readings of a device before {@code to} that come strictly after a {@code (timestamp,
+   * id)} position, oldest first. Callers walk a long range in such batches without keeping a
+   * cursor or transaction open between them.
+   *
+   * @param deviceId the device ID
+   * @param timestamp the timestamp of the position
+   * @param id the ID of the position, or null to include the readings at {@code timestamp}
+   * @param to the exclusive end of the range
+   * @param size the maximum number of readings
+   * @return the readings, oldest first
+   */
+  default List<WaterLevelDataResponse> findBatchAfter(
+      final Long deviceId,
+      final LocalDateTime timestamp,
+      final Long id,
+      final LocalDateTime to,
+      final int size) {
+    try (Stream<WaterLevelDataResponse> readings = scan(deviceId, timestamp, to)) {
+      return readings
+          .filter(
+              reading ->
+                  id == null || reading.getTimestamp().isAfter(timestamp) || reading.getId() > id)
+          .limit(size)
+          .toList();
+    }
+  }
+
+  /**
+   * Passes the readings of a device within {@code [from, to)} to the consumer, oldest first, up to
+   * {@code maxRows} of them. Same transaction rules as {@link #scan}.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param maxRows the maximum number of readings to pass
+   * @param consumer receives each reading
+   * @return the number of readings passed
+   */
+  default long forEachInRange(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int maxRows,
+      final Consumer<WaterLevelDataResponse> consumer) {
+    long rows = 0;
+    try (Stream<WaterLevelDataResponse> readings = scan(deviceId, from, to).limit(maxRows)) {
+      for (WaterLevelDataResponse reading : (Iterable<WaterLevelDataResponse>) readings::iterator) {
+        consumer.accept(reading);
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Aggregates the readings of each given device within {@code [from, to)}. Devices without
+   * readings in the range are absent from the result. Same transaction rules as {@link #scan}.
+   *
+   * @param deviceIds the device IDs
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @return count, min, max and mean per device
+   */
+  default List<LevelAggregate> aggregate(
+      final Collection<Long> deviceIds, final LocalDateTime from, final LocalDateTime to) {
+    List<LevelAggregate> aggregates = new ArrayList<>();
+    for (Long deviceId : deviceIds) {
+      long count = 0;
+      BigDecimal min = null;
+      BigDecimal max = null;
+      BigDecimal sum = BigDecimal.ZERO;
+      try (Stream<WaterLevelDataResponse> readings = scan(deviceId, from, to)) {
+        for (WaterLevelDataResponse reading :
+            (Iterable<WaterLevelDataResponse>) readings::iterator) {
+          BigDecimal level = reading.getWaterLevel();
+          min = min == null || level.compareTo(min) < 0 ? level : min;
+          max = max == null || level.compareTo(max) > 0 ? level : max;
+          sum = sum.add(level);
+          count++;
+        }
+      }
+      if (count > 0) {
+        aggregates.add(
+            new LevelAggregate(deviceId, count, min, max, sum.doubleValue() / count));
+      }
+    }
+    return aggregates;
+  }
+
+  /**
+   * Deletes up to {@code limit} readings of a device, in no particular order. Callers repeat until
+   * it returns zero so that purging a long history never holds one huge transaction.
+   *
+   * <p>The embedded engines drop the whole device in one step regardless of the limit, once the
+   * surrounding transaction commits.
+   *
+   * @param deviceId the device ID
+   * @param limit the maximum number of readings to delete
+   * @return the number of readings deleted
+   */
+  int deleteBatchByDeviceId(Long deviceId, int limit);
+}
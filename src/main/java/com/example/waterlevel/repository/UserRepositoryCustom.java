@@ -0,0 +1,19 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.User;
+import java.util.Optional;
+
+/** Custom user lookups that cannot be expressed as derived Spring Data queries. */
+public interface UserRepositoryCustom {
+
+  /**
+   * Finds a user by username.
+   *
+   * <p>Resolved through Hibernate's natural-id API so that the per-request lookup of the
+   * authenticated user is served from the second-level cache instead of the database.
+   *
+   * @param username the username
+   * @return the user, or empty if no user has this username
+   */
+  Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,23 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.User;
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Natural-id backed implementation of {@link UserRepositoryCustom}. */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  public UserRepositoryCustomImpl(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<User> findByUsername(final String username) {
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC bulk loading of readings whose IDs the caller does not need.
+ *
+ * <p>On PostgreSQL, with {@code water-level-data.bulk-load.copy-enabled}, rows are streamed
+ * through a single {@code COPY ... FROM STDIN} in CSV format in buffers of {@link
+ * StoreConstants#COPY_BUFFER_BYTES}: one statement, no per-row parsing or planning, no generated
+ * keys. Anywhere else they are sent as JDBC batches of {@link StoreConstants#JDBC_BATCH_SIZE}
+ * rows. Both run on the connection of the caller's transaction, if any.
+ */
+@Repository
+public class WaterLevelDataBulkLoader {
+
+  private static final String COPY =
+      "COPY water_level_data (device_id, water_level, pump_status, timestamp)"
+          + " FROM STDIN WITH (FORMAT csv)";
+  private static final String INSERT =
+      "INSERT INTO water_level_data (device_id, water_level, pump_status, timestamp)"
+          + " VALUES (?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean copyEnabled;
+
+  public WaterLevelDataBulkLoader(
+      final JdbcTemplate jdbcTemplate,
+      @Value("${water-level-data.bulk-load.copy-enabled:false}") final boolean copyEnabled) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.copyEnabled = copyEnabled;
+  }
+
+  /**
+   * Stores the readings. IDs are ignored; a missing timestamp becomes the current time.
+   *
+   * @param readings the readings to store
+   * @return the number of rows stored
+   */
+  public long load(final List<WaterLevelDataResponse> readings) {
+    if (readings.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    Long rows =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection ->
+                    copyEnabled && connection.isWrapperFor(PGConnection.class)
+                        ? copy(connection.unwrap(PGConnection.class), readings, now)
+                        : insert(connection, readings, now));
+    return rows != null ? rows : 0;
+  }
+
+  private static long copy(
+      final PGConnection connection,
+      final List<WaterLevelDataResponse> readings,
+      final LocalDateTime now)
+      throws SQLException {
+    CopyIn copyIn = connection.getCopyAPI().copyIn(COPY);
+    try {
+      StringBuilder buffer = new StringBuilder(StoreConstants.COPY_BUFFER_BYTES + 128);
+      for (WaterLevelDataResponse reading : readings) {
+        LocalDateTime timestamp = reading.getTimestamp() != null ? reading.getTimestamp() : now;
+        buffer
+            .append(reading.getDeviceId())
+            .append(',')
+            .append(reading.getWaterLevel().toPlainString())
+            .append(',')
+            .append(reading.getPumpStatus().name())
+            .append(',')
+            .append(timestamp)
+            .append('\n');
+        if (buffer.length() >= StoreConstants.COPY_BUFFER_BYTES) {
+          write(copyIn, buffer);
+        }
+      }
+      write(copyIn, buffer);
+      return copyIn.endCopy();
+    } finally {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    }
+  }
+
+  private static void write(final CopyIn copyIn, final StringBuilder buffer) throws SQLException {
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.US_ASCII);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+
+  private static long insert(
+      final Connection connection,
+      final List<WaterLevelDataResponse> readings,
+      final LocalDateTime now)
+      throws SQLException {
+    long rows = 0;
+    try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+      int pending = 0;
+      for (WaterLevelDataResponse reading : readings) {
+        LocalDateTime timestamp = reading.getTimestamp() != null ? reading.getTimestamp() : now;
+        statement.setLong(1, reading.getDeviceId());
+        statement.setBigDecimal(2, reading.getWaterLevel());
+        statement.setString(3, reading.getPumpStatus().name());
+        statement.setTimestamp(4, Timestamp.valueOf(timestamp));
+        statement.addBatch();
+        if (++pending == StoreConstants.JDBC_BATCH_SIZE) {
+          statement.executeBatch();
+          rows += pending;
+          pending = 0;
+        }
+      }
+      if (pending > 0) {
+        statement.executeBatch();
+        rows += pending;
+      }
+    }
+    return rows;
+  }
+}
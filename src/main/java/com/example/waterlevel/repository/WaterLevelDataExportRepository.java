@@ -0,0 +1,83 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC access to water level history for bulk exports.
+ *
+ * <p>Bypasses the persistence context entirely: rows are read from a forward-only, read-only
+ * cursor with a fixed fetch size and handed to the caller one at a time, so nothing accumulates
+ * in memory. Drivers such as PostgreSQL only honour the fetch size inside a transaction, so
+ * callers must run within one.
+ */
+@Repository
+public class WaterLevelDataExportRepository {
+
+  private static final String RANGE_QUERY =
+      "SELECT id, device_id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE device_id = ? AND timestamp >= ? AND timestamp < ?"
+          + " ORDER BY timestamp, id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public WaterLevelDataExportRepository(final JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Passes the readings of a device within {@code [from, to)} to the consumer, oldest first, up to
+   * {@code maxRows} of them.
+   *
+   * <p>If the consumer throws, the statement is closed immediately and the query is abandoned.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param maxRows the maximum number of rows to read
+   * @param consumer receives each row
+   * @return the number of rows read
+   */
+  public long forEachInRange(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int maxRows,
+      final Consumer<WaterLevelDataResponse> consumer) {
+    long[] count = new long[1];
+    RowCallbackHandler handler =
+        rs -> {
+          consumer.accept(
+              new WaterLevelDataResponse(
+                  rs.getLong("id"),
+                  rs.getLong("device_id"),
+                  rs.getBigDecimal("water_level"),
+                  PumpStatus.fromString(rs.getString("pump_status")),
+                  rs.getTimestamp("timestamp").toLocalDateTime()));
+          count[0]++;
+        };
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement =
+              connection.prepareStatement(
+                  RANGE_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+          statement.setFetchSize(HistoryQueryConstants.EXPORT_FETCH_SIZE);
+          statement.setMaxRows(maxRows);
+          statement.setLong(1, deviceId);
+          statement.setTimestamp(2, Timestamp.valueOf(from));
+          statement.setTimestamp(3, Timestamp.valueOf(to));
+          return statement;
+        },
+        handler);
+    return count[0];
+  }
+}
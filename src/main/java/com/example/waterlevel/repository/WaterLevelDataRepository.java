@@ -1,13 +1,23 @@
 package com.example.waterlevel.repository;
 
-import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
 import com.example.waterlevel.entity.WaterLevelData;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,12 +25,151 @@ import org.springframework.transaction.annotation.Transactional;
 @Repository
 public interface WaterLevelDataRepository extends JpaRepository<WaterLevelData, Long> {
 
-  Page<WaterLevelData> findByDevice_Id(Long deviceId, Pageable pageable);
+  /**
+   * Finds readings for a device as response projections.
+   *
+   * <p>Selects only the reading columns (the device ID is read from the foreign key column), so no
+   * Device or User rows are joined or loaded. Sorting is taken from the pageable.
+   */
+  @Query(
+      value =
+          "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+              + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+              + "FROM WaterLevelData w WHERE w.device.id = :deviceId",
+      countQuery = "SELECT COUNT(w) FROM WaterLevelData w WHERE w.device.id = :deviceId")
+  Page<WaterLevelDataResponse> findProjectedByDeviceId(
+      @Param("deviceId") Long deviceId, Pageable pageable);
 
-  Optional<WaterLevelData> findFirstByDeviceOrderByTimestampDesc(Device device);
+  /**
+   * Finds the newest readings for a device as the first page of a keyset scan.
+   *
+   * <p>Ordered by {@code (timestamp, id)} descending so the scan walks the {@code
+   * idx_water_level_data_device_time_covering} index. The pageable only supplies the page size; the
+   * slice fetches one extra row to determine {@code hasNext} and never runs a count query.
+   */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.device.id = :deviceId "
+          + "ORDER BY w.timestamp DESC, w.id DESC")
+  Slice<WaterLevelDataResponse> findLatestSliceByDeviceId(
+      @Param("deviceId") Long deviceId, Pageable pageable);
+
+  /**
+   * Finds the readings that come strictly after the given {@code (timestamp, id)} position in
+   * newest-first order. The seek predicate makes the cost independent of how deep the client has
+   * paged.
+   */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.device.id = :deviceId "
+          + "AND (w.timestamp < :timestamp OR (w.timestamp = :timestamp AND w.id < :id)) "
+          + "ORDER BY w.timestamp DESC, w.id DESC")
+  Slice<WaterLevelDataResponse> findSliceByDeviceIdBefore(
+      @Param("deviceId") Long deviceId,
+      @Param("timestamp") LocalDateTime timestamp,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  /**
+   * Finds the readings of a device before {@code to} that come strictly after the given {@code
+   * (timestamp, id)} position, oldest first. Each call is a short seek on {@code
+   * idx_water_level_data_device_time_covering}, so no cursor stays open between batches.
+   */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.device.id = :deviceId AND w.timestamp < :to "
+          + "AND (w.timestamp > :timestamp OR (w.timestamp = :timestamp AND w.id > :id)) "
+          + "ORDER BY w.timestamp ASC, w.id ASC")
+  List<WaterLevelDataResponse> findByDeviceIdAfter(
+      @Param("deviceId") Long deviceId,
+      @Param("timestamp") LocalDateTime timestamp,
+      @Param("id") Long id,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
+
+  /**
+   * Streams the readings of a device within {@code [from, to)}, oldest first.
+   *
+   * <p>Range scan on {@code idx_water_level_data_device_time_covering}. Rows are fetched from the
+   * cursor in batches of {@link HistoryQueryConstants#STREAM_FETCH_SIZE} and are never collected
+   * into a list or page. Must be consumed inside a transaction and closed after use.
+   */
+  @QueryHints(
+      @QueryHint(
+          name = HibernateHints.HINT_FETCH_SIZE,
+          value = HistoryQueryConstants.STREAM_FETCH_SIZE))
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.device.id = :deviceId "
+          + "AND w.timestamp >= :from AND w.timestamp < :to "
+          + "ORDER BY w.timestamp ASC, w.id ASC")
+  Stream<WaterLevelDataResponse> streamByDeviceIdAndTimestampRange(
+      @Param("deviceId") Long deviceId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Streams the readings of all devices within {@code [from, to)}, in no particular order. Used to
+   * build rollups of closed time buckets; must be consumed inside a transaction and closed after
+   * use.
+   */
+  @QueryHints(
+      @QueryHint(
+          name = HibernateHints.HINT_FETCH_SIZE,
+          value = HistoryQueryConstants.STREAM_FETCH_SIZE))
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.timestamp >= :from AND w.timestamp < :to")
+  Stream<WaterLevelDataResponse> streamByTimestampRange(
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  /**
+   * Aggregates the readings of each given device within {@code [from, to)} in the database. Devices
+   * without readings in the range are absent from the result.
+   */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.LevelAggregate("
+          + "w.device.id, COUNT(w), MIN(w.waterLevel), MAX(w.waterLevel), AVG(w.waterLevel)) "
+          + "FROM WaterLevelData w WHERE w.device.id IN :deviceIds "
+          + "AND w.timestamp >= :from AND w.timestamp < :to GROUP BY w.device.id")
+  List<LevelAggregate> aggregateByDeviceIdsAndTimestampRange(
+      @Param("deviceIds") Collection<Long> deviceIds,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Query("SELECT MIN(w.timestamp) FROM WaterLevelData w")
+  Optional<LocalDateTime> findMinTimestamp();
+
+  /**
+   * Returns the latest reading of every device that has readings.
+   *
+   * <p>One row per device (more only on exact timestamp ties), resolved through {@code
+   * idx_water_level_data_device_time_covering}. Used to warm the in-memory latest-state table.
+   */
+  @Query(
+      "SELECT new com.example.waterlevel.dto.WaterLevelDataResponse("
+          + "w.id, w.device.id, w.waterLevel, w.pumpStatus, w.timestamp) "
+          + "FROM WaterLevelData w WHERE w.timestamp = "
+          + "(SELECT MAX(w2.timestamp) FROM WaterLevelData w2 WHERE w2.device = w.device)")
+  List<WaterLevelDataResponse> findLatestPerDevice();
+
+  @Query("SELECT MAX(w.id) FROM WaterLevelData w WHERE w.device.id = :deviceId")
+  Optional<Long> findLatestIdByDeviceId(@Param("deviceId") Long deviceId);
+
+  /**
+   * Returns IDs of readings of a device, at most one page. Unordered so that the device prefix of
+   * {@code idx_water_level_data_device_time_covering} can stop after the page without sorting.
+   */
+  @Query("SELECT w.id FROM WaterLevelData w WHERE w.device.id = :deviceId")
+  List<Long> findIdsByDeviceId(@Param("deviceId") Long deviceId, Pageable pageable);
 
   @Modifying
   @Transactional
-  @Query("DELETE FROM WaterLevelData w WHERE w.device = :device")
-  void deleteByDevice(@Param("device") Device device);
+  @Query("DELETE FROM WaterLevelData w WHERE w.device.id = :deviceId")
+  void deleteByDeviceId(@Param("deviceId") Long deviceId);
 }
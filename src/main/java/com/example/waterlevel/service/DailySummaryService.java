@@ -0,0 +1,89 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.DailySummaryResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Precomputes per-device daily summaries of closed days.
+ *
+ * <p>A job scheduled shortly after midnight summarizes every day from the persisted watermark up
+ * to yesterday, so days missed while the application was down are caught up on the next run.
+ * Readings that arrive later for a summarized day are recomputed by a second, more frequent job.
+ * Reports are served from the stored summaries only.
+ */
+public interface DailySummaryService {
+
+  /** Summarizes all closed days after the watermark, oldest first. */
+  void summarizeClosedDays();
+
+  /** Recomputes the summaries of device-days that received readings after being summarized. */
+  void summarizeDirtyDays();
+
+  /**
+   * Records that a reading was stored, marking its device-day for recomputation if that day has
+   * already been summarized.
+   *
+   * @param deviceId the device ID
+   * @param timestamp the reading timestamp
+   */
+  void recordReading(Long deviceId, LocalDateTime timestamp);
+
+  /**
+   * Summarizes one day for all devices, replacing existing summaries of that day.
+   *
+   * @param date the day to summarize
+   * @throws IllegalStateException if a device chunk fails
+   */
+  void summarizeDay(LocalDate date);
+
+  /**
+   * Checks whether a day has been summarized for all devices.
+   *
+   * @param date the day
+   * @return true if the day lies before the summary watermark
+   */
+  boolean isSummarized(LocalDate date);
+
+  /**
+   * Checks whether the stored summary of a device-day is current.
+   *
+   * @param deviceId the device ID
+   * @param date the day
+   * @return true if the day lies before the summary watermark and no reading stored since it was
+   *     summarized is still waiting to be included
+   */
+  boolean isSummarized(Long deviceId, LocalDate date);
+
+  /**
+   * Gets a counter that changes whenever a summarized day of a device turns dirty or is recomputed.
+   * Results computed from a device's daily summaries stay valid as long as the counter is
+   * unchanged.
+   *
+   * @param deviceId the device ID
+   * @return the current revision of the device's daily summaries
+   */
+  long getRevision(Long deviceId);
+
+  /** Loads the persisted watermark and the stored dirty days. */
+  void loadWatermark();
+
+  /**
+   * Gets the stored daily summaries of a device.
+   *
+   * @param deviceId the device ID
+   * @param from first day, inclusive; null for the week ending on {@code to}
+   * @param to last day, inclusive; null for yesterday
+   * @return the summaries in the range, oldest first; days not yet summarized are absent
+   * @throws IllegalArgumentException if the device does not exist or the range is invalid
+   */
+  List<DailySummaryResponse> getDailySummaries(Long deviceId, LocalDate from, LocalDate to);
+
+  /**
+   * Deletes the summaries of a device. Must be called inside the device deletion transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void deleteByDeviceId(Long deviceId);
+}
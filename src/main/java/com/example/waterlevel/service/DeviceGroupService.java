@@ -0,0 +1,70 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.DeviceGroupRequest;
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.entity.DeviceGroup;
+import java.util.List;
+
+/** Service for managing sites and regions of devices. */
+public interface DeviceGroupService {
+
+  /**
+   * Creates a group for the given admin.
+   *
+   * @param request the group name, type and optional parent region
+   * @param adminId the ID of the admin creating the group
+   * @return the created group
+   * @throws IllegalArgumentException if the parent is unknown, not owned by the admin or not a
+   *     region
+   */
+  DeviceGroup createGroup(DeviceGroupRequest request, Long adminId);
+
+  /**
+   * Gets the groups of an admin.
+   *
+   * @param adminId the admin user ID
+   * @return the groups ordered by name
+   */
+  List<DeviceGroup> getGroups(Long adminId);
+
+  /**
+   * Validates that the group belongs to the given admin.
+   *
+   * @param groupId the group ID
+   * @param adminId the admin user ID
+   * @return the group if valid
+   * @throws IllegalArgumentException if the group is not found or doesn't belong to the admin
+   */
+  DeviceGroup validateGroupOwnership(Long groupId, Long adminId);
+
+  /**
+   * Moves a device into a group, out of any group it was in before.
+   *
+   * @param groupId the group ID
+   * @param deviceId the device ID
+   * @param adminId the admin user ID, who must own both
+   * @throws IllegalArgumentException if the group or device is not found or not owned by the admin
+   */
+  void assignDevice(Long groupId, Long deviceId, Long adminId);
+
+  /**
+   * Removes a device from a group.
+   *
+   * @param groupId the group ID
+   * @param deviceId the device ID
+   * @param adminId the admin user ID, who must own both
+   * @throws IllegalArgumentException if the device is not in the group or either is not owned by
+   *     the admin
+   */
+  void unassignDevice(Long groupId, Long deviceId, Long adminId);
+
+  /**
+   * Gets the pre-aggregated metrics of a group.
+   *
+   * @param groupId the group ID
+   * @param adminId the admin user ID
+   * @return the metrics over the group and all groups below it
+   * @throws IllegalArgumentException if the group is not found or doesn't belong to the admin
+   */
+  GroupMetricsResponse getMetrics(Long groupId, Long adminId);
+}
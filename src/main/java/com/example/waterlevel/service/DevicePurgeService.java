@@ -0,0 +1,33 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.DevicePurgeResponse;
+import java.util.Optional;
+
+/**
+ * Interface for purging the history of deleted devices.
+ *
+ * <p>Deleting a device only marks it as deleted; its readings, pump runs, rollups and summaries,
+ * and finally the device row, are removed in the background in bounded batches.
+ */
+public interface DevicePurgeService {
+
+  /**
+   * Schedules the purge of a device already marked as deleted. The purge starts once the
+   * surrounding transaction commits, or immediately without one.
+   *
+   * @param deviceId the device ID
+   * @return the pending purge
+   */
+  DevicePurgeResponse schedulePurge(Long deviceId);
+
+  /**
+   * Gets the progress of the purge of a device since the application started.
+   *
+   * @param deviceId the device ID
+   * @return the latest snapshot, or empty if no purge of the device ran in this instance
+   */
+  Optional<DevicePurgeResponse> getProgress(Long deviceId);
+
+  /** Restarts the purges of devices still marked as deleted, e.g. after a restart or failure. */
+  void resumePurges();
+}
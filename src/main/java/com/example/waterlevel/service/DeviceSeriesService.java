@@ -0,0 +1,47 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.DeviceSeriesResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Aligned water level series for several devices, loaded concurrently. */
+public interface DeviceSeriesService {
+
+  /**
+   * Validates a multi-device series query before any response is written.
+   *
+   * @param deviceIds the device IDs
+   * @param from range start, inclusive
+   * @param to range end, exclusive
+   * @param interval bucket width shared by all series
+   * @param maxPoints maximum number of points over all series
+   * @throws IllegalArgumentException if a device does not exist, the range or interval is invalid,
+   *     or the query could exceed {@code maxPoints}
+   */
+  void checkSeriesQuery(
+      List<Long> deviceIds,
+      LocalDateTime from,
+      LocalDateTime to,
+      Duration interval,
+      int maxPoints);
+
+  /**
+   * Loads one series per device on a bounded executor and passes each to the consumer, on the
+   * calling thread, as soon as it is complete. Remaining scans are cancelled if the consumer
+   * throws.
+   *
+   * @param deviceIds the device IDs
+   * @param from range start, inclusive
+   * @param to range end, exclusive
+   * @param interval bucket width shared by all series
+   * @param consumer receives the series in completion order
+   */
+  void streamAlignedSeries(
+      List<Long> deviceIds,
+      LocalDateTime from,
+      LocalDateTime to,
+      Duration interval,
+      Consumer<DeviceSeriesResponse> consumer);
+}
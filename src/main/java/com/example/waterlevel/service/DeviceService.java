@@ -1,5 +1,6 @@
 package com.example.waterlevel.service;
 
+import com.example.waterlevel.dto.DevicePurgeResponse;
 import com.example.waterlevel.dto.DeviceRegisterRequest;
 import com.example.waterlevel.entity.Device;
 import java.math.BigDecimal;
@@ -59,9 +60,10 @@ public interface DeviceService {
   Device updateThresholds(Device device, BigDecimal minThreshold, BigDecimal maxThreshold);
 
   /**
-   * Deletes a device.
+   * Deletes a device. The device is hidden immediately; its history is purged in the background.
    *
    * @param deviceId the device ID
+   * @return the pending purge
    */
-  void deleteDevice(Long deviceId);
+  DevicePurgeResponse deleteDevice(Long deviceId);
 }
@@ -0,0 +1,57 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.entity.Device;
+
+/**
+ * Service for the pre-aggregated metrics of device groups.
+ *
+ * <p>Each group keeps running totals over the latest readings of its member devices and of the
+ * members of all groups below it. Totals are adjusted by the difference a reading makes, so reading
+ * the metrics of a group never touches its members.
+ */
+public interface GroupMetricsService {
+
+  /**
+   * Applies an ingested reading to the groups of its device, if the device belongs to a group and
+   * the reading is newer than the one already counted.
+   *
+   * @param reading the reading
+   */
+  void recordReading(LatestReadingResponse reading);
+
+  /**
+   * Recounts a device after its group or thresholds changed, using its latest known reading. Runs
+   * after commit when called inside a transaction.
+   *
+   * @param device the device, with its current group and thresholds
+   */
+  void refreshDevice(Device device);
+
+  /**
+   * Stops counting a device, after commit when called inside a transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void removeDevice(Long deviceId);
+
+  /**
+   * Registers a new group, after commit when called inside a transaction.
+   *
+   * @param groupId the group ID
+   * @param parentId the parent group ID, or null for a top-level group
+   */
+  void registerGroup(Long groupId, Long parentId);
+
+  /**
+   * Gets the current metrics of a group.
+   *
+   * @param groupId the group ID
+   * @return the metrics; all zero for a group without devices
+   */
+  GroupMetricsResponse getMetrics(Long groupId);
+
+  /** Loads all groups and their member devices and counts their latest readings. */
+  void rebuild();
+}
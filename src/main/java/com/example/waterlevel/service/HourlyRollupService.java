@@ -0,0 +1,52 @@
+package com.example.waterlevel.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintains per-device hourly rollups (moments and a quantile sketch) of closed hours.
+ *
+ * <p>A scheduled job seals every hour that closed before the configured delay, in order, and
+ * advances a persisted watermark. Readings that arrive later for an already sealed hour mark that
+ * hour dirty; dirty hours are rebuilt on the next run and are treated as unsealed until then.
+ */
+public interface HourlyRollupService {
+
+  /**
+   * Notes an ingested reading so a late arrival invalidates the rollup of its hour.
+   *
+   * @param deviceId the device ID
+   * @param timestamp the reading timestamp
+   */
+  void recordReading(Long deviceId, LocalDateTime timestamp);
+
+  /**
+   * Checks whether a device's rollup for an hour is complete and current.
+   *
+   * @param deviceId the device ID
+   * @param hourStart start of the hour
+   * @return true if the rollup may be used instead of the raw readings
+   */
+  boolean isSealed(Long deviceId, LocalDateTime hourStart);
+
+  /**
+   * Gets a counter that changes whenever a sealed hour of a device turns dirty or is rebuilt.
+   * Results computed from a device's sealed hours stay valid as long as the counter is unchanged.
+   *
+   * @param deviceId the device ID
+   * @return the current revision of the device's sealed hours
+   */
+  long getRevision(Long deviceId);
+
+  /** Seals all closed hours after the watermark and rebuilds dirty hours. */
+  void sealClosedHours();
+
+  /** Loads the persisted watermark and the stored dirty hours. */
+  void loadWatermark();
+
+  /**
+   * Deletes the rollups of a device. Must be called inside the device deletion transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void deleteByDeviceId(Long deviceId);
+}
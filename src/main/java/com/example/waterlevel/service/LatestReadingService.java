@@ -0,0 +1,49 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.LatestReadingResponse;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory table of the latest reading per device.
+ *
+ * <p>Updated on every ingested reading and warmed from the database at startup, so fleet-wide
+ * state can be served with memory reads only. Devices without any readings have no entry.
+ */
+public interface LatestReadingService {
+
+  /**
+   * Records a reading if it is newer than the one currently known for its device.
+   *
+   * @param reading the reading
+   */
+  void record(LatestReadingResponse reading);
+
+  /**
+   * Gets the latest known reading of a device.
+   *
+   * @param deviceId the device ID
+   * @return the latest reading, or empty if none is known
+   */
+  Optional<LatestReadingResponse> findByDeviceId(Long deviceId);
+
+  /**
+   * Gets the latest readings of the devices owned by an admin.
+   *
+   * @param adminId the owning admin's user ID
+   * @param deviceIds restricts the result to these devices; null or empty for all owned devices
+   * @return the latest readings ordered by device ID
+   */
+  List<LatestReadingResponse> findByAdminId(Long adminId, Collection<Long> deviceIds);
+
+  /**
+   * Removes a device from the table, after commit when called inside a transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void evictDevice(Long deviceId);
+
+  /** Loads the latest reading of every device from the database. */
+  void warmUp();
+}
@@ -0,0 +1,53 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.PlaybackSessionResponse;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Interface for replaying a device's past readings over WebSocket.
+ *
+ * <p>A playback session sends the readings of a time range to its own topic below the device
+ * topic, spaced like the original readings divided by the requested speed, and ends with a
+ * playback end message.
+ */
+public interface PlaybackService {
+
+  /**
+   * Starts replaying the readings of a device in the background.
+   *
+   * @param deviceId the device ID
+   * @param from range start, inclusive
+   * @param to range end, exclusive
+   * @param speed playback speed as a multiple of real time
+   * @return the running session, including the destination to subscribe to
+   * @throws IllegalArgumentException if the device does not exist, the range or speed is invalid,
+   *     the playback would take too long, or too many sessions are running
+   */
+  PlaybackSessionResponse startPlayback(
+      Long deviceId, LocalDateTime from, LocalDateTime to, int speed);
+
+  /**
+   * Gets the progress of a playback session of a device.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @return the latest snapshot, or empty if the session is unknown or has expired
+   */
+  Optional<PlaybackSessionResponse> getSession(Long deviceId, String sessionId);
+
+  /**
+   * Stops a playback session of a device. The session ends before its next reading is sent.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @return the snapshot at the time of the request, or empty if the session is unknown
+   */
+  Optional<PlaybackSessionResponse> stopPlayback(Long deviceId, String sessionId);
+
+  /**
+   * Forgets sessions that finished longer ago than the retention period. Runs on a schedule, so
+   * finished sessions do not accumulate while no new playback is started.
+   */
+  void expireFinishedSessions();
+}
@@ -0,0 +1,57 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.PumpRuntimeResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run-length log of pump status transitions.
+ *
+ * <p>Ingest reports every reading's pump status; only changes are written to the database. Runtime
+ * analytics read the transition log and never scan raw readings.
+ */
+public interface PumpRunService {
+
+  /**
+   * Records the pump status of an ingested reading.
+   *
+   * <p>Closes the open run and starts a new one when the status differs from the open run's
+   * status. Readings older than the start of the open run are ignored.
+   *
+   * @param device the device that sent the reading
+   * @param status the reported pump status
+   * @param timestamp the reading timestamp
+   */
+  void recordStatus(Device device, PumpStatus status, LocalDateTime timestamp);
+
+  /**
+   * Gets pump runtime, cycle count and duty cycle per day.
+   *
+   * @param deviceId the device ID
+   * @param from first day, inclusive; null for the week ending on {@code to}
+   * @param to last day, inclusive; null for today
+   * @return one entry per day from {@code from} to {@code to}
+   * @throws IllegalArgumentException if the range is inverted or too long
+   */
+  List<PumpRuntimeResponse> getDailyRuntime(Long deviceId, LocalDate from, LocalDate to);
+
+  /**
+   * Gets the pump runtime of several devices on one day with a single query.
+   *
+   * @param deviceIds the device IDs
+   * @param date the day
+   * @return the runtime of each device, keyed by device ID
+   */
+  Map<Long, PumpRuntimeResponse> getDailyRuntimes(List<Long> deviceIds, LocalDate date);
+
+  /**
+   * Deletes the transition log of a device. Must be called inside the device deletion transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void deleteByDeviceId(Long deviceId);
+}
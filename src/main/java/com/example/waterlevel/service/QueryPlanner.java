@@ -0,0 +1,26 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.QueryPlan;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Chooses the storage tiers that answer an aggregated history query.
+ *
+ * <p>Each part of the range is read from the coarsest tier that is complete for it and whose
+ * buckets nest inside the requested ones: daily summaries for whole summarized days, hourly
+ * rollups for sealed hours, raw readings for everything else.
+ */
+public interface QueryPlanner {
+
+  /**
+   * Plans a query for buckets of width {@code resolution} starting at {@code from}.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param resolution the bucket width
+   * @return ordered segments covering {@code [from, to)} exactly
+   */
+  QueryPlan plan(Long deviceId, LocalDateTime from, LocalDateTime to, Duration resolution);
+}
@@ -0,0 +1,21 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.ReadingImportResponse;
+import java.nio.file.Path;
+
+/** Service for importing historical readings, e.g. data logger exports of a new site. */
+public interface ReadingImportService {
+
+  /**
+   * Imports a CSV file with one {@code device_key,timestamp,water_level,pump_status} reading per
+   * line (ISO-8601 timestamps, an optional header line). Invalid lines and readings of devices the
+   * admin does not own are rejected and reported; all other readings are stored in file order.
+   *
+   * @param file the CSV file
+   * @param adminId the importing admin
+   * @return counts, throughput and the first rejected lines
+   * @throws java.io.UncheckedIOException if the file cannot be read
+   * @throws IllegalArgumentException if a line is longer than the import chunk size
+   */
+  ReadingImportResponse importCsv(Path file, Long adminId);
+}
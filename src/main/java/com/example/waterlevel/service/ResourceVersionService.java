@@ -0,0 +1,60 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.entity.Device;
+import java.util.Optional;
+
+/**
+ * In-memory version table for conditional GET support (ETag / Last-Modified).
+ *
+ * <p>Controllers consult this table before touching the database so that unchanged resources can
+ * be answered with 304 Not Modified without a query or serialization. Devices and their thresholds
+ * are versioned by {@code Device.updatedAt}; a device's reading history is versioned by the ID of
+ * its latest reading. Entries are seeded lazily on the first full response and updated on writes.
+ * Versions only ever move forward, so a late seed from a stale read cannot hide a newer write.
+ */
+public interface ResourceVersionService {
+
+  /**
+   * Gets the known version of a device (and its thresholds).
+   *
+   * @param deviceId the device ID
+   * @return the version, or empty if not yet known
+   */
+  Optional<ResourceVersion> findDeviceVersion(Long deviceId);
+
+  /**
+   * Records the version of a device from its {@code updatedAt} timestamp.
+   *
+   * <p>Inside a transaction the version is read and recorded after commit, once the update has
+   * been flushed; otherwise it is recorded immediately.
+   *
+   * @param device the device
+   * @return the version of the device as currently loaded, or empty if it has no timestamp
+   */
+  Optional<ResourceVersion> recordDevice(Device device);
+
+  /**
+   * Gets the known version of a device's reading history.
+   *
+   * @param deviceId the device ID
+   * @return the version, or empty if not yet known
+   */
+  Optional<ResourceVersion> findHistoryVersion(Long deviceId);
+
+  /**
+   * Records a stored reading of a device, advancing its history version.
+   *
+   * @param deviceId the device ID
+   * @param readingId the ID of the stored reading (0 if the device has no readings)
+   * @return the resulting history version
+   */
+  ResourceVersion recordLatestReading(Long deviceId, Long readingId);
+
+  /**
+   * Forgets all versions of a device, after commit when called inside a transaction.
+   *
+   * @param deviceId the device ID
+   */
+  void evictDevice(Long deviceId);
+}
@@ -0,0 +1,40 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.LevelBucketResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Result cache for aggregated history buckets that can no longer change.
+ *
+ * <p>Entries are keyed by device, bucket width and bucket start, plus the device's revision: the
+ * sum of its {@link HourlyRollupService#getRevision hourly rollup} and {@link
+ * DailySummaryService#getRevision daily summary} revisions. A late reading for a sealed hour or a
+ * summarized day moves the device to a new revision, and so does rebuilding that hour or
+ * recomputing that day, so entries computed before are never returned again and age out of the
+ * cache. Callers only store buckets whose hours are all sealed.
+ */
+public interface SealedBucketCache {
+
+  /**
+   * Looks up the aggregate of a closed bucket.
+   *
+   * @param deviceId the device ID
+   * @param revision the device's revision, read before the bucket's hours were checked
+   * @param resolution the bucket width
+   * @param bucketStart the bucket start
+   * @return the aggregate (with a count of zero if the bucket has no readings), or null if absent
+   */
+  LevelBucketResponse get(
+      Long deviceId, long revision, Duration resolution, LocalDateTime bucketStart);
+
+  /**
+   * Stores the aggregate of a closed bucket.
+   *
+   * @param deviceId the device ID
+   * @param revision the device's revision, read before the bucket was computed
+   * @param resolution the bucket width
+   * @param bucket the aggregate, with a count of zero if the bucket has no readings
+   */
+  void put(Long deviceId, long revision, Duration resolution, LevelBucketResponse bucket);
+}
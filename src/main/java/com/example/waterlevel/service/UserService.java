@@ -37,6 +37,15 @@ public interface UserService {
    */
   User getCurrentUser();
 
+  /**
+   * Caps a row limit of a history query by the current user's result limit, if they have one.
+   *
+   * @param rows the limit that applies without a user cap
+   * @return the smaller of {@code rows} and the user's result limit
+   * @throws IllegalArgumentException if user not found
+   */
+  int capResultRows(int rows);
+
   /**
    * Deletes a user by ID.
    *
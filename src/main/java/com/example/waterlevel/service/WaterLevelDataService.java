@@ -1,17 +1,155 @@
 package com.example.waterlevel.service;
 
-import com.example.waterlevel.entity.WaterLevelData;
+import com.example.waterlevel.dto.AggregatedSeriesResponse;
+import com.example.waterlevel.dto.ChartResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import com.example.waterlevel.dto.ExportFormat;
+import com.example.waterlevel.dto.HistoryCursor;
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface WaterLevelDataService {
+  /**
+   * Returns the current version of a device's reading history for conditional requests.
+   *
+   * <p>Served from the in-memory version table; the database is only queried the first time a
+   * device's history is requested.
+   *
+   * @param deviceId the device ID
+   * @return the history version
+   * @throws IllegalArgumentException if {@code deviceId} is null or the device does not exist
+   */
+  ResourceVersion getHistoryVersion(Long deviceId);
+
   /**
    * Returns paginated historical readings for an existing device.
    *
    * <p>Implementation validates device existence to avoid returning an empty page that could be
-   * mistaken as "no history yet".
+   * mistaken as "no history yet". Rows are returned as projections; no entities are loaded.
    *
    * @throws IllegalArgumentException if {@code deviceId} is null or the device does not exist
    */
-  Page<WaterLevelData> getWaterLevelDataForDevice(Long deviceId, Pageable pageable);
+  Page<WaterLevelDataResponse> getWaterLevelDataForDevice(Long deviceId, Pageable pageable);
+
+  /**
+   * Returns historical readings for an existing device using keyset pagination (latest first).
+   *
+   * <p>Unlike {@link #getWaterLevelDataForDevice(Long, Pageable)} this never counts rows and seeks
+   * directly to the cursor position, so every page costs the same regardless of depth.
+   *
+   * @param deviceId the device ID
+   * @param cursor the position after which to continue, or null for the newest readings
+   * @param size the maximum number of readings to return
+   * @throws IllegalArgumentException if {@code deviceId} is null or the device does not exist
+   */
+  Slice<WaterLevelDataResponse> getWaterLevelDataSlice(
+      Long deviceId, HistoryCursor cursor, int size);
+
+  /**
+   * Validates a time-range query before any results are streamed.
+   *
+   * <p>Streaming responses commit their headers with the first row, so callers run this check
+   * first to report invalid input with a proper error status.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @throws IllegalArgumentException if the device does not exist or the range is empty
+   */
+  void checkRangeQuery(Long deviceId, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Streams readings of a device within {@code [from, to)} to the consumer, oldest first.
+   *
+   * <p>Rows are read from a database cursor and handed to the consumer one at a time, so memory
+   * use does not depend on the size of the range. Reading stops after {@code maxRows} rows or as
+   * soon as the consumer throws.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param maxRows the maximum number of rows to emit
+   * @param consumer receives each row
+   * @return the number of rows emitted
+   * @throws IllegalArgumentException if the device does not exist or the range is empty
+   */
+  long streamWaterLevelDataRange(
+      Long deviceId,
+      LocalDateTime from,
+      LocalDateTime to,
+      int maxRows,
+      Consumer<WaterLevelDataResponse> consumer);
+
+  /**
+   * Returns at most {@code points} representative readings of a device within {@code [from, to)}.
+   *
+   * <p>The range is read once through a database cursor and reduced on the fly, so memory use
+   * depends on the number of points rather than the number of readings in the range.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param points the maximum number of points to return
+   * @param mode the downsampling mode
+   * @return the downsampled series
+   * @throws IllegalArgumentException if the device does not exist, the range is empty or the point
+   *     count is too small for the mode
+   */
+  ChartResponse getChartData(
+      Long deviceId, LocalDateTime from, LocalDateTime to, int points, DownsamplingMode mode);
+
+  /**
+   * Returns count, min, max and average per bucket of width {@code resolution} within {@code [from,
+   * to)}, with bucket starts at {@code from + k * resolution}.
+   *
+   * <p>The range is split by the {@link QueryPlanner} into segments answered from daily summaries,
+   * hourly rollups or raw readings, and the segments are merged into the same buckets. Whole
+   * buckets whose hours are all sealed are kept in the {@link SealedBucketCache} and served from it
+   * on later queries as {@code CACHE} segments. Plans are counted per tier in the {@code
+   * water.level.query.segments} and {@code water.level.query.source.rows} metrics.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param resolution the bucket width, at least one minute
+   * @param maxRows the maximum number of raw readings the plan may read
+   * @return the non-empty buckets, oldest first, and the plan used
+   * @throws IllegalArgumentException if the device does not exist, the range is empty, the
+   *     resolution is too small or yields too many buckets, or more than {@code maxRows} raw
+   *     readings would be read
+   */
+  AggregatedSeriesResponse getAggregatedData(
+      Long deviceId, LocalDateTime from, LocalDateTime to, Duration resolution, int maxRows);
+
+  /**
+   * Writes the readings of a device within {@code [from, to)} to the writer, oldest first, up to
+   * {@code maxRows} of them.
+   *
+   * <p>Rows come from a forward-only JDBC cursor and are written as they are read, so memory use is
+   * constant regardless of the size of the range. If writing fails (e.g. the client disconnected)
+   * the query is abandoned and the failure is rethrown as {@link java.io.UncheckedIOException}.
+   *
+   * @param deviceId the device ID
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param format the output format
+   * @param maxRows the maximum number of rows to write
+   * @param writer the destination; flushed but not closed
+   * @return the number of rows written
+   * @throws IllegalArgumentException if the range is empty
+   */
+  long exportWaterLevelData(
+      Long deviceId,
+      LocalDateTime from,
+      LocalDateTime to,
+      ExportFormat format,
+      int maxRows,
+      Writer writer);
 }
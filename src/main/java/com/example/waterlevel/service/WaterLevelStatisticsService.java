@@ -0,0 +1,42 @@
+package com.example.waterlevel.service;
+
+import com.example.waterlevel.dto.HeatmapResponse;
+import com.example.waterlevel.dto.WaterLevelStatisticsResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/** Summary statistics of water levels over arbitrary time ranges. */
+public interface WaterLevelStatisticsService {
+
+  /**
+   * Computes count, min, max, mean, standard deviation and p5/p50/p95 for a device in {@code [from,
+   * to)}.
+   *
+   * <p>Whole hours with a sealed rollup are answered by merging the stored sketches; only the
+   * partial hours at the edges, unsealed recent hours and dirty hours are read from raw readings.
+   *
+   * @param deviceId the device ID
+   * @param from range start, inclusive
+   * @param to range end, exclusive
+   * @return the statistics
+   * @throws IllegalArgumentException if the device does not exist or the range is invalid
+   */
+  WaterLevelStatisticsResponse getStatistics(Long deviceId, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Computes the hour-of-day by day-of-week heatmap of average level and pump activity for a
+   * device over the days {@code [from, to]} of the given zone.
+   *
+   * <p>Read from the sealed hourly rollups in one streaming pass; hours not yet sealed are not
+   * included.
+   *
+   * @param deviceId the device ID
+   * @param from first day (inclusive); null for 52 weeks before {@code to}
+   * @param to last day (inclusive); null for today in {@code zone}
+   * @param zone zone of the days and cells; null for the server zone
+   * @return the heatmap
+   * @throws IllegalArgumentException if the device does not exist or the range is invalid
+   */
+  HeatmapResponse getHeatmap(Long deviceId, LocalDate from, LocalDate to, ZoneId zone);
+}
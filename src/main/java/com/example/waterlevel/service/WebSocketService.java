@@ -1,5 +1,6 @@
 package com.example.waterlevel.service;
 
+import com.example.waterlevel.dto.PlaybackState;
 import com.example.waterlevel.entity.PumpStatus;
 
 /**
@@ -28,4 +29,28 @@ public interface WebSocketService {
    * @param maxThreshold the new maximum threshold
    */
   void sendThresholdUpdateConfirmation(Long deviceId, Double minThreshold, Double maxThreshold);
+
+  /**
+   * Sends a replayed reading to the topic of a playback session.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param waterLevel the replayed water level
+   * @param pumpStatus the replayed pump status
+   * @param timestamp the original timestamp of the reading
+   */
+  void sendPlaybackUpdate(
+      Long deviceId, String sessionId, Double waterLevel, PumpStatus pumpStatus, String timestamp);
+
+  /**
+   * Tells the subscribers of a playback session that it has ended.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param state how the session ended
+   * @param sentReadings the number of readings replayed
+   * @param timestamp the time the session ended
+   */
+  void sendPlaybackEnd(
+      Long deviceId, String sessionId, PlaybackState state, long sentReadings, String timestamp);
 }
@@ -0,0 +1,334 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.constants.RollupConstants;
+import com.example.waterlevel.constants.ThreadPoolConstants;
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.PumpRuntimeResponse;
+import com.example.waterlevel.entity.DailySummary;
+import com.example.waterlevel.entity.DirtyBucket;
+import com.example.waterlevel.entity.JobWatermark;
+import com.example.waterlevel.repository.DailySummaryRepository;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.DirtyBucketRepository;
+import com.example.waterlevel.repository.JobWatermarkRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.PumpRunService;
+import com.example.waterlevel.util.DirtyMarks;
+import com.example.waterlevel.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link DailySummaryService} that splits the devices into fixed-size chunks and summarizes the
+ * chunks of a day concurrently.
+ *
+ * <p>Each chunk runs one aggregate over the raw readings of the {@link TimeSeriesStore} (a single
+ * query on the SQL engines) and one pump runtime query, and replaces its summaries in its own
+ * transaction. The watermark only advances once every chunk of the day has been stored, so a
+ * failed day is retried as a whole on the next run.
+ *
+ * <p>Readings stored for a day that is already summarized mark that device-day dirty. Marks are
+ * persisted as {@link DirtyBucket}s and a second job recomputes the marked devices of each day. All
+ * summarizing runs under the lock of this service.
+ */
+@Service
+public class DailySummaryServiceImpl implements DailySummaryService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DailySummaryServiceImpl.class);
+
+  private final DirtyMarks<LocalDate> dirtyDays = new DirtyMarks<>();
+  private final Map<Long, AtomicLong> revisions = new ConcurrentHashMap<>();
+
+  private final DailySummaryRepository dailySummaryRepository;
+  private final TimeSeriesStore timeSeriesStore;
+  private final DeviceRepository deviceRepository;
+  private final JobWatermarkRepository jobWatermarkRepository;
+  private final DirtyBucketRepository dirtyBucketRepository;
+  private final PumpRunService pumpRunService;
+  private final TransactionTemplate transactionTemplate;
+  private ExecutorService executor;
+  private volatile LocalDate closedUntil;
+  private volatile LocalDate summarizedUntil;
+
+  @Value(
+      "${water-level-data.summary.pool-size:"
+          + ThreadPoolConstants.DEFAULT_DAILY_SUMMARY_POOL_SIZE
+          + "}")
+  private int poolSize;
+
+  public DailySummaryServiceImpl(
+      final DailySummaryRepository dailySummaryRepository,
+      final TimeSeriesStore timeSeriesStore,
+      final DeviceRepository deviceRepository,
+      final JobWatermarkRepository jobWatermarkRepository,
+      final DirtyBucketRepository dirtyBucketRepository,
+      final PumpRunService pumpRunService,
+      final TransactionTemplate transactionTemplate) {
+    this.dailySummaryRepository = dailySummaryRepository;
+    this.timeSeriesStore = timeSeriesStore;
+    this.deviceRepository = deviceRepository;
+    this.jobWatermarkRepository = jobWatermarkRepository;
+    this.dirtyBucketRepository = dirtyBucketRepository;
+    this.pumpRunService = pumpRunService;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @PostConstruct
+  public void init() {
+    this.executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, poolSize), Thread.ofVirtual().name("daily-summary-", 0).factory());
+    loadWatermark();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  @Scheduled(cron = "${water-level-data.summary.cron:0 15 0 * * *}")
+  public synchronized void summarizeClosedDays() {
+    LocalDate today = LocalDate.now();
+    LocalDate next =
+        jobWatermarkRepository
+            .findById(RollupConstants.DAILY_SUMMARY_JOB)
+            .map(watermark -> watermark.getWatermark().toLocalDate())
+            .orElseGet(
+                () ->
+                    timeSeriesStore
+                        .findMinTimestamp()
+                        .map(LocalDateTime::toLocalDate)
+                        .orElse(today));
+    if (next.isBefore(today.minusDays(1))) {
+      LOGGER.info("Catching up daily summaries from {}", next);
+    }
+    while (next.isBefore(today)) {
+      LocalDate previous = closedUntil;
+      // Published before summarizing, so readings for this day stored while its chunks run are
+      // marked dirty and recomputed instead of being missed
+      closedUntil = next.plusDays(1);
+      try {
+        summarizeDay(next);
+      } catch (RuntimeException e) {
+        closedUntil = previous;
+        throw e;
+      }
+      next = next.plusDays(1);
+      jobWatermarkRepository.save(
+          new JobWatermark(RollupConstants.DAILY_SUMMARY_JOB, next.atStartOfDay()));
+      summarizedUntil = next;
+    }
+  }
+
+  @Override
+  @Scheduled(
+      fixedDelayString = "${water-level-data.summary.refresh-interval:PT5M}",
+      initialDelayString = "${water-level-data.summary.refresh-initial-delay:PT2M}")
+  public synchronized void summarizeDirtyDays() {
+    Map<LocalDate, Map<Long, Long>> byDay = new HashMap<>();
+    for (Map.Entry<Long, Map<LocalDate, Long>> device : dirtyDays.snapshot().entrySet()) {
+      for (Map.Entry<LocalDate, Long> mark : device.getValue().entrySet()) {
+        byDay
+            .computeIfAbsent(mark.getKey(), date -> new HashMap<>())
+            .put(device.getKey(), mark.getValue());
+      }
+    }
+    for (Map.Entry<LocalDate, Map<Long, Long>> day : byDay.entrySet()) {
+      LocalDate date = day.getKey();
+      Map<Long, Long> marks = day.getValue();
+      try {
+        summarizeDevices(date, new ArrayList<>(marks.keySet()));
+      } catch (RuntimeException e) {
+        LOGGER.warn("Failed to recompute summaries of {} devices on {}", marks.size(), date, e);
+        continue;
+      } finally {
+        // Results read while the old summaries were still visible must not outlive the recompute
+        marks.keySet().forEach(this::nextRevision);
+      }
+      for (Map.Entry<Long, Long> mark : marks.entrySet()) {
+        if (!dirtyDays.clear(mark.getKey(), date, mark.getValue())) {
+          // Marked again while recomputing; its stored mark was deleted with the chunk
+          storeMark(mark.getKey(), date);
+        }
+      }
+      LOGGER.info("Recomputed summaries of {} devices on {}", marks.size(), date);
+    }
+  }
+
+  @Override
+  public void recordReading(final Long deviceId, final LocalDateTime timestamp) {
+    LocalDate closed = closedUntil;
+    LocalDate date = timestamp.toLocalDate();
+    if (closed != null && date.isBefore(closed) && dirtyDays.mark(deviceId, date)) {
+      nextRevision(deviceId);
+      storeMark(deviceId, date);
+    }
+  }
+
+  @Override
+  public synchronized void summarizeDay(final LocalDate date) {
+    List<Long> deviceIds = deviceRepository.findAllIds();
+    summarizeDevices(date, deviceIds);
+    LOGGER.info("Summarized {} for {} devices", date, deviceIds.size());
+  }
+
+  @Override
+  public boolean isSummarized(final LocalDate date) {
+    LocalDate summarized = summarizedUntil;
+    return summarized != null && date.isBefore(summarized);
+  }
+
+  @Override
+  public boolean isSummarized(final Long deviceId, final LocalDate date) {
+    return isSummarized(date) && !dirtyDays.contains(deviceId, date);
+  }
+
+  @Override
+  public long getRevision(final Long deviceId) {
+    AtomicLong revision = revisions.get(deviceId);
+    return revision == null ? 0 : revision.get();
+  }
+
+  @Override
+  public void loadWatermark() {
+    summarizedUntil =
+        jobWatermarkRepository
+            .findById(RollupConstants.DAILY_SUMMARY_JOB)
+            .map(watermark -> watermark.getWatermark().toLocalDate())
+            .orElse(null);
+    closedUntil = summarizedUntil;
+    List<DirtyBucket> marks =
+        dirtyBucketRepository.findByJobName(RollupConstants.DAILY_SUMMARY_JOB);
+    for (DirtyBucket mark : marks) {
+      dirtyDays.mark(mark.getDevice().getId(), mark.getBucketStart().toLocalDate());
+    }
+    LOGGER.info("Daily summaries complete until {}, {} dirty days", summarizedUntil, marks.size());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<DailySummaryResponse> getDailySummaries(
+      final Long deviceId, final LocalDate from, final LocalDate to) {
+    LocalDate lastDay = to != null ? to : LocalDate.now().minusDays(1);
+    LocalDate firstDay =
+        from != null ? from : lastDay.minusDays(HistoryQueryConstants.DEFAULT_RUNTIME_DAYS - 1);
+    if (firstDay.isAfter(lastDay)) {
+      throw new IllegalArgumentException("'from' must not be after 'to'");
+    }
+    if (ChronoUnit.DAYS.between(firstDay, lastDay) >= HistoryQueryConstants.MAX_SUMMARY_DAYS) {
+      throw new IllegalArgumentException(
+          "Range must not exceed " + HistoryQueryConstants.MAX_SUMMARY_DAYS + " days");
+    }
+    if (deviceId == null || !deviceRepository.existsByIdAndDeletedFalse(deviceId)) {
+      throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
+    }
+    return dailySummaryRepository.findByDeviceIdAndDateRange(deviceId, firstDay, lastDay);
+  }
+
+  @Override
+  public void deleteByDeviceId(final Long deviceId) {
+    dailySummaryRepository.deleteByDeviceId(deviceId);
+    dirtyBucketRepository.deleteByJobNameAndDeviceId(RollupConstants.DAILY_SUMMARY_JOB, deviceId);
+    TransactionUtil.runAfterCommit(() -> dirtyDays.remove(deviceId));
+  }
+
+  /** Summarizes one day for the given devices, splitting them into concurrent chunks. */
+  private void summarizeDevices(final LocalDate date, final List<Long> deviceIds) {
+    List<Future<?>> chunks = new ArrayList<>();
+    for (int i = 0; i < deviceIds.size(); i += RollupConstants.DAILY_SUMMARY_CHUNK_SIZE) {
+      List<Long> chunk =
+          deviceIds.subList(
+              i, Math.min(i + RollupConstants.DAILY_SUMMARY_CHUNK_SIZE, deviceIds.size()));
+      chunks.add(executor.submit(() -> summarizeChunk(date, chunk)));
+    }
+    try {
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while summarizing " + date, e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to summarize " + date, e.getCause());
+    } finally {
+      chunks.forEach(chunk -> chunk.cancel(true));
+    }
+  }
+
+  private void summarizeChunk(final LocalDate date, final List<Long> deviceIds) {
+    LocalDateTime dayStart = date.atStartOfDay();
+    transactionTemplate.executeWithoutResult(
+        tx -> {
+          // Deleted first: a reading committed after this statement is either seen by the
+          // aggregate or marks the day again
+          dirtyBucketRepository.deleteMarks(
+              RollupConstants.DAILY_SUMMARY_JOB, deviceIds, dayStart);
+          Map<Long, LevelAggregate> levels = new HashMap<>();
+          for (LevelAggregate aggregate :
+              timeSeriesStore.aggregate(deviceIds, dayStart, dayStart.plusDays(1))) {
+            levels.put(aggregate.getDeviceId(), aggregate);
+          }
+          Map<Long, PumpRuntimeResponse> runtimes =
+              pumpRunService.getDailyRuntimes(deviceIds, date);
+          List<DailySummary> summaries = new ArrayList<>(deviceIds.size());
+          for (Long deviceId : deviceIds) {
+            summaries.add(
+                toSummary(deviceId, date, levels.get(deviceId), runtimes.get(deviceId)));
+          }
+          dailySummaryRepository.deleteByDateAndDeviceIds(date, deviceIds);
+          dailySummaryRepository.saveAll(summaries);
+        });
+  }
+
+  private void nextRevision(final Long deviceId) {
+    revisions.computeIfAbsent(deviceId, id -> new AtomicLong()).incrementAndGet();
+  }
+
+  private void storeMark(final Long deviceId, final LocalDate date) {
+    dirtyBucketRepository.insertMark(
+        RollupConstants.DAILY_SUMMARY_JOB, deviceId, date.atStartOfDay());
+  }
+
+  private DailySummary toSummary(
+      final Long deviceId,
+      final LocalDate date,
+      final LevelAggregate levels,
+      final PumpRuntimeResponse runtime) {
+    return new DailySummary(
+        null,
+        deviceRepository.getReferenceById(deviceId),
+        date,
+        levels != null ? levels.getCount() : 0,
+        levels != null ? levels.getMin().doubleValue() : null,
+        levels != null ? levels.getMax().doubleValue() : null,
+        levels != null ? levels.getAverage() : null,
+        runtime.getRuntimeSeconds(),
+        runtime.getCycles(),
+        runtime.getDutyCycle());
+  }
+}
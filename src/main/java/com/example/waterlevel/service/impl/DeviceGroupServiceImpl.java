@@ -0,0 +1,169 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.dto.DeviceGroupRequest;
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.GroupType;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.DeviceGroupRepository;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.DeviceGroupService;
+import com.example.waterlevel.service.DeviceService;
+import com.example.waterlevel.service.GroupMetricsService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Service implementation for managing sites and regions of devices. */
+@Service
+public class DeviceGroupServiceImpl implements DeviceGroupService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeviceGroupServiceImpl.class);
+
+  private final DeviceGroupRepository deviceGroupRepository;
+  private final UserRepository userRepository;
+  private final DeviceService deviceService;
+  private final GroupMetricsService groupMetricsService;
+
+  public DeviceGroupServiceImpl(
+      final DeviceGroupRepository deviceGroupRepository,
+      final UserRepository userRepository,
+      final DeviceService deviceService,
+      final GroupMetricsService groupMetricsService) {
+    this.deviceGroupRepository = deviceGroupRepository;
+    this.userRepository = userRepository;
+    this.deviceService = deviceService;
+    this.groupMetricsService = groupMetricsService;
+  }
+
+  /**
+   * Creates a group for the given admin.
+   *
+   * <p>Only regions may contain other groups, which keeps the tree to regions over sites.
+   *
+   * @param request the group name, type and optional parent region
+   * @param adminId the ID of the admin creating the group
+   * @return the created group
+   */
+  @Override
+  @Transactional
+  public DeviceGroup createGroup(final DeviceGroupRequest request, final Long adminId) {
+    LOGGER.info("Creating {} '{}' for admin ID: {}", request.getType(), request.getName(), adminId);
+    User admin =
+        userRepository
+            .findById(adminId)
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+    DeviceGroup parent = null;
+    if (request.getParentId() != null) {
+      parent = validateGroupOwnership(request.getParentId(), adminId);
+      if (parent.getType() != GroupType.REGION) {
+        throw new IllegalArgumentException("Parent group must be a region");
+      }
+    }
+
+    DeviceGroup group = new DeviceGroup();
+    group.setName(request.getName());
+    group.setType(request.getType());
+    group.setParent(parent);
+    group.setAdmin(admin);
+
+    DeviceGroup savedGroup = deviceGroupRepository.save(group);
+    groupMetricsService.registerGroup(savedGroup.getId(), parent == null ? null : parent.getId());
+    LOGGER.info("Device group created: {} (ID: {})", savedGroup.getName(), savedGroup.getId());
+    return savedGroup;
+  }
+
+  /**
+   * Gets the groups of an admin.
+   *
+   * @param adminId the admin user ID
+   * @return the groups ordered by name
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<DeviceGroup> getGroups(final Long adminId) {
+    return deviceGroupRepository.findByAdminIdOrderByNameAsc(adminId);
+  }
+
+  /**
+   * Validates that the group belongs to the given admin.
+   *
+   * @param groupId the group ID
+   * @param adminId the admin user ID
+   * @return the group if valid
+   * @throws IllegalArgumentException if group not found or doesn't belong to admin
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public DeviceGroup validateGroupOwnership(final Long groupId, final Long adminId) {
+    DeviceGroup group =
+        deviceGroupRepository
+            .findById(groupId)
+            .orElseThrow(
+                () -> new IllegalArgumentException(ApplicationConstants.GROUP_NOT_FOUND_MESSAGE));
+    if (group.getAdmin() == null || !group.getAdmin().getId().equals(adminId)) {
+      LOGGER.warn("Group ownership validation failed: groupId={}, adminId={}", groupId, adminId);
+      throw new IllegalArgumentException(
+          "Device group does not belong to the current user or access denied");
+    }
+    return group;
+  }
+
+  /**
+   * Moves a device into a group.
+   *
+   * <p>The group metrics are updated once the assignment has committed.
+   *
+   * @param groupId the group ID
+   * @param deviceId the device ID
+   * @param adminId the admin user ID
+   */
+  @Override
+  @Transactional
+  public void assignDevice(final Long groupId, final Long deviceId, final Long adminId) {
+    DeviceGroup group = validateGroupOwnership(groupId, adminId);
+    Device device = deviceService.validateDeviceOwnership(deviceId, adminId);
+    device.setGroup(group);
+    groupMetricsService.refreshDevice(device);
+    LOGGER.info("Device {} assigned to group {}", deviceId, groupId);
+  }
+
+  /**
+   * Removes a device from a group.
+   *
+   * @param groupId the group ID
+   * @param deviceId the device ID
+   * @param adminId the admin user ID
+   */
+  @Override
+  @Transactional
+  public void unassignDevice(final Long groupId, final Long deviceId, final Long adminId) {
+    validateGroupOwnership(groupId, adminId);
+    Device device = deviceService.validateDeviceOwnership(deviceId, adminId);
+    if (device.getGroup() == null || !device.getGroup().getId().equals(groupId)) {
+      throw new IllegalArgumentException("Device is not in this group");
+    }
+    device.setGroup(null);
+    groupMetricsService.refreshDevice(device);
+    LOGGER.info("Device {} removed from group {}", deviceId, groupId);
+  }
+
+  /**
+   * Gets the pre-aggregated metrics of a group.
+   *
+   * @param groupId the group ID
+   * @param adminId the admin user ID
+   * @return the metrics over the group and all groups below it
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public GroupMetricsResponse getMetrics(final Long groupId, final Long adminId) {
+    validateGroupOwnership(groupId, adminId);
+    return groupMetricsService.getMetrics(groupId);
+  }
+}
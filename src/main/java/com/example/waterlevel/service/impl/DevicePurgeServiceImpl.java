@@ -0,0 +1,176 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.DevicePurgeResponse;
+import com.example.waterlevel.dto.PurgeState;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.DevicePurgeService;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.service.PumpRunService;
+import com.example.waterlevel.service.ResourceVersionService;
+import com.example.waterlevel.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link DevicePurgeService} that purges one device at a time on a background virtual thread.
+ *
+ * <p>Readings are deleted in batches of {@code water-level-data.purge.batch-size}, each in its own
+ * transaction, so a device with years of history never holds locks or undo for long and ingest of
+ * other devices keeps flowing. Derived data and the device row go in one final transaction. The
+ * device stays marked as deleted until then, so an interrupted purge is resumed on the next start.
+ */
+@Service
+public class DevicePurgeServiceImpl implements DevicePurgeService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DevicePurgeServiceImpl.class);
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final DeviceRepository deviceRepository;
+  private final PumpRunService pumpRunService;
+  private final HourlyRollupService hourlyRollupService;
+  private final DailySummaryService dailySummaryService;
+  private final ResourceVersionService resourceVersionService;
+  private final LatestReadingService latestReadingService;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final Map<Long, DevicePurgeResponse> progress = new ConcurrentHashMap<>();
+  private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+  private ExecutorService executor;
+
+  public DevicePurgeServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final DeviceRepository deviceRepository,
+      final PumpRunService pumpRunService,
+      final HourlyRollupService hourlyRollupService,
+      final DailySummaryService dailySummaryService,
+      final ResourceVersionService resourceVersionService,
+      final LatestReadingService latestReadingService,
+      final TransactionTemplate transactionTemplate,
+      @Value("${water-level-data.purge.batch-size:" + StoreConstants.DEFAULT_PURGE_BATCH_SIZE + "}")
+          final int batchSize) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.deviceRepository = deviceRepository;
+    this.pumpRunService = pumpRunService;
+    this.hourlyRollupService = hourlyRollupService;
+    this.dailySummaryService = dailySummaryService;
+    this.resourceVersionService = resourceVersionService;
+    this.latestReadingService = latestReadingService;
+    this.transactionTemplate = transactionTemplate;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  @PostConstruct
+  public void init() {
+    this.executor =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("device-purge-", 0).factory());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public DevicePurgeResponse schedulePurge(final Long deviceId) {
+    DevicePurgeResponse pending =
+        new DevicePurgeResponse(deviceId, PurgeState.PENDING, 0, null, null);
+    TransactionUtil.runAfterCommit(() -> submit(pending));
+    return pending;
+  }
+
+  @Override
+  public Optional<DevicePurgeResponse> getProgress(final Long deviceId) {
+    return Optional.ofNullable(progress.get(deviceId));
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumePurges() {
+    for (Long deviceId : deviceRepository.findDeletedIds()) {
+      LOGGER.info("Resuming purge of deleted device ID: {}", deviceId);
+      submit(new DevicePurgeResponse(deviceId, PurgeState.PENDING, 0, null, null));
+    }
+  }
+
+  /**
+   * Deletes the history and then the row of a device marked as deleted, recording progress after
+   * every batch. Runs on the caller's thread; {@link #schedulePurge} runs it in the background.
+   *
+   * @param deviceId the device ID
+   */
+  public void purge(final Long deviceId) {
+    LocalDateTime startedAt = LocalDateTime.now();
+    long deleted = 0;
+    progress.put(
+        deviceId, new DevicePurgeResponse(deviceId, PurgeState.RUNNING, 0, startedAt, null));
+    LOGGER.info("Purging history of device ID: {}", deviceId);
+    try {
+      int batch;
+      do {
+        batch =
+            transactionTemplate.execute(
+                tx -> timeSeriesStore.deleteBatchByDeviceId(deviceId, batchSize));
+        deleted += batch;
+        progress.put(
+            deviceId,
+            new DevicePurgeResponse(deviceId, PurgeState.RUNNING, deleted, startedAt, null));
+        LOGGER.debug("Purged {} readings of device ID: {}", deleted, deviceId);
+      } while (batch > 0);
+
+      transactionTemplate.executeWithoutResult(
+          tx -> {
+            pumpRunService.deleteByDeviceId(deviceId);
+            hourlyRollupService.deleteByDeviceId(deviceId);
+            dailySummaryService.deleteByDeviceId(deviceId);
+            deviceRepository.deleteById(deviceId);
+          });
+      resourceVersionService.evictDevice(deviceId);
+      latestReadingService.evictDevice(deviceId);
+      progress.put(
+          deviceId,
+          new DevicePurgeResponse(
+              deviceId, PurgeState.COMPLETED, deleted, startedAt, LocalDateTime.now()));
+      LOGGER.info("Device purged successfully: {} ({} readings)", deviceId, deleted);
+    } catch (RuntimeException e) {
+      progress.put(
+          deviceId,
+          new DevicePurgeResponse(
+              deviceId, PurgeState.FAILED, deleted, startedAt, LocalDateTime.now()));
+      LOGGER.error("Purge of device ID {} failed after {} readings", deviceId, deleted, e);
+    }
+  }
+
+  private void submit(final DevicePurgeResponse pending) {
+    Long deviceId = pending.getDeviceId();
+    if (!queued.add(deviceId)) {
+      return;
+    }
+    progress.put(deviceId, pending);
+    executor.execute(
+        () -> {
+          try {
+            purge(deviceId);
+          } finally {
+            queued.remove(deviceId);
+          }
+        });
+  }
+}
@@ -0,0 +1,183 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.constants.ThreadPoolConstants;
+import com.example.waterlevel.dto.ChartPointResponse;
+import com.example.waterlevel.dto.DeviceSeriesResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DeviceSeriesService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link DeviceSeriesService} that scans each device's range on a fixed pool of virtual threads.
+ *
+ * <p>The pool is shared by all requests, so the number of concurrent scans (and database
+ * connections held by them) stays bounded however many series are requested.
+ */
+@Service
+public class DeviceSeriesServiceImpl implements DeviceSeriesService {
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final DeviceRepository deviceRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private ExecutorService executor;
+
+  @Value(
+      "${water-level-data.series.pool-size:"
+          + ThreadPoolConstants.DEFAULT_SERIES_QUERY_POOL_SIZE
+          + "}")
+  private int poolSize;
+
+  public DeviceSeriesServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final DeviceRepository deviceRepository,
+      final PlatformTransactionManager transactionManager) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.deviceRepository = deviceRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  @PostConstruct
+  public void init() {
+    this.executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, poolSize), Thread.ofVirtual().name("series-query-", 0).factory());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public void checkSeriesQuery(
+      final List<Long> deviceIds,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final Duration interval,
+      final int maxPoints) {
+    if (deviceIds == null || deviceIds.isEmpty()) {
+      throw new IllegalArgumentException("At least one device ID is required");
+    }
+    if (deviceIds.size() > HistoryQueryConstants.MAX_SERIES_DEVICES) {
+      throw new IllegalArgumentException(
+          "At most " + HistoryQueryConstants.MAX_SERIES_DEVICES + " devices are allowed");
+    }
+    if (new HashSet<>(deviceIds).size() != deviceIds.size()) {
+      throw new IllegalArgumentException("Device IDs must be unique");
+    }
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Both 'from' and 'to' are required");
+    }
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    if (interval == null || interval.toSeconds() < 1) {
+      throw new IllegalArgumentException("'interval' must be at least one second");
+    }
+    long points = (long) bucketCount(from, to, interval) * deviceIds.size();
+    if (points > maxPoints) {
+      throw new IllegalArgumentException(
+          "Query could return "
+              + points
+              + " points, more than the limit of "
+              + maxPoints
+              + "; use a larger interval or fewer devices");
+    }
+    if (deviceRepository.countByIdInAndDeletedFalse(deviceIds) != deviceIds.size()) {
+      throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
+    }
+  }
+
+  @Override
+  public void streamAlignedSeries(
+      final List<Long> deviceIds,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final Duration interval,
+      final Consumer<DeviceSeriesResponse> consumer) {
+    CompletionService<DeviceSeriesResponse> completion = new ExecutorCompletionService<>(executor);
+    List<Future<DeviceSeriesResponse>> pending = new ArrayList<>(deviceIds.size());
+    for (Long deviceId : deviceIds) {
+      pending.add(completion.submit(() -> loadSeries(deviceId, from, to, interval)));
+    }
+    try {
+      for (int i = 0; i < deviceIds.size(); i++) {
+        consumer.accept(completion.take().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while loading device series", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to load device series", e.getCause());
+    } finally {
+      // No-op for completed scans; stops the rest when the client disconnects or a scan fails
+      pending.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private DeviceSeriesResponse loadSeries(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final Duration interval) {
+    return readOnlyTransaction.execute(
+        tx -> {
+          int buckets = bucketCount(from, to, interval);
+          long intervalMillis = interval.toMillis();
+          double[] sums = new double[buckets];
+          int[] counts = new int[buckets];
+          long rows = 0;
+          try (Stream<WaterLevelDataResponse> readings = timeSeriesStore.scan(deviceId, from, to)) {
+            Iterator<WaterLevelDataResponse> iterator = readings.iterator();
+            while (iterator.hasNext()) {
+              WaterLevelDataResponse reading = iterator.next();
+              long offsetMillis = Duration.between(from, reading.getTimestamp()).toMillis();
+              int bucket = (int) (offsetMillis / intervalMillis);
+              sums[bucket] += reading.getWaterLevel().doubleValue();
+              counts[bucket]++;
+              rows++;
+            }
+          }
+          List<ChartPointResponse> points = new ArrayList<>();
+          for (int i = 0; i < buckets; i++) {
+            if (counts[i] > 0) {
+              points.add(
+                  new ChartPointResponse(
+                      from.plus(interval.multipliedBy(i)), sums[i] / counts[i]));
+            }
+          }
+          return new DeviceSeriesResponse(deviceId, rows, points);
+        });
+  }
+
+  private static int bucketCount(
+      final LocalDateTime from, final LocalDateTime to, final Duration interval) {
+    long rangeMillis = Duration.between(from, to).toMillis();
+    long intervalMillis = interval.toMillis();
+    return (int) Math.min(Integer.MAX_VALUE, (rangeMillis + intervalMillis - 1) / intervalMillis);
+  }
+}
@@ -1,13 +1,17 @@
 package com.example.waterlevel.service.impl;
 
 import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.dto.DevicePurgeResponse;
 import com.example.waterlevel.dto.DeviceRegisterRequest;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.User;
 import com.example.waterlevel.repository.DeviceRepository;
 import com.example.waterlevel.repository.UserRepository;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.service.DevicePurgeService;
 import com.example.waterlevel.service.DeviceService;
+import com.example.waterlevel.service.GroupMetricsService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.service.ResourceVersionService;
 import java.math.BigDecimal;
 import java.util.UUID;
 import org.slf4j.Logger;
@@ -25,15 +29,24 @@ public class DeviceServiceImpl implements DeviceService {
 
   private final DeviceRepository deviceRepository;
   private final UserRepository userRepository;
-  private final WaterLevelDataRepository waterLevelDataRepository;
+  private final ResourceVersionService resourceVersionService;
+  private final LatestReadingService latestReadingService;
+  private final DevicePurgeService devicePurgeService;
+  private final GroupMetricsService groupMetricsService;
 
   public DeviceServiceImpl(
       final DeviceRepository deviceRepository,
       final UserRepository userRepository,
-      final WaterLevelDataRepository waterLevelDataRepository) {
+      final ResourceVersionService resourceVersionService,
+      final LatestReadingService latestReadingService,
+      final DevicePurgeService devicePurgeService,
+      final GroupMetricsService groupMetricsService) {
     this.deviceRepository = deviceRepository;
     this.userRepository = userRepository;
-    this.waterLevelDataRepository = waterLevelDataRepository;
+    this.resourceVersionService = resourceVersionService;
+    this.latestReadingService = latestReadingService;
+    this.devicePurgeService = devicePurgeService;
+    this.groupMetricsService = groupMetricsService;
   }
 
   /**
@@ -52,7 +65,7 @@ public class DeviceServiceImpl implements DeviceService {
             .findById(adminId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-    String deviceKey = UUID.randomUUID().toString();
+    UUID deviceKey = UUID.randomUUID();
 
     Device device = new Device();
     device.setName(request.getName());
@@ -71,7 +84,7 @@ public class DeviceServiceImpl implements DeviceService {
   }
 
   /**
-   * Gets all devices with pagination.
+   * Gets all devices with pagination, excluding devices marked as deleted.
    *
    * <p>Uses EntityGraph to eagerly fetch admin relationships to avoid N+1 queries.
    *
@@ -81,7 +94,7 @@ public class DeviceServiceImpl implements DeviceService {
   @Override
   @Transactional(readOnly = true)
   public Page<Device> getAllDevices(final Pageable pageable) {
-    return deviceRepository.findAll(pageable);
+    return deviceRepository.findByDeletedFalse(pageable);
   }
 
   /**
@@ -95,6 +108,7 @@ public class DeviceServiceImpl implements DeviceService {
   public Device getDeviceById(final Long deviceId) {
     return deviceRepository
         .findById(deviceId)
+        .filter(device -> !device.isDeleted())
         .orElseThrow(
             () -> new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE));
   }
@@ -114,6 +128,7 @@ public class DeviceServiceImpl implements DeviceService {
     Device device =
         deviceRepository
             .findById(deviceId)
+            .filter(found -> !found.isDeleted())
             .orElseThrow(
                 () -> new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE));
     if (device.getAdmin() == null || !device.getAdmin().getId().equals(adminId)) {
@@ -144,6 +159,8 @@ public class DeviceServiceImpl implements DeviceService {
     device.setMinThreshold(minThreshold);
     device.setMaxThreshold(maxThreshold);
     Device savedDevice = deviceRepository.save(device);
+    resourceVersionService.recordDevice(savedDevice);
+    groupMetricsService.refreshDevice(savedDevice);
     LOGGER.info("Thresholds updated successfully for device ID: {}", device.getId());
     return savedDevice;
   }
@@ -151,22 +168,29 @@ public class DeviceServiceImpl implements DeviceService {
   /**
    * Deletes a device.
    *
+   * <p>Only marks the device as deleted, which immediately hides it from lookups and rejects its
+   * sensor messages. Its history is purged in the background once this transaction commits.
+   *
    * @param deviceId the device ID
+   * @return the pending purge
    */
   @Override
   @Transactional
-  public void deleteDevice(final Long deviceId) {
+  public DevicePurgeResponse deleteDevice(final Long deviceId) {
     LOGGER.info("Deleting device ID: {}", deviceId);
     Device device =
         deviceRepository
             .findById(deviceId)
+            .filter(found -> !found.isDeleted())
             .orElseThrow(
                 () -> new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE));
 
-    waterLevelDataRepository.deleteByDevice(device);
-    LOGGER.debug("Deleted water level data for device ID: {}", deviceId);
-
-    deviceRepository.deleteById(deviceId);
-    LOGGER.info("Device deleted successfully: {}", deviceId);
+    device.setDeleted(true);
+    resourceVersionService.evictDevice(deviceId);
+    latestReadingService.evictDevice(deviceId);
+    groupMetricsService.removeDevice(deviceId);
+    DevicePurgeResponse purge = devicePurgeService.schedulePurge(deviceId);
+    LOGGER.info("Device marked as deleted, purge scheduled: {}", deviceId);
+    return purge;
   }
 }
@@ -0,0 +1,242 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceGroupRepository;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.service.GroupMetricsService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.util.TransactionUtil;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link GroupMetricsService} keeping running totals per group in memory.
+ *
+ * <p>Each member device has a contribution holding what it currently adds to its groups. A new
+ * reading replaces the contribution and applies the difference to the device's group and each
+ * ancestor, so the cost of an update is the depth of the tree and reading metrics is constant
+ * time. Contributions are replaced inside {@link ConcurrentHashMap#compute}, which serializes the
+ * updates of one device, and the totals of a group are updated under the group's own lock.
+ */
+@Service
+public class GroupMetricsServiceImpl implements GroupMetricsService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GroupMetricsServiceImpl.class);
+
+  /** Parent of each group; top-level groups have no entry. */
+  private final Map<Long, Long> parents = new ConcurrentHashMap<>();
+
+  private final Map<Long, GroupAggregate> aggregates = new ConcurrentHashMap<>();
+  private final Map<Long, Contribution> contributions = new ConcurrentHashMap<>();
+
+  private final DeviceGroupRepository deviceGroupRepository;
+  private final DeviceRepository deviceRepository;
+  private final LatestReadingService latestReadingService;
+
+  public GroupMetricsServiceImpl(
+      final DeviceGroupRepository deviceGroupRepository,
+      final DeviceRepository deviceRepository,
+      final LatestReadingService latestReadingService) {
+    this.deviceGroupRepository = deviceGroupRepository;
+    this.deviceRepository = deviceRepository;
+    this.latestReadingService = latestReadingService;
+  }
+
+  @Override
+  public void recordReading(final LatestReadingResponse reading) {
+    contributions.computeIfPresent(
+        reading.getDeviceId(),
+        (deviceId, current) -> {
+          if (!reading.isNewerThan(current.reading)) {
+            return current;
+          }
+          Contribution updated = current.withReading(reading);
+          apply(current, updated);
+          return updated;
+        });
+  }
+
+  @Override
+  public void refreshDevice(final Device device) {
+    Long deviceId = device.getId();
+    Long groupId = device.getGroup() == null ? null : device.getGroup().getId();
+    BigDecimal minThreshold = device.getMinThreshold();
+    BigDecimal maxThreshold = device.getMaxThreshold();
+    TransactionUtil.runAfterCommit(
+        () ->
+            contributions.compute(
+                deviceId,
+                (id, current) -> {
+                  Contribution updated = null;
+                  if (groupId != null) {
+                    LatestReadingResponse reading =
+                        latestReadingService.findByDeviceId(id).orElse(null);
+                    updated = new Contribution(groupId, minThreshold, maxThreshold, reading);
+                  }
+                  apply(current, updated);
+                  return updated;
+                }));
+  }
+
+  @Override
+  public void removeDevice(final Long deviceId) {
+    TransactionUtil.runAfterCommit(
+        () ->
+            contributions.computeIfPresent(
+                deviceId,
+                (id, current) -> {
+                  apply(current, null);
+                  return null;
+                }));
+  }
+
+  @Override
+  public void registerGroup(final Long groupId, final Long parentId) {
+    TransactionUtil.runAfterCommit(
+        () -> {
+          if (parentId != null) {
+            parents.put(groupId, parentId);
+          }
+        });
+  }
+
+  @Override
+  public GroupMetricsResponse getMetrics(final Long groupId) {
+    GroupAggregate aggregate = aggregates.get(groupId);
+    if (aggregate == null) {
+      return new GroupMetricsResponse(groupId, 0, 0, null, 0, 0, null);
+    }
+    return aggregate.snapshot(groupId);
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild() {
+    List<DeviceGroup> groups = deviceGroupRepository.findAll();
+    for (DeviceGroup group : groups) {
+      registerGroup(group.getId(), group.getParent() == null ? null : group.getParent().getId());
+    }
+    List<Device> members = deviceRepository.findByGroupIsNotNullAndDeletedFalse();
+    members.forEach(this::refreshDevice);
+    LOGGER.info(
+        "Group metrics built for {} groups with {} devices", groups.size(), members.size());
+  }
+
+  /**
+   * Replaces one contribution of a device with another in its group and every ancestor.
+   *
+   * <p>A device moving between groups is removed from the old chain before it is added to the new
+   * one, so at no point is it counted twice in a common ancestor.
+   */
+  private void apply(final Contribution removed, final Contribution added) {
+    if (removed != null && added != null && removed.groupId.equals(added.groupId)) {
+      for (Long groupId = added.groupId; groupId != null; groupId = parents.get(groupId)) {
+        aggregates.computeIfAbsent(groupId, id -> new GroupAggregate()).replace(removed, added);
+      }
+      return;
+    }
+    if (removed != null) {
+      for (Long groupId = removed.groupId; groupId != null; groupId = parents.get(groupId)) {
+        aggregates.computeIfAbsent(groupId, id -> new GroupAggregate()).replace(removed, null);
+      }
+    }
+    if (added != null) {
+      for (Long groupId = added.groupId; groupId != null; groupId = parents.get(groupId)) {
+        aggregates.computeIfAbsent(groupId, id -> new GroupAggregate()).replace(null, added);
+      }
+    }
+  }
+
+  /** What one device currently adds to the totals of its groups. */
+  private static final class Contribution {
+    private final Long groupId;
+    private final BigDecimal minThreshold;
+    private final BigDecimal maxThreshold;
+    private final LatestReadingResponse reading;
+    private final boolean reporting;
+    private final long levelHundredths;
+    private final boolean pumpOn;
+    private final boolean inAlarm;
+
+    private Contribution(
+        final Long groupId,
+        final BigDecimal minThreshold,
+        final BigDecimal maxThreshold,
+        final LatestReadingResponse reading) {
+      this.groupId = groupId;
+      this.minThreshold = minThreshold;
+      this.maxThreshold = maxThreshold;
+      this.reading = reading;
+      this.reporting = reading != null && reading.getWaterLevel() != null;
+      BigDecimal level =
+          reporting
+              ? reading.getWaterLevel().setScale(StoreConstants.LEVEL_SCALE, RoundingMode.HALF_UP)
+              : BigDecimal.ZERO;
+      this.levelHundredths = level.unscaledValue().longValueExact();
+      this.pumpOn = reading != null && reading.getPumpStatus() == PumpStatus.ON;
+      this.inAlarm =
+          reporting && (level.compareTo(minThreshold) < 0 || level.compareTo(maxThreshold) > 0);
+    }
+
+    private Contribution withReading(final LatestReadingResponse newReading) {
+      return new Contribution(groupId, minThreshold, maxThreshold, newReading);
+    }
+  }
+
+  /** Running totals of one group. */
+  private static final class GroupAggregate {
+    private long devices;
+    private long reporting;
+    private long levelHundredths;
+    private long pumpsRunning;
+    private long inAlarm;
+    private LocalDateTime updatedAt;
+
+    private synchronized void replace(final Contribution removed, final Contribution added) {
+      if (removed != null) {
+        devices--;
+        reporting -= removed.reporting ? 1 : 0;
+        levelHundredths -= removed.levelHundredths;
+        pumpsRunning -= removed.pumpOn ? 1 : 0;
+        inAlarm -= removed.inAlarm ? 1 : 0;
+      }
+      if (added != null) {
+        devices++;
+        reporting += added.reporting ? 1 : 0;
+        levelHundredths += added.levelHundredths;
+        pumpsRunning += added.pumpOn ? 1 : 0;
+        inAlarm += added.inAlarm ? 1 : 0;
+      }
+      updatedAt = LocalDateTime.now();
+    }
+
+    private synchronized GroupMetricsResponse snapshot(final Long groupId) {
+      BigDecimal averageLevel =
+          reporting == 0
+              ? null
+              : BigDecimal.valueOf(levelHundredths, StoreConstants.LEVEL_SCALE)
+                  .divide(
+                      BigDecimal.valueOf(reporting),
+                      StoreConstants.LEVEL_SCALE,
+                      RoundingMode.HALF_UP);
+      return new GroupMetricsResponse(
+          groupId, devices, reporting, averageLevel, pumpsRunning, inAlarm, updatedAt);
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.RollupConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.DirtyBucket;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.entity.JobWatermark;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.DirtyBucketRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.JobWatermarkRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.util.DirtyMarks;
+import com.example.waterlevel.util.LevelStatistics;
+import com.example.waterlevel.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link HourlyRollupService} that seals hours in bounded chunks, each in its own transaction.
+ *
+ * <p>Dirty hours are tracked in memory and each new mark is also stored as a {@link DirtyBucket},
+ * so hours still pending at shutdown are rebuilt after a restart. The watermark and the stored
+ * marks are loaded while the application context starts, before readings can be ingested.
+ */
+@Service
+public class HourlyRollupServiceImpl implements HourlyRollupService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HourlyRollupServiceImpl.class);
+
+  private final DirtyMarks<LocalDateTime> dirtyHours = new DirtyMarks<>();
+  private final Map<Long, AtomicLong> revisions = new ConcurrentHashMap<>();
+  private volatile LocalDateTime sealedUntil;
+  private volatile LocalDateTime committedUntil;
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final HourlyRollupRepository hourlyRollupRepository;
+  private final JobWatermarkRepository jobWatermarkRepository;
+  private final DirtyBucketRepository dirtyBucketRepository;
+  private final DeviceRepository deviceRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration sealDelay;
+
+  public HourlyRollupServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final HourlyRollupRepository hourlyRollupRepository,
+      final JobWatermarkRepository jobWatermarkRepository,
+      final DirtyBucketRepository dirtyBucketRepository,
+      final DeviceRepository deviceRepository,
+      final TransactionTemplate transactionTemplate,
+      @Value("${water-level-data.rollup.seal-delay:PT5M}") final Duration sealDelay) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.hourlyRollupRepository = hourlyRollupRepository;
+    this.jobWatermarkRepository = jobWatermarkRepository;
+    this.dirtyBucketRepository = dirtyBucketRepository;
+    this.deviceRepository = deviceRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.sealDelay = sealDelay;
+  }
+
+  @Override
+  public void recordReading(final Long deviceId, final LocalDateTime timestamp) {
+    LocalDateTime sealed = sealedUntil;
+    if (sealed != null && timestamp.isBefore(sealed)) {
+      LocalDateTime hour = hourStart(timestamp);
+      if (dirtyHours.mark(deviceId, hour)) {
+        nextRevision(deviceId);
+        storeMark(deviceId, hour);
+      }
+    }
+  }
+
+  @Override
+  public boolean isSealed(final Long deviceId, final LocalDateTime hourStart) {
+    LocalDateTime committed = committedUntil;
+    if (committed == null || hourStart.plusHours(1).isAfter(committed)) {
+      return false;
+    }
+    return !dirtyHours.contains(deviceId, hourStart);
+  }
+
+  @Override
+  public long getRevision(final Long deviceId) {
+    AtomicLong revision = revisions.get(deviceId);
+    return revision == null ? 0 : revision.get();
+  }
+
+  @Override
+  @Scheduled(
+      fixedDelayString = "${water-level-data.rollup.interval:PT5M}",
+      initialDelayString = "${water-level-data.rollup.initial-delay:PT1M}")
+  public synchronized void sealClosedHours() {
+    LocalDateTime sealUpTo = hourStart(LocalDateTime.now().minus(sealDelay));
+    LocalDateTime watermark =
+        jobWatermarkRepository
+            .findById(RollupConstants.HOURLY_ROLLUP_JOB)
+            .map(JobWatermark::getWatermark)
+            .orElseGet(
+                () ->
+                    timeSeriesStore
+                        .findMinTimestamp()
+                        .map(HourlyRollupServiceImpl::hourStart)
+                        .orElse(sealUpTo));
+    while (watermark.isBefore(sealUpTo)) {
+      LocalDateTime chunkEnd = watermark.plusHours(RollupConstants.MAX_HOURS_PER_SEAL);
+      if (chunkEnd.isAfter(sealUpTo)) {
+        chunkEnd = sealUpTo;
+      }
+      sealChunk(watermark, chunkEnd);
+      watermark = chunkEnd;
+    }
+    if (sealedUntil == null) {
+      jobWatermarkRepository.save(new JobWatermark(RollupConstants.HOURLY_ROLLUP_JOB, watermark));
+      sealedUntil = watermark;
+      committedUntil = watermark;
+    }
+    rebuildDirtyHours();
+  }
+
+  @Override
+  @PostConstruct
+  public void loadWatermark() {
+    sealedUntil =
+        jobWatermarkRepository
+            .findById(RollupConstants.HOURLY_ROLLUP_JOB)
+            .map(JobWatermark::getWatermark)
+            .orElse(null);
+    committedUntil = sealedUntil;
+    List<DirtyBucket> marks =
+        dirtyBucketRepository.findByJobName(RollupConstants.HOURLY_ROLLUP_JOB);
+    for (DirtyBucket mark : marks) {
+      dirtyHours.mark(mark.getDevice().getId(), mark.getBucketStart());
+    }
+    LOGGER.info("Hourly rollups sealed until {}, {} dirty hours", sealedUntil, marks.size());
+  }
+
+  @Override
+  public void deleteByDeviceId(final Long deviceId) {
+    hourlyRollupRepository.deleteByDeviceId(deviceId);
+    dirtyBucketRepository.deleteByJobNameAndDeviceId(RollupConstants.HOURLY_ROLLUP_JOB, deviceId);
+    TransactionUtil.runAfterCommit(() -> dirtyHours.remove(deviceId));
+  }
+
+  private void sealChunk(final LocalDateTime from, final LocalDateTime to) {
+    LocalDateTime previous = sealedUntil;
+    // Publish the new watermark before scanning, so readings for these hours that are stored while
+    // the scan runs are marked dirty and rebuilt instead of being missed. The hours only count as
+    // sealed once their rollups are committed and visible to queries.
+    sealedUntil = to;
+    try {
+      Integer sealed =
+          transactionTemplate.execute(
+              tx -> {
+                Map<Long, Map<LocalDateTime, HourSummary>> byDevice = new HashMap<>();
+                try (Stream<WaterLevelDataResponse> readings = timeSeriesStore.scanAll(from, to)) {
+                  readings.forEach(
+                      reading ->
+                          byDevice
+                              .computeIfAbsent(reading.getDeviceId(), id -> new HashMap<>())
+                              .computeIfAbsent(
+                                  hourStart(reading.getTimestamp()), h -> new HourSummary())
+                              .add(reading));
+                }
+                hourlyRollupRepository.deleteByBucketRange(from, to);
+                List<HourlyRollup> rollups = new ArrayList<>();
+                byDevice.forEach(
+                    (deviceId, hours) ->
+                        hours.forEach(
+                            (hour, summary) -> rollups.add(toRollup(deviceId, hour, summary))));
+                hourlyRollupRepository.saveAll(rollups);
+                jobWatermarkRepository.save(
+                    new JobWatermark(RollupConstants.HOURLY_ROLLUP_JOB, to));
+                return rollups.size();
+              });
+      committedUntil = to;
+      LOGGER.info("Sealed hourly rollups up to {} ({} device-hours)", to, sealed);
+    } catch (RuntimeException e) {
+      sealedUntil = previous;
+      throw e;
+    }
+  }
+
+  private void rebuildDirtyHours() {
+    for (Map.Entry<Long, Map<LocalDateTime, Long>> device : dirtyHours.snapshot().entrySet()) {
+      Long deviceId = device.getKey();
+      for (Map.Entry<LocalDateTime, Long> mark : device.getValue().entrySet()) {
+        LocalDateTime hour = mark.getKey();
+        // The hour stays dirty, and out of queries, until its new rollup is committed
+        try {
+          rebuildHour(deviceId, hour);
+          if (!dirtyHours.clear(deviceId, hour, mark.getValue())) {
+            // Marked again during the rebuild; its stored mark was deleted with the rebuilt one
+            storeMark(deviceId, hour);
+          }
+        } catch (RuntimeException e) {
+          LOGGER.warn("Failed to rebuild rollup of device {} at {}", deviceId, hour, e);
+        } finally {
+          // Results read while the old rollup was still visible must not outlive the rebuild
+          nextRevision(deviceId);
+        }
+      }
+    }
+  }
+
+  private void storeMark(final Long deviceId, final LocalDateTime hour) {
+    dirtyBucketRepository.insertMark(RollupConstants.HOURLY_ROLLUP_JOB, deviceId, hour);
+  }
+
+  private void rebuildHour(final Long deviceId, final LocalDateTime hour) {
+    transactionTemplate.executeWithoutResult(
+        tx -> {
+          // Deleted first: a reading committed after this statement is either seen by the scan or
+          // marks the hour again
+          dirtyBucketRepository.deleteMark(RollupConstants.HOURLY_ROLLUP_JOB, deviceId, hour);
+          HourSummary summary = new HourSummary();
+          try (Stream<WaterLevelDataResponse> readings =
+              timeSeriesStore.scan(deviceId, hour, hour.plusHours(1))) {
+            readings.forEach(summary::add);
+          }
+          hourlyRollupRepository.deleteByDeviceIdAndBucketStart(deviceId, hour);
+          if (summary.stats.getCount() > 0) {
+            hourlyRollupRepository.save(toRollup(deviceId, hour, summary));
+          }
+        });
+    LOGGER.debug("Rebuilt rollup of device {} at {}", deviceId, hour);
+  }
+
+  private void nextRevision(final Long deviceId) {
+    revisions.computeIfAbsent(deviceId, id -> new AtomicLong()).incrementAndGet();
+  }
+
+  private HourlyRollup toRollup(
+      final Long deviceId, final LocalDateTime hour, final HourSummary summary) {
+    LevelStatistics stats = summary.stats;
+    return new HourlyRollup(
+        null,
+        deviceRepository.getReferenceById(deviceId),
+        hour,
+        stats.getCount(),
+        stats.getMin(),
+        stats.getMax(),
+        stats.getSum(),
+        stats.getSumOfSquares(),
+        summary.pumpOnCount,
+        stats.getDigest().toBytes());
+  }
+
+  private static LocalDateTime hourStart(final LocalDateTime timestamp) {
+    return timestamp.truncatedTo(ChronoUnit.HOURS);
+  }
+
+  /** Level statistics and pump ON count of one device's readings within one hour. */
+  private static final class HourSummary {
+    private final LevelStatistics stats = new LevelStatistics();
+    private long pumpOnCount;
+
+    private void add(final WaterLevelDataResponse reading) {
+      stats.add(reading.getWaterLevel().doubleValue());
+      if (reading.getPumpStatus() == PumpStatus.ON) {
+        pumpOnCount++;
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.util.TransactionUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** {@link LatestReadingService} backed by a concurrent map keyed by device ID. */
+@Service
+public class LatestReadingServiceImpl implements LatestReadingService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LatestReadingServiceImpl.class);
+
+  private final Map<Long, LatestReadingResponse> latestReadings = new ConcurrentHashMap<>();
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final DeviceRepository deviceRepository;
+
+  public LatestReadingServiceImpl(
+      final TimeSeriesStore timeSeriesStore, final DeviceRepository deviceRepository) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.deviceRepository = deviceRepository;
+  }
+
+  @Override
+  public void record(final LatestReadingResponse reading) {
+    latestReadings.merge(
+        reading.getDeviceId(),
+        reading,
+        (current, candidate) -> candidate.isNewerThan(current) ? candidate : current);
+  }
+
+  @Override
+  public Optional<LatestReadingResponse> findByDeviceId(final Long deviceId) {
+    return Optional.ofNullable(latestReadings.get(deviceId));
+  }
+
+  @Override
+  public List<LatestReadingResponse> findByAdminId(
+      final Long adminId, final Collection<Long> deviceIds) {
+    List<LatestReadingResponse> result = new ArrayList<>();
+    if (deviceIds == null || deviceIds.isEmpty()) {
+      for (LatestReadingResponse reading : latestReadings.values()) {
+        if (adminId.equals(reading.getAdminId())) {
+          result.add(reading);
+        }
+      }
+    } else {
+      for (Long deviceId : deviceIds) {
+        LatestReadingResponse reading = latestReadings.get(deviceId);
+        if (reading != null && adminId.equals(reading.getAdminId())) {
+          result.add(reading);
+        }
+      }
+    }
+    result.sort(Comparator.comparing(LatestReadingResponse::getDeviceId));
+    return result;
+  }
+
+  @Override
+  public void evictDevice(final Long deviceId) {
+    TransactionUtil.runAfterCommit(() -> latestReadings.remove(deviceId));
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @Transactional(readOnly = true)
+  public void warmUp() {
+    Map<Long, Long> adminIds = new HashMap<>();
+    for (Device device : deviceRepository.findAll()) {
+      if (!device.isDeleted()) {
+        adminIds.put(device.getId(), device.getAdmin().getId());
+      }
+    }
+    for (WaterLevelDataResponse reading : timeSeriesStore.findLatestPerDevice()) {
+      Long adminId = adminIds.get(reading.getDeviceId());
+      if (adminId != null) {
+        record(
+            new LatestReadingResponse(
+                reading.getDeviceId(),
+                adminId,
+                reading.getId(),
+                reading.getWaterLevel(),
+                reading.getPumpStatus(),
+                reading.getTimestamp()));
+      }
+    }
+    LOGGER.info("Latest-state table warmed with {} devices", latestReadings.size());
+  }
+}
@@ -0,0 +1,340 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.constants.ThreadPoolConstants;
+import com.example.waterlevel.constants.WebSocketDestinations;
+import com.example.waterlevel.dto.PlaybackSessionResponse;
+import com.example.waterlevel.dto.PlaybackState;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.PlaybackService;
+import com.example.waterlevel.service.WebSocketService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link PlaybackService} that replays each session on its own virtual thread.
+ *
+ * <p>Readings are read in keyset batches of {@link HistoryQueryConstants#PLAYBACK_BATCH_SIZE}
+ * through {@link TimeSeriesStore#findBatchAfter}, each in its own short read-only transaction, and
+ * each reading is sent when it is due, so a session holds one batch however long its range is.
+ * No connection, cursor or transaction stays open while a session sleeps; the next batch
+ * continues after the {@code (timestamp, id)} of the last reading sent. Stopping a session wakes
+ * it up rather than interrupting it, so a read over file-backed stores is never closed by an
+ * interrupt.
+ */
+@Service
+public class PlaybackServiceImpl implements PlaybackService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PlaybackServiceImpl.class);
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final DeviceRepository deviceRepository;
+  private final WebSocketService webSocketService;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Semaphore slots;
+  private final Duration maxDuration;
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+  private ExecutorService executor;
+
+  public PlaybackServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final DeviceRepository deviceRepository,
+      final WebSocketService webSocketService,
+      final PlatformTransactionManager transactionManager,
+      @Value(
+              "${water-level-data.playback.max-sessions:"
+                  + ThreadPoolConstants.DEFAULT_PLAYBACK_MAX_SESSIONS
+                  + "}")
+          final int maxSessions,
+      @Value("${water-level-data.playback.max-duration:PT2H}") final Duration maxDuration) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.deviceRepository = deviceRepository;
+    this.webSocketService = webSocketService;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.slots = new Semaphore(Math.max(1, maxSessions));
+    this.maxDuration = maxDuration;
+  }
+
+  @PostConstruct
+  public void init() {
+    this.executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("playback-", 0).factory());
+  }
+
+  /**
+   * Stops all sessions and waits up to {@link
+   * HistoryQueryConstants#PLAYBACK_SHUTDOWN_TIMEOUT_SECONDS} for them to end before interrupting
+   * the ones still blocked.
+   */
+  @PreDestroy
+  public void shutdown() {
+    sessions.values().forEach(Session::stop);
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(
+          HistoryQueryConstants.PLAYBACK_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      LOGGER.warn("Playback shutdown was interrupted");
+    }
+  }
+
+  @Override
+  public PlaybackSessionResponse startPlayback(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to, final int speed) {
+    if (deviceId == null || !deviceRepository.existsByIdAndDeletedFalse(deviceId)) {
+      throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
+    }
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Both 'from' and 'to' are required");
+    }
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    if (speed < 1 || speed > HistoryQueryConstants.MAX_PLAYBACK_SPEED) {
+      throw new IllegalArgumentException(
+          "Speed must be between 1 and " + HistoryQueryConstants.MAX_PLAYBACK_SPEED);
+    }
+    if (Duration.between(from, to).dividedBy(speed).compareTo(maxDuration) > 0) {
+      throw new IllegalArgumentException(
+          "Playback must not take longer than "
+              + maxDuration.toMinutes()
+              + " minutes; shorten the range or raise the speed");
+    }
+
+    expireFinishedSessions();
+    if (!slots.tryAcquire()) {
+      throw new IllegalArgumentException("Too many playback sessions are running");
+    }
+    Session session = new Session(UUID.randomUUID().toString(), deviceId, from, to, speed);
+    sessions.put(session.id, session);
+    try {
+      executor.execute(
+          () -> {
+            try {
+              play(session);
+            } finally {
+              slots.release();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      sessions.remove(session.id);
+      slots.release();
+      throw e;
+    }
+    LOGGER.info(
+        "Started playback {} of device ID {}: {} to {} at {}x",
+        session.id,
+        deviceId,
+        from,
+        to,
+        speed);
+    return session.snapshot();
+  }
+
+  @Override
+  public Optional<PlaybackSessionResponse> getSession(
+      final Long deviceId, final String sessionId) {
+    return findSession(deviceId, sessionId).map(Session::snapshot);
+  }
+
+  @Override
+  public Optional<PlaybackSessionResponse> stopPlayback(
+      final Long deviceId, final String sessionId) {
+    Optional<Session> session = findSession(deviceId, sessionId);
+    session.ifPresent(Session::stop);
+    return session.map(Session::snapshot);
+  }
+
+  private Optional<Session> findSession(final Long deviceId, final String sessionId) {
+    Session session = sessionId == null ? null : sessions.get(sessionId);
+    return session != null && session.deviceId.equals(deviceId)
+        ? Optional.of(session)
+        : Optional.empty();
+  }
+
+  private void play(final Session session) {
+    PlaybackState state;
+    try {
+      state = replay(session) ? PlaybackState.COMPLETED : PlaybackState.CANCELLED;
+    } catch (RuntimeException e) {
+      LOGGER.error("Playback {} of device ID {} failed", session.id, session.deviceId, e);
+      state = PlaybackState.FAILED;
+    }
+    session.finish(state);
+    webSocketService.sendPlaybackEnd(
+        session.deviceId,
+        session.id,
+        state,
+        session.sentReadings.get(),
+        session.finishedAt.format(DateTimeFormatter.ISO_DATE_TIME));
+    LOGGER.info(
+        "Playback {} of device ID {} ended {} after {} readings",
+        session.id,
+        session.deviceId,
+        state,
+        session.sentReadings.get());
+  }
+
+  /**
+   * Sends the readings of a session as they fall due. The first reading is sent at once and each
+   * later one after its distance from the first, divided by the speed, has elapsed.
+   *
+   * @return true if the range was replayed to its end, false if the session was stopped
+   */
+  private boolean replay(final Session session) {
+    long startNanos = System.nanoTime();
+    LocalDateTime origin = null;
+    WaterLevelDataResponse last = null;
+    List<WaterLevelDataResponse> batch;
+    do {
+      batch = nextBatch(session, last);
+      for (WaterLevelDataResponse reading : batch) {
+        if (origin == null) {
+          origin = reading.getTimestamp();
+        }
+        long dueNanos = Duration.between(origin, reading.getTimestamp()).toNanos() / session.speed;
+        if (session.awaitStop(dueNanos - (System.nanoTime() - startNanos))) {
+          return false;
+        }
+        webSocketService.sendPlaybackUpdate(
+            session.deviceId,
+            session.id,
+            reading.getWaterLevel().doubleValue(),
+            reading.getPumpStatus(),
+            reading.getTimestamp().format(DateTimeFormatter.ISO_DATE_TIME));
+        session.sentReadings.incrementAndGet();
+        last = reading;
+      }
+    } while (batch.size() == HistoryQueryConstants.PLAYBACK_BATCH_SIZE);
+    return true;
+  }
+
+  /**
+   * Reads the batch after the last reading sent, or the first batch of the range, in a read-only
+   * transaction that ends before any reading is sent.
+   */
+  private List<WaterLevelDataResponse> nextBatch(
+      final Session session, final WaterLevelDataResponse last) {
+    LocalDateTime timestamp = last == null ? session.from : last.getTimestamp();
+    Long id = last == null ? null : last.getId();
+    List<WaterLevelDataResponse> batch =
+        readOnlyTransaction.execute(
+            tx ->
+                timeSeriesStore.findBatchAfter(
+                    session.deviceId,
+                    timestamp,
+                    id,
+                    session.to,
+                    HistoryQueryConstants.PLAYBACK_BATCH_SIZE));
+    return batch != null ? batch : List.of();
+  }
+
+  @Override
+  @Scheduled(
+      fixedDelayString = "${water-level-data.playback.sweep-interval:PT5M}",
+      initialDelayString = "${water-level-data.playback.sweep-interval:PT5M}")
+  public void expireFinishedSessions() {
+    LocalDateTime cutoff =
+        LocalDateTime.now().minusMinutes(HistoryQueryConstants.PLAYBACK_RETENTION_MINUTES);
+    sessions
+        .values()
+        .removeIf(session -> session.finishedAt != null && session.finishedAt.isBefore(cutoff));
+  }
+
+  /** A playback session; its progress is written by the session thread only. */
+  private static final class Session {
+    private final String id;
+    private final Long deviceId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int speed;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong sentReadings = new AtomicLong();
+    private final CountDownLatch stopRequested = new CountDownLatch(1);
+    private volatile PlaybackState state = PlaybackState.RUNNING;
+    private volatile LocalDateTime finishedAt;
+
+    private Session(
+        final String id,
+        final Long deviceId,
+        final LocalDateTime from,
+        final LocalDateTime to,
+        final int speed) {
+      this.id = id;
+      this.deviceId = deviceId;
+      this.from = from;
+      this.to = to;
+      this.speed = speed;
+    }
+
+    private void stop() {
+      stopRequested.countDown();
+    }
+
+    /**
+     * Waits until the next reading is due.
+     *
+     * @param nanos nanoseconds until the reading is due, zero or less if it is already due
+     * @return true if the session was stopped in the meantime
+     */
+    private boolean awaitStop(final long nanos) {
+      try {
+        return nanos > 0
+            ? stopRequested.await(nanos, TimeUnit.NANOSECONDS)
+            : stopRequested.getCount() == 0;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return true;
+      }
+    }
+
+    private void finish(final PlaybackState finalState) {
+      finishedAt = LocalDateTime.now();
+      state = finalState;
+    }
+
+    private PlaybackSessionResponse snapshot() {
+      return new PlaybackSessionResponse(
+          id,
+          deviceId,
+          from,
+          to,
+          speed,
+          WebSocketDestinations.devicePlaybackTopic(deviceId, id),
+          state,
+          sentReadings.get(),
+          startedAt,
+          finishedAt);
+    }
+  }
+}
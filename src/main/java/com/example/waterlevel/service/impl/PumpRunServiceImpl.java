@@ -0,0 +1,225 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.PumpRuntimeResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpRun;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.PumpRunRepository;
+import com.example.waterlevel.service.PumpRunService;
+import com.example.waterlevel.util.TransactionUtil;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link PumpRunService} that keeps the open run of each device in memory.
+ *
+ * <p>Readings that repeat the open run's status are answered from memory without touching the
+ * database. The open run is loaded from the database the first time a device reports after
+ * startup. Transitions of one device are decided and written under a lock of that device, so they
+ * reach the database in order while no map-wide lock is held during the round trip.
+ */
+@Service
+public class PumpRunServiceImpl implements PumpRunService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PumpRunServiceImpl.class);
+
+  /** Marks a device that has no open run, as opposed to one whose run has not been loaded yet. */
+  private static final OpenRun NO_RUN = new OpenRun(null, null, LocalDateTime.MIN);
+
+  private final Map<Long, DeviceRuns> openRuns = new ConcurrentHashMap<>();
+
+  private final PumpRunRepository pumpRunRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public PumpRunServiceImpl(
+      final PumpRunRepository pumpRunRepository, final TransactionTemplate transactionTemplate) {
+    this.pumpRunRepository = pumpRunRepository;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public void recordStatus(
+      final Device device, final PumpStatus status, final LocalDateTime timestamp) {
+    DeviceRuns runs = openRuns.computeIfAbsent(device.getId(), id -> new DeviceRuns());
+    OpenRun current = runs.open;
+    if (current != null && !current.isTransition(status, timestamp)) {
+      return;
+    }
+    runs.lock.lock();
+    try {
+      if (runs.open == null) {
+        runs.open = loadOpenRun(device.getId());
+      }
+      OpenRun open = runs.open;
+      if (!open.isTransition(status, timestamp)) {
+        return;
+      }
+      PumpRun run = startRun(device, open == NO_RUN ? null : open, status, timestamp);
+      runs.open = new OpenRun(run.getId(), status, timestamp);
+      LOGGER.debug("Pump of device {} changed to {} at {}", device.getId(), status, timestamp);
+    } finally {
+      runs.lock.unlock();
+    }
+  }
+
+  @Override
+  public List<PumpRuntimeResponse> getDailyRuntime(
+      final Long deviceId, final LocalDate from, final LocalDate to) {
+    LocalDate lastDay = to != null ? to : LocalDate.now();
+    LocalDate firstDay =
+        from != null ? from : lastDay.minusDays(HistoryQueryConstants.DEFAULT_RUNTIME_DAYS - 1);
+    if (firstDay.isAfter(lastDay)) {
+      throw new IllegalArgumentException("'from' must not be after 'to'");
+    }
+    int days = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+    if (days > HistoryQueryConstants.MAX_RUNTIME_DAYS) {
+      throw new IllegalArgumentException(
+          "Range must not exceed " + HistoryQueryConstants.MAX_RUNTIME_DAYS + " days");
+    }
+
+    List<PumpRun> runs =
+        pumpRunRepository.findOverlapping(
+            deviceId,
+            PumpStatus.ON,
+            firstDay.atStartOfDay(),
+            lastDay.plusDays(1).atStartOfDay());
+    return toDailyRuntime(runs, firstDay, days, LocalDateTime.now());
+  }
+
+  @Override
+  public Map<Long, PumpRuntimeResponse> getDailyRuntimes(
+      final List<Long> deviceIds, final LocalDate date) {
+    Map<Long, List<PumpRun>> runsByDevice = new HashMap<>();
+    for (Long deviceId : deviceIds) {
+      runsByDevice.put(deviceId, new ArrayList<>());
+    }
+    for (PumpRun run :
+        pumpRunRepository.findOverlappingByDeviceIds(
+            deviceIds, PumpStatus.ON, date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+      runsByDevice.get(run.getDevice().getId()).add(run);
+    }
+    LocalDateTime now = LocalDateTime.now();
+    Map<Long, PumpRuntimeResponse> result = new HashMap<>();
+    runsByDevice.forEach(
+        (deviceId, runs) -> result.put(deviceId, toDailyRuntime(runs, date, 1, now).get(0)));
+    return result;
+  }
+
+  @Override
+  public void deleteByDeviceId(final Long deviceId) {
+    pumpRunRepository.deleteByDeviceId(deviceId);
+    TransactionUtil.runAfterCommit(() -> openRuns.remove(deviceId));
+  }
+
+  /** Splits the ON runs of one device, oldest first, into per-day runtime and cycle counts. */
+  private static List<PumpRuntimeResponse> toDailyRuntime(
+      final List<PumpRun> runs, final LocalDate firstDay, final int days, final LocalDateTime now) {
+    LocalDateTime rangeStart = firstDay.atStartOfDay();
+    LocalDateTime rangeEnd = firstDay.plusDays(days).atStartOfDay();
+    long[] runtimeSeconds = new long[days];
+    int[] cycles = new int[days];
+
+    for (PumpRun run : runs) {
+      if (!run.getStartedAt().isBefore(rangeStart)) {
+        cycles[dayIndex(firstDay, run.getStartedAt())]++;
+      }
+      LocalDateTime start = later(run.getStartedAt(), rangeStart);
+      LocalDateTime end = earlier(run.getEndedAt() != null ? run.getEndedAt() : now, rangeEnd);
+      while (start.isBefore(end)) {
+        LocalDateTime segmentEnd = earlier(start.toLocalDate().plusDays(1).atStartOfDay(), end);
+        runtimeSeconds[dayIndex(firstDay, start)] +=
+            Duration.between(start, segmentEnd).toSeconds();
+        start = segmentEnd;
+      }
+    }
+
+    List<PumpRuntimeResponse> result = new ArrayList<>(days);
+    for (int i = 0; i < days; i++) {
+      LocalDateTime dayStart = firstDay.plusDays(i).atStartOfDay();
+      LocalDateTime observedEnd = earlier(dayStart.plusDays(1), now);
+      long observedSeconds =
+          observedEnd.isAfter(dayStart) ? Duration.between(dayStart, observedEnd).toSeconds() : 0;
+      double dutyCycle =
+          observedSeconds > 0 ? Math.min(1.0, (double) runtimeSeconds[i] / observedSeconds) : 0.0;
+      result.add(
+          new PumpRuntimeResponse(dayStart.toLocalDate(), runtimeSeconds[i], cycles[i], dutyCycle));
+    }
+    return result;
+  }
+
+  private OpenRun loadOpenRun(final Long deviceId) {
+    return pumpRunRepository
+        .findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(deviceId)
+        .map(run -> new OpenRun(run.getId(), run.getStatus(), run.getStartedAt()))
+        .orElse(NO_RUN);
+  }
+
+  private PumpRun startRun(
+      final Device device,
+      final OpenRun open,
+      final PumpStatus status,
+      final LocalDateTime timestamp) {
+    return transactionTemplate.execute(
+        tx -> {
+          if (open != null) {
+            pumpRunRepository.closeRun(open.runId, timestamp);
+          }
+          PumpRun run = new PumpRun();
+          run.setDevice(device);
+          run.setStatus(status);
+          run.setStartedAt(timestamp);
+          return pumpRunRepository.save(run);
+        });
+  }
+
+  private static int dayIndex(final LocalDate firstDay, final LocalDateTime timestamp) {
+    return (int) ChronoUnit.DAYS.between(firstDay, timestamp.toLocalDate());
+  }
+
+  private static LocalDateTime later(final LocalDateTime a, final LocalDateTime b) {
+    return a.isAfter(b) ? a : b;
+  }
+
+  private static LocalDateTime earlier(final LocalDateTime a, final LocalDateTime b) {
+    return a.isBefore(b) ? a : b;
+  }
+
+  /** The open run of one device and the lock its transitions are written under. */
+  private static final class DeviceRuns {
+    private final Lock lock = new ReentrantLock();
+
+    /** The open run, {@link #NO_RUN} if there is none, or null until it has been loaded. */
+    private volatile OpenRun open;
+  }
+
+  /** The run currently in progress for a device. */
+  private static final class OpenRun {
+    private final Long runId;
+    private final PumpStatus status;
+    private final LocalDateTime startedAt;
+
+    private OpenRun(final Long runId, final PumpStatus status, final LocalDateTime startedAt) {
+      this.runId = runId;
+      this.status = status;
+      this.startedAt = startedAt;
+    }
+
+    private boolean isTransition(final PumpStatus newStatus, final LocalDateTime timestamp) {
+      return newStatus != status && !timestamp.isBefore(startedAt);
+    }
+  }
+}
@@ -1,22 +1,28 @@
 package com.example.waterlevel.service.impl;
 
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
 import com.example.waterlevel.entity.WaterLevelData;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.LatestReadingService;
 import com.example.waterlevel.service.PumpService;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /** Service implementation for pump status operations. */
 @Service
 public class PumpServiceImpl implements PumpService {
 
-  private final WaterLevelDataRepository waterLevelDataRepository;
+  private final TimeSeriesStore timeSeriesStore;
+  private final LatestReadingService latestReadingService;
 
-  public PumpServiceImpl(final WaterLevelDataRepository waterLevelDataRepository) {
-    this.waterLevelDataRepository = waterLevelDataRepository;
+  public PumpServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final LatestReadingService latestReadingService) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.latestReadingService = latestReadingService;
   }
 
   /**
@@ -29,24 +35,62 @@ public class PumpServiceImpl implements PumpService {
    * @return the latest pump status, or UNKNOWN if no data available
    */
   @Override
-  @Transactional(readOnly = true)
   public PumpStatus getCurrentPumpStatus(final Device device) {
-    Optional<WaterLevelData> latestData =
-        waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(device);
-    return latestData.map(WaterLevelData::getPumpStatus).orElse(PumpStatus.UNKNOWN);
+    return findLatestReading(device)
+        .map(LatestReadingResponse::getPumpStatus)
+        .orElse(PumpStatus.UNKNOWN);
   }
 
   /**
    * Gets the latest water level data for a device.
    *
-   * <p>Retrieves the most recent sensor reading for the specified device.
+   * <p>Retrieves the most recent sensor reading for the specified device. The returned entity is
+   * built from the latest-reading table and is not attached to a persistence context.
    *
    * @param device the device
    * @return the latest water level data, or empty if none available
    */
   @Override
-  @Transactional(readOnly = true)
   public Optional<WaterLevelData> getLatestData(final Device device) {
-    return waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(device);
+    return findLatestReading(device).map(reading -> toWaterLevelData(device, reading));
+  }
+
+  /**
+   * Looks up the latest reading in the write-through latest-reading table, falling back to the
+   * time series store (and populating the table) on a miss.
+   */
+  private Optional<LatestReadingResponse> findLatestReading(final Device device) {
+    Optional<LatestReadingResponse> cached = latestReadingService.findByDeviceId(device.getId());
+    if (cached.isPresent()) {
+      return cached;
+    }
+    Optional<LatestReadingResponse> loaded =
+        timeSeriesStore.findLatest(device.getId()).map(data -> toLatestReading(device, data));
+    if (device.getAdmin() != null) {
+      loaded.ifPresent(latestReadingService::record);
+    }
+    return loaded;
+  }
+
+  private static LatestReadingResponse toLatestReading(
+      final Device device, final WaterLevelDataResponse data) {
+    return new LatestReadingResponse(
+        device.getId(),
+        device.getAdmin() != null ? device.getAdmin().getId() : null,
+        data.getId(),
+        data.getWaterLevel(),
+        data.getPumpStatus(),
+        data.getTimestamp());
+  }
+
+  private static WaterLevelData toWaterLevelData(
+      final Device device, final LatestReadingResponse reading) {
+    WaterLevelData data = new WaterLevelData();
+    data.setId(reading.getReadingId());
+    data.setDevice(device);
+    data.setWaterLevel(reading.getWaterLevel());
+    data.setPumpStatus(reading.getPumpStatus());
+    data.setTimestamp(reading.getTimestamp());
+    return data;
   }
 }
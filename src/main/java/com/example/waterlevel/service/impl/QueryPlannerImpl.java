@@ -0,0 +1,107 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.dto.QueryPlan;
+import com.example.waterlevel.dto.QueryPlanSegment;
+import com.example.waterlevel.dto.StorageTier;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.QueryPlanner;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link QueryPlanner} that walks the range hour by hour (or day by day where possible), using only
+ * the in-memory watermarks of the rollup jobs.
+ *
+ * <p>A rollup tier is only eligible when the resolution is a multiple of its width and the range
+ * starts on one of its boundaries, so every rollup row falls into exactly one bucket. A daily
+ * summary is only used while it is current for the device and every hour of its day is sealed; a
+ * late reading marks both its hour and its day dirty, which sends that day to the finer tiers until
+ * the daily summary has been recomputed.
+ */
+@Service
+public class QueryPlannerImpl implements QueryPlanner {
+
+  private static final Duration HOUR = Duration.ofHours(1);
+  private static final Duration DAY = Duration.ofDays(1);
+
+  private final HourlyRollupService hourlyRollupService;
+  private final DailySummaryService dailySummaryService;
+
+  public QueryPlannerImpl(
+      final HourlyRollupService hourlyRollupService,
+      final DailySummaryService dailySummaryService) {
+    this.hourlyRollupService = hourlyRollupService;
+    this.dailySummaryService = dailySummaryService;
+  }
+
+  @Override
+  public QueryPlan plan(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final Duration resolution) {
+    boolean hourly =
+        isMultiple(resolution, HOUR) && from.equals(from.truncatedTo(ChronoUnit.HOURS));
+    boolean daily = isMultiple(resolution, DAY) && from.equals(from.truncatedTo(ChronoUnit.DAYS));
+
+    List<QueryPlanSegment> segments = new ArrayList<>();
+    LocalDateTime cursor = from;
+    while (cursor.isBefore(to)) {
+      StorageTier tier;
+      LocalDateTime next;
+      if (daily && fits(cursor.plusDays(1), to) && isDayComplete(deviceId, cursor)) {
+        tier = StorageTier.DAY;
+        next = cursor.plusDays(1);
+      } else if (hourly && fits(cursor.plusHours(1), to)) {
+        tier = hourlyRollupService.isSealed(deviceId, cursor) ? StorageTier.HOUR : StorageTier.RAW;
+        next = cursor.plusHours(1);
+      } else {
+        tier = StorageTier.RAW;
+        next = to;
+      }
+      append(segments, tier, cursor, next);
+      cursor = next;
+    }
+    return new QueryPlan(segments);
+  }
+
+  private boolean isDayComplete(final Long deviceId, final LocalDateTime dayStart) {
+    if (!dailySummaryService.isSummarized(deviceId, dayStart.toLocalDate())) {
+      return false;
+    }
+    for (int hour = 0; hour < 24; hour++) {
+      if (!hourlyRollupService.isSealed(deviceId, dayStart.plusHours(hour))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void append(
+      final List<QueryPlanSegment> segments,
+      final StorageTier tier,
+      final LocalDateTime from,
+      final LocalDateTime to) {
+    if (!segments.isEmpty()) {
+      QueryPlanSegment last = segments.get(segments.size() - 1);
+      if (last.getTier() == tier && last.getTo().equals(from)) {
+        segments.set(segments.size() - 1, new QueryPlanSegment(tier, last.getFrom(), to));
+        return;
+      }
+    }
+    segments.add(new QueryPlanSegment(tier, from, to));
+  }
+
+  private static boolean fits(final LocalDateTime end, final LocalDateTime to) {
+    return !end.isAfter(to);
+  }
+
+  private static boolean isMultiple(final Duration resolution, final Duration unit) {
+    return resolution.toSeconds() % unit.toSeconds() == 0 && resolution.getNano() == 0;
+  }
+}
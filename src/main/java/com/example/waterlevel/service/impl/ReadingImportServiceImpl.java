@@ -0,0 +1,391 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.StoreConstants;
+import com.example.waterlevel.constants.ThreadPoolConstants;
+import com.example.waterlevel.dto.ImportRejection;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.ReadingImportResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.GroupMetricsService;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.service.PumpRunService;
+import com.example.waterlevel.service.ReadingImportService;
+import com.example.waterlevel.service.ResourceVersionService;
+import com.example.waterlevel.util.DeviceKeys;
+import com.example.waterlevel.util.ReadingValidator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link ReadingImportService} that streams the file through a {@link FileChannel} in chunks of
+ * {@code water-level-data.import.chunk-bytes}, cut at the last line break.
+ *
+ * <p>Chunks are decoded, parsed and validated concurrently on a fixed pool of virtual threads,
+ * with at most two chunks per thread in flight so memory stays bounded. The calling thread takes
+ * the parsed chunks back in file order, resolves each device key once per import and loads every
+ * chunk with {@link TimeSeriesStore#bulkLoad} in its own transaction, so each device's readings
+ * are stored in file order. A failure stops the import; chunks loaded before it stay committed.
+ *
+ * <p>Once a chunk is committed its readings go through the same hooks as live ingestion: latest
+ * state, group metrics, pump runs, and the dirty marks that make the rollup and daily summary jobs
+ * rebuild any hour or day the import touched in the background. The cached history versions of
+ * the chunk's devices are dropped right away, so a later failure cannot leave them stale.
+ */
+@Service
+public class ReadingImportServiceImpl implements ReadingImportService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReadingImportServiceImpl.class);
+
+  private static final String HEADER_PREFIX = "device_key";
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+  private static final int FIELDS = 4;
+
+  private final DeviceRepository deviceRepository;
+  private final TimeSeriesStore timeSeriesStore;
+  private final HourlyRollupService hourlyRollupService;
+  private final DailySummaryService dailySummaryService;
+  private final ResourceVersionService resourceVersionService;
+  private final LatestReadingService latestReadingService;
+  private final GroupMetricsService groupMetricsService;
+  private final PumpRunService pumpRunService;
+  private final TransactionTemplate transactionTemplate;
+  private final int poolSize;
+  private final int chunkBytes;
+  private ExecutorService executor;
+
+  public ReadingImportServiceImpl(
+      final DeviceRepository deviceRepository,
+      final TimeSeriesStore timeSeriesStore,
+      final HourlyRollupService hourlyRollupService,
+      final DailySummaryService dailySummaryService,
+      final ResourceVersionService resourceVersionService,
+      final LatestReadingService latestReadingService,
+      final GroupMetricsService groupMetricsService,
+      final PumpRunService pumpRunService,
+      final TransactionTemplate transactionTemplate,
+      @Value(
+              "${water-level-data.import.pool-size:"
+                  + ThreadPoolConstants.DEFAULT_IMPORT_POOL_SIZE
+                  + "}")
+          final int poolSize,
+      @Value(
+              "${water-level-data.import.chunk-bytes:"
+                  + StoreConstants.DEFAULT_IMPORT_CHUNK_BYTES
+                  + "}")
+          final int chunkBytes) {
+    this.deviceRepository = deviceRepository;
+    this.timeSeriesStore = timeSeriesStore;
+    this.hourlyRollupService = hourlyRollupService;
+    this.dailySummaryService = dailySummaryService;
+    this.resourceVersionService = resourceVersionService;
+    this.latestReadingService = latestReadingService;
+    this.groupMetricsService = groupMetricsService;
+    this.pumpRunService = pumpRunService;
+    this.transactionTemplate = transactionTemplate;
+    this.poolSize = Math.max(1, poolSize);
+    this.chunkBytes = Math.max(1, chunkBytes);
+  }
+
+  @PostConstruct
+  public void init() {
+    this.executor =
+        Executors.newFixedThreadPool(
+            poolSize, Thread.ofVirtual().name("reading-import-", 0).factory());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public ReadingImportResponse importCsv(final Path file, final Long adminId) {
+    long start = System.nanoTime();
+    ImportRun run = new ImportRun(adminId);
+    Deque<Future<ParsedChunk>> pending = new ArrayDeque<>();
+    long bytes = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(chunkBytes);
+      boolean firstChunk = true;
+      boolean endOfFile = false;
+      while (!endOfFile) {
+        endOfFile = fill(channel, buffer);
+        buffer.flip();
+        int end = endOfFile ? buffer.limit() : lastLineBreak(buffer) + 1;
+        if (end == 0 && !endOfFile) {
+          throw new IllegalArgumentException(
+              "Import lines may not be longer than " + chunkBytes + " bytes");
+        }
+        if (end > 0) {
+          byte[] chunk = new byte[end];
+          buffer.get(chunk);
+          bytes += end;
+          boolean first = firstChunk;
+          pending.add(executor.submit(() -> parse(chunk, first)));
+          firstChunk = false;
+          if (pending.size() > poolSize * 2) {
+            run.load(pending.poll().get());
+          }
+        }
+        buffer.compact();
+      }
+      while (!pending.isEmpty()) {
+        run.load(pending.poll().get());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read import file", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while importing readings", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to parse import file", e.getCause());
+    } finally {
+      // No-op once everything is loaded; stops parsing the rest when loading fails
+      pending.forEach(future -> future.cancel(true));
+    }
+
+    long elapsedNanos = Math.max(1, System.nanoTime() - start);
+    ReadingImportResponse response =
+        new ReadingImportResponse(
+            run.imported,
+            run.rejected,
+            bytes,
+            elapsedNanos / 1_000_000,
+            run.imported * 1_000_000_000L / elapsedNanos,
+            run.rejections);
+    LOGGER.info(
+        "Imported {} readings ({} lines rejected, {} bytes) in {} ms: {} readings/s",
+        response.getImportedReadings(),
+        response.getRejectedLines(),
+        response.getBytes(),
+        response.getElapsedMillis(),
+        response.getReadingsPerSecond());
+    return response;
+  }
+
+  /** Reads until the buffer is full; returns true if the end of the file was reached first. */
+  private static boolean fill(final FileChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int lastLineBreak(final ByteBuffer buffer) {
+    for (int i = buffer.limit() - 1; i >= buffer.position(); i--) {
+      if (buffer.get(i) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Parses the lines of a chunk; line numbers are relative to the start of the chunk. */
+  private static ParsedChunk parse(final byte[] chunk, final boolean firstChunk) {
+    String text = new String(chunk, StandardCharsets.UTF_8);
+    ParsedChunk parsed = new ParsedChunk();
+    int position = firstChunk && !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK ? 1 : 0;
+    int line = 0;
+    while (position < text.length()) {
+      int lineBreak = text.indexOf('\n', position);
+      int end = lineBreak < 0 ? text.length() : lineBreak;
+      String value = text.substring(position, end).strip();
+      position = end + 1;
+      line++;
+      if (value.isEmpty() || (firstChunk && line == 1 && value.startsWith(HEADER_PREFIX))) {
+        continue;
+      }
+      try {
+        parsed.readings.add(parseLine(value, line));
+      } catch (IllegalArgumentException e) {
+        parsed.rejections.add(new ImportRejection(line, e.getMessage()));
+      }
+    }
+    parsed.lines = line;
+    return parsed;
+  }
+
+  private static ParsedReading parseLine(final String value, final int line) {
+    String[] fields = value.split(",", -1);
+    if (fields.length != FIELDS) {
+      throw new IllegalArgumentException(
+          "Expected " + FIELDS + " fields but found " + fields.length);
+    }
+    UUID deviceKey = DeviceKeys.parse(fields[0]);
+    LocalDateTime timestamp;
+    try {
+      timestamp = LocalDateTime.parse(fields[1].strip());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid timestamp: " + fields[1].strip());
+    }
+    BigDecimal waterLevel;
+    try {
+      waterLevel = new BigDecimal(fields[2].strip());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid water level: " + fields[2].strip());
+    }
+    ReadingValidator.validateWaterLevel(waterLevel.doubleValue());
+    PumpStatus pumpStatus = ReadingValidator.parsePumpStatus(fields[3].strip());
+    return new ParsedReading(
+        line,
+        deviceKey,
+        waterLevel.setScale(StoreConstants.LEVEL_SCALE, RoundingMode.HALF_UP),
+        pumpStatus,
+        timestamp);
+  }
+
+  /** State of one import, only touched by the calling thread. */
+  private final class ImportRun {
+    private final Long adminId;
+    private final Map<UUID, Device> devices = new HashMap<>();
+    private final Map<Long, Device> devicesById = new HashMap<>();
+    private final List<ImportRejection> rejections = new ArrayList<>();
+    private long lines;
+    private long imported;
+    private long rejected;
+
+    private ImportRun(final Long adminId) {
+      this.adminId = adminId;
+    }
+
+    private void load(final ParsedChunk chunk) {
+      List<ImportRejection> chunkRejections = new ArrayList<>(chunk.rejections);
+      List<WaterLevelDataResponse> readings = new ArrayList<>(chunk.readings.size());
+      Set<Long> chunkDevices = new HashSet<>();
+      for (ParsedReading reading : chunk.readings) {
+        Device device = resolve(reading.deviceKey);
+        if (device == null) {
+          chunkRejections.add(new ImportRejection(reading.line, "Unknown device key"));
+          continue;
+        }
+        readings.add(
+            new WaterLevelDataResponse(
+                null, device.getId(), reading.waterLevel, reading.pumpStatus, reading.timestamp));
+        chunkDevices.add(device.getId());
+      }
+
+      if (!readings.isEmpty()) {
+        Long stored = transactionTemplate.execute(tx -> timeSeriesStore.bulkLoad(readings));
+        imported += stored != null ? stored : 0;
+        // Bulk loads return no IDs, so the versions are recomputed from the store on next request
+        chunkDevices.forEach(resourceVersionService::evictDevice);
+        readings.forEach(this::afterStore);
+      }
+
+      chunkRejections.sort(Comparator.comparingLong(ImportRejection::getLine));
+      for (ImportRejection rejection : chunkRejections) {
+        if (rejections.size() < StoreConstants.IMPORT_MAX_REPORTED_REJECTIONS) {
+          rejections.add(new ImportRejection(lines + rejection.getLine(), rejection.getReason()));
+        }
+      }
+      rejected += chunkRejections.size();
+      lines += chunk.lines;
+    }
+
+    /** Runs the post-store hooks of live ingestion for a committed reading. */
+    private void afterStore(final WaterLevelDataResponse reading) {
+      Long deviceId = reading.getDeviceId();
+      LatestReadingResponse latest =
+          new LatestReadingResponse(
+              deviceId,
+              adminId,
+              null,
+              reading.getWaterLevel(),
+              reading.getPumpStatus(),
+              reading.getTimestamp());
+      latestReadingService.record(latest);
+      groupMetricsService.recordReading(latest);
+      pumpRunService.recordStatus(
+          devicesById.get(deviceId), reading.getPumpStatus(), reading.getTimestamp());
+      hourlyRollupService.recordReading(deviceId, reading.getTimestamp());
+      dailySummaryService.recordReading(deviceId, reading.getTimestamp());
+    }
+
+    /**
+     * Maps a device key to a live device of the admin, or null. Looked up once per key; unknown
+     * keys are remembered too.
+     */
+    private Device resolve(final UUID deviceKey) {
+      if (devices.containsKey(deviceKey)) {
+        return devices.get(deviceKey);
+      }
+      Device resolved =
+          deviceRepository
+              .findByDeviceKey(deviceKey)
+              .filter(device -> !device.isDeleted())
+              .filter(device -> adminId.equals(device.getAdmin().getId()))
+              .orElse(null);
+      devices.put(deviceKey, resolved);
+      if (resolved != null) {
+        devicesById.put(resolved.getId(), resolved);
+      }
+      return resolved;
+    }
+  }
+
+  private static final class ParsedChunk {
+    private final List<ParsedReading> readings = new ArrayList<>();
+    private final List<ImportRejection> rejections = new ArrayList<>();
+    private int lines;
+  }
+
+  private static final class ParsedReading {
+    private final int line;
+    private final UUID deviceKey;
+    private final BigDecimal waterLevel;
+    private final PumpStatus pumpStatus;
+    private final LocalDateTime timestamp;
+
+    private ParsedReading(
+        final int line,
+        final UUID deviceKey,
+        final BigDecimal waterLevel,
+        final PumpStatus pumpStatus,
+        final LocalDateTime timestamp) {
+      this.line = line;
+      this.deviceKey = deviceKey;
+      this.waterLevel = waterLevel;
+      this.pumpStatus = pumpStatus;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.service.ResourceVersionService;
+import com.example.waterlevel.util.TransactionUtil;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link ResourceVersionService} backed by concurrent maps.
+ *
+ * <p>State is local to this instance, like the rate limiter; all writes that change a versioned
+ * resource go through this application.
+ */
+@Service
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+  private static final long NO_LAST_MODIFIED = -1;
+
+  private final Map<Long, Long> deviceVersions = new ConcurrentHashMap<>();
+  private final Map<Long, Long> historyVersions = new ConcurrentHashMap<>();
+
+  @Override
+  public Optional<ResourceVersion> findDeviceVersion(final Long deviceId) {
+    Long updatedAt = deviceVersions.get(deviceId);
+    return updatedAt == null ? Optional.empty() : Optional.of(deviceVersion(deviceId, updatedAt));
+  }
+
+  @Override
+  public Optional<ResourceVersion> recordDevice(final Device device) {
+    TransactionUtil.runAfterCommit(
+        () -> {
+          Long updatedAt = toEpochMillis(device.getUpdatedAt());
+          if (updatedAt != null) {
+            deviceVersions.merge(device.getId(), updatedAt, Math::max);
+          }
+        });
+    Long updatedAt = toEpochMillis(device.getUpdatedAt());
+    return updatedAt == null
+        ? Optional.empty()
+        : Optional.of(deviceVersion(device.getId(), updatedAt));
+  }
+
+  @Override
+  public Optional<ResourceVersion> findHistoryVersion(final Long deviceId) {
+    Long latestId = historyVersions.get(deviceId);
+    return latestId == null ? Optional.empty() : Optional.of(historyVersion(deviceId, latestId));
+  }
+
+  @Override
+  public ResourceVersion recordLatestReading(final Long deviceId, final Long readingId) {
+    long latestId = historyVersions.merge(deviceId, readingId, Math::max);
+    return historyVersion(deviceId, latestId);
+  }
+
+  @Override
+  public void evictDevice(final Long deviceId) {
+    TransactionUtil.runAfterCommit(
+        () -> {
+          deviceVersions.remove(deviceId);
+          historyVersions.remove(deviceId);
+        });
+  }
+
+  private static ResourceVersion deviceVersion(final Long deviceId, final long updatedAt) {
+    return new ResourceVersion(deviceId + "-" + updatedAt, updatedAt);
+  }
+
+  private static ResourceVersion historyVersion(final Long deviceId, final long latestId) {
+    return new ResourceVersion(deviceId + "-h" + latestId, NO_LAST_MODIFIED);
+  }
+
+  private static Long toEpochMillis(final LocalDateTime timestamp) {
+    return timestamp == null
+        ? null
+        : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.LevelBucketResponse;
+import com.example.waterlevel.service.SealedBucketCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link SealedBucketCache} kept on the heap in a size-bounded Caffeine cache.
+ *
+ * <p>An entry takes about 200 bytes, so {@code water-level-data.bucket-cache.max-entries} bounds
+ * the memory used; rarely read buckets are evicted first. Hits, misses and evictions are published
+ * as the {@code cache.*} metrics of the {@code water-level-buckets} cache.
+ */
+@Service
+public class SealedBucketCacheImpl implements SealedBucketCache {
+
+  private static final String CACHE_NAME = "water-level-buckets";
+
+  private final Cache<Key, LevelBucketResponse> cache;
+
+  public SealedBucketCacheImpl(
+      @Value(
+              "${water-level-data.bucket-cache.max-entries:"
+                  + HistoryQueryConstants.DEFAULT_BUCKET_CACHE_MAX_ENTRIES
+                  + "}")
+          final long maxEntries,
+      final MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder().maximumSize(Math.max(0, maxEntries)).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  @Override
+  public LevelBucketResponse get(
+      final Long deviceId,
+      final long revision,
+      final Duration resolution,
+      final LocalDateTime bucketStart) {
+    return cache.getIfPresent(new Key(deviceId, revision, resolution, bucketStart));
+  }
+
+  @Override
+  public void put(
+      final Long deviceId,
+      final long revision,
+      final Duration resolution,
+      final LevelBucketResponse bucket) {
+    cache.put(new Key(deviceId, revision, resolution, bucket.getBucketStart()), bucket);
+  }
+
+  /** Identity of a closed bucket at one revision of its device's sealed hours. */
+  @EqualsAndHashCode
+  @AllArgsConstructor
+  private static final class Key {
+    private final Long deviceId;
+    private final long revision;
+    private final Duration resolution;
+    private final LocalDateTime bucketStart;
+  }
+}
@@ -1,14 +1,23 @@
 package com.example.waterlevel.service.impl;
 
 import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
-import com.example.waterlevel.entity.WaterLevelData;
 import com.example.waterlevel.exception.SensorDataProcessingException;
 import com.example.waterlevel.repository.DeviceRepository;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.GroupMetricsService;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.LatestReadingService;
+import com.example.waterlevel.service.PumpRunService;
+import com.example.waterlevel.service.ResourceVersionService;
 import com.example.waterlevel.service.SensorDataService;
 import com.example.waterlevel.service.WebSocketService;
+import com.example.waterlevel.util.DeviceKeys;
+import com.example.waterlevel.util.ReadingValidator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,18 +45,36 @@ public class SensorDataServiceImpl implements SensorDataService {
   private static final String PUMP_STATUS_FIELD = "pump_status";
 
   private final DeviceRepository deviceRepository;
-  private final WaterLevelDataRepository waterLevelDataRepository;
+  private final TimeSeriesStore timeSeriesStore;
   private final WebSocketService webSocketService;
+  private final ResourceVersionService resourceVersionService;
+  private final LatestReadingService latestReadingService;
+  private final PumpRunService pumpRunService;
+  private final HourlyRollupService hourlyRollupService;
+  private final DailySummaryService dailySummaryService;
+  private final GroupMetricsService groupMetricsService;
   private final ObjectMapper objectMapper;
 
   public SensorDataServiceImpl(
       final DeviceRepository deviceRepository,
-      final WaterLevelDataRepository waterLevelDataRepository,
+      final TimeSeriesStore timeSeriesStore,
       final WebSocketService webSocketService,
+      final ResourceVersionService resourceVersionService,
+      final LatestReadingService latestReadingService,
+      final PumpRunService pumpRunService,
+      final HourlyRollupService hourlyRollupService,
+      final DailySummaryService dailySummaryService,
+      final GroupMetricsService groupMetricsService,
       final ObjectMapper objectMapper) {
     this.deviceRepository = deviceRepository;
-    this.waterLevelDataRepository = waterLevelDataRepository;
+    this.timeSeriesStore = timeSeriesStore;
     this.webSocketService = webSocketService;
+    this.resourceVersionService = resourceVersionService;
+    this.latestReadingService = latestReadingService;
+    this.pumpRunService = pumpRunService;
+    this.hourlyRollupService = hourlyRollupService;
+    this.dailySummaryService = dailySummaryService;
+    this.groupMetricsService = groupMetricsService;
     this.objectMapper = objectMapper;
   }
 
@@ -74,12 +101,26 @@ public class SensorDataServiceImpl implements SensorDataService {
       final String pumpStatus = extractAndValidatePumpStatus(jsonNode);
       String timestampStr = extractTimestamp(jsonNode);
 
-      validateWaterLevel(waterLevel);
-      PumpStatus pumpStatusEnum = validateAndConvertPumpStatus(pumpStatus);
+      ReadingValidator.validateWaterLevel(waterLevel);
+      PumpStatus pumpStatusEnum = ReadingValidator.parsePumpStatus(pumpStatus);
       Device device = validateAndGetDevice(deviceKey);
 
-      WaterLevelData data =
+      WaterLevelDataResponse data =
           createAndSaveWaterLevelData(device, waterLevel, pumpStatusEnum, timestampStr);
+      resourceVersionService.recordLatestReading(device.getId(), data.getId());
+      LatestReadingResponse latest =
+          new LatestReadingResponse(
+              device.getId(),
+              device.getAdmin().getId(),
+              data.getId(),
+              data.getWaterLevel(),
+              data.getPumpStatus(),
+              data.getTimestamp());
+      latestReadingService.record(latest);
+      groupMetricsService.recordReading(latest);
+      pumpRunService.recordStatus(device, pumpStatusEnum, data.getTimestamp());
+      hourlyRollupService.recordReading(device.getId(), data.getTimestamp());
+      dailySummaryService.recordReading(device.getId(), data.getTimestamp());
 
       LOGGER.info(
           "Sensor data stored for device {}: water_level={}, pump_status={}",
@@ -117,11 +158,11 @@ public class SensorDataServiceImpl implements SensorDataService {
   private String extractAndValidateDeviceKey(final JsonNode jsonNode) {
     String deviceKeyRaw =
         jsonNode.get(DEVICE_KEY_FIELD).isNull() ? null : jsonNode.get(DEVICE_KEY_FIELD).asText();
-    if (deviceKeyRaw == null || deviceKeyRaw.trim().isEmpty()) {
+    if (deviceKeyRaw == null || deviceKeyRaw.isBlank()) {
       throw new IllegalArgumentException(
           "Missing or empty " + DEVICE_KEY_FIELD + " in MQTT message");
     }
-    return deviceKeyRaw.trim();
+    return deviceKeyRaw;
   }
 
   private Double extractAndValidateWaterLevel(final JsonNode jsonNode) {
@@ -146,47 +187,26 @@ public class SensorDataServiceImpl implements SensorDataService {
     return jsonNode.has("timestamp") ? jsonNode.get("timestamp").asText() : null;
   }
 
-  private void validateWaterLevel(final Double waterLevel) {
-    if (Double.isNaN(waterLevel) || Double.isInfinite(waterLevel)) {
-      throw new IllegalArgumentException("Water level cannot be NaN or Infinity");
-    }
-    if (waterLevel < ApplicationConstants.MIN_WATER_LEVEL
-        || waterLevel > ApplicationConstants.MAX_WATER_LEVEL) {
-      throw new IllegalArgumentException("Water level out of valid range");
-    }
-  }
-
-  private PumpStatus validateAndConvertPumpStatus(final String pumpStatus) {
-    PumpStatus pumpStatusEnum = PumpStatus.fromString(pumpStatus);
-    if (pumpStatusEnum == PumpStatus.UNKNOWN && !pumpStatus.equalsIgnoreCase("UNKNOWN")) {
-      throw new IllegalArgumentException("Invalid pump status. Must be ON, OFF, or UNKNOWN");
-    }
-    return pumpStatusEnum;
-  }
-
   private Device validateAndGetDevice(final String deviceKey) {
-    if (deviceKey.length() != ApplicationConstants.UUID_LENGTH
-        || !deviceKey.matches(
-            "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$")) {
-      throw new IllegalArgumentException("Invalid device key format");
-    }
     return deviceRepository
-        .findByDeviceKey(deviceKey)
+        .findByDeviceKey(DeviceKeys.parse(deviceKey))
+        .filter(device -> !device.isDeleted())
         .orElseThrow(
             () -> new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE));
   }
 
-  private WaterLevelData createAndSaveWaterLevelData(
+  private WaterLevelDataResponse createAndSaveWaterLevelData(
       final Device device,
       final Double waterLevel,
       final PumpStatus pumpStatusEnum,
       final String timestampStr) {
-    WaterLevelData data = new WaterLevelData();
-    data.setDevice(device);
-    data.setWaterLevel(BigDecimal.valueOf(waterLevel));
-    data.setPumpStatus(pumpStatusEnum);
-    data.setTimestamp(parseTimestamp(timestampStr));
-    return waterLevelDataRepository.save(data);
+    return timeSeriesStore.append(
+        new WaterLevelDataResponse(
+            null,
+            device.getId(),
+            BigDecimal.valueOf(waterLevel),
+            pumpStatusEnum,
+            parseTimestamp(timestampStr)));
   }
 
   private LocalDateTime parseTimestamp(final String timestampStr) {
@@ -202,7 +222,7 @@ public class SensorDataServiceImpl implements SensorDataService {
   }
 
   private void broadcastSensorUpdate(
-      final WaterLevelData data,
+      final WaterLevelDataResponse data,
       final Long deviceId,
       final Double waterLevel,
       final PumpStatus pumpStatusEnum) {
@@ -98,6 +98,18 @@ public class UserServiceImpl implements UserService {
         .orElseThrow(() -> new IllegalArgumentException("User not found"));
   }
 
+  /**
+   * Caps a row limit by the current user's result limit.
+   *
+   * @param rows the limit without a user cap
+   * @return the smaller of {@code rows} and the user's result limit
+   */
+  @Override
+  public int capResultRows(final int rows) {
+    Integer maxResultRows = getCurrentUser().getMaxResultRows();
+    return maxResultRows == null ? rows : Math.min(rows, maxResultRows);
+  }
+
   /**
    * Deletes a user by ID.
    *
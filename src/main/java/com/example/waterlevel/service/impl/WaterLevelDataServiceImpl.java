@@ -1,38 +1,496 @@
 package com.example.waterlevel.service.impl;
 
 import com.example.waterlevel.constants.ApplicationConstants;
-import com.example.waterlevel.entity.WaterLevelData;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.AggregatedSeriesResponse;
+import com.example.waterlevel.dto.ChartResponse;
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import com.example.waterlevel.dto.ExportFormat;
+import com.example.waterlevel.dto.HistoryCursor;
+import com.example.waterlevel.dto.LevelBucketResponse;
+import com.example.waterlevel.dto.QueryPlan;
+import com.example.waterlevel.dto.QueryPlanSegment;
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.dto.StorageTier;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.repository.DailySummaryRepository;
 import com.example.waterlevel.repository.DeviceRepository;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.DailySummaryService;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.QueryPlanner;
+import com.example.waterlevel.service.ResourceVersionService;
+import com.example.waterlevel.service.SealedBucketCache;
 import com.example.waterlevel.service.WaterLevelDataService;
+import com.example.waterlevel.util.Downsampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class WaterLevelDataServiceImpl implements WaterLevelDataService {
 
-  private final WaterLevelDataRepository waterLevelDataRepository;
+  private static final String CSV_HEADER = "id,device_id,water_level,pump_status,timestamp\n";
+  private static final String PLAN_SEGMENTS_METRIC = "water.level.query.segments";
+  private static final String PLAN_ROWS_METRIC = "water.level.query.source.rows";
+
+  private final TimeSeriesStore timeSeriesStore;
   private final DeviceRepository deviceRepository;
+  private final ResourceVersionService resourceVersionService;
+  private final HourlyRollupRepository hourlyRollupRepository;
+  private final DailySummaryRepository dailySummaryRepository;
+  private final QueryPlanner queryPlanner;
+  private final HourlyRollupService hourlyRollupService;
+  private final DailySummaryService dailySummaryService;
+  private final SealedBucketCache sealedBucketCache;
+  private final MeterRegistry meterRegistry;
+  private final TransactionTemplate readOnlyTransaction;
 
   public WaterLevelDataServiceImpl(
-      final WaterLevelDataRepository waterLevelDataRepository,
-      final DeviceRepository deviceRepository) {
-    this.waterLevelDataRepository = waterLevelDataRepository;
+      final TimeSeriesStore timeSeriesStore,
+      final DeviceRepository deviceRepository,
+      final ResourceVersionService resourceVersionService,
+      final HourlyRollupRepository hourlyRollupRepository,
+      final DailySummaryRepository dailySummaryRepository,
+      final QueryPlanner queryPlanner,
+      final HourlyRollupService hourlyRollupService,
+      final DailySummaryService dailySummaryService,
+      final SealedBucketCache sealedBucketCache,
+      final MeterRegistry meterRegistry,
+      final PlatformTransactionManager transactionManager) {
+    this.timeSeriesStore = timeSeriesStore;
     this.deviceRepository = deviceRepository;
+    this.resourceVersionService = resourceVersionService;
+    this.hourlyRollupRepository = hourlyRollupRepository;
+    this.dailySummaryRepository = dailySummaryRepository;
+    this.queryPlanner = queryPlanner;
+    this.hourlyRollupService = hourlyRollupService;
+    this.dailySummaryService = dailySummaryService;
+    this.sealedBucketCache = sealedBucketCache;
+    this.meterRegistry = meterRegistry;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  @Override
+  public ResourceVersion getHistoryVersion(final Long deviceId) {
+    // Cache hits answer without a connection; only a miss opens a read-only transaction
+    return resourceVersionService
+        .findHistoryVersion(deviceId)
+        .orElseGet(
+            () -> {
+              Long latestId =
+                  readOnlyTransaction.execute(
+                      tx -> {
+                        validateDeviceExists(deviceId);
+                        return timeSeriesStore.findLatestId(deviceId).orElse(0L);
+                      });
+              return resourceVersionService.recordLatestReading(deviceId, latestId);
+            });
   }
 
   @Override
   @Transactional(readOnly = true)
-  public Page<WaterLevelData> getWaterLevelDataForDevice(
+  public Page<WaterLevelDataResponse> getWaterLevelDataForDevice(
       final Long deviceId, final Pageable pageable) {
+    validateDeviceExists(deviceId);
+    return timeSeriesStore.findPage(deviceId, pageable);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<WaterLevelDataResponse> getWaterLevelDataSlice(
+      final Long deviceId, final HistoryCursor cursor, final int size) {
+    validateDeviceExists(deviceId);
+    if (cursor == null) {
+      return timeSeriesStore.findSlice(deviceId, null, null, size);
+    }
+    return timeSeriesStore.findSlice(deviceId, cursor.getTimestamp(), cursor.getId(), size);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void checkRangeQuery(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    validateDeviceExists(deviceId);
+    validateRange(from, to);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long streamWaterLevelDataRange(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int maxRows,
+      final Consumer<WaterLevelDataResponse> consumer) {
+    validateRange(from, to);
+    long emitted = 0;
+    try (Stream<WaterLevelDataResponse> rows = timeSeriesStore.scan(deviceId, from, to)) {
+      Iterator<WaterLevelDataResponse> iterator = rows.limit(maxRows).iterator();
+      while (iterator.hasNext()) {
+        consumer.accept(iterator.next());
+        emitted++;
+      }
+    }
+    return emitted;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ChartResponse getChartData(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int points,
+      final DownsamplingMode mode) {
+    validateDeviceExists(deviceId);
+    validateRange(from, to);
+    if (mode == null) {
+      throw new IllegalArgumentException("Downsampling mode is required");
+    }
+    Downsampler downsampler = Downsampler.of(mode, from, to, points);
+    long sourceRows = 0;
+    try (Stream<WaterLevelDataResponse> rows = timeSeriesStore.scan(deviceId, from, to)) {
+      Iterator<WaterLevelDataResponse> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        WaterLevelDataResponse row = iterator.next();
+        downsampler.accept(row.getTimestamp(), row.getWaterLevel().doubleValue());
+        sourceRows++;
+      }
+    }
+    return new ChartResponse(deviceId, from, to, mode, sourceRows, downsampler.finish());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public AggregatedSeriesResponse getAggregatedData(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final Duration resolution,
+      final int maxRows) {
+    validateDeviceExists(deviceId);
+    validateRange(from, to);
+    if (resolution == null || resolution.toSeconds() < 60) {
+      throw new IllegalArgumentException("'resolution' must be at least one minute");
+    }
+    long resolutionMillis = resolution.toMillis();
+    long bucketCount =
+        (Duration.between(from, to).toMillis() + resolutionMillis - 1) / resolutionMillis;
+    if (bucketCount > HistoryQueryConstants.MAX_AGGREGATE_BUCKETS) {
+      throw new IllegalArgumentException(
+          "Query would return more than "
+              + HistoryQueryConstants.MAX_AGGREGATE_BUCKETS
+              + " buckets; use a larger resolution");
+    }
+
+    // Read before any hour is checked, so buckets computed from a rollup or daily summary that
+    // changes meanwhile are stored under a revision that is already outdated. Both counters only
+    // grow, so their sum changes whenever either does.
+    long revision =
+        hourlyRollupService.getRevision(deviceId) + dailySummaryService.getRevision(deviceId);
+    BucketAccumulator buckets = new BucketAccumulator(from, resolution, (int) bucketCount);
+    boolean[] cacheable = new boolean[(int) bucketCount];
+    List<QueryPlanSegment> segments = new ArrayList<>();
+    LocalDateTime planned = from;
+    for (int i = 0; i < bucketCount; i++) {
+      LocalDateTime start = from.plus(resolution.multipliedBy(i));
+      LocalDateTime end = start.plus(resolution);
+      if (end.isAfter(to) || !isBucketSealed(deviceId, start, end)) {
+        continue;
+      }
+      LevelBucketResponse cached = sealedBucketCache.get(deviceId, revision, resolution, start);
+      if (cached == null) {
+        cacheable[i] = true;
+        continue;
+      }
+      if (planned.isBefore(start)) {
+        segments.addAll(queryPlanner.plan(deviceId, planned, start, resolution).getSegments());
+      }
+      appendCacheSegment(segments, start, end);
+      buckets.set(i, cached);
+      planned = end;
+    }
+    if (planned.isBefore(to)) {
+      segments.addAll(queryPlanner.plan(deviceId, planned, to, resolution).getSegments());
+    }
+
+    long rawRows = 0;
+    for (QueryPlanSegment segment : segments) {
+      long rows =
+          switch (segment.getTier()) {
+            case DAY -> readDailySummaries(deviceId, segment, buckets);
+            case HOUR -> readHourlyRollups(deviceId, segment, buckets);
+            case RAW -> readRawReadings(deviceId, segment, buckets, maxRows - rawRows);
+            case CACHE -> countBuckets(segment, resolution);
+          };
+      if (segment.getTier() == StorageTier.RAW) {
+        rawRows += rows;
+      }
+      String tier = segment.getTier().name();
+      meterRegistry.counter(PLAN_SEGMENTS_METRIC, "tier", tier).increment();
+      meterRegistry.counter(PLAN_ROWS_METRIC, "tier", tier).increment(rows);
+    }
+    for (int i = 0; i < cacheable.length; i++) {
+      if (cacheable[i]) {
+        sealedBucketCache.put(deviceId, revision, resolution, buckets.get(i));
+      }
+    }
+    return new AggregatedSeriesResponse(
+        deviceId, from, to, new QueryPlan(segments), buckets.finish());
+  }
+
+  private boolean isBucketSealed(
+      final Long deviceId, final LocalDateTime start, final LocalDateTime end) {
+    for (LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+        hour.isBefore(end);
+        hour = hour.plusHours(1)) {
+      if (!hourlyRollupService.isSealed(deviceId, hour)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long countBuckets(final QueryPlanSegment segment, final Duration resolution) {
+    return Duration.between(segment.getFrom(), segment.getTo()).toMillis() / resolution.toMillis();
+  }
+
+  private static void appendCacheSegment(
+      final List<QueryPlanSegment> segments, final LocalDateTime from, final LocalDateTime to) {
+    if (!segments.isEmpty()) {
+      QueryPlanSegment last = segments.get(segments.size() - 1);
+      if (last.getTier() == StorageTier.CACHE && last.getTo().equals(from)) {
+        segments.set(
+            segments.size() - 1, new QueryPlanSegment(StorageTier.CACHE, last.getFrom(), to));
+        return;
+      }
+    }
+    segments.add(new QueryPlanSegment(StorageTier.CACHE, from, to));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportWaterLevelData(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final ExportFormat format,
+      final int maxRows,
+      final Writer writer) {
+    validateRange(from, to);
+    try {
+      if (format == ExportFormat.CSV) {
+        writer.write(CSV_HEADER);
+      }
+      long rows =
+          timeSeriesStore.forEachInRange(
+              deviceId, from, to, maxRows, row -> writeExportRow(writer, format, row));
+      writer.flush();
+      return rows;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeExportRow(
+      final Writer writer, final ExportFormat format, final WaterLevelDataResponse row) {
+    String timestamp = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getTimestamp());
+    String waterLevel = row.getWaterLevel().toPlainString();
+    try {
+      if (format == ExportFormat.CSV) {
+        writer
+            .append(String.valueOf(row.getId()))
+            .append(',')
+            .append(String.valueOf(row.getDeviceId()))
+            .append(',')
+            .append(waterLevel)
+            .append(',')
+            .append(row.getPumpStatus().name())
+            .append(',')
+            .append(timestamp)
+            .append('\n');
+      } else {
+        writer
+            .append("{\"id\":")
+            .append(String.valueOf(row.getId()))
+            .append(",\"deviceId\":")
+            .append(String.valueOf(row.getDeviceId()))
+            .append(",\"waterLevel\":")
+            .append(waterLevel)
+            .append(",\"pumpStatus\":\"")
+            .append(row.getPumpStatus().name())
+            .append("\",\"timestamp\":\"")
+            .append(timestamp)
+            .append("\"}\n");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private long readDailySummaries(
+      final Long deviceId, final QueryPlanSegment segment, final BucketAccumulator buckets) {
+    List<DailySummaryResponse> summaries =
+        dailySummaryRepository.findByDeviceIdAndDateRange(
+            deviceId,
+            segment.getFrom().toLocalDate(),
+            segment.getTo().toLocalDate().minusDays(1));
+    for (DailySummaryResponse summary : summaries) {
+      if (summary.getReadingCount() > 0) {
+        buckets.add(
+            summary.getDate().atStartOfDay(),
+            summary.getReadingCount(),
+            summary.getMinLevel(),
+            summary.getMaxLevel(),
+            summary.getAvgLevel() * summary.getReadingCount());
+      }
+    }
+    return summaries.size();
+  }
+
+  private long readHourlyRollups(
+      final Long deviceId, final QueryPlanSegment segment, final BucketAccumulator buckets) {
+    List<HourlyRollup> rollups =
+        hourlyRollupRepository.findByDeviceIdAndBucketRange(
+            deviceId, segment.getFrom(), segment.getTo());
+    for (HourlyRollup rollup : rollups) {
+      buckets.add(
+          rollup.getBucketStart(),
+          rollup.getReadingCount(),
+          rollup.getMinLevel(),
+          rollup.getMaxLevel(),
+          rollup.getSumLevel());
+    }
+    return rollups.size();
+  }
+
+  private long readRawReadings(
+      final Long deviceId,
+      final QueryPlanSegment segment,
+      final BucketAccumulator buckets,
+      final long maxRows) {
+    long rows = 0;
+    try (Stream<WaterLevelDataResponse> readings =
+        timeSeriesStore.scan(deviceId, segment.getFrom(), segment.getTo())) {
+      Iterator<WaterLevelDataResponse> iterator = readings.iterator();
+      while (iterator.hasNext()) {
+        if (rows == maxRows) {
+          throw new IllegalArgumentException(
+              "Query would read too many raw readings; use a larger resolution or a shorter range");
+        }
+        WaterLevelDataResponse reading = iterator.next();
+        double level = reading.getWaterLevel().doubleValue();
+        buckets.add(reading.getTimestamp(), 1, level, level, level);
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  private void validateRange(final LocalDateTime from, final LocalDateTime to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Both 'from' and 'to' are required");
+    }
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+  }
+
+  private void validateDeviceExists(final Long deviceId) {
     if (deviceId == null) {
       throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
     }
-    if (!deviceRepository.existsById(deviceId)) {
+    if (!deviceRepository.existsByIdAndDeletedFalse(deviceId)) {
       throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
     }
-    return waterLevelDataRepository.findByDevice_Id(deviceId, pageable);
+  }
+
+  /** Merges partial aggregates from any tier, and cached buckets, into fixed-width buckets. */
+  private static final class BucketAccumulator {
+
+    private final LocalDateTime from;
+    private final Duration resolution;
+    private final long[] counts;
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] sums;
+    private final LevelBucketResponse[] cached;
+
+    BucketAccumulator(final LocalDateTime from, final Duration resolution, final int buckets) {
+      this.from = from;
+      this.resolution = resolution;
+      this.counts = new long[buckets];
+      this.mins = new double[buckets];
+      this.maxs = new double[buckets];
+      this.sums = new double[buckets];
+      this.cached = new LevelBucketResponse[buckets];
+    }
+
+    void set(final int bucket, final LevelBucketResponse response) {
+      cached[bucket] = response;
+    }
+
+    /** Returns a computed bucket, with a count of zero if it has no readings. */
+    LevelBucketResponse get(final int bucket) {
+      LocalDateTime start = from.plus(resolution.multipliedBy(bucket));
+      return counts[bucket] == 0
+          ? new LevelBucketResponse(start, 0, 0.0, 0.0, 0.0)
+          : new LevelBucketResponse(
+              start, counts[bucket], mins[bucket], maxs[bucket], sums[bucket] / counts[bucket]);
+    }
+
+    void add(
+        final LocalDateTime start,
+        final long count,
+        final double min,
+        final double max,
+        final double sum) {
+      int bucket = (int) (Duration.between(from, start).toMillis() / resolution.toMillis());
+      if (counts[bucket] == 0) {
+        mins[bucket] = min;
+        maxs[bucket] = max;
+      } else {
+        mins[bucket] = Math.min(mins[bucket], min);
+        maxs[bucket] = Math.max(maxs[bucket], max);
+      }
+      counts[bucket] += count;
+      sums[bucket] += sum;
+    }
+
+    List<LevelBucketResponse> finish() {
+      List<LevelBucketResponse> result = new ArrayList<>();
+      for (int i = 0; i < counts.length; i++) {
+        if (cached[i] != null) {
+          if (cached[i].getCount() > 0) {
+            result.add(cached[i]);
+          }
+        } else if (counts[i] > 0) {
+          result.add(get(i));
+        }
+      }
+      return result;
+    }
   }
 }
@@ -0,0 +1,191 @@
+package com.example.waterlevel.service.impl;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.HeatmapResponse;
+import com.example.waterlevel.dto.HourlyRollupSample;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.dto.WaterLevelStatisticsResponse;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.HourlyRollupService;
+import com.example.waterlevel.service.WaterLevelStatisticsService;
+import com.example.waterlevel.util.HourOfWeekHeatmap;
+import com.example.waterlevel.util.LevelStatistics;
+import com.example.waterlevel.util.TDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class WaterLevelStatisticsServiceImpl implements WaterLevelStatisticsService {
+
+  private final TimeSeriesStore timeSeriesStore;
+  private final HourlyRollupRepository hourlyRollupRepository;
+  private final HourlyRollupService hourlyRollupService;
+  private final DeviceRepository deviceRepository;
+
+  public WaterLevelStatisticsServiceImpl(
+      final TimeSeriesStore timeSeriesStore,
+      final HourlyRollupRepository hourlyRollupRepository,
+      final HourlyRollupService hourlyRollupService,
+      final DeviceRepository deviceRepository) {
+    this.timeSeriesStore = timeSeriesStore;
+    this.hourlyRollupRepository = hourlyRollupRepository;
+    this.hourlyRollupService = hourlyRollupService;
+    this.deviceRepository = deviceRepository;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public WaterLevelStatisticsResponse getStatistics(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Both 'from' and 'to' are required");
+    }
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("'from' must be before 'to'");
+    }
+    if (deviceId == null || !deviceRepository.existsByIdAndDeletedFalse(deviceId)) {
+      throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
+    }
+
+    LocalDateTime firstHour = from.truncatedTo(ChronoUnit.HOURS);
+    if (firstHour.isBefore(from)) {
+      firstHour = firstHour.plusHours(1);
+    }
+    LocalDateTime lastHourEnd = to.truncatedTo(ChronoUnit.HOURS);
+
+    Map<LocalDateTime, HourlyRollup> rollups = new HashMap<>();
+    if (firstHour.isBefore(lastHourEnd)) {
+      for (HourlyRollup rollup :
+          hourlyRollupRepository.findByDeviceIdAndBucketRange(deviceId, firstHour, lastHourEnd)) {
+        rollups.put(rollup.getBucketStart(), rollup);
+      }
+    }
+
+    // Walk the whole hours; sealed ones are merged, everything between them is scanned raw
+    LevelStatistics stats = new LevelStatistics();
+    int rollupHours = 0;
+    long scannedRows = 0;
+    LocalDateTime rawFrom = from;
+    for (LocalDateTime hour = firstHour; hour.isBefore(lastHourEnd); hour = hour.plusHours(1)) {
+      if (hourlyRollupService.isSealed(deviceId, hour)) {
+        scannedRows += scan(deviceId, rawFrom, hour, stats);
+        HourlyRollup rollup = rollups.get(hour);
+        if (rollup != null) {
+          stats.merge(toStatistics(rollup));
+        }
+        rollupHours++;
+        rawFrom = hour.plusHours(1);
+      }
+    }
+    scannedRows += scan(deviceId, rawFrom, to, stats);
+
+    boolean empty = stats.getCount() == 0;
+    return new WaterLevelStatisticsResponse(
+        deviceId,
+        from,
+        to,
+        stats.getCount(),
+        empty ? null : stats.getMin(),
+        empty ? null : stats.getMax(),
+        empty ? null : stats.getMean(),
+        empty ? null : stats.getStandardDeviation(),
+        empty ? null : stats.quantile(0.05),
+        empty ? null : stats.quantile(0.5),
+        empty ? null : stats.quantile(0.95),
+        rollupHours,
+        scannedRows);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public HeatmapResponse getHeatmap(
+      final Long deviceId, final LocalDate from, final LocalDate to, final ZoneId zone) {
+    ZoneId storageZone = ZoneId.systemDefault();
+    ZoneId displayZone = zone != null ? zone : storageZone;
+    LocalDate lastDay = to != null ? to : LocalDate.now(displayZone);
+    LocalDate firstDay =
+        from != null ? from : lastDay.minusDays(HistoryQueryConstants.DEFAULT_HEATMAP_DAYS - 1);
+    if (firstDay.isAfter(lastDay)) {
+      throw new IllegalArgumentException("'from' must not be after 'to'");
+    }
+    if (ChronoUnit.DAYS.between(firstDay, lastDay) >= HistoryQueryConstants.MAX_HEATMAP_DAYS) {
+      throw new IllegalArgumentException(
+          "Range must not exceed " + HistoryQueryConstants.MAX_HEATMAP_DAYS + " days");
+    }
+    if (deviceId == null || !deviceRepository.existsByIdAndDeletedFalse(deviceId)) {
+      throw new IllegalArgumentException(ApplicationConstants.DEVICE_NOT_FOUND_MESSAGE);
+    }
+
+    LocalDateTime rangeStart =
+        firstDay.atStartOfDay(displayZone).withZoneSameInstant(storageZone).toLocalDateTime();
+    LocalDateTime rangeEnd =
+        lastDay
+            .plusDays(1)
+            .atStartOfDay(displayZone)
+            .withZoneSameInstant(storageZone)
+            .toLocalDateTime();
+    HourOfWeekHeatmap heatmap = new HourOfWeekHeatmap(storageZone, displayZone);
+    try (Stream<HourlyRollupSample> samples =
+        hourlyRollupRepository.streamSamplesByDeviceIdAndBucketRange(
+            deviceId, rangeStart, rangeEnd)) {
+      samples.forEach(
+          sample ->
+              heatmap.add(
+                  sample.getBucketStart(),
+                  sample.getReadingCount(),
+                  sample.getSumLevel(),
+                  sample.getPumpOnCount()));
+    }
+
+    return new HeatmapResponse(
+        deviceId,
+        firstDay,
+        lastDay,
+        displayZone.getId(),
+        heatmap.getReadingCounts(),
+        heatmap.getAverageLevels(),
+        heatmap.getPumpOnShares(),
+        heatmap.getRollupHours());
+  }
+
+  private long scan(
+      final Long deviceId,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final LevelStatistics stats) {
+    if (!from.isBefore(to)) {
+      return 0;
+    }
+    long rows = 0;
+    try (Stream<WaterLevelDataResponse> readings = timeSeriesStore.scan(deviceId, from, to)) {
+      Iterator<WaterLevelDataResponse> iterator = readings.iterator();
+      while (iterator.hasNext()) {
+        stats.add(iterator.next().getWaterLevel().doubleValue());
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  private static LevelStatistics toStatistics(final HourlyRollup rollup) {
+    return new LevelStatistics(
+        rollup.getReadingCount(),
+        rollup.getMinLevel(),
+        rollup.getMaxLevel(),
+        rollup.getSumLevel(),
+        rollup.getSumSquares(),
+        TDigest.fromBytes(rollup.getSketch()));
+  }
+}
@@ -2,6 +2,9 @@ package com.example.waterlevel.service.impl;
 
 import com.example.waterlevel.constants.MessageTypes;
 import com.example.waterlevel.constants.WebSocketDestinations;
+import com.example.waterlevel.dto.PlaybackState;
+import com.example.waterlevel.dto.websocket.PlaybackEndMessage;
+import com.example.waterlevel.dto.websocket.PlaybackUpdateMessage;
 import com.example.waterlevel.dto.websocket.SensorUpdateMessage;
 import com.example.waterlevel.dto.websocket.ThresholdUpdateMessage;
 import com.example.waterlevel.entity.PumpStatus;
@@ -64,15 +67,82 @@ public class WebSocketServiceImpl implements WebSocketService {
   }
 
   /**
-   * Common method to send WebSocket messages.
+   * Sends a replayed reading to the topic of a playback session.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param waterLevel the replayed water level
+   * @param pumpStatus the replayed pump status
+   * @param timestamp the original timestamp of the reading
+   */
+  @Override
+  public void sendPlaybackUpdate(
+      final Long deviceId,
+      final String sessionId,
+      final Double waterLevel,
+      final PumpStatus pumpStatus,
+      final String timestamp) {
+    PlaybackUpdateMessage message =
+        new PlaybackUpdateMessage(
+            MessageTypes.PLAYBACK_UPDATE, deviceId, sessionId, waterLevel, pumpStatus, timestamp);
+    sendMessage(
+        deviceId,
+        WebSocketDestinations.devicePlaybackTopic(deviceId, sessionId),
+        message,
+        "playback update");
+  }
+
+  /**
+   * Tells the subscribers of a playback session that it has ended.
+   *
+   * @param deviceId the device ID
+   * @param sessionId the playback session ID
+   * @param state how the session ended
+   * @param sentReadings the number of readings replayed
+   * @param timestamp the time the session ended
+   */
+  @Override
+  public void sendPlaybackEnd(
+      final Long deviceId,
+      final String sessionId,
+      final PlaybackState state,
+      final long sentReadings,
+      final String timestamp) {
+    PlaybackEndMessage message =
+        new PlaybackEndMessage(
+            MessageTypes.PLAYBACK_END, deviceId, sessionId, state, sentReadings, timestamp);
+    sendMessage(
+        deviceId,
+        WebSocketDestinations.devicePlaybackTopic(deviceId, sessionId),
+        message,
+        "playback end");
+  }
+
+  /**
+   * Common method to send WebSocket messages to the topic of a device.
    *
    * @param deviceId the device ID
    * @param message the message object
    * @param messageType the type of message for logging
    */
   private void sendMessage(final Long deviceId, final Object message, final String messageType) {
+    sendMessage(deviceId, WebSocketDestinations.deviceTopic(deviceId), message, messageType);
+  }
+
+  /**
+   * Common method to send WebSocket messages.
+   *
+   * @param deviceId the device ID
+   * @param destination the WebSocket destination path
+   * @param message the message object
+   * @param messageType the type of message for logging
+   */
+  private void sendMessage(
+      final Long deviceId,
+      final String destination,
+      final Object message,
+      final String messageType) {
     try {
-      String destination = WebSocketDestinations.deviceTopic(deviceId);
       messagingTemplate.convertAndSend(destination, message);
       LOGGER.debug("WebSocket {} sent to {}: {}", messageType, destination, message);
     } catch (Exception e) {
@@ -0,0 +1,83 @@
+package com.example.waterlevel.util;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import java.util.UUID;
+
+/**
+ * Parsing of device keys from their canonical string form.
+ *
+ * <p>Keys are stored and looked up as {@link UUID}s. The parser reads the hex digits straight into
+ * the two halves of the UUID, without a regex match or trimmed and split copies of the input, and
+ * accepts only the canonical 8-4-4-4-12 form (unlike {@link UUID#fromString}, which accepts
+ * shortened groups).
+ */
+public final class DeviceKeys {
+
+  private static final String INVALID_FORMAT_MESSAGE = "Invalid device key format";
+
+  private DeviceKeys() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Parses a device key, ignoring surrounding whitespace.
+   *
+   * @param text the key in canonical form, e.g. {@code 123e4567-e89b-12d3-a456-426614174000}
+   * @return the key
+   * @throws IllegalArgumentException if the text is not a canonical UUID
+   */
+  public static UUID parse(final CharSequence text) {
+    return parse(text, 0, text.length());
+  }
+
+  /**
+   * Parses a device key from part of a character sequence, ignoring surrounding whitespace.
+   *
+   * @param text the text containing the key
+   * @param start index of the first character, inclusive
+   * @param end index of the last character, exclusive
+   * @return the key
+   * @throws IllegalArgumentException if the range is not a canonical UUID
+   */
+  public static UUID parse(final CharSequence text, final int start, final int end) {
+    int from = start;
+    int to = end;
+    while (from < to && Character.isWhitespace(text.charAt(from))) {
+      from++;
+    }
+    while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+      to--;
+    }
+    if (to - from != ApplicationConstants.UUID_LENGTH) {
+      throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
+    }
+    long mostSignificant = 0;
+    long leastSignificant = 0;
+    for (int i = 0; i < ApplicationConstants.UUID_LENGTH; i++) {
+      char c = text.charAt(from + i);
+      if (i == 8 || i == 13 || i == 18 || i == 23) {
+        if (c != '-') {
+          throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
+        }
+      } else if (i < 18) {
+        mostSignificant = mostSignificant << 4 | hexValue(c);
+      } else {
+        leastSignificant = leastSignificant << 4 | hexValue(c);
+      }
+    }
+    return new UUID(mostSignificant, leastSignificant);
+  }
+
+  private static int hexValue(final char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    }
+    if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+    throw new IllegalArgumentException(INVALID_FORMAT_MESSAGE);
+  }
+}
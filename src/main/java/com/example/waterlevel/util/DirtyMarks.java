@@ -0,0 +1,72 @@
+package com.example.waterlevel.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-device set of rollup buckets (hours or days) that have to be recomputed.
+ *
+ * <p>Every mark carries a version, so a job that rebuilds a bucket from a {@link #snapshot()} only
+ * clears the mark if no reading marked the bucket again while the rebuild ran. Thread-safe.
+ *
+ * @param <K> the bucket key
+ */
+public final class DirtyMarks<K> {
+
+  private final Map<Long, Map<K, Long>> marks = new ConcurrentHashMap<>();
+  private final AtomicLong versions = new AtomicLong();
+
+  /**
+   * Marks a bucket dirty.
+   *
+   * @param deviceId the device ID
+   * @param bucket the bucket
+   * @return true if the bucket was not dirty before
+   */
+  public boolean mark(final Long deviceId, final K bucket) {
+    return marks
+            .computeIfAbsent(deviceId, id -> new ConcurrentHashMap<>())
+            .put(bucket, versions.incrementAndGet())
+        == null;
+  }
+
+  /** Checks whether a bucket of a device is dirty. */
+  public boolean contains(final Long deviceId, final K bucket) {
+    Map<K, Long> buckets = marks.get(deviceId);
+    return buckets != null && buckets.containsKey(bucket);
+  }
+
+  /** Returns a copy of the current marks and their versions, by device. */
+  public Map<Long, Map<K, Long>> snapshot() {
+    Map<Long, Map<K, Long>> copy = new HashMap<>();
+    marks.forEach(
+        (deviceId, buckets) -> {
+          if (!buckets.isEmpty()) {
+            copy.put(deviceId, new HashMap<>(buckets));
+          }
+        });
+    return copy;
+  }
+
+  /**
+   * Clears a mark taken from a snapshot.
+   *
+   * @param deviceId the device ID
+   * @param bucket the bucket
+   * @param version the version of the mark in the snapshot
+   * @return false if the bucket was marked again since the snapshot and is still dirty
+   */
+  public boolean clear(final Long deviceId, final K bucket, final long version) {
+    Map<K, Long> buckets = marks.get(deviceId);
+    return buckets == null
+        || buckets.remove(bucket, version)
+        || !buckets.containsKey(bucket);
+  }
+
+  /** Forgets all marks of a device. */
+  public void remove(final Long deviceId) {
+    marks.remove(deviceId);
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.waterlevel.util;
+
+import com.example.waterlevel.dto.ChartPointResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reduces a time-ordered series to a bounded number of representative points in a single pass.
+ *
+ * <p>Readings must be supplied in ascending timestamp order. Implementations keep a bounded number
+ * of readings per bucket in memory, so the size of the input range does not affect memory use.
+ * Instances are stateful and not thread-safe; create one per query.
+ */
+public interface Downsampler {
+
+  /**
+   * Adds the next reading of the series.
+   *
+   * @param timestamp the reading timestamp, not earlier than the previous one
+   * @param value the reading value
+   */
+  void accept(LocalDateTime timestamp, double value);
+
+  /**
+   * Completes the series and returns the selected points in timestamp order.
+   *
+   * @return the downsampled points
+   */
+  List<ChartPointResponse> finish();
+
+  /**
+   * Creates a downsampler for the given mode.
+   *
+   * @param mode the downsampling mode
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param points the maximum number of points to return
+   * @return a new downsampler
+   * @throws IllegalArgumentException if the point count is too small for the mode
+   */
+  static Downsampler of(
+      final DownsamplingMode mode,
+      final LocalDateTime from,
+      final LocalDateTime to,
+      final int points) {
+    return switch (mode) {
+      case LTTB -> new LttbDownsampler(from, to, points);
+      case MIN_MAX -> new MinMaxDownsampler(from, to, points);
+    };
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.waterlevel.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Hour-of-day by day-of-week accumulator over hourly rollups.
+ *
+ * <p>Sums reading counts, levels and pump ON counts into 7 x 24 primitive arrays, so the memory
+ * used is the same for a week or a year of rollups. Bucket starts are stored as local times of the
+ * storage zone and are moved to the display zone with plain arithmetic; the display offset is only
+ * looked up again when a rollup lies past the next offset transition, which for rollups in time
+ * order happens twice a year at most. A rollup counts towards the hour its start falls in, so in
+ * zones with a non-whole-hour offset each cell holds the rollups that start within it.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class HourOfWeekHeatmap {
+
+  /** Number of rows, Monday first. */
+  public static final int DAYS = 7;
+
+  /** Number of columns, midnight first. */
+  public static final int HOURS = 24;
+
+  private static final int SECONDS_PER_HOUR = 3600;
+  private static final int SECONDS_PER_DAY = 24 * SECONDS_PER_HOUR;
+
+  /** Days from Monday to Thursday, 1 January 1970. */
+  private static final int EPOCH_DAY_OF_WEEK = DayOfWeek.THURSDAY.ordinal();
+
+  private final ZoneRules storageRules;
+  private final ZoneRules displayRules;
+
+  private final long[] readingCounts = new long[DAYS * HOURS];
+  private final double[] levelSums = new double[DAYS * HOURS];
+  private final long[] pumpOnCounts = new long[DAYS * HOURS];
+  private int rollupHours;
+
+  private long offsetValidFrom = Long.MAX_VALUE;
+  private long offsetValidUntil = Long.MIN_VALUE;
+  private int displayOffsetSeconds;
+
+  /**
+   * Creates an empty heatmap.
+   *
+   * @param storageZone the zone the rollup bucket starts are stored in
+   * @param displayZone the zone whose weekdays and hours form the cells
+   */
+  public HourOfWeekHeatmap(final ZoneId storageZone, final ZoneId displayZone) {
+    this.storageRules = storageZone.getRules();
+    this.displayRules = displayZone.getRules();
+  }
+
+  /**
+   * Adds one hourly rollup.
+   *
+   * @param bucketStart start of the rollup's hour in the storage zone
+   * @param readingCount number of readings in the hour
+   * @param sumLevel sum of their water levels
+   * @param pumpOnCount number of them that reported the pump ON
+   */
+  public void add(
+      final LocalDateTime bucketStart,
+      final long readingCount,
+      final double sumLevel,
+      final long pumpOnCount) {
+    long epochSecond = bucketStart.toEpochSecond(storageRules.getOffset(bucketStart));
+    long localSecond = epochSecond + displayOffset(epochSecond);
+    long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+    int dayOfWeek = (int) Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, DAYS);
+    int hour = (int) (Math.floorMod(localSecond, SECONDS_PER_DAY) / SECONDS_PER_HOUR);
+    int cell = dayOfWeek * HOURS + hour;
+    readingCounts[cell] += readingCount;
+    levelSums[cell] += sumLevel;
+    pumpOnCounts[cell] += pumpOnCount;
+    rollupHours++;
+  }
+
+  /** Returns the number of rollups added. */
+  public int getRollupHours() {
+    return rollupHours;
+  }
+
+  /** Returns the number of readings per cell, indexed by day of week and hour. */
+  public long[][] getReadingCounts() {
+    long[][] result = new long[DAYS][HOURS];
+    for (int day = 0; day < DAYS; day++) {
+      System.arraycopy(readingCounts, day * HOURS, result[day], 0, HOURS);
+    }
+    return result;
+  }
+
+  /** Returns the mean level per cell, or null for cells without readings. */
+  public Double[][] getAverageLevels() {
+    Double[][] result = new Double[DAYS][HOURS];
+    for (int cell = 0; cell < DAYS * HOURS; cell++) {
+      if (readingCounts[cell] > 0) {
+        result[cell / HOURS][cell % HOURS] = levelSums[cell] / readingCounts[cell];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the share of readings that reported the pump ON per cell, between 0 and 1, or null for
+   * cells without readings.
+   */
+  public Double[][] getPumpOnShares() {
+    Double[][] result = new Double[DAYS][HOURS];
+    for (int cell = 0; cell < DAYS * HOURS; cell++) {
+      if (readingCounts[cell] > 0) {
+        result[cell / HOURS][cell % HOURS] = (double) pumpOnCounts[cell] / readingCounts[cell];
+      }
+    }
+    return result;
+  }
+
+  private int displayOffset(final long epochSecond) {
+    if (epochSecond < offsetValidFrom || epochSecond >= offsetValidUntil) {
+      Instant instant = Instant.ofEpochSecond(epochSecond);
+      displayOffsetSeconds = displayRules.getOffset(instant).getTotalSeconds();
+      ZoneOffsetTransition next = displayRules.nextTransition(instant);
+      offsetValidFrom = epochSecond;
+      offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+    return displayOffsetSeconds;
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.waterlevel.util;
+
+/**
+ * Mergeable summary of water level readings: count, min, max, sum, sum of squares and a {@link
+ * TDigest} for quantiles.
+ *
+ * <p>Built in a single pass over readings, or merged from summaries of disjoint time buckets.
+ * Instances are not thread-safe.
+ */
+public final class LevelStatistics {
+
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+  private double sum;
+  private double sumOfSquares;
+  private final TDigest digest;
+
+  public LevelStatistics() {
+    this.digest = new TDigest();
+  }
+
+  /** Restores a summary from its persisted parts. */
+  public LevelStatistics(
+      final long count,
+      final double min,
+      final double max,
+      final double sum,
+      final double sumOfSquares,
+      final TDigest digest) {
+    this.count = count;
+    this.min = min;
+    this.max = max;
+    this.sum = sum;
+    this.sumOfSquares = sumOfSquares;
+    this.digest = digest;
+  }
+
+  public void add(final double value) {
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    sum += value;
+    sumOfSquares += value * value;
+    digest.add(value);
+  }
+
+  public void merge(final LevelStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    sum += other.sum;
+    sumOfSquares += other.sumOfSquares;
+    digest.merge(other.digest);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  public double getSum() {
+    return sum;
+  }
+
+  public double getSumOfSquares() {
+    return sumOfSquares;
+  }
+
+  public TDigest getDigest() {
+    return digest;
+  }
+
+  public double getMean() {
+    return count == 0 ? Double.NaN : sum / count;
+  }
+
+  /** Population standard deviation, or NaN if empty. */
+  public double getStandardDeviation() {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    double mean = sum / count;
+    return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+  }
+
+  public double quantile(final double q) {
+    return digest.quantile(q);
+  }
+}
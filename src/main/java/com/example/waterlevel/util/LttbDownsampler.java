@@ -0,0 +1,222 @@
+package com.example.waterlevel.util;
+
+import com.example.waterlevel.dto.ChartPointResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling over a streamed series.
+ *
+ * <p>The first and last readings are always kept; the readings in between are split into {@code
+ * points - 2} equal time buckets and from each bucket the reading forming the largest triangle with
+ * the previously selected point and the average of the following bucket is chosen. Because a
+ * bucket can only be decided once the next one is complete, exactly two buckets are buffered (in
+ * primitive arrays); empty buckets are skipped.
+ *
+ * <p>A bucket keeps at most {@link #MAX_BUCKET_POINTS} candidates, so memory use does not grow with
+ * the range even for very few points. When a bucket fills up, each run of four consecutive
+ * candidates is reduced to its lowest and highest one. Within such a short run the triangle area
+ * depends mostly on the level, so spikes are still selected, while the bucket averages stay exact.
+ */
+public final class LttbDownsampler implements Downsampler {
+
+  /** Maximum number of candidate readings buffered per bucket. */
+  static final int MAX_BUCKET_POINTS = 4096;
+
+  private final TimeBuckets buckets;
+  private final List<ChartPointResponse> result = new ArrayList<>();
+
+  private PointBuffer current = new PointBuffer();
+  private PointBuffer next = new PointBuffer();
+  private int nextBucket = -1;
+  private boolean started;
+  private long selectedTime;
+  private double selectedValue;
+
+  /**
+   * Creates an LTTB downsampler.
+   *
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param points the maximum number of points to return (at least 3)
+   */
+  public LttbDownsampler(final LocalDateTime from, final LocalDateTime to, final int points) {
+    if (points < 3) {
+      throw new IllegalArgumentException("LTTB downsampling requires at least 3 points");
+    }
+    this.buckets = new TimeBuckets(from, to, points - 2);
+  }
+
+  @Override
+  public void accept(final LocalDateTime timestamp, final double value) {
+    long millis = TimeBuckets.toMillis(timestamp);
+    if (!started) {
+      started = true;
+      select(millis, value);
+      return;
+    }
+    int index = buckets.indexOf(millis);
+    if (index != nextBucket) {
+      if (!next.isEmpty()) {
+        closeCurrent(next.averageTime(), next.averageValue());
+        swapBuffers();
+      }
+      nextBucket = index;
+    }
+    next.add(millis, value);
+  }
+
+  @Override
+  public List<ChartPointResponse> finish() {
+    if (next.isEmpty()) {
+      return result;
+    }
+    // The last reading is always kept, so it takes no part in bucket selection
+    long lastTime = next.lastTime();
+    double lastValue = next.lastValue();
+    next.removeLast();
+    if (!next.isEmpty()) {
+      closeCurrent(next.averageTime(), next.averageValue());
+      swapBuffers();
+    }
+    closeCurrent(lastTime, lastValue);
+    select(lastTime, lastValue);
+    return result;
+  }
+
+  /** Selects the point of the current bucket with the largest triangle area and clears it. */
+  private void closeCurrent(final double nextTime, final double nextValue) {
+    if (current.isEmpty()) {
+      return;
+    }
+    double ax = selectedTime;
+    double ay = selectedValue;
+    int best = 0;
+    double bestArea = -1;
+    for (int i = 0; i < current.size; i++) {
+      double area =
+          Math.abs(
+              (ax - nextTime) * (current.values[i] - ay)
+                  - (ax - current.times[i]) * (nextValue - ay));
+      if (area > bestArea) {
+        bestArea = area;
+        best = i;
+      }
+    }
+    select(current.times[best], current.values[best]);
+    current.clear();
+  }
+
+  private void select(final long millis, final double value) {
+    selectedTime = millis;
+    selectedValue = value;
+    result.add(new ChartPointResponse(TimeBuckets.toTimestamp(millis), value));
+  }
+
+  private void swapBuffers() {
+    PointBuffer empty = current;
+    current = next;
+    next = empty;
+  }
+
+  /**
+   * Growable primitive buffer of the candidate readings in one bucket, with the count and sums of
+   * all readings added to it.
+   */
+  private static final class PointBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int COMPACTION_GROUP = 4;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+    private long count;
+    private double timeSum;
+    private double valueSum;
+
+    void add(final long millis, final double value) {
+      if (size == MAX_BUCKET_POINTS) {
+        compact();
+      } else if (size == times.length) {
+        times = Arrays.copyOf(times, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      times[size] = millis;
+      values[size] = value;
+      size++;
+      count++;
+      timeSum += millis;
+      valueSum += value;
+    }
+
+    /**
+     * Removes the most recently added reading. It is always still a candidate, because compaction
+     * only happens before a reading is added.
+     */
+    void removeLast() {
+      size--;
+      count--;
+      timeSum -= times[size];
+      valueSum -= values[size];
+    }
+
+    /** Replaces each group of consecutive candidates by its lowest and highest one. */
+    private void compact() {
+      int kept = 0;
+      for (int start = 0; start < size; start += COMPACTION_GROUP) {
+        int end = Math.min(size, start + COMPACTION_GROUP);
+        int min = start;
+        int max = start;
+        for (int i = start + 1; i < end; i++) {
+          if (values[i] < values[min]) {
+            min = i;
+          }
+          if (values[i] > values[max]) {
+            max = i;
+          }
+        }
+        kept = keep(Math.min(min, max), kept);
+        if (min != max) {
+          kept = keep(Math.max(min, max), kept);
+        }
+      }
+      size = kept;
+    }
+
+    private int keep(final int index, final int position) {
+      times[position] = times[index];
+      values[position] = values[index];
+      return position + 1;
+    }
+
+    long lastTime() {
+      return times[size - 1];
+    }
+
+    double lastValue() {
+      return values[size - 1];
+    }
+
+    double averageTime() {
+      return timeSum / count;
+    }
+
+    double averageValue() {
+      return valueSum / count;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void clear() {
+      size = 0;
+      count = 0;
+      timeSum = 0;
+      valueSum = 0;
+    }
+  }
+}
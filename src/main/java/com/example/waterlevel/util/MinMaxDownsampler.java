@@ -0,0 +1,87 @@
+package com.example.waterlevel.util;
+
+import com.example.waterlevel.dto.ChartPointResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emits the lowest and highest reading of every time bucket, in timestamp order.
+ *
+ * <p>Uses {@code points / 2} buckets so the result never exceeds {@code points}. Only the extremes
+ * of the current bucket are kept, so memory use is constant.
+ */
+public final class MinMaxDownsampler implements Downsampler {
+
+  private final TimeBuckets buckets;
+  private final List<ChartPointResponse> result = new ArrayList<>();
+
+  private int bucket = -1;
+  private long minTime;
+  private double minValue;
+  private long maxTime;
+  private double maxValue;
+
+  /**
+   * Creates a min/max downsampler.
+   *
+   * @param from the inclusive start of the range
+   * @param to the exclusive end of the range
+   * @param points the maximum number of points to return (at least 2)
+   */
+  public MinMaxDownsampler(final LocalDateTime from, final LocalDateTime to, final int points) {
+    if (points < 2) {
+      throw new IllegalArgumentException("MIN_MAX downsampling requires at least 2 points");
+    }
+    this.buckets = new TimeBuckets(from, to, points / 2);
+  }
+
+  @Override
+  public void accept(final LocalDateTime timestamp, final double value) {
+    long millis = TimeBuckets.toMillis(timestamp);
+    int index = buckets.indexOf(millis);
+    if (index != bucket) {
+      flush();
+      bucket = index;
+      minTime = millis;
+      minValue = value;
+      maxTime = millis;
+      maxValue = value;
+      return;
+    }
+    if (value < minValue) {
+      minTime = millis;
+      minValue = value;
+    }
+    if (value > maxValue) {
+      maxTime = millis;
+      maxValue = value;
+    }
+  }
+
+  @Override
+  public List<ChartPointResponse> finish() {
+    flush();
+    bucket = -1;
+    return result;
+  }
+
+  private void flush() {
+    if (bucket < 0) {
+      return;
+    }
+    if (minTime == maxTime && minValue == maxValue) {
+      add(minTime, minValue);
+    } else if (minTime <= maxTime) {
+      add(minTime, minValue);
+      add(maxTime, maxValue);
+    } else {
+      add(maxTime, maxValue);
+      add(minTime, minValue);
+    }
+  }
+
+  private void add(final long millis, final double value) {
+    result.add(new ChartPointResponse(TimeBuckets.toTimestamp(millis), value));
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.waterlevel.util;
+
+import com.example.waterlevel.constants.ApplicationConstants;
+import com.example.waterlevel.entity.PumpStatus;
+
+/** Validation of sensor reading values shared by MQTT ingest and file imports. */
+public final class ReadingValidator {
+
+  private ReadingValidator() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Checks that a water level is finite and within the supported range.
+   *
+   * @param waterLevel the water level
+   * @throws IllegalArgumentException if the level is invalid
+   */
+  public static void validateWaterLevel(final double waterLevel) {
+    if (Double.isNaN(waterLevel) || Double.isInfinite(waterLevel)) {
+      throw new IllegalArgumentException("Water level cannot be NaN or Infinity");
+    }
+    if (waterLevel < ApplicationConstants.MIN_WATER_LEVEL
+        || waterLevel > ApplicationConstants.MAX_WATER_LEVEL) {
+      throw new IllegalArgumentException("Water level out of valid range");
+    }
+  }
+
+  /**
+   * Converts a pump status string, rejecting values other than ON, OFF and UNKNOWN.
+   *
+   * @param pumpStatus the pump status (case-insensitive)
+   * @return the pump status
+   * @throws IllegalArgumentException if the status is not recognized
+   */
+  public static PumpStatus parsePumpStatus(final String pumpStatus) {
+    PumpStatus pumpStatusEnum = PumpStatus.fromString(pumpStatus);
+    if (pumpStatusEnum == PumpStatus.UNKNOWN && !pumpStatus.equalsIgnoreCase("UNKNOWN")) {
+      throw new IllegalArgumentException("Invalid pump status. Must be ON, OFF, or UNKNOWN");
+    }
+    return pumpStatusEnum;
+  }
+}
@@ -0,0 +1,271 @@
+package com.example.waterlevel.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable t-digest for streaming quantile estimates (merging variant).
+ *
+ * <p>Values are buffered and periodically merged into a sorted list of centroids. A centroid may
+ * only grow while its weight stays below {@code 4 * n * q * (1 - q) / compression}, so centroids
+ * near the tails stay small and extreme quantiles remain accurate. Digests built on disjoint data
+ * can be merged, which lets precomputed digests of closed time buckets be combined for long
+ * ranges. Instances are not thread-safe.
+ */
+public final class TDigest {
+
+  /** Compression used for persisted sketches; about 160 centroids, 2-3% rank error at p50. */
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private static final int FORMAT_VERSION = 1;
+  private static final int BUFFER_FACTOR = 5;
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private final double compression;
+  private final double[] bufferMeans;
+  private final double[] bufferWeights;
+  private int bufferCount;
+  private double[] means = new double[0];
+  private double[] weights = new double[0];
+  private int centroidCount;
+  private double totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(final double compression) {
+    if (compression < 10) {
+      throw new IllegalArgumentException("Compression must be at least 10");
+    }
+    this.compression = compression;
+    int bufferSize = (int) (compression * BUFFER_FACTOR);
+    this.bufferMeans = new double[bufferSize];
+    this.bufferWeights = new double[bufferSize];
+  }
+
+  /**
+   * Adds a value.
+   *
+   * @param value the value, must not be NaN
+   */
+  public void add(final double value) {
+    add(value, 1);
+  }
+
+  /**
+   * Adds all values summarized by another digest. The other digest is not modified apart from
+   * flushing its buffer.
+   *
+   * @param other the digest to merge
+   */
+  public void merge(final TDigest other) {
+    if (other.totalWeight == 0) {
+      return;
+    }
+    other.compress();
+    for (int i = 0; i < other.centroidCount; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Estimates the value at quantile {@code q}.
+   *
+   * @param q the quantile, between 0 and 1
+   * @return the estimate, or NaN if the digest is empty
+   */
+  public double quantile(final double q) {
+    if (q < 0 || q > 1) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1");
+    }
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+    double index = q * totalWeight;
+    if (index < 1) {
+      return min;
+    }
+    if (index > totalWeight - 1) {
+      return max;
+    }
+    // Between the extremes and the first/last centroid centre, interpolate towards min/max
+    if (weights[0] > 1 && index < weights[0] / 2) {
+      return min + (index - 1) / (weights[0] / 2 - 1) * (means[0] - min);
+    }
+    int last = centroidCount - 1;
+    if (weights[last] > 1 && totalWeight - index < weights[last] / 2) {
+      return max - (totalWeight - index - 1) / (weights[last] / 2 - 1) * (max - means[last]);
+    }
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < last; i++) {
+      double step = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + step > index) {
+        return means[i] + (index - weightSoFar) / step * (means[i + 1] - means[i]);
+      }
+      weightSoFar += step;
+    }
+    return means[last];
+  }
+
+  public long count() {
+    return Math.round(totalWeight);
+  }
+
+  public double min() {
+    return min;
+  }
+
+  public double max() {
+    return max;
+  }
+
+  /**
+   * Serializes the digest. The buffer is merged first, so the encoding only holds centroids.
+   *
+   * @return the encoded digest
+   */
+  public byte[] toBytes() {
+    compress();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            2 * Integer.BYTES + 3 * Double.BYTES + 2 * Double.BYTES * centroidCount);
+    buffer.putInt(FORMAT_VERSION);
+    buffer.putDouble(compression);
+    buffer.putDouble(min);
+    buffer.putDouble(max);
+    buffer.putInt(centroidCount);
+    for (int i = 0; i < centroidCount; i++) {
+      buffer.putDouble(means[i]);
+      buffer.putDouble(weights[i]);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Restores a digest written by {@link #toBytes()}.
+   *
+   * @param bytes the encoded digest
+   * @return the digest
+   * @throws IllegalArgumentException if the encoding has an unknown format version
+   */
+  public static TDigest fromBytes(final byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int version = buffer.getInt();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported t-digest format version: " + version);
+    }
+    TDigest digest = new TDigest(buffer.getDouble());
+    digest.min = buffer.getDouble();
+    digest.max = buffer.getDouble();
+    int count = buffer.getInt();
+    digest.means = new double[count];
+    digest.weights = new double[count];
+    for (int i = 0; i < count; i++) {
+      digest.means[i] = buffer.getDouble();
+      digest.weights[i] = buffer.getDouble();
+      digest.totalWeight += digest.weights[i];
+    }
+    digest.centroidCount = count;
+    return digest;
+  }
+
+  private void add(final double mean, final double weight) {
+    if (Double.isNaN(mean)) {
+      throw new IllegalArgumentException("Cannot add NaN to a t-digest");
+    }
+    if (bufferCount == bufferMeans.length) {
+      compress();
+    }
+    bufferMeans[bufferCount] = mean;
+    bufferWeights[bufferCount] = weight;
+    bufferCount++;
+    totalWeight += weight;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  private void compress() {
+    if (bufferCount == 0) {
+      return;
+    }
+    int count = centroidCount + bufferCount;
+    double[] sortedMeans = Arrays.copyOf(means, count);
+    double[] sortedWeights = Arrays.copyOf(weights, count);
+    System.arraycopy(bufferMeans, 0, sortedMeans, centroidCount, bufferCount);
+    System.arraycopy(bufferWeights, 0, sortedWeights, centroidCount, bufferCount);
+    sort(sortedMeans, sortedWeights, 0, count);
+
+    int last = 0;
+    double weightSoFar = 0;
+    for (int i = 1; i < count; i++) {
+      double proposed = sortedWeights[last] + sortedWeights[i];
+      double q0 = weightSoFar / totalWeight;
+      double q2 = (weightSoFar + proposed) / totalWeight;
+      double limit = 4 * totalWeight * Math.min(q0 * (1 - q0), q2 * (1 - q2)) / compression;
+      if (proposed <= limit) {
+        sortedMeans[last] += (sortedMeans[i] - sortedMeans[last]) * sortedWeights[i] / proposed;
+        sortedWeights[last] = proposed;
+      } else {
+        weightSoFar += sortedWeights[last];
+        last++;
+        sortedMeans[last] = sortedMeans[i];
+        sortedWeights[last] = sortedWeights[i];
+      }
+    }
+    centroidCount = last + 1;
+    means = Arrays.copyOf(sortedMeans, centroidCount);
+    weights = Arrays.copyOf(sortedWeights, centroidCount);
+    bufferCount = 0;
+  }
+
+  /** Sorts {@code keys[from, to)} ascending, permuting {@code values} alongside. */
+  private static void sort(final double[] keys, final double[] values, int from, int to) {
+    while (to - from > INSERTION_SORT_THRESHOLD) {
+      double pivot = keys[(from + to) >>> 1];
+      int i = from;
+      int j = to - 1;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(keys, values, i++, j--);
+        }
+      }
+      // Recurse into the smaller partition to bound stack depth
+      if (j - from < to - i) {
+        sort(keys, values, from, j + 1);
+        from = i;
+      } else {
+        sort(keys, values, i, to);
+        to = j + 1;
+      }
+    }
+    for (int i = from + 1; i < to; i++) {
+      for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+        swap(keys, values, j - 1, j);
+      }
+    }
+  }
+
+  private static void swap(final double[] keys, final double[] values, final int i, final int j) {
+    double key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    double value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.waterlevel.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/** Splits {@code [from, to)} into equally sized time buckets. */
+final class TimeBuckets {
+
+  private final long fromMillis;
+  private final long spanMillis;
+  private final int count;
+
+  TimeBuckets(final LocalDateTime from, final LocalDateTime to, final int count) {
+    this.fromMillis = toMillis(from);
+    this.spanMillis = Math.max(1, toMillis(to) - fromMillis);
+    this.count = count;
+  }
+
+  int indexOf(final long millis) {
+    long index = (millis - fromMillis) * count / spanMillis;
+    return (int) Math.min(count - 1, Math.max(0, index));
+  }
+
+  static long toMillis(final LocalDateTime timestamp) {
+    return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  static LocalDateTime toTimestamp(final long millis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.waterlevel.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Utility class for transaction-related operations. */
+public final class TransactionUtil {
+
+  private TransactionUtil() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Runs an action once the current transaction has committed.
+   *
+   * <p>Used to update in-memory state only after the database change is visible to other readers.
+   * Runs the action immediately when no transaction synchronization is active; the action is
+   * skipped if the transaction rolls back.
+   *
+   * @param action the action to run
+   */
+  public static void runAfterCommit(final Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
@@ -0,0 +1,30 @@
+-- Fills in pump_on_count for the hours sealed before V9 added it, one day of rollups per
+-- transaction, so no lock on water_level_hourly is held across a scan of the whole history.
+--
+-- Runs outside a transaction (see the .conf file next to this script), which lets the block commit
+-- after each day. Rollups sealed meanwhile already carry their count and get the same value.
+DO $$
+DECLARE
+    day_start TIMESTAMP;
+    last_hour TIMESTAMP;
+BEGIN
+    SELECT date_trunc('day', MIN(bucket_start)), MAX(bucket_start)
+    INTO day_start, last_hour
+    FROM water_level_hourly;
+
+    WHILE day_start <= last_hour LOOP
+        UPDATE water_level_hourly h
+        SET pump_on_count = c.pump_on_count
+        FROM (
+            SELECT device_id, date_trunc('hour', timestamp) AS bucket_start, COUNT(*) AS pump_on_count
+            FROM water_level_data
+            WHERE pump_status = 'ON'
+              AND timestamp >= day_start
+              AND timestamp < day_start + INTERVAL '1 day'
+            GROUP BY device_id, date_trunc('hour', timestamp)
+        ) c
+        WHERE h.device_id = c.device_id AND h.bucket_start = c.bucket_start;
+        COMMIT;
+        day_start := day_start + INTERVAL '1 day';
+    END LOOP;
+END $$;
@@ -0,0 +1,10 @@
+-- Rollup buckets that late readings made stale, kept so they are still rebuilt after a restart.
+-- Each bucket is marked at most once; the unique key makes storing a mark idempotent.
+CREATE TABLE IF NOT EXISTS rollup_dirty_bucket (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name VARCHAR(50) NOT NULL,
+    device_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_rollup_dirty_bucket_job_device_bucket UNIQUE (job_name, device_id, bucket_start),
+    CONSTRAINT fk_rollup_dirty_bucket_device FOREIGN KEY (device_id) REFERENCES devices (id)
+);
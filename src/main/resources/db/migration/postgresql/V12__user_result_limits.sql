@@ -0,0 +1,3 @@
+-- Optional per-user cap on the rows or points one history query may return; NULL uses the server
+-- limit (water-level-data.range.max-rows), and a per-user value can only lower it.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS max_result_rows INTEGER;
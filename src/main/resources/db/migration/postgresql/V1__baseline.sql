@@ -0,0 +1,44 @@
+-- Schema as generated by Hibernate before migrations were introduced. Databases created that way
+-- are baselined at this version and skip this script; every table added since comes from a later
+-- version. Those create their tables IF NOT EXISTS, as databases kept up to date by ddl-auto may
+-- already have them.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(10) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE devices (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    device_key VARCHAR(36) NOT NULL,
+    min_threshold NUMERIC(5, 2) NOT NULL,
+    max_threshold NUMERIC(5, 2) NOT NULL,
+    admin_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_devices_device_key UNIQUE (device_key),
+    CONSTRAINT fk_devices_admin FOREIGN KEY (admin_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_devices_admin_id ON devices (admin_id);
+CREATE INDEX idx_devices_device_key ON devices (device_key);
+
+CREATE TABLE water_level_data (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    device_id BIGINT NOT NULL,
+    water_level NUMERIC(5, 2) NOT NULL,
+    pump_status VARCHAR(10) NOT NULL CHECK (pump_status IN ('ON', 'OFF', 'UNKNOWN')),
+    timestamp TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_water_level_data_device FOREIGN KEY (device_id) REFERENCES devices (id)
+);
+
+CREATE INDEX idx_water_level_data_device_id ON water_level_data (device_id);
+CREATE INDEX idx_water_level_data_timestamp ON water_level_data (timestamp);
+CREATE INDEX idx_water_level_data_device_timestamp ON water_level_data (device_id, timestamp);
@@ -0,0 +1,11 @@
+-- Run-length log of pump status transitions.
+CREATE TABLE IF NOT EXISTS pump_run (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    device_id BIGINT NOT NULL,
+    status VARCHAR(10) NOT NULL CHECK (status IN ('ON', 'OFF', 'UNKNOWN')),
+    started_at TIMESTAMP(6) NOT NULL,
+    ended_at TIMESTAMP(6),
+    CONSTRAINT fk_pump_run_device FOREIGN KEY (device_id) REFERENCES devices (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pump_run_device_started_at ON pump_run (device_id, started_at);
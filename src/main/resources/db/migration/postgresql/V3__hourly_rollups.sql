@@ -0,0 +1,19 @@
+-- Hourly rollups of closed hours and the watermarks of the background rollup jobs.
+CREATE TABLE IF NOT EXISTS water_level_hourly (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    device_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    reading_count BIGINT NOT NULL,
+    min_level FLOAT(53) NOT NULL,
+    max_level FLOAT(53) NOT NULL,
+    sum_level FLOAT(53) NOT NULL,
+    sum_squares FLOAT(53) NOT NULL,
+    sketch BYTEA NOT NULL,
+    CONSTRAINT uk_water_level_hourly_device_bucket UNIQUE (device_id, bucket_start),
+    CONSTRAINT fk_water_level_hourly_device FOREIGN KEY (device_id) REFERENCES devices (id)
+);
+
+CREATE TABLE IF NOT EXISTS job_watermark (
+    job_name VARCHAR(50) PRIMARY KEY,
+    watermark TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Per-device daily summaries written by the nightly job.
+CREATE TABLE IF NOT EXISTS water_level_daily (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    device_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    reading_count BIGINT NOT NULL,
+    min_level FLOAT(53),
+    max_level FLOAT(53),
+    avg_level FLOAT(53),
+    pump_runtime_seconds BIGINT NOT NULL,
+    pump_cycles INTEGER NOT NULL,
+    pump_duty_cycle FLOAT(53) NOT NULL,
+    CONSTRAINT uk_water_level_daily_device_date UNIQUE (device_id, summary_date),
+    CONSTRAINT fk_water_level_daily_device FOREIGN KEY (device_id) REFERENCES devices (id)
+);
@@ -0,0 +1,2 @@
+-- Deleting a device marks it first; the background purge removes the row afterwards.
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
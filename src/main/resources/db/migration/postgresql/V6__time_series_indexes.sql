@@ -0,0 +1,20 @@
+-- Replaces the three B-tree indexes on water_level_data, each of which every insert had to update,
+-- with one covering index per device and a small BRIN index over time.
+--
+-- Built and dropped CONCURRENTLY so ingest keeps running; see the .conf file next to this script.
+
+-- Latest reading, ranges and cursor pages of one device: (device_id, timestamp) in either
+-- direction. The included columns make the reading projections index-only scans.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_water_level_data_device_time_covering
+    ON water_level_data (device_id, timestamp DESC)
+    INCLUDE (id, water_level, pump_status);
+
+-- Cross-device time ranges (rollups, daily summaries, MIN(timestamp)). Readings arrive roughly in
+-- time order, so block ranges summarize well and the index stays a few pages in size.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_water_level_data_timestamp_brin
+    ON water_level_data USING BRIN (timestamp);
+
+-- The covering index leads with device_id, so it also serves the foreign key.
+DROP INDEX CONCURRENTLY IF EXISTS idx_water_level_data_device_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_water_level_data_timestamp;
+DROP INDEX CONCURRENTLY IF EXISTS idx_water_level_data_device_timestamp;
@@ -0,0 +1,4 @@
+-- Device keys move from VARCHAR(36) to the native 16-byte uuid type. The unique constraint's
+-- index is rebuilt on the new type; the plain index on the same column was redundant with it.
+DROP INDEX IF EXISTS idx_devices_device_key;
+ALTER TABLE devices ALTER COLUMN device_key TYPE uuid USING device_key::uuid;
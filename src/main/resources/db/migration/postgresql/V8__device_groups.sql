@@ -0,0 +1,34 @@
+-- Sites and regions of devices. Group metrics are kept in memory and rebuilt on start.
+CREATE TABLE IF NOT EXISTS device_groups (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    type VARCHAR(10) NOT NULL CHECK (type IN ('REGION', 'SITE')),
+    parent_id BIGINT,
+    admin_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_device_groups_parent FOREIGN KEY (parent_id) REFERENCES device_groups (id),
+    CONSTRAINT fk_device_groups_admin FOREIGN KEY (admin_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_device_groups_parent_id ON device_groups (parent_id);
+CREATE INDEX IF NOT EXISTS idx_device_groups_admin_id ON device_groups (admin_id);
+
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS group_id BIGINT;
+
+-- ADD CONSTRAINT has no IF NOT EXISTS. ddl-auto names its foreign keys itself, so any key from
+-- devices to device_groups counts as present.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE contype = 'f'
+          AND conrelid = 'devices'::regclass
+          AND confrelid = 'device_groups'::regclass
+    ) THEN
+        ALTER TABLE devices
+            ADD CONSTRAINT fk_devices_group FOREIGN KEY (group_id) REFERENCES device_groups (id);
+    END IF;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_devices_group_id ON devices (group_id);
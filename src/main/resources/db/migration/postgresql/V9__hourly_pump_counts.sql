@@ -0,0 +1,4 @@
+-- Counts the readings of each closed hour that report the pump ON, so pump activity can be read
+-- from the hourly rollups instead of the raw readings. A constant default makes this a catalog-only
+-- change; the hours sealed before it are filled in by V10 after this has committed.
+ALTER TABLE water_level_hourly ADD COLUMN IF NOT EXISTS pump_on_count BIGINT NOT NULL DEFAULT 0;
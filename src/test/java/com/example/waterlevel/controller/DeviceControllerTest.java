@@ -6,20 +6,28 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.waterlevel.dto.DevicePurgeResponse;
 import com.example.waterlevel.dto.DeviceRegisterRequest;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.PurgeState;
 import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
 import com.example.waterlevel.entity.User;
 import com.example.waterlevel.repository.UserRepository;
 import com.example.waterlevel.service.AuditService;
+import com.example.waterlevel.service.DevicePurgeService;
 import com.example.waterlevel.service.DeviceService;
+import com.example.waterlevel.service.LatestReadingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -39,10 +47,14 @@ import org.springframework.test.web.servlet.MockMvc;
 @ActiveProfiles("test")
 class DeviceControllerTest {
 
+  private static final UUID DEVICE_KEY = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
   @Autowired private MockMvc mockMvc;
   @MockBean private DeviceService deviceService;
   @MockBean private UserRepository userRepository;
   @MockBean private AuditService auditService;
+  @MockBean private LatestReadingService latestReadingService;
+  @MockBean private DevicePurgeService devicePurgeService;
   @Autowired private ObjectMapper objectMapper;
 
   @Test
@@ -56,7 +68,7 @@ class DeviceControllerTest {
     Device device = new Device();
     device.setId(1L);
     device.setName("Test Device");
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setMinThreshold(BigDecimal.valueOf(10.0));
     device.setMaxThreshold(BigDecimal.valueOf(90.0));
     User admin = new User();
@@ -87,7 +99,7 @@ class DeviceControllerTest {
     Device device = new Device();
     device.setId(1L);
     device.setName("Test Device");
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setMinThreshold(BigDecimal.valueOf(10.0));
     device.setMaxThreshold(BigDecimal.valueOf(90.0));
     device.setAdmin(admin);
@@ -111,7 +123,7 @@ class DeviceControllerTest {
     Device device = new Device();
     device.setId(1L);
     device.setName("Test Device");
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setMinThreshold(BigDecimal.valueOf(10.0));
     device.setMaxThreshold(BigDecimal.valueOf(90.0));
     device.setAdmin(admin);
@@ -153,9 +165,60 @@ class DeviceControllerTest {
 
     when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
     when(deviceService.validateDeviceOwnership(1L, 1L)).thenReturn(device);
+    when(deviceService.deleteDevice(1L))
+        .thenReturn(new DevicePurgeResponse(1L, PurgeState.PENDING, 0, null, null));
 
-    mockMvc.perform(delete("/devices/1")).andExpect(status().isNoContent());
+    mockMvc
+        .perform(delete("/devices/1"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/devices/1/purge"))
+        .andExpect(jsonPath("$.state").value("PENDING"));
 
     verify(deviceService).deleteDevice(1L);
   }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getPurgeProgress_ReturnsLatestSnapshot() throws Exception {
+    LocalDateTime startedAt = LocalDateTime.now();
+    when(devicePurgeService.getProgress(1L))
+        .thenReturn(
+            Optional.of(new DevicePurgeResponse(1L, PurgeState.RUNNING, 5000, startedAt, null)));
+
+    mockMvc
+        .perform(get("/devices/1/purge"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("RUNNING"))
+        .andExpect(jsonPath("$.deletedReadings").value(5000));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getPurgeProgress_Unknown_ReturnsBadRequest() throws Exception {
+    when(devicePurgeService.getProgress(2L)).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/devices/2/purge")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getLatestState_ReturnsOwnedDevicesFromTable() throws Exception {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+    LatestReadingResponse reading =
+        new LatestReadingResponse(
+            3L, 1L, 30L, BigDecimal.valueOf(42.5), PumpStatus.ON, LocalDateTime.now());
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+    when(latestReadingService.findByAdminId(1L, List.of(3L, 4L))).thenReturn(List.of(reading));
+
+    mockMvc
+        .perform(get("/devices/latest-state").param("deviceIds", "3,4"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].deviceId").value(3))
+        .andExpect(jsonPath("$[0].waterLevel").value(42.5))
+        .andExpect(jsonPath("$[0].pumpStatus").value("ON"));
+  }
 }
@@ -0,0 +1,125 @@
+package com.example.waterlevel.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.waterlevel.dto.DeviceGroupRequest;
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.GroupType;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.DeviceGroupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DeviceGroupControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @MockBean private DeviceGroupService deviceGroupService;
+  @MockBean private UserRepository userRepository;
+  @Autowired private ObjectMapper objectMapper;
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void createGroup_ReturnsCreated() throws Exception {
+    mockAdmin();
+    DeviceGroup region = new DeviceGroup();
+    region.setId(1L);
+    DeviceGroup site = new DeviceGroup();
+    site.setId(2L);
+    site.setName("Reservoir");
+    site.setType(GroupType.SITE);
+    site.setParent(region);
+    site.setCreatedAt(LocalDateTime.now());
+    when(deviceGroupService.createGroup(any(DeviceGroupRequest.class), eq(1L))).thenReturn(site);
+
+    mockMvc
+        .perform(
+            post("/device-groups")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new DeviceGroupRequest("Reservoir", GroupType.SITE, 1L))))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(2))
+        .andExpect(jsonPath("$.type").value("SITE"))
+        .andExpect(jsonPath("$.parentId").value(1));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void createGroup_MissingType_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/device-groups")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Reservoir\"}"))
+        .andExpect(status().isBadRequest());
+
+    verify(deviceGroupService, never()).createGroup(any(), any());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getMetrics_ReturnsAggregates() throws Exception {
+    mockAdmin();
+    when(deviceGroupService.getMetrics(1L, 1L))
+        .thenReturn(
+            new GroupMetricsResponse(1L, 3, 2, new BigDecimal("42.50"), 1, 1, LocalDateTime.now()));
+
+    mockMvc
+        .perform(get("/device-groups/1/metrics"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.devices").value(3))
+        .andExpect(jsonPath("$.averageLevel").value(42.5))
+        .andExpect(jsonPath("$.pumpsRunning").value(1))
+        .andExpect(jsonPath("$.devicesInAlarm").value(1));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void assignDevice_ReturnsNoContent() throws Exception {
+    mockAdmin();
+
+    mockMvc.perform(put("/device-groups/2/devices/10")).andExpect(status().isNoContent());
+
+    verify(deviceGroupService).assignDevice(2L, 10L, 1L);
+  }
+
+  @Test
+  void getMetrics_Unauthenticated_ReturnsUnauthorized() throws Exception {
+    mockMvc.perform(get("/device-groups/1/metrics")).andExpect(status().isUnauthorized());
+
+    verify(deviceGroupService, never()).getMetrics(any(), any());
+  }
+
+  private void mockAdmin() {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+  }
+}
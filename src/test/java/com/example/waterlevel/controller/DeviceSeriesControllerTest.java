@@ -0,0 +1,137 @@
+package com.example.waterlevel.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.waterlevel.dto.ChartPointResponse;
+import com.example.waterlevel.dto.DeviceSeriesResponse;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.DeviceSeriesService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DeviceSeriesControllerTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+  private static final LocalDateTime TO = LocalDateTime.of(2025, 12, 2, 0, 0, 0);
+
+  @Autowired private MockMvc mockMvc;
+  @MockBean private DeviceSeriesService deviceSeriesService;
+  @MockBean private UserRepository userRepository;
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getSeries_StreamsOneLinePerDevice() throws Exception {
+    stubUser(null);
+    List<Long> deviceIds = List.of(1L, 2L);
+    doAnswer(
+            invocation -> {
+              Consumer<DeviceSeriesResponse> consumer = invocation.getArgument(4);
+              consumer.accept(
+                  new DeviceSeriesResponse(2L, 1, List.of(new ChartPointResponse(FROM, 42.5))));
+              consumer.accept(new DeviceSeriesResponse(1L, 0, List.of()));
+              return null;
+            })
+        .when(deviceSeriesService)
+        .streamAlignedSeries(eq(deviceIds), eq(FROM), eq(TO), eq(Duration.ofMinutes(15)), any());
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/water-level-data/series")
+                    .param("deviceIds", "1,2")
+                    .param("from", "2025-12-01T00:00:00")
+                    .param("to", "2025-12-02T00:00:00")
+                    .param("interval", "PT15M"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(content().string(startsWith("{\"deviceId\":2,\"sourceRows\":1,")))
+        .andExpect(content().string(containsString("\"waterLevel\":42.5}]}\n{\"deviceId\":1,")))
+        .andExpect(content().string(endsWith("\"points\":[]}\n")));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getSeries_UserResultLimit_CapsPoints() throws Exception {
+    stubUser(500);
+
+    mockMvc
+        .perform(
+            get("/water-level-data/series")
+                .param("deviceIds", "1")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-02T00:00:00"))
+        .andExpect(request().asyncStarted());
+
+    verify(deviceSeriesService)
+        .checkSeriesQuery(eq(List.of(1L)), eq(FROM), eq(TO), eq(Duration.ofMinutes(5)), eq(500));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getSeries_TooManyPoints_ReturnsBadRequest() throws Exception {
+    stubUser(null);
+    doThrow(new IllegalArgumentException("Query could return too many points"))
+        .when(deviceSeriesService)
+        .checkSeriesQuery(any(), any(), any(), any(), anyInt());
+
+    mockMvc
+        .perform(
+            get("/water-level-data/series")
+                .param("deviceIds", "1,2")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-02T00:00:00")
+                .param("interval", "PT1S"))
+        .andExpect(status().isBadRequest());
+
+    verify(deviceSeriesService, never()).streamAlignedSeries(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void getSeries_Unauthenticated_ReturnsUnauthorized() throws Exception {
+    mockMvc.perform(get("/water-level-data/series")).andExpect(status().isUnauthorized());
+  }
+
+  private void stubUser(final Integer maxResultRows) {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("testuser");
+    user.setMaxResultRows(maxResultRows);
+    when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+  }
+}
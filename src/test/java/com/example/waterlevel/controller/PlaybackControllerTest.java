@@ -0,0 +1,111 @@
+package com.example.waterlevel.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.waterlevel.dto.PlaybackSessionResponse;
+import com.example.waterlevel.dto.PlaybackState;
+import com.example.waterlevel.service.PlaybackService;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PlaybackControllerTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+  private static final LocalDateTime TO = FROM.plusHours(6);
+
+  @Autowired private MockMvc mockMvc;
+  @MockBean private PlaybackService playbackService;
+
+  @Test
+  @WithMockUser
+  void startPlayback_ReturnsAcceptedWithDestination() throws Exception {
+    when(playbackService.startPlayback(1L, FROM, TO, 100))
+        .thenReturn(session(PlaybackState.RUNNING, 0));
+
+    mockMvc
+        .perform(
+            post("/devices/1/water-level-data/playback")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-01T06:00:00")
+                .param("speed", "100"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/devices/1/water-level-data/playback/abc"))
+        .andExpect(jsonPath("$.sessionId").value("abc"))
+        .andExpect(jsonPath("$.destination").value("/topic/device/1/playback/abc"))
+        .andExpect(jsonPath("$.state").value("RUNNING"));
+  }
+
+  @Test
+  @WithMockUser
+  void startPlayback_SpeedTooHigh_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            post("/devices/1/water-level-data/playback")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-01T06:00:00")
+                .param("speed", "5000"))
+        .andExpect(status().isBadRequest());
+
+    verify(playbackService, never()).startPlayback(any(), any(), any(), anyInt());
+  }
+
+  @Test
+  @WithMockUser
+  void stopPlayback_ReturnsSession() throws Exception {
+    when(playbackService.stopPlayback(1L, "abc"))
+        .thenReturn(Optional.of(session(PlaybackState.RUNNING, 42)));
+
+    mockMvc
+        .perform(delete("/devices/1/water-level-data/playback/abc"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.sentReadings").value(42));
+  }
+
+  @Test
+  @WithMockUser
+  void getPlayback_UnknownSession_ReturnsBadRequest() throws Exception {
+    when(playbackService.getSession(1L, "missing")).thenReturn(Optional.empty());
+
+    mockMvc
+        .perform(get("/devices/1/water-level-data/playback/missing"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void startPlayback_Unauthenticated_ReturnsUnauthorized() throws Exception {
+    mockMvc
+        .perform(
+            post("/devices/1/water-level-data/playback")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-01T06:00:00"))
+        .andExpect(status().isUnauthorized());
+
+    verify(playbackService, never()).startPlayback(any(), any(), any(), anyInt());
+  }
+
+  private static PlaybackSessionResponse session(final PlaybackState state, final long sent) {
+    return new PlaybackSessionResponse(
+        "abc", 1L, FROM, TO, 100, "/topic/device/1/playback/abc", state, sent, FROM, null);
+  }
+}
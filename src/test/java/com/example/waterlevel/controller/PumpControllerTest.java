@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.waterlevel.dto.PumpRuntimeResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
 import com.example.waterlevel.entity.User;
@@ -16,9 +17,13 @@ import com.example.waterlevel.entity.WaterLevelData;
 import com.example.waterlevel.repository.UserRepository;
 import com.example.waterlevel.service.DeviceService;
 import com.example.waterlevel.service.MqttService;
+import com.example.waterlevel.service.PumpRunService;
 import com.example.waterlevel.service.PumpService;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -33,10 +38,13 @@ import org.springframework.test.web.servlet.MockMvc;
 @ActiveProfiles("test")
 class PumpControllerTest {
 
+  private static final UUID DEVICE_KEY = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
   @Autowired private MockMvc mockMvc;
   @MockBean private DeviceService deviceService;
   @MockBean private MqttService mqttService;
   @MockBean private PumpService pumpService;
+  @MockBean private PumpRunService pumpRunService;
   @MockBean private UserRepository userRepository;
 
   @Test
@@ -47,7 +55,7 @@ class PumpControllerTest {
     admin.setUsername("admin");
     Device device = new Device();
     device.setId(1L);
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setAdmin(admin);
 
     when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
@@ -56,7 +64,7 @@ class PumpControllerTest {
 
     mockMvc.perform(post("/devices/1/pump/start")).andExpect(status().isOk());
 
-    verify(mqttService).publishPumpStartCommand("test-key", 1L);
+    verify(mqttService).publishPumpStartCommand(DEVICE_KEY.toString(), 1L);
   }
 
   @Test
@@ -67,7 +75,7 @@ class PumpControllerTest {
     admin.setUsername("admin");
     Device device = new Device();
     device.setId(1L);
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setAdmin(admin);
 
     when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
@@ -92,7 +100,6 @@ class PumpControllerTest {
 
     when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
     when(deviceService.validateDeviceOwnership(1L, 1L)).thenReturn(device);
-    when(pumpService.getCurrentPumpStatus(device)).thenReturn(PumpStatus.ON);
     when(pumpService.getLatestData(device)).thenReturn(Optional.of(data));
 
     mockMvc
@@ -100,4 +107,52 @@ class PumpControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.pumpStatus").value("ON"));
   }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getPumpRuntime_Success() throws Exception {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+    Device device = new Device();
+    device.setId(1L);
+    device.setAdmin(admin);
+    LocalDate day = LocalDate.of(2025, 12, 1);
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+    when(deviceService.validateDeviceOwnership(1L, 1L)).thenReturn(device);
+    when(pumpRunService.getDailyRuntime(1L, day, day))
+        .thenReturn(List.of(new PumpRuntimeResponse(day, 4320L, 3, 0.05)));
+
+    mockMvc
+        .perform(
+            get("/devices/1/pump/runtime").param("from", "2025-12-01").param("to", "2025-12-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].date").value("2025-12-01"))
+        .andExpect(jsonPath("$[0].runtimeSeconds").value(4320))
+        .andExpect(jsonPath("$[0].cycles").value(3))
+        .andExpect(jsonPath("$[0].dutyCycle").value(0.05));
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void getPumpRuntime_InvalidRange_ReturnsBadRequest() throws Exception {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+    Device device = new Device();
+    device.setId(1L);
+    device.setAdmin(admin);
+    LocalDate day = LocalDate.of(2025, 12, 1);
+
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+    when(deviceService.validateDeviceOwnership(1L, 1L)).thenReturn(device);
+    when(pumpRunService.getDailyRuntime(1L, day, day.minusDays(1)))
+        .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+
+    mockMvc
+        .perform(
+            get("/devices/1/pump/runtime").param("from", "2025-12-01").param("to", "2025-11-30"))
+        .andExpect(status().isBadRequest());
+  }
 }
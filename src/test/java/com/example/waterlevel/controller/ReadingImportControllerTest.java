@@ -0,0 +1,81 @@
+package com.example.waterlevel.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.waterlevel.dto.ImportRejection;
+import com.example.waterlevel.dto.ReadingImportResponse;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.ReadingImportService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadingImportControllerTest {
+
+  private static final String CSV =
+      "device_key,timestamp,water_level,pump_status\n"
+          + "11111111-1111-1111-1111-111111111111,2025-12-01T00:00:00,12.5,ON\n";
+
+  @Autowired private MockMvc mockMvc;
+  @MockBean private ReadingImportService readingImportService;
+  @MockBean private UserRepository userRepository;
+
+  @Test
+  @WithMockUser(roles = "ADMIN", username = "admin")
+  void importCsv_ReturnsReport() throws Exception {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+    when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+    when(readingImportService.importCsv(any(Path.class), eq(1L)))
+        .thenAnswer(
+            invocation -> {
+              Path file = invocation.getArgument(0);
+              return new ReadingImportResponse(
+                  1,
+                  1,
+                  Files.size(file),
+                  5,
+                  200,
+                  List.of(new ImportRejection(3, "Unknown device key")));
+            });
+
+    mockMvc
+        .perform(post("/water-level-data/import").contentType("text/csv").content(CSV))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.importedReadings").value(1))
+        .andExpect(jsonPath("$.bytes").value(CSV.length()))
+        .andExpect(jsonPath("$.readingsPerSecond").value(200))
+        .andExpect(jsonPath("$.rejections[0].line").value(3))
+        .andExpect(jsonPath("$.rejections[0].reason").value("Unknown device key"));
+  }
+
+  @Test
+  void importCsv_Unauthenticated_ReturnsUnauthorized() throws Exception {
+    mockMvc
+        .perform(post("/water-level-data/import").contentType("text/csv").content(CSV))
+        .andExpect(status().isUnauthorized());
+
+    verify(readingImportService, never()).importCsv(any(), any());
+  }
+}
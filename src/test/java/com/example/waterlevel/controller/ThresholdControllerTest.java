@@ -5,10 +5,12 @@ import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -22,7 +24,9 @@ import com.example.waterlevel.service.MqttService;
 import com.example.waterlevel.service.WebSocketService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -41,6 +45,8 @@ import org.springframework.test.web.servlet.MockMvc;
 @ActiveProfiles("test")
 class ThresholdControllerTest {
 
+  private static final UUID DEVICE_KEY = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
   @Autowired private MockMvc mockMvc;
   @MockBean private DeviceService deviceService;
   @MockBean private MqttService mqttService;
@@ -76,7 +82,7 @@ class ThresholdControllerTest {
     admin.setUsername("admin");
     Device device = new Device();
     device.setId(1L);
-    device.setDeviceKey("test-key");
+    device.setDeviceKey(DEVICE_KEY);
     device.setMinThreshold(BigDecimal.valueOf(10.0));
     device.setMaxThreshold(BigDecimal.valueOf(90.0));
     device.setAdmin(admin);
@@ -87,7 +93,7 @@ class ThresholdControllerTest {
 
     Device updatedDevice = new Device();
     updatedDevice.setId(1L);
-    updatedDevice.setDeviceKey("test-key");
+    updatedDevice.setDeviceKey(DEVICE_KEY);
     updatedDevice.setMinThreshold(BigDecimal.valueOf(15.0));
     updatedDevice.setMaxThreshold(BigDecimal.valueOf(85.0));
     updatedDevice.setAdmin(admin);
@@ -115,7 +121,7 @@ class ThresholdControllerTest {
         .andExpect(jsonPath("$.minThreshold").value(15.0))
         .andExpect(jsonPath("$.maxThreshold").value(85.0));
 
-    verify(mqttService).publishThresholdUpdate("test-key", 15.0, 85.0, 1L);
+    verify(mqttService).publishThresholdUpdate(DEVICE_KEY.toString(), 15.0, 85.0, 1L);
     verify(webSocketService).sendThresholdUpdateConfirmation(1L, 15.0, 85.0);
   }
 
@@ -143,4 +149,31 @@ class ThresholdControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isBadRequest());
   }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getThresholds_MatchingEtag_ReturnsNotModifiedWithoutLoadingDevice() throws Exception {
+    Device device = new Device();
+    device.setId(42L);
+    device.setMinThreshold(BigDecimal.valueOf(10.0));
+    device.setMaxThreshold(BigDecimal.valueOf(90.0));
+    device.setUpdatedAt(LocalDateTime.of(2025, 12, 25, 10, 0, 0));
+
+    when(deviceService.getDeviceById(42L)).thenReturn(device);
+
+    String etag =
+        mockMvc
+            .perform(get("/devices/42/thresholds"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("Last-Modified"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+    mockMvc
+        .perform(get("/devices/42/thresholds").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+
+    verify(deviceService, times(1)).getDeviceById(42L);
+  }
 }
@@ -1,19 +1,53 @@
 package com.example.waterlevel.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.dto.AggregatedSeriesResponse;
+import com.example.waterlevel.dto.ChartPointResponse;
+import com.example.waterlevel.dto.ChartResponse;
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import com.example.waterlevel.dto.ExportFormat;
+import com.example.waterlevel.dto.HeatmapResponse;
+import com.example.waterlevel.dto.HistoryCursor;
+import com.example.waterlevel.dto.LevelBucketResponse;
+import com.example.waterlevel.dto.QueryPlan;
+import com.example.waterlevel.dto.QueryPlanSegment;
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.dto.StorageTier;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.dto.WaterLevelStatisticsResponse;
 import com.example.waterlevel.entity.PumpStatus;
-import com.example.waterlevel.entity.WaterLevelData;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.DailySummaryService;
 import com.example.waterlevel.service.WaterLevelDataService;
+import com.example.waterlevel.service.WaterLevelStatisticsService;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -22,9 +56,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -33,22 +69,30 @@ class WaterLevelDataControllerTest {
 
   @Autowired private MockMvc mockMvc;
   @MockBean private WaterLevelDataService waterLevelDataService;
+  @MockBean private WaterLevelStatisticsService waterLevelStatisticsService;
+  @MockBean private DailySummaryService dailySummaryService;
+  @MockBean private UserRepository userRepository;
+
+  @BeforeEach
+  void setUp() {
+    when(waterLevelDataService.getHistoryVersion(any()))
+        .thenReturn(new ResourceVersion("1-h10", -1));
+    stubUser(null);
+  }
 
   @Test
   @WithMockUser(roles = "USER", username = "testuser")
   void getWaterLevelData_AsUser_SuccessAndPaginated() throws Exception {
     Long deviceId = 1L;
-    Device device = new Device();
-    device.setId(deviceId);
+    WaterLevelDataResponse row =
+        new WaterLevelDataResponse(
+            10L,
+            deviceId,
+            BigDecimal.valueOf(55.25),
+            PumpStatus.OFF,
+            LocalDateTime.of(2025, 12, 25, 10, 0, 0));
 
-    WaterLevelData row = new WaterLevelData();
-    row.setId(10L);
-    row.setDevice(device);
-    row.setWaterLevel(BigDecimal.valueOf(55.25));
-    row.setPumpStatus(PumpStatus.OFF);
-    row.setTimestamp(LocalDateTime.of(2025, 12, 25, 10, 0, 0));
-
-    Page<WaterLevelData> page = new PageImpl<>(List.of(row), PageRequest.of(0, 1), 5);
+    Page<WaterLevelDataResponse> page = new PageImpl<>(List.of(row), PageRequest.of(0, 1), 5);
 
     when(waterLevelDataService.getWaterLevelDataForDevice(eq(deviceId), any())).thenReturn(page);
 
@@ -64,4 +108,367 @@ class WaterLevelDataControllerTest {
         .andExpect(jsonPath("$.size").value(1))
         .andExpect(jsonPath("$.number").value(0));
   }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataByCursor_FirstPage_ReturnsNextCursor() throws Exception {
+    LocalDateTime timestamp = LocalDateTime.of(2025, 12, 25, 10, 0, 0);
+    WaterLevelDataResponse row =
+        new WaterLevelDataResponse(10L, 1L, BigDecimal.valueOf(55.25), PumpStatus.OFF, timestamp);
+
+    when(waterLevelDataService.getWaterLevelDataSlice(eq(1L), isNull(), eq(1)))
+        .thenReturn(new SliceImpl<>(List.of(row), PageRequest.of(0, 1), true));
+
+    mockMvc
+        .perform(get("/devices/1/water-level-data/cursor?size=1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(10))
+        .andExpect(jsonPath("$.hasNext").value(true))
+        .andExpect(jsonPath("$.nextCursor").value(new HistoryCursor(timestamp, 10L).encode()));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataByCursor_InvalidCursor_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/1/water-level-data/cursor?cursor=not-a-cursor"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataRange_StreamsRowsWithRowLimit() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 12, 25, 0, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 12, 26, 0, 0, 0);
+    WaterLevelDataResponse row =
+        new WaterLevelDataResponse(
+            10L, 1L, BigDecimal.valueOf(55.25), PumpStatus.ON, from.plusHours(1));
+
+    doAnswer(
+            invocation -> {
+              Consumer<WaterLevelDataResponse> consumer = invocation.getArgument(4);
+              consumer.accept(row);
+              return 1L;
+            })
+        .when(waterLevelDataService)
+        .streamWaterLevelDataRange(eq(1L), eq(from), eq(to), eq(50), any());
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/devices/1/water-level-data")
+                    .param("from", "2025-12-25T00:00:00")
+                    .param("to", "2025-12-26T00:00:00")
+                    .param("limit", "50"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Row-Limit", "50"))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(10))
+        .andExpect(jsonPath("$[0].pumpStatus").value("ON"));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataRange_UserResultLimit_CapsRows() throws Exception {
+    stubUser(5);
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/devices/1/water-level-data")
+                    .param("from", "2025-12-25T00:00:00")
+                    .param("to", "2025-12-26T00:00:00")
+                    .param("limit", "50"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Row-Limit", "5"));
+    verify(waterLevelDataService).streamWaterLevelDataRange(eq(1L), any(), any(), eq(5), any());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataRange_InvalidRange_ReturnsBadRequest() throws Exception {
+    doThrow(new IllegalArgumentException("'from' must be before 'to'"))
+        .when(waterLevelDataService)
+        .checkRangeQuery(eq(1L), any(), any());
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data")
+                .param("from", "2025-12-26T00:00:00")
+                .param("to", "2025-12-25T00:00:00"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelDataRange_MalformedDate_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/1/water-level-data").param("from", "yesterday"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getChartData_MinMaxMode_ReturnsDownsampledPoints() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 12, 2, 0, 0, 0);
+    ChartResponse chart =
+        new ChartResponse(
+            1L,
+            from,
+            to,
+            DownsamplingMode.MIN_MAX,
+            86400,
+            List.of(
+                new ChartPointResponse(from.plusHours(1), 42.5),
+                new ChartPointResponse(from.plusHours(2), 61.0)));
+
+    when(waterLevelDataService.getChartData(1L, from, to, 100, DownsamplingMode.MIN_MAX))
+        .thenReturn(chart);
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/chart")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-02T00:00:00")
+                .param("points", "100")
+                .param("mode", "MIN_MAX"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.mode").value("MIN_MAX"))
+        .andExpect(jsonPath("$.sourceRows").value(86400))
+        .andExpect(jsonPath("$.points.length()").value(2))
+        .andExpect(jsonPath("$.points[1].waterLevel").value(61.0));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getChartData_UnknownMode_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/chart")
+                .param("from", "2025-12-01T00:00:00")
+                .param("mode", "AVERAGE"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getStatistics_ReturnsSummary() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 12, 8, 0, 0, 0);
+    when(waterLevelStatisticsService.getStatistics(1L, from, to))
+        .thenReturn(
+            new WaterLevelStatisticsResponse(
+                1L, from, to, 604800, 12.0, 88.5, 50.2, 9.1, 31.0, 50.0, 70.4, 167, 3600));
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/statistics")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-08T00:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.count").value(604800))
+        .andExpect(jsonPath("$.p50").value(50.0))
+        .andExpect(jsonPath("$.p95").value(70.4))
+        .andExpect(jsonPath("$.rollupHours").value(167));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getStatistics_InvertedRange_ReturnsBadRequest() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 12, 8, 0, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+    when(waterLevelStatisticsService.getStatistics(1L, from, to))
+        .thenThrow(new IllegalArgumentException("'from' must be before 'to'"));
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/statistics")
+                .param("from", "2025-12-08T00:00:00")
+                .param("to", "2025-12-01T00:00:00"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getAggregatedData_ReturnsBucketsWithQueryPlanHeader() throws Exception {
+    LocalDateTime from = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 12, 1, 3, 0, 0);
+    QueryPlan plan =
+        new QueryPlan(
+            List.of(
+                new QueryPlanSegment(StorageTier.HOUR, from, from.plusHours(2)),
+                new QueryPlanSegment(StorageTier.RAW, from.plusHours(2), to)));
+    when(waterLevelDataService.getAggregatedData(
+            eq(1L), eq(from), eq(to), eq(Duration.ofHours(1)), anyInt()))
+        .thenReturn(
+            new AggregatedSeriesResponse(
+                1L,
+                from,
+                to,
+                plan,
+                List.of(new LevelBucketResponse(from, 60, 40.0, 55.5, 47.25))));
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/aggregate")
+                .param("from", "2025-12-01T00:00:00")
+                .param("to", "2025-12-01T03:00:00")
+                .param("resolution", "PT1H"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Query-Plan", plan.toHeaderValue()))
+        .andExpect(jsonPath("$.plan.segments[1].tier").value("RAW"))
+        .andExpect(jsonPath("$.buckets[0].count").value(60))
+        .andExpect(jsonPath("$.buckets[0].avg").value(47.25));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getDailySummaries_ReturnsStoredSummaries() throws Exception {
+    LocalDate day = LocalDate.of(2025, 12, 1);
+    when(dailySummaryService.getDailySummaries(1L, day, day.plusDays(1)))
+        .thenReturn(
+            List.of(
+                new DailySummaryResponse(day, 1440, 12.0, 88.5, 50.2, 7200, 3, 0.0833),
+                new DailySummaryResponse(day.plusDays(1), 0, null, null, null, 0, 0, 0.0)));
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/daily")
+                .param("from", "2025-12-01")
+                .param("to", "2025-12-02"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].date").value("2025-12-01"))
+        .andExpect(jsonPath("$[0].avgLevel").value(50.2))
+        .andExpect(jsonPath("$[0].pumpRuntimeSeconds").value(7200))
+        .andExpect(jsonPath("$[1].readingCount").value(0));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getHeatmap_ReturnsWeekdayHourMatrices() throws Exception {
+    LocalDate from = LocalDate.of(2025, 1, 1);
+    LocalDate to = LocalDate.of(2025, 12, 31);
+    ZoneId zone = ZoneId.of("Europe/Berlin");
+    long[][] counts = new long[7][24];
+    Double[][] levels = new Double[7][24];
+    Double[][] shares = new Double[7][24];
+    counts[0][6] = 240;
+    levels[0][6] = 42.5;
+    shares[0][6] = 0.25;
+    when(waterLevelStatisticsService.getHeatmap(1L, from, to, zone))
+        .thenReturn(
+            new HeatmapResponse(1L, from, to, zone.getId(), counts, levels, shares, 8760));
+
+    mockMvc
+        .perform(
+            get("/devices/1/water-level-data/heatmap")
+                .param("from", "2025-01-01")
+                .param("to", "2025-12-31")
+                .param("zone", "Europe/Berlin"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.zone").value("Europe/Berlin"))
+        .andExpect(jsonPath("$.readingCounts[0][6]").value(240))
+        .andExpect(jsonPath("$.averageLevel[0][6]").value(42.5))
+        .andExpect(jsonPath("$.pumpOnShare[0][6]").value(0.25))
+        .andExpect(jsonPath("$.averageLevel[0][7]").doesNotExist())
+        .andExpect(jsonPath("$.rollupHours").value(8760));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getHeatmap_UnknownZone_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/1/water-level-data/heatmap").param("zone", "Mars/Olympus"))
+        .andExpect(status().isBadRequest());
+
+    verify(waterLevelStatisticsService, never()).getHeatmap(any(), any(), any(), any());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void exportWaterLevelData_Csv_StreamsAttachment() throws Exception {
+    doAnswer(
+            invocation -> {
+              Writer writer = invocation.getArgument(5);
+              writer.write("id,device_id,water_level,pump_status,timestamp\n");
+              writer.write("10,1,55.25,OFF,2025-12-25T10:00:00\n");
+              writer.flush();
+              return 1L;
+            })
+        .when(waterLevelDataService)
+        .exportWaterLevelData(
+            eq(1L), any(), any(), eq(ExportFormat.CSV), eq(Integer.MAX_VALUE), any());
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/devices/1/water-level-data/export").param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "text/csv"))
+        .andExpect(
+            header()
+                .string(
+                    "Content-Disposition",
+                    "attachment; filename=\"device-1-water-level-data.csv\""))
+        .andExpect(
+            content()
+                .string(
+                    "id,device_id,water_level,pump_status,timestamp\n"
+                        + "10,1,55.25,OFF,2025-12-25T10:00:00\n"));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void exportWaterLevelData_UnsupportedFormat_ReturnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/devices/1/water-level-data/export").param("format", "xlsx"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelData_ReturnsEtag() throws Exception {
+    when(waterLevelDataService.getWaterLevelDataForDevice(eq(1L), any()))
+        .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+    mockMvc
+        .perform(get("/devices/1/water-level-data"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1-h10\""));
+  }
+
+  @Test
+  @WithMockUser(roles = "USER", username = "testuser")
+  void getWaterLevelData_MatchingEtag_ReturnsNotModifiedWithoutQuery() throws Exception {
+    mockMvc
+        .perform(get("/devices/1/water-level-data").header("If-None-Match", "\"1-h10\""))
+        .andExpect(status().isNotModified());
+
+    verify(waterLevelDataService, never()).getWaterLevelDataForDevice(any(), any());
+  }
+
+  private void stubUser(final Integer maxResultRows) {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("testuser");
+    user.setMaxResultRows(maxResultRows);
+    when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+  }
 }
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import com.example.waterlevel.dto.ErrorResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 class GlobalExceptionHandlerTest {
 
@@ -104,6 +106,20 @@ class GlobalExceptionHandlerTest {
     assertTrue(response.getBody().getErrors().containsKey("error"));
   }
 
+  @Test
+  void handleMethodArgumentTypeMismatchException_ReturnsBadRequest() {
+    MethodArgumentTypeMismatchException ex =
+        new MethodArgumentTypeMismatchException(
+            "yesterday", LocalDateTime.class, "from", null, null);
+
+    ResponseEntity<ErrorResponse> response =
+        exceptionHandler.handleMethodArgumentTypeMismatchException(ex);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals("Invalid value for parameter 'from'", response.getBody().getErrors().get("error"));
+  }
+
   @Test
   void handleGenericException_ReturnsInternalServerError() {
     Exception ex = new RuntimeException("Unexpected error");
@@ -0,0 +1,66 @@
+package com.example.waterlevel.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.entity.Role;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheIT {
+
+  @Autowired private UserRepository userRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    User user = new User();
+    user.setUsername("cacheduser");
+    user.setEmail("cacheduser@example.com");
+    user.setPassword("encoded");
+    user.setRole(Role.USER);
+    userRepository.save(user);
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.findByUsername("cacheduser").ifPresent(userRepository::delete);
+  }
+
+  @Test
+  void findByUsername_RepeatedLookup_ServedFromSecondLevelCache() {
+    userRepository.findByUsername("cacheduser");
+    statistics.clear();
+
+    User user = userRepository.findByUsername("cacheduser").orElseThrow();
+
+    assertEquals("cacheduser", user.getUsername());
+    assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+  }
+
+  @Test
+  void findByUsername_AfterUpdate_ReturnsFreshEntity() {
+    User user = userRepository.findByUsername("cacheduser").orElseThrow();
+    user.setRole(Role.ADMIN);
+    userRepository.save(user);
+
+    User reloaded = userRepository.findByUsername("cacheduser").orElseThrow();
+
+    assertEquals(Role.ADMIN, reloaded.getRole());
+  }
+}
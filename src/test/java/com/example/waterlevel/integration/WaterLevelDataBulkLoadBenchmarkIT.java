@@ -0,0 +1,97 @@
+package com.example.waterlevel.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.WaterLevelDataBulkLoader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Compares {@code COPY} and batched {@code INSERT} loading of {@link WaterLevelDataBulkLoader} on
+ * a real PostgreSQL server.
+ *
+ * <p>Runs only when {@code BENCHMARK_POSTGRES_URL} is set (plus {@code BENCHMARK_POSTGRES_USER}
+ * and {@code BENCHMARK_POSTGRES_PASSWORD}), in a scratch {@code bulk_load_benchmark} schema.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_POSTGRES_URL", matches = ".+")
+class WaterLevelDataBulkLoadBenchmarkIT {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(WaterLevelDataBulkLoadBenchmarkIT.class);
+
+  private static final String SCHEMA = "bulk_load_benchmark";
+  private static final int ROWS = 100_000;
+  private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  private SingleConnectionDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    dataSource =
+        new SingleConnectionDataSource(
+            System.getenv("BENCHMARK_POSTGRES_URL"),
+            System.getenv("BENCHMARK_POSTGRES_USER"),
+            System.getenv("BENCHMARK_POSTGRES_PASSWORD"),
+            true);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+    jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+    jdbcTemplate.execute(
+        "CREATE TABLE water_level_data (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+            + " device_id BIGINT NOT NULL, water_level NUMERIC(5, 2) NOT NULL,"
+            + " pump_status VARCHAR(10) NOT NULL, timestamp TIMESTAMP(6) NOT NULL)");
+    jdbcTemplate.execute(
+        "CREATE INDEX idx_water_level_data_device_time_covering"
+            + " ON water_level_data (device_id, timestamp DESC)"
+            + " INCLUDE (id, water_level, pump_status)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    dataSource.destroy();
+  }
+
+  @Test
+  void load_CopyAndBatchedInserts_LogThroughput() {
+    List<WaterLevelDataResponse> readings = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      readings.add(
+          new WaterLevelDataResponse(
+              null,
+              (long) (i % 50),
+              BigDecimal.valueOf(i % 10000, 2),
+              i % 2 == 0 ? PumpStatus.ON : PumpStatus.OFF,
+              START.plusSeconds(i)));
+    }
+
+    long batched = measure(new WaterLevelDataBulkLoader(jdbcTemplate, false), readings);
+    long copied = measure(new WaterLevelDataBulkLoader(jdbcTemplate, true), readings);
+
+    assertEquals(
+        2L * ROWS,
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM water_level_data", Long.class));
+    LOGGER.info("Bulk load: batched inserts {} rows/s, COPY {} rows/s", batched, copied);
+  }
+
+  private static long measure(
+      final WaterLevelDataBulkLoader loader, final List<WaterLevelDataResponse> readings) {
+    long start = System.nanoTime();
+    assertEquals(ROWS, loader.load(readings));
+    return ROWS * 1_000_000_000L / Math.max(1, System.nanoTime() - start);
+  }
+}
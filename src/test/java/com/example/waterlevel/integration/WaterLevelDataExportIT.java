@@ -0,0 +1,135 @@
+package com.example.waterlevel.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.ExportFormat;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.entity.Role;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.entity.WaterLevelData;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.service.WaterLevelDataService;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaterLevelDataExportIT {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  @Autowired private WaterLevelDataService waterLevelDataService;
+  @Autowired private WaterLevelDataRepository waterLevelDataRepository;
+  @Autowired private DeviceRepository deviceRepository;
+  @Autowired private UserRepository userRepository;
+
+  private Device device;
+
+  @BeforeEach
+  void setUp() {
+    User admin = new User();
+    admin.setUsername("exportadmin");
+    admin.setEmail("exportadmin@example.com");
+    admin.setPassword("encoded");
+    admin.setRole(Role.ADMIN);
+    admin = userRepository.save(admin);
+
+    device = new Device();
+    device.setName("Export Device");
+    device.setDeviceKey(UUID.randomUUID());
+    device.setMinThreshold(BigDecimal.valueOf(10));
+    device.setMaxThreshold(BigDecimal.valueOf(90));
+    device.setAdmin(admin);
+    device = deviceRepository.save(device);
+
+    for (int i = 0; i < 3; i++) {
+      WaterLevelData data = new WaterLevelData();
+      data.setDevice(device);
+      data.setWaterLevel(BigDecimal.valueOf(50 + i));
+      data.setPumpStatus(i == 1 ? PumpStatus.ON : PumpStatus.OFF);
+      data.setTimestamp(START.plusMinutes(i));
+      waterLevelDataRepository.save(data);
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    waterLevelDataRepository.deleteByDeviceId(device.getId());
+    deviceRepository.delete(device);
+    userRepository.findByUsername("exportadmin").ifPresent(userRepository::delete);
+  }
+
+  @Test
+  void exportWaterLevelData_Csv_WritesHeaderAndRowsInRangeOldestFirst() {
+    StringWriter writer = new StringWriter();
+
+    long rows =
+        waterLevelDataService.exportWaterLevelData(
+            device.getId(),
+            START,
+            START.plusMinutes(2),
+            ExportFormat.CSV,
+            Integer.MAX_VALUE,
+            writer);
+
+    String[] lines = writer.toString().split("\n");
+    assertEquals(2, rows);
+    assertEquals(3, lines.length);
+    assertEquals("id,device_id,water_level,pump_status,timestamp", lines[0]);
+    assertEquals(device.getId() + ",50.00,OFF,2025-12-01T00:00:00", withoutId(lines[1]));
+    assertEquals(device.getId() + ",51.00,ON,2025-12-01T00:01:00", withoutId(lines[2]));
+  }
+
+  @Test
+  void exportWaterLevelData_Ndjson_WritesOneObjectPerLine() {
+    StringWriter writer = new StringWriter();
+
+    long rows =
+        waterLevelDataService.exportWaterLevelData(
+            device.getId(),
+            START,
+            START.plusHours(1),
+            ExportFormat.NDJSON,
+            Integer.MAX_VALUE,
+            writer);
+
+    String[] lines = writer.toString().split("\n");
+    assertEquals(3, rows);
+    assertEquals(3, lines.length);
+    assertTrue(lines[2].startsWith("{\"id\":"));
+    assertTrue(
+        lines[2].endsWith(
+            ",\"deviceId\":"
+                + device.getId()
+                + ",\"waterLevel\":52.00,\"pumpStatus\":\"OFF\""
+                + ",\"timestamp\":\"2025-12-01T00:02:00\"}"));
+  }
+
+  @Test
+  void exportWaterLevelData_MaxRows_StopsAfterLimit() {
+    StringWriter writer = new StringWriter();
+
+    long rows =
+        waterLevelDataService.exportWaterLevelData(
+            device.getId(), START, START.plusHours(1), ExportFormat.CSV, 2, writer);
+
+    assertEquals(2, rows);
+    assertEquals(3, writer.toString().split("\n").length);
+  }
+
+  private static String withoutId(final String line) {
+    return line.substring(line.indexOf(',') + 1);
+  }
+}
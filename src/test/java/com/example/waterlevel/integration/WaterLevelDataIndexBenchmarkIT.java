@@ -0,0 +1,196 @@
+package com.example.waterlevel.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares insert and query cost of the {@code water_level_data} indexes before and after the
+ * {@code V6__time_series_indexes} migration on a real PostgreSQL server.
+ *
+ * <p>Runs only when {@code BENCHMARK_POSTGRES_URL} is set (plus {@code BENCHMARK_POSTGRES_USER}
+ * and {@code BENCHMARK_POSTGRES_PASSWORD}); it works in a scratch {@code index_benchmark} schema
+ * that is dropped afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_POSTGRES_URL", matches = ".+")
+class WaterLevelDataIndexBenchmarkIT {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(WaterLevelDataIndexBenchmarkIT.class);
+
+  private static final String SCHEMA = "index_benchmark";
+  private static final int DEVICES = 50;
+  private static final int READINGS_PER_DEVICE = 4000;
+  private static final int BATCH = 1000;
+  private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  private static final List<String> BEFORE_INDEXES =
+      List.of(
+          "CREATE INDEX idx_water_level_data_device_id ON water_level_data (device_id)",
+          "CREATE INDEX idx_water_level_data_timestamp ON water_level_data (timestamp)",
+          "CREATE INDEX idx_water_level_data_device_timestamp"
+              + " ON water_level_data (device_id, timestamp)");
+
+  private static final List<String> AFTER_INDEXES =
+      List.of(
+          "CREATE INDEX idx_water_level_data_device_time_covering"
+              + " ON water_level_data (device_id, timestamp DESC)"
+              + " INCLUDE (id, water_level, pump_status)",
+          "CREATE INDEX idx_water_level_data_timestamp_brin"
+              + " ON water_level_data USING BRIN (timestamp)");
+
+  private static final String LATEST_QUERY =
+      "SELECT id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE device_id = ? ORDER BY timestamp DESC, id DESC LIMIT 1";
+
+  private static final String RANGE_QUERY =
+      "SELECT id, water_level, pump_status, timestamp FROM water_level_data"
+          + " WHERE device_id = ? AND timestamp >= ? AND timestamp < ? ORDER BY timestamp, id";
+
+  private static final String ALL_DEVICES_QUERY =
+      "SELECT device_id, COUNT(*), MIN(water_level), MAX(water_level) FROM water_level_data"
+          + " WHERE timestamp >= ? AND timestamp < ? GROUP BY device_id";
+
+  @Test
+  void compareIndexSets_LogsInsertAndQueryCost() throws SQLException {
+    try (Connection connection =
+        DriverManager.getConnection(
+            System.getenv("BENCHMARK_POSTGRES_URL"),
+            System.getenv("BENCHMARK_POSTGRES_USER"),
+            System.getenv("BENCHMARK_POSTGRES_PASSWORD"))) {
+      try {
+        run(connection, "before", BEFORE_INDEXES);
+        run(connection, "after", AFTER_INDEXES);
+      } finally {
+        execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      }
+    }
+  }
+
+  private static void run(
+      final Connection connection, final String label, final List<String> indexes)
+      throws SQLException {
+    execute(connection, "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    execute(connection, "CREATE SCHEMA " + SCHEMA);
+    execute(connection, "SET search_path TO " + SCHEMA);
+    execute(
+        connection,
+        "CREATE TABLE water_level_data (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+            + " device_id BIGINT NOT NULL, water_level NUMERIC(5, 2) NOT NULL,"
+            + " pump_status VARCHAR(10) NOT NULL, timestamp TIMESTAMP(6) NOT NULL)");
+    for (String index : indexes) {
+      execute(connection, index);
+    }
+
+    long insertNanos = insert(connection);
+    execute(connection, "ANALYZE water_level_data");
+    long indexBytes = indexBytes(connection);
+
+    long latestStart = System.nanoTime();
+    for (long deviceId = 1; deviceId <= DEVICES; deviceId++) {
+      assertEquals(1, count(connection, LATEST_QUERY, deviceId));
+    }
+    long latestNanos = System.nanoTime() - latestStart;
+
+    long rangeStart = System.nanoTime();
+    for (long deviceId = 1; deviceId <= DEVICES; deviceId++) {
+      assertEquals(
+          360,
+          count(
+              connection,
+              RANGE_QUERY,
+              deviceId,
+              Timestamp.valueOf(START.plusHours(1)),
+              Timestamp.valueOf(START.plusHours(2))));
+    }
+    long rangeNanos = System.nanoTime() - rangeStart;
+
+    long allDevicesStart = System.nanoTime();
+    assertEquals(
+        DEVICES,
+        count(
+            connection,
+            ALL_DEVICES_QUERY,
+            Timestamp.valueOf(START.plusHours(3)),
+            Timestamp.valueOf(START.plusHours(4))));
+    long allDevicesNanos = System.nanoTime() - allDevicesStart;
+
+    LOGGER.info(
+        "{}: inserted {} rows/s, indexes {} KiB, latest {} ms, ranges {} ms, all devices {} ms",
+        label,
+        (long) DEVICES * READINGS_PER_DEVICE * 1_000_000_000L / Math.max(1, insertNanos),
+        indexBytes / 1024,
+        latestNanos / 1_000_000,
+        rangeNanos / 1_000_000,
+        allDevicesNanos / 1_000_000);
+  }
+
+  /** Inserts ten-second readings of every device interleaved in time order, as ingest does. */
+  private static long insert(final Connection connection) throws SQLException {
+    long start = System.nanoTime();
+    try (PreparedStatement statement =
+        connection.prepareStatement(
+            "INSERT INTO water_level_data (device_id, water_level, pump_status, timestamp)"
+                + " VALUES (?, ?, ?, ?)")) {
+      int pending = 0;
+      for (int i = 0; i < READINGS_PER_DEVICE; i++) {
+        Timestamp timestamp = Timestamp.valueOf(START.plusSeconds(i * 10L));
+        for (long deviceId = 1; deviceId <= DEVICES; deviceId++) {
+          statement.setLong(1, deviceId);
+          statement.setDouble(2, (i + deviceId) % 100);
+          statement.setString(3, i % 2 == 0 ? "ON" : "OFF");
+          statement.setTimestamp(4, timestamp);
+          statement.addBatch();
+          if (++pending == BATCH) {
+            statement.executeBatch();
+            pending = 0;
+          }
+        }
+      }
+      statement.executeBatch();
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long indexBytes(final Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT pg_indexes_size('water_level_data')")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static int count(final Connection connection, final String sql, final Object... params)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < params.length; i++) {
+        statement.setObject(i + 1, params[i]);
+      }
+      int rows = 0;
+      try (ResultSet rs = statement.executeQuery()) {
+        while (rs.next()) {
+          rows++;
+        }
+      }
+      return rows;
+    }
+  }
+
+  private static void execute(final Connection connection, final String sql) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.waterlevel.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Slice;
+
+class ColumnarTimeSeriesStoreTest extends TimeSeriesStoreContractTest {
+
+  @TempDir Path directory;
+
+  private ColumnarTimeSeriesStore store;
+  private long nextDeviceId;
+
+  @BeforeEach
+  void setUp() {
+    store = open();
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.shutdown();
+  }
+
+  @Override
+  protected TimeSeriesStore store() {
+    return store;
+  }
+
+  @Override
+  protected Long newDevice() {
+    return ++nextDeviceId;
+  }
+
+  @Test
+  void scan_ManyOrderedRows_FindsRangeThroughIndex() {
+    Long deviceId = newDevice();
+    List<WaterLevelDataResponse> readings = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      readings.add(reading(deviceId, START.plusMinutes(i), i % 100, PumpStatus.OFF));
+    }
+    store.appendAll(readings);
+
+    List<WaterLevelDataResponse> rows =
+        scan(deviceId, START.plusMinutes(1000), START.plusMinutes(1300));
+
+    assertEquals(300, rows.size());
+    assertEquals(START.plusMinutes(1000), rows.get(0).getTimestamp());
+    assertEquals(START.plusMinutes(1299), rows.get(299).getTimestamp());
+  }
+
+  @Test
+  void compact_OutOfOrderTail_KeepsRowsAndStartsNewGeneration() {
+    Long deviceId = newDevice();
+    store.append(reading(deviceId, START.plusMinutes(10), 10.0, PumpStatus.OFF));
+    store.append(reading(deviceId, START, 20.0, PumpStatus.ON));
+    store.append(reading(deviceId, START.plusMinutes(5), 30.0, PumpStatus.OFF));
+
+    store.compact(deviceId);
+
+    Path deviceDirectory = directory.resolve("device-" + deviceId);
+    assertFalse(Files.exists(deviceDirectory.resolve("gen-0")));
+    assertTrue(Files.exists(deviceDirectory.resolve("gen-1")));
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusHours(1));
+    assertEquals(3, rows.size());
+    assertEquals(START, rows.get(0).getTimestamp());
+    assertEquals(START.plusMinutes(5), rows.get(1).getTimestamp());
+    assertEquals(START.plusMinutes(10), store.findLatest(deviceId).get().getTimestamp());
+  }
+
+  @Test
+  void scan_CompactedWhileStreaming_ReadsRowsOfTheOldGeneration() {
+    Long deviceId = newDevice();
+    store.append(reading(deviceId, START.plusMinutes(10), 10.0, PumpStatus.OFF));
+    store.append(reading(deviceId, START, 20.0, PumpStatus.ON));
+    store.append(reading(deviceId, START.plusMinutes(20), 30.0, PumpStatus.OFF));
+
+    List<WaterLevelDataResponse> rows;
+    try (Stream<WaterLevelDataResponse> stream =
+        store.scan(deviceId, START, START.plusMinutes(15))) {
+      store.compact(deviceId);
+      store.append(reading(deviceId, START.plusMinutes(5), 40.0, PumpStatus.OFF));
+      rows = stream.toList();
+    }
+
+    assertEquals(2, rows.size());
+    assertEquals(PumpStatus.ON, rows.get(0).getPumpStatus());
+    assertEquals(START.plusMinutes(10), rows.get(1).getTimestamp());
+  }
+
+  @Test
+  void init_ExistingDevices_ContinuesIdsAfterReopen() {
+    Long deviceId = newDevice();
+    WaterLevelDataResponse before = store.append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store.shutdown();
+
+    store = open();
+    WaterLevelDataResponse after = store.append(reading(newDevice(), START, 20.0, PumpStatus.OFF));
+
+    assertTrue(after.getId() > before.getId());
+    assertEquals(Optional.of(before.getId()), store.findLatestId(deviceId));
+  }
+
+  @Test
+  void findSlice_OutOfOrderTail_MergesWithSortedRowsNewestFirst() {
+    Long deviceId = newDevice();
+    for (int minute : new int[] {0, 20, 40, 30, 10, 50}) {
+      store.append(reading(deviceId, START.plusMinutes(minute), minute, PumpStatus.OFF));
+    }
+
+    Slice<WaterLevelDataResponse> first = store.findSlice(deviceId, null, null, 3);
+    WaterLevelDataResponse last = first.getContent().get(2);
+    Slice<WaterLevelDataResponse> rest =
+        store.findSlice(deviceId, last.getTimestamp(), last.getId(), 3);
+
+    assertEquals(
+        List.of(START.plusMinutes(50), START.plusMinutes(40), START.plusMinutes(30)),
+        first.getContent().stream().map(WaterLevelDataResponse::getTimestamp).toList());
+    assertTrue(first.hasNext());
+    assertEquals(
+        List.of(START.plusMinutes(20), START.plusMinutes(10), START),
+        rest.getContent().stream().map(WaterLevelDataResponse::getTimestamp).toList());
+    assertFalse(rest.hasNext());
+  }
+
+  @Test
+  void init_TornHeader_FallsBackToPreviousCommit() throws IOException {
+    Long deviceId = newDevice();
+    store.append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store.append(reading(deviceId, START.plusMinutes(1), 20.0, PumpStatus.OFF));
+    store.shutdown();
+    // The second commit went to the first header slot; garble it as a crash mid-write would
+    Path header = directory.resolve("device-" + deviceId).resolve("gen-0").resolve("header");
+    try (FileChannel channel = FileChannel.open(header, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 8);
+    }
+
+    store = open();
+
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusHours(1));
+    assertEquals(1, rows.size());
+    assertEquals(START, rows.get(0).getTimestamp());
+  }
+
+  @Test
+  void init_UncommittedGeneration_IsDiscarded() throws IOException {
+    Long deviceId = newDevice();
+    store.append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store.shutdown();
+    Path unfinished = directory.resolve("device-" + deviceId).resolve("gen-1");
+    Files.createDirectories(unfinished);
+    Files.write(unfinished.resolve("header"), new byte[0]);
+
+    store = open();
+
+    assertFalse(Files.exists(unfinished));
+    assertEquals(1, scan(deviceId, START, START.plusHours(1)).size());
+  }
+
+  private ColumnarTimeSeriesStore open() {
+    ColumnarTimeSeriesStore opened = new ColumnarTimeSeriesStore(directory.toString());
+    opened.init();
+    return opened;
+  }
+}
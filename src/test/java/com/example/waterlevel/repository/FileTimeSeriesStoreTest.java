@@ -0,0 +1,112 @@
+package com.example.waterlevel.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileTimeSeriesStoreTest extends TimeSeriesStoreContractTest {
+
+  @TempDir Path directory;
+
+  private FileTimeSeriesStore store;
+  private long nextDeviceId;
+
+  @BeforeEach
+  void setUp() {
+    store = open();
+  }
+
+  @AfterEach
+  void tearDown() {
+    store.shutdown();
+  }
+
+  @Override
+  protected TimeSeriesStore store() {
+    return store;
+  }
+
+  @Override
+  protected Long newDevice() {
+    return ++nextDeviceId;
+  }
+
+  @Test
+  void init_ExistingLogs_ContinuesIdsAfterReopen() {
+    Long deviceId = newDevice();
+    WaterLevelDataResponse before = store.append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store.shutdown();
+
+    store = open();
+    WaterLevelDataResponse after = store.append(reading(newDevice(), START, 20.0, PumpStatus.OFF));
+
+    assertTrue(after.getId() > before.getId());
+    assertEquals(Optional.of(before.getId()), store.findLatestId(deviceId));
+  }
+
+  @Test
+  void init_ExistingLog_ServesRangeAndLatestAfterReopen() {
+    Long deviceId = newDevice();
+    List<WaterLevelDataResponse> readings = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      readings.add(reading(deviceId, START.plusMinutes(i), i % 100, PumpStatus.OFF));
+    }
+    store.appendAll(readings);
+    store.shutdown();
+
+    store = open();
+
+    List<WaterLevelDataResponse> rows =
+        scan(deviceId, START.plusMinutes(5000), START.plusMinutes(5003));
+    assertEquals(3, rows.size());
+    assertEquals(START.plusMinutes(5000), rows.get(0).getTimestamp());
+    assertEquals(START.plusMinutes(9999), store.findLatest(deviceId).get().getTimestamp());
+
+    store.append(reading(deviceId, START.plusMinutes(5001), 50.0, PumpStatus.ON));
+
+    rows = scan(deviceId, START.plusMinutes(5000), START.plusMinutes(5003));
+    assertEquals(4, rows.size());
+    assertEquals(PumpStatus.ON, rows.get(2).getPumpStatus());
+    assertEquals(START.plusMinutes(9999), store.findLatest(deviceId).get().getTimestamp());
+  }
+
+  @Test
+  void init_TornRecord_TruncatesToLastCompleteRecord() throws IOException {
+    Long deviceId = newDevice();
+    store.append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store.shutdown();
+    Files.write(
+        directory.resolve("device-" + deviceId + ".log"),
+        new byte[] {1, 2, 3},
+        StandardOpenOption.APPEND);
+
+    store = open();
+    store.append(reading(deviceId, START.plusMinutes(1), 20.0, PumpStatus.ON));
+
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusMinutes(2));
+    assertEquals(2, rows.size());
+    assertEquals(PumpStatus.ON, rows.get(1).getPumpStatus());
+    assertEquals(
+        2L * FileTimeSeriesStore.RECORD_SIZE,
+        Files.size(directory.resolve("device-" + deviceId + ".log")));
+  }
+
+  private FileTimeSeriesStore open() {
+    FileTimeSeriesStore opened = new FileTimeSeriesStore(directory.toString());
+    opened.init();
+    return opened;
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.waterlevel.repository;
+
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.Role;
+import com.example.waterlevel.entity.User;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class JpaTimeSeriesStoreTest extends TimeSeriesStoreContractTest {
+
+  @Autowired private WaterLevelDataRepository waterLevelDataRepository;
+  @Autowired private WaterLevelDataExportRepository waterLevelDataExportRepository;
+  @Autowired private DeviceRepository deviceRepository;
+  @Autowired private WaterLevelDataBulkLoader bulkLoader;
+  @Autowired private UserRepository userRepository;
+
+  private JpaTimeSeriesStore store;
+  private User admin;
+
+  @BeforeEach
+  void setUp() {
+    store =
+        new JpaTimeSeriesStore(
+            waterLevelDataRepository, waterLevelDataExportRepository, deviceRepository, bulkLoader);
+    admin = new User();
+    admin.setUsername("storeadmin");
+    admin.setEmail("storeadmin@example.com");
+    admin.setPassword("encoded");
+    admin.setRole(Role.ADMIN);
+    admin = userRepository.save(admin);
+  }
+
+  @Override
+  protected TimeSeriesStore store() {
+    return store;
+  }
+
+  @Override
+  protected Long newDevice() {
+    Device device = new Device();
+    device.setName("Store Device");
+    device.setDeviceKey(UUID.randomUUID());
+    device.setMinThreshold(BigDecimal.valueOf(10));
+    device.setMaxThreshold(BigDecimal.valueOf(90));
+    device.setAdmin(admin);
+    return deviceRepository.save(device).getId();
+  }
+}
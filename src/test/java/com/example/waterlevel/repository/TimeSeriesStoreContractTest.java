@@ -0,0 +1,383 @@
+package com.example.waterlevel.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Behaviour every {@link TimeSeriesStore} engine must share, plus a coarse append and scan
+ * benchmark. Subclasses supply the engine and create devices it can store readings for.
+ */
+abstract class TimeSeriesStoreContractTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TimeSeriesStoreContractTest.class);
+
+  protected static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  private static final int BENCHMARK_ROWS = 10000;
+  private static final int BENCHMARK_BATCH = 500;
+
+  /** Returns the store under test. */
+  protected abstract TimeSeriesStore store();
+
+  /** Creates a device that readings can be appended for and returns its ID. */
+  protected abstract Long newDevice();
+
+  @Test
+  void append_AssignsIdAndKeepsValues() {
+    Long deviceId = newDevice();
+
+    WaterLevelDataResponse first = store().append(reading(deviceId, START, 42.5, PumpStatus.ON));
+    WaterLevelDataResponse second = store().append(reading(deviceId, START, 43.0, PumpStatus.OFF));
+
+    assertNotNull(first.getId());
+    assertNotEquals(first.getId(), second.getId());
+    assertEquals(deviceId, first.getDeviceId());
+    assertEquals(0, BigDecimal.valueOf(42.5).compareTo(first.getWaterLevel()));
+    assertEquals(PumpStatus.ON, first.getPumpStatus());
+    assertEquals(START, first.getTimestamp());
+  }
+
+  @Test
+  void appendAll_ReturnsRowsInInputOrder() {
+    Long deviceId = newDevice();
+    Long otherDeviceId = newDevice();
+
+    List<WaterLevelDataResponse> stored =
+        store()
+            .appendAll(
+                List.of(
+                    reading(deviceId, START.plusMinutes(2), 10.0, PumpStatus.OFF),
+                    reading(otherDeviceId, START.plusMinutes(1), 20.0, PumpStatus.ON),
+                    reading(deviceId, START, 30.0, PumpStatus.UNKNOWN)));
+
+    assertEquals(3, stored.size());
+    assertEquals(deviceId, stored.get(0).getDeviceId());
+    assertEquals(otherDeviceId, stored.get(1).getDeviceId());
+    assertEquals(0, BigDecimal.valueOf(30.0).compareTo(stored.get(2).getWaterLevel()));
+    assertEquals(3, stored.stream().map(WaterLevelDataResponse::getId).distinct().count());
+  }
+
+  @Test
+  void scan_ReturnsRangeOldestFirstWithExclusiveEnd() {
+    Long deviceId = newDevice();
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START.plusMinutes(20), 30.0, PumpStatus.OFF),
+                reading(deviceId, START.minusMinutes(1), 5.0, PumpStatus.OFF),
+                reading(deviceId, START, 10.0, PumpStatus.ON),
+                reading(deviceId, START.plusMinutes(10), 20.0, PumpStatus.OFF),
+                reading(deviceId, START.plusMinutes(30), 40.0, PumpStatus.OFF)));
+
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusMinutes(30));
+
+    assertEquals(3, rows.size());
+    assertEquals(START, rows.get(0).getTimestamp());
+    assertEquals(START.plusMinutes(10), rows.get(1).getTimestamp());
+    assertEquals(START.plusMinutes(20), rows.get(2).getTimestamp());
+  }
+
+  @Test
+  void scan_EqualTimestamps_OrderedById() {
+    Long deviceId = newDevice();
+    WaterLevelDataResponse first = store().append(reading(deviceId, START, 1.0, PumpStatus.OFF));
+    WaterLevelDataResponse second = store().append(reading(deviceId, START, 2.0, PumpStatus.OFF));
+
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusMinutes(1));
+
+    assertEquals(2, rows.size());
+    assertEquals(Math.min(first.getId(), second.getId()), rows.get(0).getId());
+  }
+
+  @Test
+  void scan_OnlyReturnsReadingsOfTheDevice() {
+    Long deviceId = newDevice();
+    Long otherDeviceId = newDevice();
+    store().append(reading(deviceId, START, 10.0, PumpStatus.OFF));
+    store().append(reading(otherDeviceId, START, 20.0, PumpStatus.OFF));
+
+    List<WaterLevelDataResponse> rows = scan(deviceId, START, START.plusHours(1));
+
+    assertEquals(1, rows.size());
+    assertEquals(deviceId, rows.get(0).getDeviceId());
+  }
+
+  @Test
+  void scanAll_ReturnsReadingsOfAllDevicesInRange() {
+    Long deviceId = newDevice();
+    Long otherDeviceId = newDevice();
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START, 10.0, PumpStatus.OFF),
+                reading(otherDeviceId, START.plusMinutes(5), 20.0, PumpStatus.OFF),
+                reading(otherDeviceId, START.plusHours(1), 30.0, PumpStatus.OFF)));
+
+    List<WaterLevelDataResponse> rows;
+    try (Stream<WaterLevelDataResponse> stream = store().scanAll(START, START.plusHours(1))) {
+      rows = stream.toList();
+    }
+
+    assertEquals(2, rows.size());
+    assertTrue(rows.stream().anyMatch(row -> row.getDeviceId().equals(deviceId)));
+    assertTrue(rows.stream().anyMatch(row -> row.getDeviceId().equals(otherDeviceId)));
+  }
+
+  @Test
+  void findLatest_ReturnsNewestByTimestamp() {
+    Long deviceId = newDevice();
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START.plusMinutes(10), 20.0, PumpStatus.ON),
+                reading(deviceId, START, 10.0, PumpStatus.OFF)));
+
+    Optional<WaterLevelDataResponse> latest = store().findLatest(deviceId);
+
+    assertTrue(latest.isPresent());
+    assertEquals(START.plusMinutes(10), latest.get().getTimestamp());
+    assertEquals(PumpStatus.ON, latest.get().getPumpStatus());
+  }
+
+  @Test
+  void findLatest_NoReadings_ReturnsEmpty() {
+    assertTrue(store().findLatest(newDevice()).isEmpty());
+  }
+
+  @Test
+  void findPage_ReturnsNewestFirstWithTotal() {
+    Long deviceId = newDevice();
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START.plusMinutes(1), 20.0, PumpStatus.OFF),
+                reading(deviceId, START.plusMinutes(2), 30.0, PumpStatus.OFF),
+                reading(deviceId, START, 10.0, PumpStatus.OFF)));
+
+    Page<WaterLevelDataResponse> first = store().findPage(deviceId, PageRequest.of(0, 2));
+    Page<WaterLevelDataResponse> second = store().findPage(deviceId, PageRequest.of(1, 2));
+
+    assertEquals(3, first.getTotalElements());
+    assertEquals(START.plusMinutes(2), first.getContent().get(0).getTimestamp());
+    assertEquals(START.plusMinutes(1), first.getContent().get(1).getTimestamp());
+    assertEquals(1, second.getContent().size());
+    assertEquals(START, second.getContent().get(0).getTimestamp());
+  }
+
+  @Test
+  void findSlice_WalksNewestFirstAcrossEqualTimestamps() {
+    Long deviceId = newDevice();
+    WaterLevelDataResponse oldest = store().append(reading(deviceId, START, 1.0, PumpStatus.OFF));
+    WaterLevelDataResponse first =
+        store().append(reading(deviceId, START.plusMinutes(1), 2.0, PumpStatus.OFF));
+    WaterLevelDataResponse second =
+        store().append(reading(deviceId, START.plusMinutes(1), 3.0, PumpStatus.OFF));
+
+    Slice<WaterLevelDataResponse> newest = store().findSlice(deviceId, null, null, 1);
+    WaterLevelDataResponse last = newest.getContent().get(0);
+    Slice<WaterLevelDataResponse> rest =
+        store().findSlice(deviceId, last.getTimestamp(), last.getId(), 5);
+
+    assertTrue(newest.hasNext());
+    assertEquals(Math.max(first.getId(), second.getId()), last.getId());
+    assertEquals(2, rest.getContent().size());
+    assertEquals(Math.min(first.getId(), second.getId()), rest.getContent().get(0).getId());
+    assertEquals(oldest.getId(), rest.getContent().get(1).getId());
+    assertFalse(rest.hasNext());
+  }
+
+  @Test
+  void findBatchAfter_WalksOldestFirstAcrossEqualTimestamps() {
+    Long deviceId = newDevice();
+    WaterLevelDataResponse oldest = store().append(reading(deviceId, START, 1.0, PumpStatus.OFF));
+    WaterLevelDataResponse first =
+        store().append(reading(deviceId, START.plusMinutes(1), 2.0, PumpStatus.OFF));
+    WaterLevelDataResponse second =
+        store().append(reading(deviceId, START.plusMinutes(1), 3.0, PumpStatus.OFF));
+    store().append(reading(deviceId, START.plusMinutes(2), 4.0, PumpStatus.OFF));
+    LocalDateTime to = START.plusMinutes(2);
+
+    List<WaterLevelDataResponse> batch = store().findBatchAfter(deviceId, START, null, to, 2);
+    WaterLevelDataResponse last = batch.get(1);
+    List<WaterLevelDataResponse> rest =
+        store().findBatchAfter(deviceId, last.getTimestamp(), last.getId(), to, 2);
+
+    assertEquals(oldest.getId(), batch.get(0).getId());
+    assertEquals(Math.min(first.getId(), second.getId()), last.getId());
+    assertEquals(1, rest.size());
+    assertEquals(Math.max(first.getId(), second.getId()), rest.get(0).getId());
+  }
+
+  @Test
+  void findLatestId_ReturnsHighestIdOfTheDevice() {
+    Long deviceId = newDevice();
+    store().append(reading(deviceId, START.plusMinutes(5), 10.0, PumpStatus.OFF));
+    WaterLevelDataResponse newest = store().append(reading(deviceId, START, 20.0, PumpStatus.OFF));
+
+    assertEquals(Optional.of(newest.getId()), store().findLatestId(deviceId));
+    assertTrue(store().findLatestId(newDevice()).isEmpty());
+  }
+
+  @Test
+  void findMinTimestampAndLatestPerDevice_CoverAllDevices() {
+    Long deviceId = newDevice();
+    Long otherDeviceId = newDevice();
+    LocalDateTime oldest = START.minusYears(30);
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START, 10.0, PumpStatus.OFF),
+                reading(deviceId, START.plusMinutes(1), 11.0, PumpStatus.ON),
+                reading(otherDeviceId, oldest, 20.0, PumpStatus.OFF)));
+
+    List<WaterLevelDataResponse> latest = store().findLatestPerDevice();
+
+    assertEquals(Optional.of(oldest), store().findMinTimestamp());
+    assertTrue(
+        latest.stream()
+            .anyMatch(
+                row ->
+                    row.getDeviceId().equals(deviceId)
+                        && row.getTimestamp().equals(START.plusMinutes(1))));
+    assertTrue(
+        latest.stream()
+            .anyMatch(
+                row ->
+                    row.getDeviceId().equals(otherDeviceId) && row.getTimestamp().equals(oldest)));
+  }
+
+  @Test
+  void aggregateAndForEachInRange_CoverTheRange() {
+    Long deviceId = newDevice();
+    store()
+        .appendAll(
+            List.of(
+                reading(deviceId, START, 10.0, PumpStatus.OFF),
+                reading(deviceId, START.plusMinutes(1), 30.0, PumpStatus.OFF),
+                reading(deviceId, START.plusHours(1), 50.0, PumpStatus.OFF)));
+
+    List<LevelAggregate> aggregates =
+        store().aggregate(List.of(deviceId, newDevice()), START, START.plusHours(1));
+    List<WaterLevelDataResponse> exported = new ArrayList<>();
+    long rows =
+        store()
+            .forEachInRange(deviceId, START, START.plusHours(1), Integer.MAX_VALUE, exported::add);
+    long limited = store().forEachInRange(deviceId, START, START.plusHours(1), 1, reading -> {});
+
+    assertEquals(1, aggregates.size());
+    assertEquals(2L, aggregates.get(0).getCount());
+    assertEquals(0, BigDecimal.valueOf(10.0).compareTo(aggregates.get(0).getMin()));
+    assertEquals(0, BigDecimal.valueOf(30.0).compareTo(aggregates.get(0).getMax()));
+    assertEquals(20.0, aggregates.get(0).getAverage(), 0.001);
+    assertEquals(2, rows);
+    assertEquals(1, limited);
+    assertEquals(START, exported.get(0).getTimestamp());
+  }
+
+  @Test
+  void bulkLoad_StoresAllReadings() {
+    Long deviceId = newDevice();
+    List<WaterLevelDataResponse> readings = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      readings.add(reading(deviceId, START.plusSeconds(i), i % 100, PumpStatus.OFF));
+    }
+
+    long loaded = store().bulkLoad(readings);
+
+    assertEquals(1200, loaded);
+    List<WaterLevelDataResponse> stored = scan(deviceId, START, START.plusHours(1));
+    assertEquals(1200, stored.size());
+    assertEquals(START.plusSeconds(1199), stored.get(1199).getTimestamp());
+    assertEquals(0, BigDecimal.valueOf(99).compareTo(stored.get(99).getWaterLevel()));
+  }
+
+  @Test
+  void deleteBatchByDeviceId_RepeatedUntilEmpty_RemovesOnlyThatDevice() {
+    Long deviceId = newDevice();
+    Long otherDeviceId = newDevice();
+    for (int i = 0; i < 5; i++) {
+      store().append(reading(deviceId, START.plusMinutes(i), 10.0, PumpStatus.OFF));
+    }
+    store().append(reading(otherDeviceId, START, 20.0, PumpStatus.OFF));
+
+    int deleted = 0;
+    int batch;
+    do {
+      batch = store().deleteBatchByDeviceId(deviceId, 2);
+      deleted += batch;
+    } while (batch > 0);
+
+    assertEquals(5, deleted);
+    assertTrue(scan(deviceId, START, START.plusHours(1)).isEmpty());
+    assertTrue(store().findLatest(deviceId).isEmpty());
+    assertEquals(1, scan(otherDeviceId, START, START.plusHours(1)).size());
+  }
+
+  @Test
+  void appendAllAndScan_Benchmark_LogsThroughput() {
+    Long deviceId = newDevice();
+    List<WaterLevelDataResponse> readings = new ArrayList<>(BENCHMARK_ROWS);
+    for (int i = 0; i < BENCHMARK_ROWS; i++) {
+      readings.add(reading(deviceId, START.plusSeconds(i * 10L), i % 100, PumpStatus.OFF));
+    }
+
+    long appendStart = System.nanoTime();
+    for (int start = 0; start < BENCHMARK_ROWS; start += BENCHMARK_BATCH) {
+      store().appendAll(readings.subList(start, start + BENCHMARK_BATCH));
+    }
+    long appendNanos = System.nanoTime() - appendStart;
+
+    long scanStart = System.nanoTime();
+    long scanned;
+    try (Stream<WaterLevelDataResponse> rows =
+        store().scan(deviceId, START, START.plusSeconds(BENCHMARK_ROWS * 10L))) {
+      scanned = rows.count();
+    }
+    long scanNanos = System.nanoTime() - scanStart;
+
+    assertEquals(BENCHMARK_ROWS, scanned);
+    LOGGER.info(
+        "{}: appended {} rows/s, scanned {} rows/s",
+        store().getClass().getSimpleName(),
+        rowsPerSecond(appendNanos),
+        rowsPerSecond(scanNanos));
+  }
+
+  protected static WaterLevelDataResponse reading(
+      final Long deviceId,
+      final LocalDateTime timestamp,
+      final double level,
+      final PumpStatus status) {
+    return new WaterLevelDataResponse(null, deviceId, BigDecimal.valueOf(level), status, timestamp);
+  }
+
+  protected List<WaterLevelDataResponse> scan(
+      final Long deviceId, final LocalDateTime from, final LocalDateTime to) {
+    try (Stream<WaterLevelDataResponse> rows = store().scan(deviceId, from, to)) {
+      return rows.toList();
+    }
+  }
+
+  private static long rowsPerSecond(final long nanos) {
+    return BENCHMARK_ROWS * 1_000_000_000L / Math.max(1, nanos);
+  }
+}
@@ -0,0 +1,229 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.constants.RollupConstants;
+import com.example.waterlevel.dto.LevelAggregate;
+import com.example.waterlevel.dto.PumpRuntimeResponse;
+import com.example.waterlevel.entity.DailySummary;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DirtyBucket;
+import com.example.waterlevel.entity.JobWatermark;
+import com.example.waterlevel.repository.DailySummaryRepository;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.DirtyBucketRepository;
+import com.example.waterlevel.repository.JobWatermarkRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.DailySummaryServiceImpl;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DailySummaryServiceTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 12, 1);
+
+  @Mock private DailySummaryRepository dailySummaryRepository;
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private JobWatermarkRepository jobWatermarkRepository;
+  @Mock private DirtyBucketRepository dirtyBucketRepository;
+  @Mock private PumpRunService pumpRunService;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private DailySummaryServiceImpl dailySummaryService;
+
+  @BeforeEach
+  void setUp() {
+    dailySummaryService =
+        new DailySummaryServiceImpl(
+            dailySummaryRepository,
+            timeSeriesStore,
+            deviceRepository,
+            jobWatermarkRepository,
+            dirtyBucketRepository,
+            pumpRunService,
+            transactionTemplate);
+    dailySummaryService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    dailySummaryService.shutdown();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void summarizeDay_StoresLevelsAndPumpRuntimePerDevice() {
+    runTransactionsInline();
+    when(deviceRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+    when(timeSeriesStore.aggregate(
+            List.of(1L, 2L), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+        .thenReturn(
+            List.of(
+                new LevelAggregate(
+                    1L, 1440L, BigDecimal.valueOf(12.5), BigDecimal.valueOf(80.0), 45.25)));
+    when(pumpRunService.getDailyRuntimes(List.of(1L, 2L), DAY))
+        .thenReturn(
+            Map.of(
+                1L, new PumpRuntimeResponse(DAY, 3600, 2, 3600 / 86400.0),
+                2L, new PumpRuntimeResponse(DAY, 0, 0, 0.0)));
+
+    dailySummaryService.summarizeDay(DAY);
+
+    ArgumentCaptor<List<DailySummary>> summaries = ArgumentCaptor.forClass(List.class);
+    verify(dailySummaryRepository).deleteByDateAndDeviceIds(DAY, List.of(1L, 2L));
+    verify(dailySummaryRepository).saveAll(summaries.capture());
+    DailySummary withReadings = summaries.getValue().get(0);
+    assertEquals(1440, withReadings.getReadingCount());
+    assertEquals(12.5, withReadings.getMinLevel());
+    assertEquals(45.25, withReadings.getAvgLevel());
+    assertEquals(3600, withReadings.getPumpRuntimeSeconds());
+    assertEquals(2, withReadings.getPumpCycles());
+    DailySummary withoutReadings = summaries.getValue().get(1);
+    assertEquals(0, withoutReadings.getReadingCount());
+    assertNull(withoutReadings.getMaxLevel());
+  }
+
+  @Test
+  void summarizeClosedDays_CatchesUpFromWatermark() {
+    runTransactionsInline();
+    LocalDate today = LocalDate.now();
+    when(jobWatermarkRepository.findById(RollupConstants.DAILY_SUMMARY_JOB))
+        .thenReturn(
+            Optional.of(
+                new JobWatermark(
+                    RollupConstants.DAILY_SUMMARY_JOB, today.minusDays(2).atStartOfDay())));
+    when(deviceRepository.findAllIds()).thenReturn(List.of(1L));
+    when(pumpRunService.getDailyRuntimes(eq(List.of(1L)), any()))
+        .thenReturn(Map.of(1L, new PumpRuntimeResponse(DAY, 0, 0, 0.0)));
+
+    dailySummaryService.summarizeClosedDays();
+
+    verify(dailySummaryRepository).deleteByDateAndDeviceIds(today.minusDays(2), List.of(1L));
+    verify(dailySummaryRepository).deleteByDateAndDeviceIds(today.minusDays(1), List.of(1L));
+    ArgumentCaptor<JobWatermark> watermarks = ArgumentCaptor.forClass(JobWatermark.class);
+    verify(jobWatermarkRepository, times(2)).save(watermarks.capture());
+    assertEquals(today.atStartOfDay(), watermarks.getValue().getWatermark());
+    assertTrue(dailySummaryService.isSummarized(today.minusDays(1)));
+    assertFalse(dailySummaryService.isSummarized(today));
+  }
+
+  @Test
+  void summarizeClosedDays_ChunkFails_KeepsWatermark() {
+    when(jobWatermarkRepository.findById(RollupConstants.DAILY_SUMMARY_JOB))
+        .thenReturn(
+            Optional.of(
+                new JobWatermark(
+                    RollupConstants.DAILY_SUMMARY_JOB,
+                    LocalDate.now().minusDays(1).atStartOfDay())));
+    when(deviceRepository.findAllIds()).thenReturn(List.of(1L));
+    doAnswer(
+            invocation -> {
+              throw new IllegalStateException("connection lost");
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+
+    assertThrows(IllegalStateException.class, () -> dailySummaryService.summarizeClosedDays());
+    verify(jobWatermarkRepository, never()).save(any());
+  }
+
+  @Test
+  void summarizeDirtyDays_LateReading_RecomputesOnlyItsDevice() {
+    runTransactionsInline();
+    when(jobWatermarkRepository.findById(RollupConstants.DAILY_SUMMARY_JOB))
+        .thenReturn(
+            Optional.of(
+                new JobWatermark(
+                    RollupConstants.DAILY_SUMMARY_JOB, DAY.plusDays(1).atStartOfDay())));
+    dailySummaryService.loadWatermark();
+    when(pumpRunService.getDailyRuntimes(List.of(2L), DAY))
+        .thenReturn(Map.of(2L, new PumpRuntimeResponse(DAY, 0, 0, 0.0)));
+
+    dailySummaryService.recordReading(2L, DAY.atTime(9, 0));
+    dailySummaryService.recordReading(2L, DAY.atTime(10, 0));
+    dailySummaryService.recordReading(2L, DAY.plusDays(1).atTime(10, 0));
+    assertFalse(dailySummaryService.isSummarized(2L, DAY));
+    assertTrue(dailySummaryService.isSummarized(1L, DAY));
+    dailySummaryService.summarizeDirtyDays();
+    dailySummaryService.summarizeDirtyDays();
+    assertTrue(dailySummaryService.isSummarized(2L, DAY));
+
+    verify(dirtyBucketRepository)
+        .insertMark(RollupConstants.DAILY_SUMMARY_JOB, 2L, DAY.atStartOfDay());
+    verify(dirtyBucketRepository)
+        .deleteMarks(RollupConstants.DAILY_SUMMARY_JOB, List.of(2L), DAY.atStartOfDay());
+    verify(dailySummaryRepository).deleteByDateAndDeviceIds(DAY, List.of(2L));
+    verify(deviceRepository, never()).findAllIds();
+  }
+
+  @Test
+  void loadWatermark_RestoresStoredDirtyDays() {
+    runTransactionsInline();
+    Device device = new Device();
+    device.setId(3L);
+    when(dirtyBucketRepository.findByJobName(RollupConstants.DAILY_SUMMARY_JOB))
+        .thenReturn(
+            List.of(
+                new DirtyBucket(
+                    7L, RollupConstants.DAILY_SUMMARY_JOB, device, DAY.atStartOfDay())));
+    when(pumpRunService.getDailyRuntimes(List.of(3L), DAY))
+        .thenReturn(Map.of(3L, new PumpRuntimeResponse(DAY, 0, 0, 0.0)));
+
+    dailySummaryService.loadWatermark();
+    dailySummaryService.summarizeDirtyDays();
+
+    verify(dailySummaryRepository).deleteByDateAndDeviceIds(DAY, List.of(3L));
+  }
+
+  @Test
+  void getDailySummaries_InvertedRange_ThrowsException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> dailySummaryService.getDailySummaries(1L, DAY, DAY.minusDays(1)));
+  }
+
+  @Test
+  void getDailySummaries_DeviceNotFound_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(99L)).thenReturn(false);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> dailySummaryService.getDailySummaries(99L, DAY, DAY.plusDays(6)));
+  }
+
+  private void runTransactionsInline() {
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+  }
+}
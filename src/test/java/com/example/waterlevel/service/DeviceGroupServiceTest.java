@@ -0,0 +1,150 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.DeviceGroupRequest;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.GroupType;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.DeviceGroupRepository;
+import com.example.waterlevel.repository.UserRepository;
+import com.example.waterlevel.service.impl.DeviceGroupServiceImpl;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceGroupServiceTest {
+
+  @Mock private DeviceGroupRepository deviceGroupRepository;
+  @Mock private UserRepository userRepository;
+  @Mock private DeviceService deviceService;
+  @Mock private GroupMetricsService groupMetricsService;
+
+  @InjectMocks private DeviceGroupServiceImpl deviceGroupService;
+
+  private User admin;
+  private DeviceGroup region;
+  private DeviceGroup site;
+
+  @BeforeEach
+  void setUp() {
+    admin = new User();
+    admin.setId(1L);
+    admin.setUsername("admin");
+
+    region = new DeviceGroup();
+    region.setId(1L);
+    region.setName("North");
+    region.setType(GroupType.REGION);
+    region.setAdmin(admin);
+
+    site = new DeviceGroup();
+    site.setId(2L);
+    site.setName("Reservoir");
+    site.setType(GroupType.SITE);
+    site.setParent(region);
+    site.setAdmin(admin);
+  }
+
+  @Test
+  void createGroup_InRegion_RegistersGroup() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
+    when(deviceGroupRepository.findById(1L)).thenReturn(Optional.of(region));
+    when(deviceGroupRepository.save(any(DeviceGroup.class))).thenReturn(site);
+
+    DeviceGroup result =
+        deviceGroupService.createGroup(new DeviceGroupRequest("Reservoir", GroupType.SITE, 1L), 1L);
+
+    assertSame(site, result);
+    verify(groupMetricsService).registerGroup(2L, 1L);
+  }
+
+  @Test
+  void createGroup_ParentIsSite_ThrowsException() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
+    when(deviceGroupRepository.findById(2L)).thenReturn(Optional.of(site));
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                deviceGroupService.createGroup(
+                    new DeviceGroupRequest("Pump house", GroupType.SITE, 2L), 1L));
+
+    assertEquals("Parent group must be a region", e.getMessage());
+    verify(deviceGroupRepository, never()).save(any());
+  }
+
+  @Test
+  void validateGroupOwnership_OtherAdmin_ThrowsException() {
+    when(deviceGroupRepository.findById(1L)).thenReturn(Optional.of(region));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> deviceGroupService.validateGroupOwnership(1L, 2L));
+  }
+
+  @Test
+  void validateGroupOwnership_NotFound_ThrowsException() {
+    when(deviceGroupRepository.findById(9L)).thenReturn(Optional.empty());
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> deviceGroupService.validateGroupOwnership(9L, 1L));
+
+    assertEquals("Device group not found", e.getMessage());
+  }
+
+  @Test
+  void assignDevice_SetsGroupAndRefreshesMetrics() {
+    Device device = new Device();
+    device.setId(10L);
+    when(deviceGroupRepository.findById(2L)).thenReturn(Optional.of(site));
+    when(deviceService.validateDeviceOwnership(10L, 1L)).thenReturn(device);
+
+    deviceGroupService.assignDevice(2L, 10L, 1L);
+
+    assertSame(site, device.getGroup());
+    verify(groupMetricsService).refreshDevice(device);
+  }
+
+  @Test
+  void unassignDevice_ClearsGroupAndRefreshesMetrics() {
+    Device device = new Device();
+    device.setId(10L);
+    device.setGroup(site);
+    when(deviceGroupRepository.findById(2L)).thenReturn(Optional.of(site));
+    when(deviceService.validateDeviceOwnership(10L, 1L)).thenReturn(device);
+
+    deviceGroupService.unassignDevice(2L, 10L, 1L);
+
+    assertNull(device.getGroup());
+    verify(groupMetricsService).refreshDevice(device);
+  }
+
+  @Test
+  void unassignDevice_DeviceInOtherGroup_ThrowsException() {
+    Device device = new Device();
+    device.setId(10L);
+    device.setGroup(site);
+    when(deviceGroupRepository.findById(1L)).thenReturn(Optional.of(region));
+    when(deviceService.validateDeviceOwnership(10L, 1L)).thenReturn(device);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> deviceGroupService.unassignDevice(1L, 10L, 1L));
+    verify(groupMetricsService, never()).refreshDevice(any());
+  }
+}
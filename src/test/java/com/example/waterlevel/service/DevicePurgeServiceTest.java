@@ -0,0 +1,127 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.DevicePurgeResponse;
+import com.example.waterlevel.dto.PurgeState;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.DevicePurgeServiceImpl;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class DevicePurgeServiceTest {
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private PumpRunService pumpRunService;
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DailySummaryService dailySummaryService;
+  @Mock private ResourceVersionService resourceVersionService;
+  @Mock private LatestReadingService latestReadingService;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private DevicePurgeServiceImpl devicePurgeService;
+
+  @BeforeEach
+  void setUp() {
+    devicePurgeService =
+        new DevicePurgeServiceImpl(
+            timeSeriesStore,
+            deviceRepository,
+            pumpRunService,
+            hourlyRollupService,
+            dailySummaryService,
+            resourceVersionService,
+            latestReadingService,
+            transactionTemplate,
+            2);
+    devicePurgeService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    devicePurgeService.shutdown();
+  }
+
+  @Test
+  void purge_DeletesReadingsInBatchesThenDevice() {
+    runTransactionsInline();
+    when(timeSeriesStore.deleteBatchByDeviceId(1L, 2)).thenReturn(2, 1, 0);
+
+    devicePurgeService.purge(1L);
+
+    InOrder order = inOrder(timeSeriesStore, pumpRunService, deviceRepository);
+    order.verify(timeSeriesStore, times(3)).deleteBatchByDeviceId(1L, 2);
+    order.verify(pumpRunService).deleteByDeviceId(1L);
+    order.verify(deviceRepository).deleteById(1L);
+    verify(hourlyRollupService).deleteByDeviceId(1L);
+    verify(dailySummaryService).deleteByDeviceId(1L);
+    DevicePurgeResponse progress = devicePurgeService.getProgress(1L).orElseThrow();
+    assertEquals(PurgeState.COMPLETED, progress.getState());
+    assertEquals(3, progress.getDeletedReadings());
+    assertNotNull(progress.getFinishedAt());
+  }
+
+  @Test
+  void purge_StoreFails_RecordsFailureAndKeepsDevice() {
+    runTransactionsInline();
+    when(timeSeriesStore.deleteBatchByDeviceId(1L, 2))
+        .thenReturn(2)
+        .thenThrow(new IllegalStateException("connection lost"));
+
+    devicePurgeService.purge(1L);
+
+    DevicePurgeResponse progress = devicePurgeService.getProgress(1L).orElseThrow();
+    assertEquals(PurgeState.FAILED, progress.getState());
+    assertEquals(2, progress.getDeletedReadings());
+    verify(deviceRepository, never()).deleteById(any());
+  }
+
+  @Test
+  void resumePurges_PurgesDevicesStillMarkedDeleted() {
+    runTransactionsInline();
+    when(deviceRepository.findDeletedIds()).thenReturn(List.of(7L));
+    when(timeSeriesStore.deleteBatchByDeviceId(7L, 2)).thenReturn(0);
+
+    devicePurgeService.resumePurges();
+
+    verify(deviceRepository, timeout(5000)).deleteById(7L);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void runTransactionsInline() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    lenient()
+        .doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.DeviceSeriesResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.DeviceSeriesServiceImpl;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceSeriesServiceTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 10, 0, 0);
+  private static final LocalDateTime TO = FROM.plusMinutes(15);
+  private static final Duration INTERVAL = Duration.ofMinutes(5);
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private DeviceSeriesServiceImpl deviceSeriesService;
+
+  @BeforeEach
+  void setUp() {
+    deviceSeriesService =
+        new DeviceSeriesServiceImpl(timeSeriesStore, deviceRepository, transactionManager);
+    deviceSeriesService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    deviceSeriesService.shutdown();
+  }
+
+  @Test
+  void streamAlignedSeries_AveragesReadingsOnSharedBuckets() {
+    when(timeSeriesStore.scan(1L, FROM, TO))
+        .thenReturn(
+            Stream.of(
+                reading(1L, FROM.plusMinutes(1), 40.0),
+                reading(1L, FROM.plusMinutes(4), 60.0),
+                reading(1L, FROM.plusMinutes(12), 30.0)));
+    when(timeSeriesStore.scan(2L, FROM, TO))
+        .thenReturn(Stream.of(reading(2L, FROM.plusMinutes(6), 70.0)));
+
+    List<DeviceSeriesResponse> series = new ArrayList<>();
+    deviceSeriesService.streamAlignedSeries(List.of(1L, 2L), FROM, TO, INTERVAL, series::add);
+
+    series.sort(Comparator.comparing(DeviceSeriesResponse::getDeviceId));
+    assertEquals(2, series.size());
+    DeviceSeriesResponse first = series.get(0);
+    assertEquals(3, first.getSourceRows());
+    assertEquals(2, first.getPoints().size());
+    assertEquals(FROM, first.getPoints().get(0).getTimestamp());
+    assertEquals(50.0, first.getPoints().get(0).getWaterLevel());
+    assertEquals(FROM.plusMinutes(10), first.getPoints().get(1).getTimestamp());
+    DeviceSeriesResponse second = series.get(1);
+    assertEquals(1, second.getPoints().size());
+    assertEquals(FROM.plusMinutes(5), second.getPoints().get(0).getTimestamp());
+  }
+
+  @Test
+  void streamAlignedSeries_ScanFails_ThrowsException() {
+    when(timeSeriesStore.scan(1L, FROM, TO))
+        .thenThrow(new IllegalStateException("connection lost"));
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            deviceSeriesService.streamAlignedSeries(
+                List.of(1L), FROM, TO, INTERVAL, series -> {}));
+  }
+
+  @Test
+  void checkSeriesQuery_ValidQuery_Passes() {
+    when(deviceRepository.countByIdInAndDeletedFalse(List.of(1L, 2L))).thenReturn(2L);
+
+    deviceSeriesService.checkSeriesQuery(List.of(1L, 2L), FROM, TO, INTERVAL, 6);
+  }
+
+  @Test
+  void checkSeriesQuery_TooManyPoints_ThrowsException() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> deviceSeriesService.checkSeriesQuery(List.of(1L, 2L), FROM, TO, INTERVAL, 5));
+    assertTrue(exception.getMessage().contains("6 points"));
+  }
+
+  @Test
+  void checkSeriesQuery_DuplicateDevice_ThrowsException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> deviceSeriesService.checkSeriesQuery(List.of(1L, 1L), FROM, TO, INTERVAL, 100));
+  }
+
+  @Test
+  void checkSeriesQuery_UnknownDevice_ThrowsException() {
+    when(deviceRepository.countByIdInAndDeletedFalse(List.of(1L, 99L))).thenReturn(1L);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> deviceSeriesService.checkSeriesQuery(List.of(1L, 99L), FROM, TO, INTERVAL, 100));
+  }
+
+  private static WaterLevelDataResponse reading(
+      final Long deviceId, final LocalDateTime timestamp, final double level) {
+    return new WaterLevelDataResponse(
+        1L, deviceId, BigDecimal.valueOf(level), PumpStatus.OFF, timestamp);
+  }
+}
@@ -2,23 +2,26 @@ package com.example.waterlevel.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.waterlevel.dto.DevicePurgeResponse;
 import com.example.waterlevel.dto.DeviceRegisterRequest;
+import com.example.waterlevel.dto.PurgeState;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.Role;
 import com.example.waterlevel.entity.User;
 import com.example.waterlevel.repository.DeviceRepository;
 import com.example.waterlevel.repository.UserRepository;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
 import com.example.waterlevel.service.impl.DeviceServiceImpl;
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,7 +34,10 @@ class DeviceServiceTest {
 
   @Mock private DeviceRepository deviceRepository;
   @Mock private UserRepository userRepository;
-  @Mock private WaterLevelDataRepository waterLevelDataRepository;
+  @Mock private ResourceVersionService resourceVersionService;
+  @Mock private LatestReadingService latestReadingService;
+  @Mock private DevicePurgeService devicePurgeService;
+  @Mock private GroupMetricsService groupMetricsService;
 
   @InjectMocks private DeviceServiceImpl deviceService;
 
@@ -54,7 +60,7 @@ class DeviceServiceTest {
     testDevice = new Device();
     testDevice.setId(1L);
     testDevice.setName("Test Device");
-    testDevice.setDeviceKey("test-device-key");
+    testDevice.setDeviceKey(UUID.randomUUID());
     testDevice.setMinThreshold(BigDecimal.valueOf(10.0));
     testDevice.setMaxThreshold(BigDecimal.valueOf(90.0));
     testDevice.setAdmin(testAdmin);
@@ -130,15 +136,19 @@ class DeviceServiceTest {
   }
 
   @Test
-  void deleteDevice_Success() {
+  void deleteDevice_MarksDeletedAndSchedulesPurge() {
+    DevicePurgeResponse pending = new DevicePurgeResponse(1L, PurgeState.PENDING, 0, null, null);
     when(deviceRepository.findById(1L)).thenReturn(Optional.of(testDevice));
-    doNothing().when(waterLevelDataRepository).deleteByDevice(any(Device.class));
-    doNothing().when(deviceRepository).deleteById(1L);
+    when(devicePurgeService.schedulePurge(1L)).thenReturn(pending);
 
-    deviceService.deleteDevice(1L);
+    DevicePurgeResponse result = deviceService.deleteDevice(1L);
 
-    verify(waterLevelDataRepository).deleteByDevice(any(Device.class));
-    verify(deviceRepository).deleteById(1L);
+    assertSame(pending, result);
+    assertTrue(testDevice.isDeleted());
+    verify(resourceVersionService).evictDevice(1L);
+    verify(latestReadingService).evictDevice(1L);
+    verify(groupMetricsService).removeDevice(1L);
+    verify(deviceRepository, never()).deleteById(any());
   }
 
   @Test
@@ -146,7 +156,23 @@ class DeviceServiceTest {
     when(deviceRepository.findById(1L)).thenReturn(Optional.empty());
 
     assertThrows(IllegalArgumentException.class, () -> deviceService.deleteDevice(1L));
-    verify(waterLevelDataRepository, never()).deleteByDevice(any());
-    verify(deviceRepository, never()).deleteById(any());
+    verify(devicePurgeService, never()).schedulePurge(any());
+  }
+
+  @Test
+  void deleteDevice_AlreadyDeleted_ThrowsException() {
+    testDevice.setDeleted(true);
+    when(deviceRepository.findById(1L)).thenReturn(Optional.of(testDevice));
+
+    assertThrows(IllegalArgumentException.class, () -> deviceService.deleteDevice(1L));
+    verify(devicePurgeService, never()).schedulePurge(any());
+  }
+
+  @Test
+  void getDeviceById_Deleted_ThrowsException() {
+    testDevice.setDeleted(true);
+    when(deviceRepository.findById(1L)).thenReturn(Optional.of(testDevice));
+
+    assertThrows(IllegalArgumentException.class, () -> deviceService.getDeviceById(1L));
   }
 }
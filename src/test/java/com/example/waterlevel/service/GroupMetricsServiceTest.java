@@ -0,0 +1,197 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.GroupMetricsResponse;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DeviceGroup;
+import com.example.waterlevel.entity.GroupType;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceGroupRepository;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.service.impl.GroupMetricsServiceImpl;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GroupMetricsServiceTest {
+
+  private static final Long REGION = 1L;
+  private static final Long SITE_A = 2L;
+  private static final Long SITE_B = 3L;
+  private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  @Mock private DeviceGroupRepository deviceGroupRepository;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private LatestReadingService latestReadingService;
+
+  private GroupMetricsServiceImpl groupMetricsService;
+
+  @BeforeEach
+  void setUp() {
+    groupMetricsService =
+        new GroupMetricsServiceImpl(deviceGroupRepository, deviceRepository, latestReadingService);
+    groupMetricsService.registerGroup(REGION, null);
+    groupMetricsService.registerGroup(SITE_A, REGION);
+    groupMetricsService.registerGroup(SITE_B, REGION);
+  }
+
+  @Test
+  void recordReading_UpdatesSiteAndRegionTotals() {
+    when(latestReadingService.findByDeviceId(anyLong())).thenReturn(Optional.empty());
+    groupMetricsService.refreshDevice(device(10L, SITE_A));
+    groupMetricsService.refreshDevice(device(11L, SITE_A));
+    groupMetricsService.refreshDevice(device(12L, SITE_B));
+
+    groupMetricsService.recordReading(reading(10L, 1L, "50.00", PumpStatus.ON, START));
+    groupMetricsService.recordReading(reading(11L, 2L, "95.00", PumpStatus.OFF, START));
+    groupMetricsService.recordReading(reading(12L, 3L, "5.00", PumpStatus.ON, START));
+
+    GroupMetricsResponse site = groupMetricsService.getMetrics(SITE_A);
+    assertEquals(2, site.getDevices());
+    assertEquals(2, site.getReportingDevices());
+    assertEquals(new BigDecimal("72.50"), site.getAverageLevel());
+    assertEquals(1, site.getPumpsRunning());
+    assertEquals(1, site.getDevicesInAlarm());
+    GroupMetricsResponse region = groupMetricsService.getMetrics(REGION);
+    assertEquals(3, region.getDevices());
+    assertEquals(new BigDecimal("50.00"), region.getAverageLevel());
+    assertEquals(2, region.getPumpsRunning());
+    assertEquals(2, region.getDevicesInAlarm());
+  }
+
+  @Test
+  void recordReading_ReplacesPreviousContributionOfDevice() {
+    when(latestReadingService.findByDeviceId(10L)).thenReturn(Optional.empty());
+    groupMetricsService.refreshDevice(device(10L, SITE_A));
+
+    groupMetricsService.recordReading(reading(10L, 1L, "95.00", PumpStatus.ON, START));
+    groupMetricsService.recordReading(
+        reading(10L, 2L, "40.00", PumpStatus.OFF, START.plusMinutes(1)));
+    groupMetricsService.recordReading(reading(10L, 3L, "99.00", PumpStatus.ON, START));
+
+    GroupMetricsResponse region = groupMetricsService.getMetrics(REGION);
+    assertEquals(1, region.getDevices());
+    assertEquals(new BigDecimal("40.00"), region.getAverageLevel());
+    assertEquals(0, region.getPumpsRunning());
+    assertEquals(0, region.getDevicesInAlarm());
+  }
+
+  @Test
+  void recordReading_DeviceWithoutGroup_IsIgnored() {
+    groupMetricsService.recordReading(reading(10L, 1L, "50.00", PumpStatus.ON, START));
+
+    GroupMetricsResponse region = groupMetricsService.getMetrics(REGION);
+    assertEquals(0, region.getDevices());
+    assertNull(region.getAverageLevel());
+  }
+
+  @Test
+  void refreshDevice_MovedDevice_LeavesOldSiteAndStaysInRegion() {
+    when(latestReadingService.findByDeviceId(10L))
+        .thenReturn(Optional.of(reading(10L, 1L, "30.00", PumpStatus.ON, START)));
+    groupMetricsService.refreshDevice(device(10L, SITE_A));
+
+    groupMetricsService.refreshDevice(device(10L, SITE_B));
+
+    assertEquals(0, groupMetricsService.getMetrics(SITE_A).getDevices());
+    assertNull(groupMetricsService.getMetrics(SITE_A).getAverageLevel());
+    assertEquals(1, groupMetricsService.getMetrics(SITE_B).getPumpsRunning());
+    GroupMetricsResponse region = groupMetricsService.getMetrics(REGION);
+    assertEquals(1, region.getDevices());
+    assertEquals(new BigDecimal("30.00"), region.getAverageLevel());
+  }
+
+  @Test
+  void refreshDevice_NewThresholds_RecountAlarm() {
+    when(latestReadingService.findByDeviceId(10L))
+        .thenReturn(Optional.of(reading(10L, 1L, "30.00", PumpStatus.OFF, START)));
+    groupMetricsService.refreshDevice(device(10L, SITE_A));
+    assertEquals(0, groupMetricsService.getMetrics(REGION).getDevicesInAlarm());
+
+    Device device = device(10L, SITE_A);
+    device.setMinThreshold(new BigDecimal("40.00"));
+    groupMetricsService.refreshDevice(device);
+
+    assertEquals(1, groupMetricsService.getMetrics(REGION).getDevicesInAlarm());
+  }
+
+  @Test
+  void removeDevice_SubtractsContribution() {
+    when(latestReadingService.findByDeviceId(10L))
+        .thenReturn(Optional.of(reading(10L, 1L, "30.00", PumpStatus.ON, START)));
+    groupMetricsService.refreshDevice(device(10L, SITE_A));
+
+    groupMetricsService.removeDevice(10L);
+    groupMetricsService.recordReading(
+        reading(10L, 2L, "60.00", PumpStatus.ON, START.plusHours(1)));
+
+    GroupMetricsResponse region = groupMetricsService.getMetrics(REGION);
+    assertEquals(0, region.getDevices());
+    assertEquals(0, region.getReportingDevices());
+    assertEquals(0, region.getPumpsRunning());
+  }
+
+  @Test
+  void rebuild_CountsMembersOfStoredGroups() {
+    GroupMetricsServiceImpl rebuilt =
+        new GroupMetricsServiceImpl(deviceGroupRepository, deviceRepository, latestReadingService);
+    DeviceGroup region = group(REGION, null);
+    DeviceGroup site = group(SITE_A, region);
+    when(deviceGroupRepository.findAll()).thenReturn(List.of(region, site));
+    when(deviceRepository.findByGroupIsNotNullAndDeletedFalse())
+        .thenReturn(List.of(device(10L, SITE_A), device(11L, REGION)));
+    when(latestReadingService.findByDeviceId(10L))
+        .thenReturn(Optional.of(reading(10L, 1L, "20.00", PumpStatus.ON, START)));
+    when(latestReadingService.findByDeviceId(11L))
+        .thenReturn(Optional.of(reading(11L, 2L, "40.00", PumpStatus.OFF, START)));
+
+    rebuilt.rebuild();
+
+    assertEquals(1, rebuilt.getMetrics(SITE_A).getDevices());
+    GroupMetricsResponse metrics = rebuilt.getMetrics(REGION);
+    assertEquals(2, metrics.getDevices());
+    assertEquals(new BigDecimal("30.00"), metrics.getAverageLevel());
+    assertEquals(1, metrics.getPumpsRunning());
+  }
+
+  private static Device device(final Long deviceId, final Long groupId) {
+    DeviceGroup group = new DeviceGroup();
+    group.setId(groupId);
+    Device device = new Device();
+    device.setId(deviceId);
+    device.setGroup(group);
+    device.setMinThreshold(new BigDecimal("10.00"));
+    device.setMaxThreshold(new BigDecimal("90.00"));
+    return device;
+  }
+
+  private static DeviceGroup group(final Long groupId, final DeviceGroup parent) {
+    DeviceGroup group = new DeviceGroup();
+    group.setId(groupId);
+    group.setType(parent == null ? GroupType.REGION : GroupType.SITE);
+    group.setParent(parent);
+    return group;
+  }
+
+  private static LatestReadingResponse reading(
+      final Long deviceId,
+      final Long readingId,
+      final String waterLevel,
+      final PumpStatus pumpStatus,
+      final LocalDateTime timestamp) {
+    return new LatestReadingResponse(
+        deviceId, 1L, readingId, new BigDecimal(waterLevel), pumpStatus, timestamp);
+  }
+}
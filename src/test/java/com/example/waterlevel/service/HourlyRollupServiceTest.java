@@ -0,0 +1,210 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.constants.RollupConstants;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.DirtyBucket;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.entity.JobWatermark;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.DirtyBucketRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.JobWatermarkRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.HourlyRollupServiceImpl;
+import com.example.waterlevel.util.TDigest;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class HourlyRollupServiceTest {
+
+  private static final LocalDateTime HOUR =
+      LocalDateTime.now().minusHours(3).truncatedTo(ChronoUnit.HOURS);
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private HourlyRollupRepository hourlyRollupRepository;
+  @Mock private JobWatermarkRepository jobWatermarkRepository;
+  @Mock private DirtyBucketRepository dirtyBucketRepository;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private HourlyRollupServiceImpl hourlyRollupService;
+
+  @BeforeEach
+  void setUp() {
+    hourlyRollupService =
+        new HourlyRollupServiceImpl(
+            timeSeriesStore,
+            hourlyRollupRepository,
+            jobWatermarkRepository,
+            dirtyBucketRepository,
+            deviceRepository,
+            transactionTemplate,
+            Duration.ofMinutes(5));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void sealClosedHours_NoWatermark_SealsFromFirstReading() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(jobWatermarkRepository.findById(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(Optional.empty());
+    when(timeSeriesStore.findMinTimestamp()).thenReturn(Optional.of(HOUR.plusMinutes(10)));
+    when(timeSeriesStore.scanAll(any(), any()))
+        .thenReturn(
+            Stream.of(
+                reading(HOUR.plusMinutes(10), 40.0),
+                new WaterLevelDataResponse(
+                    2L, 1L, BigDecimal.valueOf(60.0), PumpStatus.ON, HOUR.plusMinutes(20))));
+
+    hourlyRollupService.sealClosedHours();
+
+    ArgumentCaptor<List<HourlyRollup>> rollups = ArgumentCaptor.forClass(List.class);
+    verify(hourlyRollupRepository).saveAll(rollups.capture());
+    HourlyRollup rollup = rollups.getValue().get(0);
+    assertEquals(HOUR, rollup.getBucketStart());
+    assertEquals(2, rollup.getReadingCount());
+    assertEquals(1, rollup.getPumpOnCount());
+    assertEquals(50.0, TDigest.fromBytes(rollup.getSketch()).quantile(0.5), 0.0);
+    verify(hourlyRollupRepository).deleteByBucketRange(any(), any());
+    verify(jobWatermarkRepository).save(any(JobWatermark.class));
+    assertTrue(hourlyRollupService.isSealed(1L, HOUR));
+    assertFalse(hourlyRollupService.isSealed(1L, LocalDateTime.now().plusHours(1)));
+  }
+
+  @Test
+  void sealClosedHours_HoursAreNotSealedUntilTheirRollupsAreCommitted() {
+    List<Boolean> sealedInTransaction = new ArrayList<>();
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> {
+              sealedInTransaction.add(hourlyRollupService.isSealed(1L, HOUR));
+              return 0;
+            });
+    when(jobWatermarkRepository.findById(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(Optional.empty());
+    when(timeSeriesStore.findMinTimestamp()).thenReturn(Optional.of(HOUR));
+
+    hourlyRollupService.sealClosedHours();
+
+    assertFalse(sealedInTransaction.get(0));
+    assertTrue(hourlyRollupService.isSealed(1L, HOUR));
+  }
+
+  @Test
+  void recordReading_BeforeWatermark_MarksHourDirtyUntilRebuilt() {
+    when(jobWatermarkRepository.findById(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(
+            Optional.of(new JobWatermark(RollupConstants.HOURLY_ROLLUP_JOB, HOUR.plusHours(2))));
+    hourlyRollupService.loadWatermark();
+
+    hourlyRollupService.recordReading(1L, HOUR.plusMinutes(30));
+    hourlyRollupService.recordReading(1L, HOUR.plusMinutes(40));
+
+    assertFalse(hourlyRollupService.isSealed(1L, HOUR));
+    assertTrue(hourlyRollupService.isSealed(2L, HOUR));
+    assertEquals(1, hourlyRollupService.getRevision(1L));
+    assertEquals(0, hourlyRollupService.getRevision(2L));
+    verify(dirtyBucketRepository).insertMark(RollupConstants.HOURLY_ROLLUP_JOB, 1L, HOUR);
+
+    when(timeSeriesStore.scan(1L, HOUR, HOUR.plusHours(1)))
+        .thenReturn(
+            Stream.of(reading(HOUR.plusMinutes(30), 55.0), reading(HOUR.plusMinutes(40), 65.0)));
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    // Depending on the current minute, the next hour may or may not be due for sealing as well
+    lenient().when(transactionTemplate.execute(any())).thenReturn(0);
+
+    hourlyRollupService.sealClosedHours();
+
+    verify(dirtyBucketRepository).deleteMark(RollupConstants.HOURLY_ROLLUP_JOB, 1L, HOUR);
+    verify(hourlyRollupRepository).deleteByDeviceIdAndBucketStart(1L, HOUR);
+    verify(hourlyRollupRepository).save(any(HourlyRollup.class));
+    assertTrue(hourlyRollupService.isSealed(1L, HOUR));
+    assertEquals(2, hourlyRollupService.getRevision(1L));
+  }
+
+  @Test
+  void loadWatermark_RestoresStoredDirtyHours() {
+    Device device = new Device();
+    device.setId(1L);
+    when(jobWatermarkRepository.findById(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(
+            Optional.of(new JobWatermark(RollupConstants.HOURLY_ROLLUP_JOB, HOUR.plusHours(2))));
+    when(dirtyBucketRepository.findByJobName(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(
+            List.of(new DirtyBucket(5L, RollupConstants.HOURLY_ROLLUP_JOB, device, HOUR)));
+
+    hourlyRollupService.loadWatermark();
+
+    assertFalse(hourlyRollupService.isSealed(1L, HOUR));
+    assertTrue(hourlyRollupService.isSealed(1L, HOUR.plusHours(1)));
+  }
+
+  @Test
+  void sealClosedHours_ReadingDuringRebuild_KeepsHourDirty() {
+    when(jobWatermarkRepository.findById(RollupConstants.HOURLY_ROLLUP_JOB))
+        .thenReturn(
+            Optional.of(new JobWatermark(RollupConstants.HOURLY_ROLLUP_JOB, HOUR.plusHours(2))));
+    hourlyRollupService.loadWatermark();
+    hourlyRollupService.recordReading(1L, HOUR.plusMinutes(30));
+    when(timeSeriesStore.scan(1L, HOUR, HOUR.plusHours(1)))
+        .thenReturn(Stream.of(reading(HOUR.plusMinutes(30), 55.0)));
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              // A late reading is stored while the old rollup is being replaced
+              hourlyRollupService.recordReading(1L, HOUR.plusMinutes(45));
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    lenient().when(transactionTemplate.execute(any())).thenReturn(0);
+
+    hourlyRollupService.sealClosedHours();
+
+    assertFalse(hourlyRollupService.isSealed(1L, HOUR));
+    // Stored on the first mark and again after the rebuild deleted it
+    verify(dirtyBucketRepository, times(2)).insertMark(RollupConstants.HOURLY_ROLLUP_JOB, 1L, HOUR);
+  }
+
+  private static WaterLevelDataResponse reading(final LocalDateTime timestamp, final double level) {
+    return new WaterLevelDataResponse(1L, 1L, BigDecimal.valueOf(level), PumpStatus.OFF, timestamp);
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.LatestReadingServiceImpl;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LatestReadingServiceTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 25, 10, 0, 0);
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+
+  @InjectMocks private LatestReadingServiceImpl latestReadingService;
+
+  @Test
+  void record_OlderReading_KeepsNewerState() {
+    latestReadingService.record(reading(1L, 1L, 20L, PumpStatus.ON, NOW));
+    latestReadingService.record(reading(1L, 1L, 10L, PumpStatus.OFF, NOW.minusMinutes(1)));
+
+    LatestReadingResponse latest = latestReadingService.findByDeviceId(1L).orElseThrow();
+
+    assertEquals(20L, latest.getReadingId());
+    assertEquals(PumpStatus.ON, latest.getPumpStatus());
+  }
+
+  @Test
+  void findByAdminId_ReturnsOnlyOwnedDevicesInRequestedSet() {
+    latestReadingService.record(reading(1L, 1L, 1L, PumpStatus.ON, NOW));
+    latestReadingService.record(reading(2L, 2L, 2L, PumpStatus.OFF, NOW));
+    latestReadingService.record(reading(3L, 1L, 3L, PumpStatus.OFF, NOW));
+
+    assertEquals(2, latestReadingService.findByAdminId(1L, null).size());
+    assertEquals(
+        List.of(3L),
+        latestReadingService.findByAdminId(1L, List.of(2L, 3L)).stream()
+            .map(LatestReadingResponse::getDeviceId)
+            .toList());
+  }
+
+  @Test
+  void warmUp_LoadsLatestReadingsOfActiveDevicesFromStore() {
+    Device deleted = device(6L, 1L);
+    deleted.setDeleted(true);
+    when(deviceRepository.findAll()).thenReturn(List.of(device(5L, 1L), deleted));
+    when(timeSeriesStore.findLatestPerDevice())
+        .thenReturn(
+            List.of(
+                new WaterLevelDataResponse(50L, 5L, BigDecimal.ONE, PumpStatus.ON, NOW),
+                new WaterLevelDataResponse(60L, 6L, BigDecimal.ONE, PumpStatus.ON, NOW)));
+
+    latestReadingService.warmUp();
+
+    LatestReadingResponse latest = latestReadingService.findByDeviceId(5L).orElseThrow();
+    assertEquals(50L, latest.getReadingId());
+    assertEquals(1L, latest.getAdminId());
+    assertTrue(latestReadingService.findByDeviceId(6L).isEmpty());
+  }
+
+  private static Device device(final Long deviceId, final Long adminId) {
+    User admin = new User();
+    admin.setId(adminId);
+    Device device = new Device();
+    device.setId(deviceId);
+    device.setAdmin(admin);
+    return device;
+  }
+
+  private static LatestReadingResponse reading(
+      final Long deviceId,
+      final Long adminId,
+      final Long readingId,
+      final PumpStatus pumpStatus,
+      final LocalDateTime timestamp) {
+    return new LatestReadingResponse(
+        deviceId, adminId, readingId, BigDecimal.valueOf(50.0), pumpStatus, timestamp);
+  }
+}
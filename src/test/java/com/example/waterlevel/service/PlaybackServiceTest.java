@@ -0,0 +1,235 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.constants.HistoryQueryConstants;
+import com.example.waterlevel.dto.PlaybackSessionResponse;
+import com.example.waterlevel.dto.PlaybackState;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.PlaybackServiceImpl;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class PlaybackServiceTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 10, 0, 0);
+  private static final LocalDateTime TO = FROM.plusHours(1);
+  private static final int BATCH = HistoryQueryConstants.PLAYBACK_BATCH_SIZE;
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private WebSocketService webSocketService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private PlaybackServiceImpl playbackService;
+
+  @BeforeEach
+  void setUp() {
+    playbackService =
+        new PlaybackServiceImpl(
+            timeSeriesStore,
+            deviceRepository,
+            webSocketService,
+            transactionManager,
+            1,
+            Duration.ofHours(2));
+    playbackService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    playbackService.shutdown();
+  }
+
+  @Test
+  void startPlayback_SendsReadingsPacedBySpeedThenEnds() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.findBatchAfter(1L, FROM, null, TO, BATCH))
+        .thenReturn(
+            List.of(
+                reading(FROM.plusMinutes(5), 40.0, PumpStatus.OFF),
+                reading(FROM.plusMinutes(6), 50.0, PumpStatus.ON),
+                reading(FROM.plusMinutes(7), 60.0, PumpStatus.OFF)));
+
+    long startNanos = System.nanoTime();
+    PlaybackSessionResponse session = playbackService.startPlayback(1L, FROM, TO, 1000);
+
+    assertEquals(PlaybackState.RUNNING, session.getState());
+    assertEquals("/topic/device/1/playback/" + session.getSessionId(), session.getDestination());
+    verify(webSocketService, timeout(2000))
+        .sendPlaybackEnd(
+            eq(1L), eq(session.getSessionId()), eq(PlaybackState.COMPLETED), eq(3L), anyString());
+    // Two one-minute gaps at 1000x take at least 120 ms
+    assertTrue(System.nanoTime() - startNanos >= Duration.ofMillis(120).toNanos());
+    InOrder order = inOrder(webSocketService);
+    order
+        .verify(webSocketService)
+        .sendPlaybackUpdate(
+            1L, session.getSessionId(), 40.0, PumpStatus.OFF, "2025-12-01T10:05:00");
+    order
+        .verify(webSocketService)
+        .sendPlaybackUpdate(1L, session.getSessionId(), 50.0, PumpStatus.ON, "2025-12-01T10:06:00");
+    order
+        .verify(webSocketService)
+        .sendPlaybackUpdate(
+            1L, session.getSessionId(), 60.0, PumpStatus.OFF, "2025-12-01T10:07:00");
+    PlaybackSessionResponse finished =
+        playbackService.getSession(1L, session.getSessionId()).orElseThrow();
+    assertEquals(PlaybackState.COMPLETED, finished.getState());
+    assertEquals(3, finished.getSentReadings());
+  }
+
+  @Test
+  void startPlayback_FullBatch_ContinuesAfterLastReading() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    List<WaterLevelDataResponse> first = new ArrayList<>();
+    for (long id = 1; id <= BATCH; id++) {
+      first.add(reading(id, FROM, 40.0, PumpStatus.OFF));
+    }
+    when(timeSeriesStore.findBatchAfter(1L, FROM, null, TO, BATCH)).thenReturn(first);
+    when(timeSeriesStore.findBatchAfter(1L, FROM, (long) BATCH, TO, BATCH))
+        .thenReturn(List.of(reading(BATCH + 1L, FROM.plusSeconds(1), 50.0, PumpStatus.ON)));
+
+    PlaybackSessionResponse session = playbackService.startPlayback(1L, FROM, TO, 1000);
+
+    verify(webSocketService, timeout(2000))
+        .sendPlaybackEnd(
+            eq(1L),
+            eq(session.getSessionId()),
+            eq(PlaybackState.COMPLETED),
+            eq(BATCH + 1L),
+            anyString());
+    verify(webSocketService)
+        .sendPlaybackUpdate(1L, session.getSessionId(), 50.0, PumpStatus.ON, "2025-12-01T10:00:01");
+  }
+
+  @Test
+  void stopPlayback_EndsWaitingSessionAndFreesSlot() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.findBatchAfter(1L, FROM, null, TO, BATCH))
+        .thenReturn(
+            List.of(
+                reading(FROM, 40.0, PumpStatus.OFF),
+                reading(FROM.plusMinutes(50), 50.0, PumpStatus.ON)));
+    PlaybackSessionResponse session = playbackService.startPlayback(1L, FROM, TO, 1);
+    verify(webSocketService, timeout(2000))
+        .sendPlaybackUpdate(
+            1L, session.getSessionId(), 40.0, PumpStatus.OFF, "2025-12-01T10:00:00");
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> playbackService.startPlayback(1L, FROM, FROM.plusMinutes(10), 1));
+    assertEquals("Too many playback sessions are running", e.getMessage());
+
+    playbackService.stopPlayback(1L, session.getSessionId());
+
+    verify(webSocketService, timeout(2000))
+        .sendPlaybackEnd(
+            eq(1L), eq(session.getSessionId()), eq(PlaybackState.CANCELLED), eq(1L), anyString());
+    verify(webSocketService, never()).sendPlaybackUpdate(any(), any(), eq(50.0), any(), any());
+  }
+
+  @Test
+  void shutdown_WaitingSession_EndsItBeforeReturning() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.findBatchAfter(1L, FROM, null, TO, BATCH))
+        .thenReturn(
+            List.of(
+                reading(FROM, 40.0, PumpStatus.OFF),
+                reading(FROM.plusMinutes(50), 50.0, PumpStatus.ON)));
+    PlaybackSessionResponse session = playbackService.startPlayback(1L, FROM, TO, 1);
+    verify(webSocketService, timeout(2000))
+        .sendPlaybackUpdate(
+            1L, session.getSessionId(), 40.0, PumpStatus.OFF, "2025-12-01T10:00:00");
+
+    playbackService.shutdown();
+
+    verify(webSocketService)
+        .sendPlaybackEnd(
+            eq(1L), eq(session.getSessionId()), eq(PlaybackState.CANCELLED), eq(1L), anyString());
+  }
+
+  @Test
+  void startPlayback_TooLong_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> playbackService.startPlayback(1L, FROM, FROM.plusDays(1), 10));
+
+    assertTrue(e.getMessage().startsWith("Playback must not take longer than 120 minutes"));
+    verify(timeSeriesStore, never()).findBatchAfter(any(), any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void startPlayback_SpeedOutOfRange_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> playbackService.startPlayback(1L, FROM, TO, 0));
+    assertThrows(
+        IllegalArgumentException.class, () -> playbackService.startPlayback(1L, FROM, TO, 1001));
+  }
+
+  @Test
+  void startPlayback_DeviceNotFound_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(9L)).thenReturn(false);
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class, () -> playbackService.startPlayback(9L, FROM, TO, 10));
+
+    assertEquals("Device not found", e.getMessage());
+  }
+
+  @Test
+  void getSession_OtherDevice_ReturnsEmpty() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.findBatchAfter(1L, FROM, null, TO, BATCH)).thenReturn(List.of());
+    PlaybackSessionResponse session = playbackService.startPlayback(1L, FROM, TO, 10);
+
+    assertTrue(playbackService.getSession(2L, session.getSessionId()).isEmpty());
+    assertTrue(playbackService.stopPlayback(2L, session.getSessionId()).isEmpty());
+  }
+
+  private static WaterLevelDataResponse reading(
+      final LocalDateTime timestamp, final double level, final PumpStatus pumpStatus) {
+    return reading(1L, timestamp, level, pumpStatus);
+  }
+
+  private static WaterLevelDataResponse reading(
+      final Long id,
+      final LocalDateTime timestamp,
+      final double level,
+      final PumpStatus pumpStatus) {
+    return new WaterLevelDataResponse(id, 1L, BigDecimal.valueOf(level), pumpStatus, timestamp);
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.PumpRuntimeResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpRun;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.PumpRunRepository;
+import com.example.waterlevel.service.impl.PumpRunServiceImpl;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PumpRunServiceTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 1, 10, 0, 0);
+
+  @Mock private PumpRunRepository pumpRunRepository;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  @InjectMocks private PumpRunServiceImpl pumpRunService;
+
+  private Device device;
+
+  @BeforeEach
+  void setUp() {
+    device = new Device();
+    device.setId(1L);
+  }
+
+  @Test
+  void recordStatus_FirstReading_StartsRun() {
+    stubTransactions();
+    when(pumpRunRepository.findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L))
+        .thenReturn(Optional.empty());
+
+    pumpRunService.recordStatus(device, PumpStatus.ON, NOW);
+
+    ArgumentCaptor<PumpRun> runCaptor = ArgumentCaptor.forClass(PumpRun.class);
+    verify(pumpRunRepository).save(runCaptor.capture());
+    assertEquals(PumpStatus.ON, runCaptor.getValue().getStatus());
+    assertEquals(NOW, runCaptor.getValue().getStartedAt());
+    verify(pumpRunRepository, never()).closeRun(anyLong(), any());
+  }
+
+  @Test
+  void recordStatus_SameStatus_DoesNotWrite() {
+    stubTransactions();
+    when(pumpRunRepository.findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L))
+        .thenReturn(Optional.empty());
+
+    pumpRunService.recordStatus(device, PumpStatus.ON, NOW);
+    pumpRunService.recordStatus(device, PumpStatus.ON, NOW.plusMinutes(1));
+    pumpRunService.recordStatus(device, PumpStatus.ON, NOW.plusMinutes(2));
+
+    verify(pumpRunRepository, times(1)).save(any(PumpRun.class));
+    verify(pumpRunRepository, times(1))
+        .findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L);
+  }
+
+  @Test
+  void recordStatus_StatusChange_ClosesOpenRunFromDatabase() {
+    stubTransactions();
+    when(pumpRunRepository.findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L))
+        .thenReturn(Optional.of(run(7L, NOW.minusHours(1), null)));
+
+    pumpRunService.recordStatus(device, PumpStatus.OFF, NOW);
+
+    verify(pumpRunRepository).closeRun(7L, NOW);
+    verify(pumpRunRepository).save(any(PumpRun.class));
+  }
+
+  @Test
+  void recordStatus_SecondTransition_ClosesRunStartedInMemory() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(pumpRunRepository.findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L))
+        .thenReturn(Optional.empty());
+    when(pumpRunRepository.save(any(PumpRun.class)))
+        .thenAnswer(
+            invocation -> {
+              PumpRun run = invocation.getArgument(0);
+              run.setId(run.getStatus() == PumpStatus.ON ? 11L : 12L);
+              return run;
+            });
+
+    pumpRunService.recordStatus(device, PumpStatus.ON, NOW);
+    pumpRunService.recordStatus(device, PumpStatus.OFF, NOW.plusMinutes(5));
+
+    verify(pumpRunRepository).closeRun(11L, NOW.plusMinutes(5));
+    verify(pumpRunRepository, times(2)).save(any(PumpRun.class));
+  }
+
+  @Test
+  void recordStatus_ReadingOlderThanOpenRun_IsIgnored() {
+    when(pumpRunRepository.findFirstByDevice_IdAndEndedAtIsNullOrderByStartedAtDesc(1L))
+        .thenReturn(Optional.of(run(7L, NOW, null)));
+
+    pumpRunService.recordStatus(device, PumpStatus.OFF, NOW.minusMinutes(5));
+
+    verify(pumpRunRepository, never()).closeRun(anyLong(), any());
+    verify(pumpRunRepository, never()).save(any(PumpRun.class));
+  }
+
+  @Test
+  void getDailyRuntime_SplitsRunsAtMidnight() {
+    LocalDate first = LocalDate.of(2025, 11, 1);
+    LocalDate second = first.plusDays(1);
+    when(pumpRunRepository.findOverlapping(
+            1L, PumpStatus.ON, first.atStartOfDay(), second.plusDays(1).atStartOfDay()))
+        .thenReturn(
+            List.of(
+                run(1L, first.atStartOfDay().minusMinutes(30), first.atTime(0, 30)),
+                run(2L, first.atTime(23, 0), second.atTime(1, 0)),
+                run(3L, second.atTime(10, 0), second.atTime(10, 30))));
+
+    List<PumpRuntimeResponse> runtime = pumpRunService.getDailyRuntime(1L, first, second);
+
+    assertEquals(2, runtime.size());
+    assertEquals(first, runtime.get(0).getDate());
+    assertEquals(5400L, runtime.get(0).getRuntimeSeconds());
+    assertEquals(1, runtime.get(0).getCycles());
+    assertEquals(5400.0 / 86400, runtime.get(0).getDutyCycle(), 1e-9);
+    assertEquals(5400L, runtime.get(1).getRuntimeSeconds());
+    assertEquals(1, runtime.get(1).getCycles());
+  }
+
+  @Test
+  void getDailyRuntimes_GroupsRunsOfOneQueryByDevice() {
+    LocalDate day = LocalDate.of(2025, 11, 1);
+    when(pumpRunRepository.findOverlappingByDeviceIds(
+            List.of(1L, 2L), PumpStatus.ON, day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+        .thenReturn(List.of(run(1L, day.atTime(23, 0), day.plusDays(1).atTime(1, 0))));
+
+    Map<Long, PumpRuntimeResponse> runtimes = pumpRunService.getDailyRuntimes(List.of(1L, 2L), day);
+
+    assertEquals(3600L, runtimes.get(1L).getRuntimeSeconds());
+    assertEquals(1, runtimes.get(1L).getCycles());
+    assertEquals(0L, runtimes.get(2L).getRuntimeSeconds());
+    assertEquals(day, runtimes.get(2L).getDate());
+  }
+
+  @Test
+  void getDailyRuntime_InvertedRange_ThrowsException() {
+    LocalDate day = LocalDate.of(2025, 11, 2);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> pumpRunService.getDailyRuntime(1L, day, day.minusDays(1)));
+  }
+
+  @Test
+  void getDailyRuntime_RangeTooLong_ThrowsException() {
+    LocalDate day = LocalDate.of(2025, 11, 2);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> pumpRunService.getDailyRuntime(1L, day.minusYears(2), day));
+  }
+
+  private void stubTransactions() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(pumpRunRepository.save(any(PumpRun.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  private PumpRun run(final Long id, final LocalDateTime startedAt, final LocalDateTime endedAt) {
+    return new PumpRun(id, device, PumpStatus.ON, startedAt, endedAt);
+  }
+}
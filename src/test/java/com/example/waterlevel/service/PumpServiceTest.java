@@ -3,12 +3,17 @@ package com.example.waterlevel.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
 import com.example.waterlevel.entity.WaterLevelData;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
 import com.example.waterlevel.service.impl.PumpServiceImpl;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,12 +28,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class PumpServiceTest {
 
-  @Mock private WaterLevelDataRepository waterLevelDataRepository;
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private LatestReadingService latestReadingService;
 
   @InjectMocks private PumpServiceImpl pumpService;
 
   private Device testDevice;
-  private WaterLevelData testData;
+  private WaterLevelDataResponse testData;
 
   @BeforeEach
   void setUp() {
@@ -36,18 +42,14 @@ class PumpServiceTest {
     testDevice.setId(1L);
     testDevice.setName("Test Device");
 
-    testData = new WaterLevelData();
-    testData.setId(1L);
-    testData.setDevice(testDevice);
-    testData.setWaterLevel(BigDecimal.valueOf(50.5));
-    testData.setPumpStatus(PumpStatus.ON);
-    testData.setTimestamp(LocalDateTime.now());
+    testData =
+        new WaterLevelDataResponse(
+            1L, 1L, BigDecimal.valueOf(50.5), PumpStatus.ON, LocalDateTime.now());
   }
 
   @Test
   void getCurrentPumpStatus_WithData_ReturnsStatus() {
-    when(waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(testDevice))
-        .thenReturn(Optional.of(testData));
+    when(timeSeriesStore.findLatest(1L)).thenReturn(Optional.of(testData));
 
     PumpStatus status = pumpService.getCurrentPumpStatus(testDevice);
 
@@ -56,8 +58,7 @@ class PumpServiceTest {
 
   @Test
   void getCurrentPumpStatus_NoData_ReturnsUnknown() {
-    when(waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(testDevice))
-        .thenReturn(Optional.empty());
+    when(timeSeriesStore.findLatest(1L)).thenReturn(Optional.empty());
 
     PumpStatus status = pumpService.getCurrentPumpStatus(testDevice);
 
@@ -66,8 +67,7 @@ class PumpServiceTest {
 
   @Test
   void getLatestData_WithData_ReturnsData() {
-    when(waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(testDevice))
-        .thenReturn(Optional.of(testData));
+    when(timeSeriesStore.findLatest(1L)).thenReturn(Optional.of(testData));
 
     Optional<WaterLevelData> result = pumpService.getLatestData(testDevice);
 
@@ -77,11 +77,27 @@ class PumpServiceTest {
 
   @Test
   void getLatestData_NoData_ReturnsEmpty() {
-    when(waterLevelDataRepository.findFirstByDeviceOrderByTimestampDesc(testDevice))
-        .thenReturn(Optional.empty());
+    when(timeSeriesStore.findLatest(1L)).thenReturn(Optional.empty());
 
     Optional<WaterLevelData> result = pumpService.getLatestData(testDevice);
 
     assertFalse(result.isPresent());
   }
+
+  @Test
+  void getLatestData_CachedReading_SkipsDatabase() {
+    LocalDateTime timestamp = LocalDateTime.of(2025, 12, 25, 10, 0, 0);
+    when(latestReadingService.findByDeviceId(1L))
+        .thenReturn(
+            Optional.of(
+                new LatestReadingResponse(
+                    1L, 1L, 7L, BigDecimal.valueOf(42.0), PumpStatus.OFF, timestamp)));
+
+    Optional<WaterLevelData> result = pumpService.getLatestData(testDevice);
+
+    assertTrue(result.isPresent());
+    assertEquals(PumpStatus.OFF, result.get().getPumpStatus());
+    assertEquals(timestamp, result.get().getTimestamp());
+    verify(timeSeriesStore, never()).findLatest(any());
+  }
 }
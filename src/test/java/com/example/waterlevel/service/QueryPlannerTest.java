@@ -0,0 +1,123 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.QueryPlan;
+import com.example.waterlevel.dto.QueryPlanSegment;
+import com.example.waterlevel.dto.StorageTier;
+import com.example.waterlevel.service.impl.QueryPlannerImpl;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPlannerTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DailySummaryService dailySummaryService;
+
+  @InjectMocks private QueryPlannerImpl queryPlanner;
+
+  @Test
+  void plan_DailyResolution_UsesSummariesThenRollupsThenRaw() {
+    LocalDate summarizedUntil = DAY.plusDays(2).toLocalDate();
+    LocalDateTime sealedUntil = DAY.plusDays(2).plusHours(10);
+    when(dailySummaryService.isSummarized(eq(1L), any()))
+        .thenAnswer(invocation -> invocation.<LocalDate>getArgument(1).isBefore(summarizedUntil));
+    when(hourlyRollupService.isSealed(eq(1L), any()))
+        .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).isBefore(sealedUntil));
+
+    QueryPlan plan = queryPlanner.plan(1L, DAY, DAY.plusDays(3), Duration.ofDays(1));
+
+    assertSegments(
+        plan,
+        new QueryPlanSegment(StorageTier.DAY, DAY, DAY.plusDays(2)),
+        new QueryPlanSegment(StorageTier.HOUR, DAY.plusDays(2), sealedUntil),
+        new QueryPlanSegment(StorageTier.RAW, sealedUntil, DAY.plusDays(3)));
+  }
+
+  @Test
+  void plan_SummarizedDayWithDirtyHour_FallsBackToHours() {
+    LocalDateTime dirtyHour = DAY.plusHours(5);
+    when(dailySummaryService.isSummarized(eq(1L), any())).thenReturn(true);
+    when(hourlyRollupService.isSealed(eq(1L), any()))
+        .thenAnswer(invocation -> !invocation.getArgument(1).equals(dirtyHour));
+
+    QueryPlan plan = queryPlanner.plan(1L, DAY, DAY.plusDays(1), Duration.ofDays(1));
+
+    assertSegments(
+        plan,
+        new QueryPlanSegment(StorageTier.HOUR, DAY, dirtyHour),
+        new QueryPlanSegment(StorageTier.RAW, dirtyHour, dirtyHour.plusHours(1)),
+        new QueryPlanSegment(StorageTier.HOUR, dirtyHour.plusHours(1), DAY.plusDays(1)));
+  }
+
+  @Test
+  void plan_DayWithLateReadingRolledUp_UsesHoursUntilSummaryIsRecomputed() {
+    LocalDate dirtyDay = DAY.toLocalDate();
+    when(dailySummaryService.isSummarized(eq(1L), any()))
+        .thenAnswer(invocation -> !invocation.getArgument(1).equals(dirtyDay));
+    when(hourlyRollupService.isSealed(eq(1L), any())).thenReturn(true);
+
+    QueryPlan plan = queryPlanner.plan(1L, DAY, DAY.plusDays(2), Duration.ofDays(1));
+
+    assertSegments(
+        plan,
+        new QueryPlanSegment(StorageTier.HOUR, DAY, DAY.plusDays(1)),
+        new QueryPlanSegment(StorageTier.DAY, DAY.plusDays(1), DAY.plusDays(2)));
+  }
+
+  @Test
+  void plan_HourlyResolution_ScansPartialLastHourRaw() {
+    when(hourlyRollupService.isSealed(eq(1L), any())).thenReturn(true);
+
+    QueryPlan plan =
+        queryPlanner.plan(1L, DAY, DAY.plusHours(3).plusMinutes(30), Duration.ofHours(1));
+
+    assertSegments(
+        plan,
+        new QueryPlanSegment(StorageTier.HOUR, DAY, DAY.plusHours(3)),
+        new QueryPlanSegment(StorageTier.RAW, DAY.plusHours(3), DAY.plusHours(3).plusMinutes(30)));
+    verifyNoInteractions(dailySummaryService);
+  }
+
+  @Test
+  void plan_ResolutionNotAlignedToRollups_ReadsRawOnly() {
+    QueryPlan plan = queryPlanner.plan(1L, DAY, DAY.plusDays(1), Duration.ofMinutes(5));
+
+    assertSegments(plan, new QueryPlanSegment(StorageTier.RAW, DAY, DAY.plusDays(1)));
+    verifyNoInteractions(hourlyRollupService, dailySummaryService);
+  }
+
+  @Test
+  void plan_RangeNotStartingOnHour_ReadsRawOnly() {
+    QueryPlan plan =
+        queryPlanner.plan(1L, DAY.plusMinutes(30), DAY.plusDays(1), Duration.ofHours(1));
+
+    assertSegments(
+        plan, new QueryPlanSegment(StorageTier.RAW, DAY.plusMinutes(30), DAY.plusDays(1)));
+    assertEquals("RAW 2025-12-01T00:30/2025-12-02T00:00", plan.toHeaderValue());
+  }
+
+  private static void assertSegments(final QueryPlan plan, final QueryPlanSegment... expected) {
+    List<QueryPlanSegment> segments = plan.getSegments();
+    assertEquals(expected.length, segments.size(), plan.toHeaderValue());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i].getTier(), segments.get(i).getTier());
+      assertEquals(expected[i].getFrom(), segments.get(i).getFrom());
+      assertEquals(expected[i].getTo(), segments.get(i).getTo());
+    }
+  }
+}
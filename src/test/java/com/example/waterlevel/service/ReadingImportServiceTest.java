@@ -0,0 +1,229 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.ImportRejection;
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.ReadingImportResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.entity.User;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.ReadingImportServiceImpl;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ReadingImportServiceTest {
+
+  private static final String KEY_A = "11111111-1111-1111-1111-111111111111";
+  private static final String KEY_B = "22222222-2222-2222-2222-222222222222";
+  private static final String KEY_OTHER_ADMIN = "33333333-3333-3333-3333-333333333333";
+  private static final LocalDateTime START = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DailySummaryService dailySummaryService;
+  @Mock private ResourceVersionService resourceVersionService;
+  @Mock private LatestReadingService latestReadingService;
+  @Mock private GroupMetricsService groupMetricsService;
+  @Mock private PumpRunService pumpRunService;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  @TempDir Path directory;
+
+  private ReadingImportServiceImpl readingImportService;
+  private final List<WaterLevelDataResponse> loaded = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    // Chunks of 128 bytes hold a few lines each, so every test file spans several chunks
+    readingImportService =
+        new ReadingImportServiceImpl(
+            deviceRepository,
+            timeSeriesStore,
+            hourlyRollupService,
+            dailySummaryService,
+            resourceVersionService,
+            latestReadingService,
+            groupMetricsService,
+            pumpRunService,
+            transactionTemplate,
+            2,
+            128);
+    readingImportService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    readingImportService.shutdown();
+  }
+
+  @Test
+  void importCsv_LoadsReadingsInFileOrderPerDevice() throws IOException {
+    stubStore();
+    stubDevice(KEY_A, 1L, 1L);
+    stubDevice(KEY_B, 2L, 1L);
+    StringBuilder csv = new StringBuilder("device_key,timestamp,water_level,pump_status\n");
+    for (int i = 0; i < 40; i++) {
+      csv.append(line(i % 2 == 0 ? KEY_A : KEY_B, START.plusMinutes(i), "12.5", "ON"));
+    }
+
+    ReadingImportResponse response = readingImportService.importCsv(write(csv), 1L);
+
+    assertEquals(40, response.getImportedReadings());
+    assertEquals(0, response.getRejectedLines());
+    assertEquals(40, loaded.size());
+    for (int i = 0; i < loaded.size(); i++) {
+      assertEquals(i % 2 == 0 ? 1L : 2L, loaded.get(i).getDeviceId());
+      assertEquals(START.plusMinutes(i), loaded.get(i).getTimestamp());
+      assertEquals(new BigDecimal("12.50"), loaded.get(i).getWaterLevel());
+    }
+    verify(deviceRepository, times(1)).findByDeviceKey(UUID.fromString(KEY_A));
+    verify(deviceRepository, times(1)).findByDeviceKey(UUID.fromString(KEY_B));
+    verify(hourlyRollupService).recordReading(1L, START);
+    verify(resourceVersionService, atLeastOnce()).evictDevice(1L);
+    verify(resourceVersionService, atLeastOnce()).evictDevice(2L);
+  }
+
+  @Test
+  void importCsv_LoadFailsAfterFirstChunk_EvictsVersionsOfCommittedChunk() throws IOException {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(timeSeriesStore.bulkLoad(anyList()))
+        .thenReturn(1L)
+        .thenThrow(new IllegalStateException("Disk full"));
+    stubDevice(KEY_A, 1L, 1L);
+    stubDevice(KEY_B, 2L, 1L);
+    StringBuilder csv = new StringBuilder(line(KEY_A, START, "10.0", "ON"));
+    while (csv.length() <= 128) {
+      csv.append(line(KEY_B, START, "10.0", "ON"));
+    }
+
+    assertThrows(IllegalStateException.class, () -> readingImportService.importCsv(write(csv), 1L));
+
+    verify(resourceVersionService).evictDevice(1L);
+  }
+
+  @Test
+  void importCsv_InvalidLinesAndForeignDevices_AreRejectedWithLineNumbers() throws IOException {
+    stubStore();
+    stubDevice(KEY_A, 1L, 1L);
+    stubDevice(KEY_OTHER_ADMIN, 3L, 2L);
+    StringBuilder csv = new StringBuilder();
+    csv.append(line(KEY_A, START, "10.0", "OFF"));
+    csv.append(KEY_A).append(",not-a-time,10.0,ON\n");
+    csv.append(line(KEY_A, START.plusMinutes(1), "1000", "ON"));
+    csv.append(line(KEY_A, START.plusMinutes(2), "10.0", "SPINNING"));
+    csv.append(KEY_A).append(",10.0\n");
+    csv.append(line(KEY_OTHER_ADMIN, START, "10.0", "ON"));
+    csv.append(line("unknown", START, "10.0", "ON"));
+    csv.append(line(KEY_A, START.plusMinutes(3), "11.0", "ON"));
+
+    ReadingImportResponse response = readingImportService.importCsv(write(csv), 1L);
+
+    assertEquals(2, response.getImportedReadings());
+    assertEquals(6, response.getRejectedLines());
+    List<Long> lines = response.getRejections().stream().map(ImportRejection::getLine).toList();
+    assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L), lines);
+    assertEquals("Water level out of valid range", response.getRejections().get(1).getReason());
+    assertEquals("Unknown device key", response.getRejections().get(4).getReason());
+    assertEquals("Invalid device key format", response.getRejections().get(5).getReason());
+  }
+
+  @Test
+  void importCsv_StoredReadings_GoThroughIngestionHooks() throws IOException {
+    stubStore();
+    Device device = stubDevice(KEY_A, 1L, 1L);
+    StringBuilder csv = new StringBuilder();
+    csv.append(line(KEY_A, START, "10.0", "ON"));
+    csv.append(line(KEY_A, START.plusDays(1), "11.0", "OFF"));
+
+    readingImportService.importCsv(write(csv), 1L);
+
+    ArgumentCaptor<LatestReadingResponse> latest =
+        ArgumentCaptor.forClass(LatestReadingResponse.class);
+    verify(latestReadingService, times(2)).record(latest.capture());
+    assertEquals(START.plusDays(1), latest.getValue().getTimestamp());
+    assertEquals(1L, latest.getValue().getAdminId());
+    verify(groupMetricsService, times(2)).recordReading(any());
+    verify(pumpRunService).recordStatus(device, PumpStatus.OFF, START.plusDays(1));
+    verify(hourlyRollupService).recordReading(1L, START.plusDays(1));
+    verify(dailySummaryService).recordReading(1L, START);
+    verify(dailySummaryService).recordReading(1L, START.plusDays(1));
+    verify(dailySummaryService, never()).summarizeDay(any());
+  }
+
+  @Test
+  void importCsv_LineLongerThanChunk_ThrowsException() throws IOException {
+    Path file = write(new StringBuilder("x".repeat(300)).append('\n'));
+
+    assertThrows(IllegalArgumentException.class, () -> readingImportService.importCsv(file, 1L));
+    verify(timeSeriesStore, never()).bulkLoad(anyList());
+  }
+
+  private void stubStore() {
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    when(timeSeriesStore.bulkLoad(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<WaterLevelDataResponse> readings = invocation.getArgument(0);
+              loaded.addAll(readings);
+              return (long) readings.size();
+            });
+  }
+
+  private Device stubDevice(final String deviceKey, final Long deviceId, final Long adminId) {
+    User admin = new User();
+    admin.setId(adminId);
+    Device device = new Device();
+    device.setId(deviceId);
+    device.setDeviceKey(UUID.fromString(deviceKey));
+    device.setAdmin(admin);
+    when(deviceRepository.findByDeviceKey(device.getDeviceKey())).thenReturn(Optional.of(device));
+    return device;
+  }
+
+  private static String line(
+      final String deviceKey,
+      final LocalDateTime timestamp,
+      final String waterLevel,
+      final String pumpStatus) {
+    return deviceKey + "," + timestamp + "," + waterLevel + "," + pumpStatus + "\n";
+  }
+
+  private Path write(final CharSequence csv) throws IOException {
+    return Files.writeString(directory.resolve("import.csv"), csv);
+  }
+}
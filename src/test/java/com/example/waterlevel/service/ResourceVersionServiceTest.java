@@ -0,0 +1,68 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.entity.Device;
+import com.example.waterlevel.service.impl.ResourceVersionServiceImpl;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResourceVersionServiceTest {
+
+  private ResourceVersionService resourceVersionService;
+
+  @BeforeEach
+  void setUp() {
+    resourceVersionService = new ResourceVersionServiceImpl();
+  }
+
+  @Test
+  void recordLatestReading_OlderReading_KeepsNewestVersion() {
+    resourceVersionService.recordLatestReading(1L, 20L);
+    resourceVersionService.recordLatestReading(1L, 10L);
+
+    ResourceVersion version = resourceVersionService.findHistoryVersion(1L).orElseThrow();
+
+    assertEquals("1-h20", version.getEtag());
+  }
+
+  @Test
+  void recordDevice_StaleRead_DoesNotOverrideNewerVersion() {
+    LocalDateTime updatedAt = LocalDateTime.of(2025, 12, 25, 10, 0, 0);
+    resourceVersionService.recordDevice(device(1L, updatedAt));
+    resourceVersionService.recordDevice(device(1L, updatedAt.minusMinutes(5)));
+
+    ResourceVersion version = resourceVersionService.findDeviceVersion(1L).orElseThrow();
+    ResourceVersion expected = resourceVersionService.recordDevice(device(1L, updatedAt)).get();
+
+    assertEquals(expected.getEtag(), version.getEtag());
+    assertEquals(expected.getLastModified(), version.getLastModified());
+  }
+
+  @Test
+  void recordDevice_WithoutTimestamp_RecordsNothing() {
+    assertTrue(resourceVersionService.recordDevice(device(1L, null)).isEmpty());
+    assertTrue(resourceVersionService.findDeviceVersion(1L).isEmpty());
+  }
+
+  @Test
+  void evictDevice_RemovesDeviceAndHistoryVersions() {
+    resourceVersionService.recordDevice(device(1L, LocalDateTime.now()));
+    resourceVersionService.recordLatestReading(1L, 5L);
+
+    resourceVersionService.evictDevice(1L);
+
+    assertTrue(resourceVersionService.findDeviceVersion(1L).isEmpty());
+    assertTrue(resourceVersionService.findHistoryVersion(1L).isEmpty());
+  }
+
+  private static Device device(final Long id, final LocalDateTime updatedAt) {
+    Device device = new Device();
+    device.setId(id);
+    device.setUpdatedAt(updatedAt);
+    return device;
+  }
+}
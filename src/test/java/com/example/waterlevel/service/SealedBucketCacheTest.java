@@ -0,0 +1,42 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.example.waterlevel.dto.LevelBucketResponse;
+import com.example.waterlevel.service.impl.SealedBucketCacheImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class SealedBucketCacheTest {
+
+  private static final LocalDateTime HOUR = LocalDateTime.of(2025, 12, 1, 10, 0, 0);
+  private static final Duration RESOLUTION = Duration.ofHours(1);
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SealedBucketCacheImpl sealedBucketCache =
+      new SealedBucketCacheImpl(100, meterRegistry);
+
+  @Test
+  void get_SameRevisionAndResolution_ReturnsStoredBucket() {
+    LevelBucketResponse bucket = new LevelBucketResponse(HOUR, 2, 40.0, 60.0, 50.0);
+    sealedBucketCache.put(1L, 3, RESOLUTION, bucket);
+
+    assertSame(bucket, sealedBucketCache.get(1L, 3, RESOLUTION, HOUR));
+    assertNull(sealedBucketCache.get(1L, 4, RESOLUTION, HOUR));
+    assertNull(sealedBucketCache.get(1L, 3, Duration.ofMinutes(30), HOUR));
+    assertNull(sealedBucketCache.get(2L, 3, RESOLUTION, HOUR));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", "water-level-buckets")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+}
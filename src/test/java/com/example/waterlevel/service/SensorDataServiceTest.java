@@ -11,17 +11,19 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.waterlevel.dto.LatestReadingResponse;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
 import com.example.waterlevel.entity.Device;
 import com.example.waterlevel.entity.PumpStatus;
 import com.example.waterlevel.entity.User;
-import com.example.waterlevel.entity.WaterLevelData;
 import com.example.waterlevel.repository.DeviceRepository;
-import com.example.waterlevel.repository.WaterLevelDataRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
 import com.example.waterlevel.service.impl.SensorDataServiceImpl;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,9 +37,17 @@ import org.springframework.messaging.MessageHeaders;
 @ExtendWith(MockitoExtension.class)
 class SensorDataServiceTest {
 
+  private static final UUID DEVICE_KEY = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
   @Mock private DeviceRepository deviceRepository;
-  @Mock private WaterLevelDataRepository waterLevelDataRepository;
+  @Mock private TimeSeriesStore timeSeriesStore;
   @Mock private WebSocketService webSocketService;
+  @Mock private ResourceVersionService resourceVersionService;
+  @Mock private LatestReadingService latestReadingService;
+  @Mock private PumpRunService pumpRunService;
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DailySummaryService dailySummaryService;
+  @Mock private GroupMetricsService groupMetricsService;
   @Mock private ObjectMapper objectMapper;
   @Mock private Message<byte[]> message;
   @Mock private MessageHeaders messageHeaders;
@@ -60,7 +70,7 @@ class SensorDataServiceTest {
     device = new Device();
     device.setId(1L);
     device.setName("Test Device");
-    device.setDeviceKey("123e4567-e89b-12d3-a456-426614174000");
+    device.setDeviceKey(DEVICE_KEY);
     device.setAdmin(admin);
   }
 
@@ -90,21 +100,31 @@ class SensorDataServiceTest {
     when(pumpStatusNode.asText()).thenReturn("ON");
     when(jsonNode.has("timestamp")).thenReturn(false);
 
-    when(deviceRepository.findByDeviceKey("123e4567-e89b-12d3-a456-426614174000"))
+    when(deviceRepository.findByDeviceKey(DEVICE_KEY))
         .thenReturn(Optional.of(device));
-    when(waterLevelDataRepository.save(any(WaterLevelData.class)))
+    when(timeSeriesStore.append(any(WaterLevelDataResponse.class)))
         .thenAnswer(invocation -> invocation.getArgument(0));
 
     sensorDataService.processSensorData(message);
 
-    verify(deviceRepository).findByDeviceKey("123e4567-e89b-12d3-a456-426614174000");
-    ArgumentCaptor<WaterLevelData> dataCaptor = ArgumentCaptor.forClass(WaterLevelData.class);
-    verify(waterLevelDataRepository).save(dataCaptor.capture());
-    WaterLevelData savedData = dataCaptor.getValue();
-    assertEquals(device, savedData.getDevice());
+    verify(deviceRepository).findByDeviceKey(DEVICE_KEY);
+    ArgumentCaptor<WaterLevelDataResponse> dataCaptor =
+        ArgumentCaptor.forClass(WaterLevelDataResponse.class);
+    verify(timeSeriesStore).append(dataCaptor.capture());
+    WaterLevelDataResponse savedData = dataCaptor.getValue();
+    assertEquals(1L, savedData.getDeviceId());
     assertEquals(BigDecimal.valueOf(50.5), savedData.getWaterLevel());
     assertEquals(PumpStatus.ON, savedData.getPumpStatus());
     verify(webSocketService).sendSensorUpdate(eq(1L), eq(50.5), eq(PumpStatus.ON), anyString());
+    ArgumentCaptor<LatestReadingResponse> latestCaptor =
+        ArgumentCaptor.forClass(LatestReadingResponse.class);
+    verify(latestReadingService).record(latestCaptor.capture());
+    assertEquals(1L, latestCaptor.getValue().getAdminId());
+    assertEquals(PumpStatus.ON, latestCaptor.getValue().getPumpStatus());
+    verify(groupMetricsService).recordReading(latestCaptor.getValue());
+    verify(pumpRunService).recordStatus(eq(device), eq(PumpStatus.ON), any());
+    verify(hourlyRollupService).recordReading(eq(1L), any());
+    verify(dailySummaryService).recordReading(eq(1L), any());
   }
 
   @Test
@@ -129,8 +149,8 @@ class SensorDataServiceTest {
 
     sensorDataService.processSensorData(message);
 
-    verify(deviceRepository, never()).findByDeviceKey(anyString());
-    verify(waterLevelDataRepository, never()).save(any());
+    verify(deviceRepository, never()).findByDeviceKey(any());
+    verify(timeSeriesStore, never()).append(any());
     verify(webSocketService, never()).sendSensorUpdate(anyLong(), anyDouble(), any(), anyString());
   }
 
@@ -160,13 +180,13 @@ class SensorDataServiceTest {
     when(pumpStatusNode.asText()).thenReturn("ON");
     when(jsonNode.has("timestamp")).thenReturn(false);
 
-    when(deviceRepository.findByDeviceKey("123e4567-e89b-12d3-a456-426614174000"))
+    when(deviceRepository.findByDeviceKey(DEVICE_KEY))
         .thenReturn(Optional.empty());
 
     sensorDataService.processSensorData(message);
 
-    verify(deviceRepository).findByDeviceKey("123e4567-e89b-12d3-a456-426614174000");
-    verify(waterLevelDataRepository, never()).save(any());
+    verify(deviceRepository).findByDeviceKey(DEVICE_KEY);
+    verify(timeSeriesStore, never()).append(any());
     verify(webSocketService, never()).sendSensorUpdate(anyLong(), anyDouble(), any(), anyString());
   }
 
@@ -197,8 +217,8 @@ class SensorDataServiceTest {
 
     sensorDataService.processSensorData(message);
 
-    verify(deviceRepository, never()).findByDeviceKey(anyString());
-    verify(waterLevelDataRepository, never()).save(any());
+    verify(deviceRepository, never()).findByDeviceKey(any());
+    verify(timeSeriesStore, never()).append(any());
     verify(webSocketService, never()).sendSensorUpdate(anyLong(), anyDouble(), any(), anyString());
   }
 }
@@ -0,0 +1,273 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.AggregatedSeriesResponse;
+import com.example.waterlevel.dto.DailySummaryResponse;
+import com.example.waterlevel.dto.LevelBucketResponse;
+import com.example.waterlevel.dto.QueryPlan;
+import com.example.waterlevel.dto.QueryPlanSegment;
+import com.example.waterlevel.dto.ResourceVersion;
+import com.example.waterlevel.dto.StorageTier;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DailySummaryRepository;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.SealedBucketCacheImpl;
+import com.example.waterlevel.service.impl.WaterLevelDataServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class WaterLevelDataServiceTest {
+
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private DeviceRepository deviceRepository;
+  @Mock private ResourceVersionService resourceVersionService;
+  @Mock private HourlyRollupRepository hourlyRollupRepository;
+  @Mock private DailySummaryRepository dailySummaryRepository;
+  @Mock private QueryPlanner queryPlanner;
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DailySummaryService dailySummaryService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private WaterLevelDataServiceImpl waterLevelDataService;
+
+  @BeforeEach
+  void setUp() {
+    waterLevelDataService =
+        new WaterLevelDataServiceImpl(
+            timeSeriesStore,
+            deviceRepository,
+            resourceVersionService,
+            hourlyRollupRepository,
+            dailySummaryRepository,
+            queryPlanner,
+            hourlyRollupService,
+            dailySummaryService,
+            new SealedBucketCacheImpl(1000, meterRegistry),
+            meterRegistry,
+            transactionManager);
+  }
+
+  @Test
+  void getHistoryVersion_CachedVersion_DoesNotOpenTransaction() {
+    ResourceVersion cached = new ResourceVersion("\"1-42\"", -1);
+    when(resourceVersionService.findHistoryVersion(1L)).thenReturn(Optional.of(cached));
+
+    assertEquals(cached, waterLevelDataService.getHistoryVersion(1L));
+
+    verify(transactionManager, never()).getTransaction(any());
+    verify(timeSeriesStore, never()).findLatestId(any());
+  }
+
+  @Test
+  void getHistoryVersion_CacheMiss_RecordsLatestReadingId() {
+    ResourceVersion recorded = new ResourceVersion("\"1-42\"", -1);
+    when(resourceVersionService.findHistoryVersion(1L)).thenReturn(Optional.empty());
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.findLatestId(1L)).thenReturn(Optional.of(42L));
+    when(resourceVersionService.recordLatestReading(1L, 42L)).thenReturn(recorded);
+
+    assertEquals(recorded, waterLevelDataService.getHistoryVersion(1L));
+
+    verify(transactionManager).getTransaction(any());
+  }
+
+  @Test
+  void getAggregatedData_MergesTiersIntoBuckets() {
+    LocalDateTime secondDay = DAY.plusDays(1);
+    LocalDateTime rawFrom = secondDay.plusHours(2);
+    LocalDateTime to = DAY.plusDays(2);
+    Duration resolution = Duration.ofDays(1);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(queryPlanner.plan(1L, DAY, to, resolution))
+        .thenReturn(
+            new QueryPlan(
+                List.of(
+                    new QueryPlanSegment(StorageTier.DAY, DAY, secondDay),
+                    new QueryPlanSegment(StorageTier.HOUR, secondDay, rawFrom),
+                    new QueryPlanSegment(StorageTier.RAW, rawFrom, to))));
+    when(dailySummaryRepository.findByDeviceIdAndDateRange(
+            1L, DAY.toLocalDate(), DAY.toLocalDate()))
+        .thenReturn(
+            List.of(new DailySummaryResponse(DAY.toLocalDate(), 10, 20.0, 60.0, 40.0, 0, 0, 0.0)));
+    when(hourlyRollupRepository.findByDeviceIdAndBucketRange(1L, secondDay, rawFrom))
+        .thenReturn(
+            List.of(
+                rollup(secondDay, 2, 30.0, 50.0, 80.0),
+                rollup(secondDay.plusHours(1), 1, 10.0, 10.0, 10.0)));
+    when(timeSeriesStore.scan(1L, rawFrom, to))
+        .thenReturn(Stream.of(reading(rawFrom.plusMinutes(5), 70.0)));
+
+    AggregatedSeriesResponse response =
+        waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+
+    List<LevelBucketResponse> buckets = response.getBuckets();
+    assertEquals(2, buckets.size());
+    assertEquals(DAY, buckets.get(0).getBucketStart());
+    assertEquals(10, buckets.get(0).getCount());
+    assertEquals(40.0, buckets.get(0).getAvg(), 1e-9);
+    LevelBucketResponse merged = buckets.get(1);
+    assertEquals(secondDay, merged.getBucketStart());
+    assertEquals(4, merged.getCount());
+    assertEquals(10.0, merged.getMin());
+    assertEquals(70.0, merged.getMax());
+    assertEquals(40.0, merged.getAvg(), 1e-9);
+    assertEquals(3, response.getPlan().getSegments().size());
+    assertEquals(
+        2.0, meterRegistry.counter("water.level.query.source.rows", "tier", "HOUR").count());
+    assertEquals(1.0, meterRegistry.counter("water.level.query.segments", "tier", "RAW").count());
+  }
+
+  @Test
+  void getAggregatedData_SealedBuckets_AreServedFromCacheUntilRevisionChanges() {
+    LocalDateTime sealedUntil = DAY.plusHours(2);
+    LocalDateTime to = DAY.plusHours(3);
+    Duration resolution = Duration.ofHours(1);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(hourlyRollupService.isSealed(eq(1L), any()))
+        .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).isBefore(sealedUntil));
+    when(hourlyRollupService.getRevision(1L)).thenReturn(3L, 3L, 4L);
+    when(queryPlanner.plan(1L, DAY, to, resolution))
+        .thenReturn(
+            new QueryPlan(
+                List.of(
+                    new QueryPlanSegment(StorageTier.HOUR, DAY, sealedUntil),
+                    new QueryPlanSegment(StorageTier.RAW, sealedUntil, to))));
+    when(queryPlanner.plan(1L, sealedUntil, to, resolution))
+        .thenReturn(
+            new QueryPlan(List.of(new QueryPlanSegment(StorageTier.RAW, sealedUntil, to))));
+    // The second hour has no readings; its empty bucket is cached as well
+    when(hourlyRollupRepository.findByDeviceIdAndBucketRange(1L, DAY, sealedUntil))
+        .thenReturn(List.of(rollup(DAY, 2, 30.0, 50.0, 80.0)));
+    when(timeSeriesStore.scan(1L, sealedUntil, to))
+        .thenAnswer(invocation -> Stream.of(reading(sealedUntil.plusMinutes(5), 70.0)));
+
+    AggregatedSeriesResponse first =
+        waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+    AggregatedSeriesResponse second =
+        waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+
+    assertEquals(2, second.getBuckets().size());
+    assertEquals(DAY, second.getBuckets().get(0).getBucketStart());
+    assertEquals(2, second.getBuckets().get(0).getCount());
+    assertEquals(40.0, second.getBuckets().get(0).getAvg());
+    assertEquals(first.getBuckets().get(1).getAvg(), second.getBuckets().get(1).getAvg());
+    List<QueryPlanSegment> segments = second.getPlan().getSegments();
+    assertEquals(2, segments.size());
+    assertEquals(StorageTier.CACHE, segments.get(0).getTier());
+    assertEquals(sealedUntil, segments.get(0).getTo());
+    assertEquals(
+        2.0, meterRegistry.counter("water.level.query.source.rows", "tier", "CACHE").count());
+
+    // A late reading moved the device to a new revision
+    waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+
+    verify(hourlyRollupRepository, times(2)).findByDeviceIdAndBucketRange(1L, DAY, sealedUntil);
+  }
+
+  @Test
+  void getAggregatedData_DailySummaryRecomputed_DoesNotServeCachedDay() {
+    LocalDateTime to = DAY.plusDays(1);
+    Duration resolution = Duration.ofDays(1);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(hourlyRollupService.isSealed(eq(1L), any())).thenReturn(true);
+    when(dailySummaryService.getRevision(1L)).thenReturn(0L, 0L, 1L);
+    when(queryPlanner.plan(1L, DAY, to, resolution))
+        .thenReturn(new QueryPlan(List.of(new QueryPlanSegment(StorageTier.DAY, DAY, to))));
+    when(dailySummaryRepository.findByDeviceIdAndDateRange(
+            1L, DAY.toLocalDate(), DAY.toLocalDate()))
+        .thenReturn(
+            List.of(new DailySummaryResponse(DAY.toLocalDate(), 10, 20.0, 60.0, 40.0, 0, 0, 0.0)));
+
+    waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+    AggregatedSeriesResponse cached =
+        waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+    // A late reading marked the day dirty and its summary was recomputed
+    waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 1000);
+
+    assertEquals(StorageTier.CACHE, cached.getPlan().getSegments().get(0).getTier());
+    verify(dailySummaryRepository, times(2))
+        .findByDeviceIdAndDateRange(1L, DAY.toLocalDate(), DAY.toLocalDate());
+  }
+
+  @Test
+  void getAggregatedData_TooManyBuckets_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            waterLevelDataService.getAggregatedData(
+                1L, DAY, DAY.plusYears(1), Duration.ofMinutes(1), 1000));
+  }
+
+  @Test
+  void getAggregatedData_TooManyRawReadings_ThrowsException() {
+    LocalDateTime to = DAY.plusHours(1);
+    Duration resolution = Duration.ofMinutes(30);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(queryPlanner.plan(1L, DAY, to, resolution))
+        .thenReturn(new QueryPlan(List.of(new QueryPlanSegment(StorageTier.RAW, DAY, to))));
+    when(timeSeriesStore.scan(1L, DAY, to))
+        .thenReturn(
+            Stream.of(
+                reading(DAY.plusMinutes(5), 70.0),
+                reading(DAY.plusMinutes(10), 71.0),
+                reading(DAY.plusMinutes(15), 72.0)));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> waterLevelDataService.getAggregatedData(1L, DAY, to, resolution, 2));
+  }
+
+  @Test
+  void getAggregatedData_ResolutionBelowOneMinute_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            waterLevelDataService.getAggregatedData(
+                1L, DAY, DAY.plusHours(1), Duration.ofSeconds(10), 1000));
+  }
+
+  private static HourlyRollup rollup(
+      final LocalDateTime hour,
+      final long count,
+      final double min,
+      final double max,
+      final double sum) {
+    return new HourlyRollup(1L, null, hour, count, min, max, sum, 0.0, 0, new byte[0]);
+  }
+
+  private static WaterLevelDataResponse reading(final LocalDateTime timestamp, final double level) {
+    return new WaterLevelDataResponse(1L, 1L, BigDecimal.valueOf(level), PumpStatus.OFF, timestamp);
+  }
+}
@@ -0,0 +1,154 @@
+package com.example.waterlevel.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.example.waterlevel.dto.HeatmapResponse;
+import com.example.waterlevel.dto.HourlyRollupSample;
+import com.example.waterlevel.dto.WaterLevelDataResponse;
+import com.example.waterlevel.dto.WaterLevelStatisticsResponse;
+import com.example.waterlevel.entity.HourlyRollup;
+import com.example.waterlevel.entity.PumpStatus;
+import com.example.waterlevel.repository.DeviceRepository;
+import com.example.waterlevel.repository.HourlyRollupRepository;
+import com.example.waterlevel.repository.TimeSeriesStore;
+import com.example.waterlevel.service.impl.WaterLevelStatisticsServiceImpl;
+import com.example.waterlevel.util.LevelStatistics;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WaterLevelStatisticsServiceTest {
+
+  private static final LocalDateTime HOUR = LocalDateTime.of(2025, 12, 1, 11, 0, 0);
+
+  @Mock private TimeSeriesStore timeSeriesStore;
+  @Mock private HourlyRollupRepository hourlyRollupRepository;
+  @Mock private HourlyRollupService hourlyRollupService;
+  @Mock private DeviceRepository deviceRepository;
+
+  @InjectMocks private WaterLevelStatisticsServiceImpl statisticsService;
+
+  @Test
+  void getStatistics_MergesSealedHoursAndScansEdges() {
+    LocalDateTime from = HOUR.minusMinutes(30);
+    LocalDateTime to = HOUR.plusHours(2).plusMinutes(15);
+    LevelStatistics sealed = new LevelStatistics();
+    sealed.add(20.0);
+    sealed.add(30.0);
+
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(hourlyRollupRepository.findByDeviceIdAndBucketRange(1L, HOUR, HOUR.plusHours(2)))
+        .thenReturn(List.of(rollup(HOUR, sealed)));
+    when(hourlyRollupService.isSealed(1L, HOUR)).thenReturn(true);
+    when(hourlyRollupService.isSealed(1L, HOUR.plusHours(1))).thenReturn(false);
+    when(timeSeriesStore.scan(1L, from, HOUR)).thenReturn(Stream.of(reading(10.0)));
+    when(timeSeriesStore.scan(1L, HOUR.plusHours(1), to))
+        .thenReturn(Stream.of(reading(40.0), reading(50.0)));
+
+    WaterLevelStatisticsResponse response = statisticsService.getStatistics(1L, from, to);
+
+    assertEquals(5, response.getCount());
+    assertEquals(10.0, response.getMin());
+    assertEquals(50.0, response.getMax());
+    assertEquals(30.0, response.getMean());
+    assertEquals(Math.sqrt(200), response.getStddev(), 1e-9);
+    assertEquals(30.0, response.getP50());
+    assertEquals(1, response.getRollupHours());
+    assertEquals(3, response.getScannedRows());
+  }
+
+  @Test
+  void getStatistics_NoReadings_ReturnsNullValues() {
+    LocalDateTime from = HOUR;
+    LocalDateTime to = HOUR.plusMinutes(30);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(timeSeriesStore.scan(1L, from, to)).thenReturn(Stream.empty());
+
+    WaterLevelStatisticsResponse response = statisticsService.getStatistics(1L, from, to);
+
+    assertEquals(0, response.getCount());
+    assertNull(response.getMin());
+    assertNull(response.getP95());
+  }
+
+  @Test
+  void getStatistics_InvertedRange_ThrowsException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> statisticsService.getStatistics(1L, HOUR, HOUR.minusHours(1)));
+  }
+
+  @Test
+  void getStatistics_DeviceNotFound_ThrowsException() {
+    when(deviceRepository.existsByIdAndDeletedFalse(99L)).thenReturn(false);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> statisticsService.getStatistics(99L, HOUR, HOUR.plusHours(1)));
+  }
+
+  @Test
+  void getHeatmap_SumsRollupsIntoWeekdayHourCells() {
+    ZoneId zone = ZoneId.systemDefault();
+    LocalDate monday = LocalDate.of(2025, 12, 1);
+    when(deviceRepository.existsByIdAndDeletedFalse(1L)).thenReturn(true);
+    when(hourlyRollupRepository.streamSamplesByDeviceIdAndBucketRange(
+            1L, monday.atStartOfDay(), monday.plusDays(14).atStartOfDay()))
+        .thenReturn(
+            Stream.of(
+                new HourlyRollupSample(HOUR, 4, 80.0, 1),
+                new HourlyRollupSample(HOUR.plusDays(2), 2, 10.0, 2),
+                new HourlyRollupSample(HOUR.plusDays(7), 4, 120.0, 3)));
+
+    HeatmapResponse response = statisticsService.getHeatmap(1L, monday, monday.plusDays(13), zone);
+
+    assertEquals(3, response.getRollupHours());
+    assertEquals(8, response.getReadingCounts()[0][11]);
+    assertEquals(25.0, response.getAverageLevel()[0][11]);
+    assertEquals(0.5, response.getPumpOnShare()[0][11]);
+    assertEquals(5.0, response.getAverageLevel()[2][11]);
+    assertEquals(1.0, response.getPumpOnShare()[2][11]);
+    assertNull(response.getAverageLevel()[1][11]);
+    assertEquals(zone.getId(), response.getZone());
+  }
+
+  @Test
+  void getHeatmap_RangeTooLong_ThrowsException() {
+    LocalDate to = LocalDate.of(2025, 12, 1);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> statisticsService.getHeatmap(1L, to.minusYears(4), to, null));
+  }
+
+  private static WaterLevelDataResponse reading(final double level) {
+    return new WaterLevelDataResponse(
+        1L, 1L, BigDecimal.valueOf(level), PumpStatus.OFF, HOUR.minusMinutes(1));
+  }
+
+  private static HourlyRollup rollup(final LocalDateTime hour, final LevelStatistics stats) {
+    return new HourlyRollup(
+        1L,
+        null,
+        hour,
+        stats.getCount(),
+        stats.getMin(),
+        stats.getMax(),
+        stats.getSum(),
+        stats.getSumOfSquares(),
+        0,
+        stats.getDigest().toBytes());
+  }
+}
@@ -6,7 +6,11 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
+import com.example.waterlevel.constants.MessageTypes;
 import com.example.waterlevel.constants.WebSocketDestinations;
+import com.example.waterlevel.dto.PlaybackState;
+import com.example.waterlevel.dto.websocket.PlaybackEndMessage;
+import com.example.waterlevel.dto.websocket.PlaybackUpdateMessage;
 import com.example.waterlevel.dto.websocket.SensorUpdateMessage;
 import com.example.waterlevel.dto.websocket.ThresholdUpdateMessage;
 import com.example.waterlevel.entity.PumpStatus;
@@ -62,6 +66,34 @@ class WebSocketServiceTest {
     assertEquals(maxThreshold, message.getMaxThreshold());
   }
 
+  @Test
+  void sendPlaybackUpdate_SendsMessageToSessionTopic() {
+    webSocketService.sendPlaybackUpdate(1L, "abc", 50.5, PumpStatus.ON, "2023-01-01T12:00:00");
+
+    ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate)
+        .convertAndSend(eq("/topic/device/1/playback/abc"), messageCaptor.capture());
+    PlaybackUpdateMessage message = (PlaybackUpdateMessage) messageCaptor.getValue();
+    assertEquals(MessageTypes.PLAYBACK_UPDATE, message.getType());
+    assertEquals("abc", message.getSessionId());
+    assertEquals(50.5, message.getWaterLevel());
+    assertEquals("2023-01-01T12:00:00", message.getTimestamp());
+  }
+
+  @Test
+  void sendPlaybackEnd_SendsMessageToSessionTopic() {
+    webSocketService.sendPlaybackEnd(1L, "abc", PlaybackState.COMPLETED, 3, "2023-01-01T12:00:00");
+
+    ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(messagingTemplate)
+        .convertAndSend(
+            eq(WebSocketDestinations.devicePlaybackTopic(1L, "abc")), messageCaptor.capture());
+    PlaybackEndMessage message = (PlaybackEndMessage) messageCaptor.getValue();
+    assertEquals(MessageTypes.PLAYBACK_END, message.getType());
+    assertEquals(PlaybackState.COMPLETED, message.getState());
+    assertEquals(3, message.getSentReadings());
+  }
+
   @Test
   void sendSensorUpdate_Exception_LogsError() {
     Long deviceId = 1L;
@@ -0,0 +1,56 @@
+package com.example.waterlevel.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DeviceKeysTest {
+
+  private static final String KEY = "123e4567-e89b-12d3-a456-426614174000";
+
+  @Test
+  void parse_CanonicalKey_MatchesUuidFromString() {
+    assertEquals(UUID.fromString(KEY), DeviceKeys.parse(KEY));
+  }
+
+  @Test
+  void parse_UpperCaseAndSurroundingWhitespace_AreAccepted() {
+    assertEquals(UUID.fromString(KEY), DeviceKeys.parse("  " + KEY.toUpperCase() + "\n"));
+  }
+
+  @Test
+  void parse_RandomKeys_RoundTrip() {
+    for (int i = 0; i < 1000; i++) {
+      UUID key = UUID.randomUUID();
+      assertEquals(key, DeviceKeys.parse(key.toString()));
+    }
+  }
+
+  @Test
+  void parse_Range_ReadsOnlyThatPart() {
+    String topic = "devices/" + KEY + "/sensor/data";
+
+    assertEquals(UUID.fromString(KEY), DeviceKeys.parse(topic, 8, 8 + KEY.length()));
+  }
+
+  @Test
+  void parse_NonCanonicalKeys_ThrowException() {
+    for (String invalid :
+        new String[] {
+          "",
+          "invalid-key",
+          "1-2-3-4-5",
+          KEY.substring(1),
+          KEY + "0",
+          KEY.replace('-', '_'),
+          KEY.replace('e', 'g'),
+          "123e4567e-89b-12d3-a456-426614174000"
+        }) {
+      IllegalArgumentException e =
+          assertThrows(IllegalArgumentException.class, () -> DeviceKeys.parse(invalid));
+      assertEquals("Invalid device key format", e.getMessage());
+    }
+  }
+}
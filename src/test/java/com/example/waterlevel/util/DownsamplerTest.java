@@ -0,0 +1,94 @@
+package com.example.waterlevel.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.waterlevel.dto.ChartPointResponse;
+import com.example.waterlevel.dto.DownsamplingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DownsamplerTest {
+
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 12, 1, 0, 0, 0);
+  private static final LocalDateTime TO = FROM.plusHours(1);
+  private static final int READINGS = 3600;
+  private static final int SPIKE_AT = 1234;
+
+  @Test
+  void lttb_KeepsFirstLastAndSpikeWithinPointBudget() {
+    List<ChartPointResponse> points = downsample(DownsamplingMode.LTTB, 50);
+
+    assertTrue(points.size() <= 50);
+    assertEquals(FROM, points.get(0).getTimestamp());
+    assertEquals(FROM.plusSeconds(READINGS - 1), points.get(points.size() - 1).getTimestamp());
+    assertTrue(points.stream().anyMatch(p -> p.getWaterLevel() == 95.0));
+    assertAscending(points);
+  }
+
+  @Test
+  void minMax_KeepsExtremesWithinPointBudget() {
+    List<ChartPointResponse> points = downsample(DownsamplingMode.MIN_MAX, 20);
+
+    assertTrue(points.size() <= 20);
+    assertTrue(points.stream().anyMatch(p -> p.getWaterLevel() == 95.0));
+    assertTrue(points.stream().anyMatch(p -> p.getWaterLevel() == 40.0));
+    assertAscending(points);
+  }
+
+  @Test
+  void lttb_SingleBucketLargerThanCap_StillSelectsSpike() {
+    int readings = LttbDownsampler.MAX_BUCKET_POINTS * 10;
+    Downsampler downsampler =
+        Downsampler.of(DownsamplingMode.LTTB, FROM, FROM.plusSeconds(readings), 3);
+    for (int i = 0; i < readings; i++) {
+      downsampler.accept(FROM.plusSeconds(i), i == readings / 3 ? 95.0 : 50.0 + (i % 7));
+    }
+
+    List<ChartPointResponse> points = downsampler.finish();
+
+    assertEquals(3, points.size());
+    assertEquals(FROM.plusSeconds(readings / 3), points.get(1).getTimestamp());
+    assertEquals(FROM.plusSeconds(readings - 1), points.get(2).getTimestamp());
+  }
+
+  @Test
+  void lttb_FewerReadingsThanPoints_ReturnsAllReadings() {
+    Downsampler downsampler = Downsampler.of(DownsamplingMode.LTTB, FROM, TO, 100);
+    downsampler.accept(FROM, 10.0);
+    downsampler.accept(FROM.plusMinutes(30), 20.0);
+    downsampler.accept(FROM.plusMinutes(59), 30.0);
+
+    assertEquals(3, downsampler.finish().size());
+  }
+
+  @Test
+  void emptySeries_ReturnsNoPoints() {
+    assertTrue(Downsampler.of(DownsamplingMode.LTTB, FROM, TO, 10).finish().isEmpty());
+    assertTrue(Downsampler.of(DownsamplingMode.MIN_MAX, FROM, TO, 10).finish().isEmpty());
+  }
+
+  @Test
+  void lttb_TooFewPoints_ThrowsException() {
+    assertThrows(
+        IllegalArgumentException.class, () -> Downsampler.of(DownsamplingMode.LTTB, FROM, TO, 2));
+  }
+
+  /** One reading per second oscillating between 40 and 60, with a single spike to 95. */
+  private static List<ChartPointResponse> downsample(final DownsamplingMode mode, final int max) {
+    Downsampler downsampler = Downsampler.of(mode, FROM, TO, max);
+    for (int i = 0; i < READINGS; i++) {
+      double value = i == SPIKE_AT ? 95.0 : 50.0 + 10.0 * Math.sin(i / 60.0);
+      downsampler.accept(FROM.plusSeconds(i), i == 0 ? 40.0 : value);
+    }
+    return downsampler.finish();
+  }
+
+  private static void assertAscending(final List<ChartPointResponse> points) {
+    for (int i = 1; i < points.size(); i++) {
+      assertTrue(points.get(i - 1).getTimestamp().isBefore(points.get(i).getTimestamp()));
+    }
+  }
+}
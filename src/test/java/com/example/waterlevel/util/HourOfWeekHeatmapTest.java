@@ -0,0 +1,70 @@
+package com.example.waterlevel.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class HourOfWeekHeatmapTest {
+
+  private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+  @Test
+  void add_SameZone_UsesWeekdayAndHourOfBucketStart() {
+    HourOfWeekHeatmap heatmap = new HourOfWeekHeatmap(ZoneOffset.UTC, ZoneOffset.UTC);
+
+    // Monday 1 December 2025 and Sunday 7 December 2025
+    heatmap.add(LocalDateTime.of(2025, 12, 1, 0, 0), 2, 30.0, 1);
+    heatmap.add(LocalDateTime.of(2025, 12, 7, 23, 0), 4, 40.0, 0);
+
+    assertEquals(2, heatmap.getReadingCounts()[0][0]);
+    assertEquals(15.0, heatmap.getAverageLevels()[0][0]);
+    assertEquals(0.5, heatmap.getPumpOnShares()[0][0]);
+    assertEquals(10.0, heatmap.getAverageLevels()[6][23]);
+    assertEquals(0.0, heatmap.getPumpOnShares()[6][23]);
+    assertNull(heatmap.getAverageLevels()[3][12]);
+    assertEquals(2, heatmap.getRollupHours());
+  }
+
+  @Test
+  void add_DisplayZone_ShiftsAcrossMidnightAndFollowsDaylightSaving() {
+    HourOfWeekHeatmap heatmap = new HourOfWeekHeatmap(ZoneOffset.UTC, BERLIN);
+
+    // Sunday 23:00 UTC is Monday 00:00 in Berlin in winter
+    heatmap.add(LocalDateTime.of(2025, 12, 7, 23, 0), 1, 10.0, 0);
+    // Summer time starts on Sunday 30 March 2025 at 01:00 UTC
+    heatmap.add(LocalDateTime.of(2025, 3, 30, 0, 0), 1, 20.0, 0);
+    heatmap.add(LocalDateTime.of(2025, 3, 30, 1, 0), 1, 30.0, 0);
+    heatmap.add(LocalDateTime.of(2025, 7, 1, 10, 0), 1, 40.0, 1);
+
+    assertEquals(10.0, heatmap.getAverageLevels()[0][0]);
+    assertEquals(20.0, heatmap.getAverageLevels()[6][1]);
+    assertEquals(30.0, heatmap.getAverageLevels()[6][3]);
+    // Tuesday 1 July 2025, 10:00 UTC is 12:00 in Berlin
+    assertEquals(40.0, heatmap.getAverageLevels()[1][12]);
+    assertEquals(1.0, heatmap.getPumpOnShares()[1][12]);
+  }
+
+  @Test
+  void add_StorageZone_IsConvertedBeforeBucketing() {
+    HourOfWeekHeatmap heatmap = new HourOfWeekHeatmap(BERLIN, ZoneOffset.UTC);
+
+    // Monday 00:00 in Berlin is Sunday 23:00 UTC
+    heatmap.add(LocalDateTime.of(2025, 12, 1, 0, 0), 1, 10.0, 0);
+
+    assertEquals(1, heatmap.getReadingCounts()[6][23]);
+  }
+
+  @Test
+  void add_BeforeEpoch_ComputesWeekdayWithFloorArithmetic() {
+    HourOfWeekHeatmap heatmap = new HourOfWeekHeatmap(ZoneOffset.UTC, ZoneOffset.UTC);
+
+    // Wednesday 31 December 1969
+    heatmap.add(LocalDateTime.of(1969, 12, 31, 5, 0), 1, 10.0, 0);
+
+    assertEquals(1, heatmap.getReadingCounts()[2][5]);
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.waterlevel.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TDigestTest {
+
+  private static final int VALUES = 100000;
+
+  @Test
+  void quantile_ShuffledUniformValues_WithinOnePercent() {
+    TDigest digest = new TDigest();
+    shuffledValues().forEach(digest::add);
+
+    assertEquals(0.0, digest.quantile(0), 0.0);
+    assertEquals(VALUES - 1.0, digest.quantile(1), 0.0);
+    assertEquals(VALUES * 0.05, digest.quantile(0.05), VALUES * 0.01);
+    assertEquals(VALUES * 0.5, digest.quantile(0.5), VALUES * 0.01);
+    assertEquals(VALUES * 0.95, digest.quantile(0.95), VALUES * 0.01);
+    assertEquals(VALUES, digest.count());
+  }
+
+  @Test
+  void merge_DigestsOfDisjointParts_MatchSingleDigest() {
+    TDigest whole = new TDigest();
+    List<TDigest> parts = new ArrayList<>();
+    for (int i = 0; i < 24; i++) {
+      parts.add(new TDigest());
+    }
+    List<Double> values = shuffledValues();
+    for (int i = 0; i < values.size(); i++) {
+      whole.add(values.get(i));
+      parts.get(i % parts.size()).add(values.get(i));
+    }
+
+    TDigest merged = new TDigest();
+    parts.forEach(merged::merge);
+
+    assertEquals(VALUES, merged.count());
+    for (double q : new double[] {0.05, 0.5, 0.95}) {
+      assertEquals(whole.quantile(q), merged.quantile(q), VALUES * 0.01);
+    }
+  }
+
+  @Test
+  void toBytes_RoundTrip_PreservesQuantiles() {
+    TDigest digest = new TDigest();
+    shuffledValues().forEach(digest::add);
+
+    TDigest restored = TDigest.fromBytes(digest.toBytes());
+
+    assertEquals(digest.count(), restored.count());
+    assertEquals(digest.min(), restored.min(), 0.0);
+    assertEquals(digest.max(), restored.max(), 0.0);
+    assertEquals(digest.quantile(0.5), restored.quantile(0.5), 0.0);
+  }
+
+  @Test
+  void quantile_FewValues_InterpolatesBetweenValues() {
+    TDigest digest = new TDigest();
+    digest.add(1);
+    digest.add(2);
+    digest.add(3);
+
+    assertEquals(1.0, digest.quantile(0), 0.0);
+    assertEquals(2.0, digest.quantile(0.5), 0.0);
+    assertEquals(3.0, digest.quantile(1), 0.0);
+  }
+
+  @Test
+  void quantile_EmptyDigest_ReturnsNaN() {
+    assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+  }
+
+  @Test
+  void add_NaN_ThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> new TDigest().add(Double.NaN));
+  }
+
+  private static List<Double> shuffledValues() {
+    List<Double> values = new ArrayList<>(VALUES);
+    for (int i = 0; i < VALUES; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(42));
+    return values;
+  }
+}